@@ -0,0 +1,8 @@
+// the benchmarked operations on the headless game flooded with bit planes
+public class BitsEngine extends CoreEngine {
+
+    public void reset(int size, int colors, long seed) {
+        super.reset(size, colors, seed);
+        this.game.useBits();
+    }
+}
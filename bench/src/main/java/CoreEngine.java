@@ -0,0 +1,51 @@
+import java.util.Random;
+
+import floodit.bench.FloodEngine;
+
+// the benchmarked operations on the headless game
+public class CoreEngine implements FloodEngine {
+    static final int CELL_SIZE = 20;   // Cell.CELL_SIZE
+
+    FloodItGame game;
+    IntQueue workList = new IntQueue();
+
+    public void reset(int size, int colors, long seed) {
+        this.game = new FloodItGame(size, colors, new Random(seed));
+        this.workList.clear();
+    }
+
+    // neighbors are computed from the index, there is nothing to link
+    public void updateLinks() {
+    }
+
+    public int updateFlooded(int color) {
+        return this.game.flood(color);
+    }
+
+    public int updateWorkList() {
+        this.workList.clear();
+        this.game.board.floodOrder(0, this.workList);
+        return this.workList.size();
+    }
+
+    public int hitTest(int x, int y) {
+        return this.game.board.indexAt(x, y, CELL_SIZE);
+    }
+
+    public int onMouseClicked(int x, int y) {
+        int clicked = this.hitTest(x, y);
+        if (clicked == -1) {
+            return 0;
+        }
+        this.game.play(this.game.board.color(clicked));
+        return this.updateWorkList();
+    }
+
+    public boolean allFlooded() {
+        return this.game.board.allFlooded();
+    }
+
+    public int floodColor() {
+        return this.game.board.floodColor;
+    }
+}
@@ -0,0 +1,212 @@
+import java.awt.Color;
+import java.util.ArrayList;
+import java.util.Random;
+
+import floodit.bench.FloodEngine;
+
+// the linked cell engine of the original game with the drawing taken out,
+// kept only so benchmarks can measure the headless engine against it
+
+class LegacyCell {
+    int x;
+    int y;
+    Color color;
+    boolean flooded;
+
+    LegacyCell left;
+    LegacyCell top;
+    LegacyCell right;
+    LegacyCell bottom;
+
+    LegacyCell(int x, int y, Color color) {
+        this.x = x;
+        this.y = y;
+        this.color = color;
+    }
+
+    // does this cell contain the given x and y values?
+    boolean contains(int x, int y) {
+        return x > this.x - (LegacyFloodIt.CELL_SIZE / 2) && x <= this.x + (LegacyFloodIt.CELL_SIZE / 2)
+                && y > this.y - (LegacyFloodIt.CELL_SIZE / 2) && y <= this.y + (LegacyFloodIt.CELL_SIZE / 2);
+    }
+
+    // EFFECT: updates the flooded value of this cell if
+    // this cell's color matches the given and one of its neighbors is flooded
+    void updateFlooded(Color colorClicked) {
+        if (!this.flooded
+                && ((top != null && top.flooded) || (bottom != null && bottom.flooded)
+                || (left != null && left.flooded) || (right != null && right.flooded))
+                && this.color == colorClicked) {
+            this.flooded = true;
+        }
+    }
+
+    // EFFECT: adds this cell and its neighbors to the list if they are flooded
+    void push(ArrayList<LegacyCell> list) {
+        this.addTo(list);
+        if (this.bottom != null) {
+            this.bottom.addTo(list);
+        }
+        if (this.right != null) {
+            this.right.addTo(list);
+        }
+        if (this.top != null) {
+            this.top.addTo(list);
+        }
+        if (this.left != null) {
+            this.left.addTo(list);
+        }
+    }
+
+    // EFFECT: adds this cell to the list if it is flooded and not yet there
+    void addTo(ArrayList<LegacyCell> list) {
+        if (this.flooded && !list.contains(this)) {
+            list.add(this);
+        }
+    }
+}
+
+class LegacyFloodIt {
+    static final int CELL_SIZE = 20;
+
+    int size;
+    ArrayList<LegacyCell> board;
+    ArrayList<Color> colors;
+    ArrayList<LegacyCell> workList;
+    Color colorClicked;
+
+    LegacyFloodIt(int size, ArrayList<Color> colors) {
+        this.size = size;
+        this.colors = colors;
+    }
+
+    // EFFECT: modifies the game to a new, random board given a seed
+    void reset(Random rand) {
+        this.board = new ArrayList<LegacyCell>();
+        this.workList = new ArrayList<LegacyCell>();
+        for (int i = 0; i < this.size; i++) {
+            for (int j = 0; j < this.size; j++) {
+                Color color = this.colors.get(rand.nextInt(this.colors.size()));
+                this.board.add(new LegacyCell(j * CELL_SIZE + (CELL_SIZE / 2),
+                        i * CELL_SIZE + (CELL_SIZE / 2), color));
+            }
+        }
+        this.colorClicked = this.board.get(0).color;
+        this.updateLinks();
+        this.board.get(0).flooded = true;
+        this.updateFlooded();
+        this.workList.add(this.board.get(0));
+    }
+
+    // EFFECT: modifies the left, right, top, and bottom of every cell's links
+    void updateLinks() {
+        for (int i = 0; i < this.board.size(); i++) {
+            LegacyCell cell = this.board.get(i);
+            cell.bottom = i + this.size >= this.board.size() ? null : this.board.get(i + this.size);
+            cell.top = i - this.size < 0 ? null : this.board.get(i - this.size);
+            cell.left = i % this.size == 0 ? null : this.board.get(i - 1);
+            cell.right = i % this.size == this.size - 1 ? null : this.board.get(i + 1);
+        }
+    }
+
+    // EFFECT: picks the color under the click and floods the board with it
+    void onMouseClicked(int x, int y) {
+        for (LegacyCell cell : this.board) {
+            if (cell.contains(x, y)) {
+                this.colorClicked = cell.color;
+            }
+        }
+        this.updateFlooded();
+        this.updateWorkList();
+    }
+
+    // EFFECT: modifies the workList with every flooded cell, cubic in the board
+    void updateWorkList() {
+        ArrayList<LegacyCell> copy = new ArrayList<LegacyCell>();
+        ArrayList<LegacyCell> neighbors = new ArrayList<LegacyCell>();
+        this.board.get(0).push(copy);
+        for (LegacyCell b : this.board) {
+            b.push(copy);
+            for (LegacyCell c : copy) {
+                c.push(neighbors);
+            }
+        }
+        this.workList.addAll(neighbors);
+    }
+
+    // EFFECT: one row by row pass flooding cells next to flooded ones
+    void updateFlooded() {
+        for (LegacyCell cell : this.board) {
+            cell.updateFlooded(this.colorClicked);
+            if (cell.flooded) {
+                cell.color = this.colorClicked;
+            }
+        }
+    }
+
+    // are all of the cells flooded?
+    boolean allFlooded() {
+        boolean start = true;
+        for (int i = 0; i < this.board.size(); i++) {
+            start = start && this.board.get(i).flooded;
+        }
+        return start;
+    }
+}
+
+// the benchmarked operations on the original engine
+public class LegacyEngine implements FloodEngine {
+    static final Color[] PALETTE = {Color.BLUE, Color.RED, Color.GREEN, Color.YELLOW,
+        Color.ORANGE, Color.MAGENTA, Color.CYAN, Color.PINK};
+
+    LegacyFloodIt game;
+
+    public void reset(int size, int colors, long seed) {
+        ArrayList<Color> palette = new ArrayList<Color>();
+        for (int c = 0; c < colors; c++) {
+            palette.add(PALETTE[c]);
+        }
+        this.game = new LegacyFloodIt(size, palette);
+        this.game.reset(new Random(seed));
+    }
+
+    public void updateLinks() {
+        this.game.updateLinks();
+    }
+
+    public int updateFlooded(int color) {
+        this.game.colorClicked = this.game.colors.get(color);
+        this.game.updateFlooded();
+        return 0;
+    }
+
+    // the original appends to the work list forever, start each call empty
+    public int updateWorkList() {
+        this.game.workList.clear();
+        this.game.updateWorkList();
+        return this.game.workList.size();
+    }
+
+    public int hitTest(int x, int y) {
+        for (int i = 0; i < this.game.board.size(); i++) {
+            if (this.game.board.get(i).contains(x, y)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public int onMouseClicked(int x, int y) {
+        this.game.workList.clear();
+        this.game.onMouseClicked(x, y);
+        return this.game.workList.size();
+    }
+
+    public boolean allFlooded() {
+        return this.game.allFlooded();
+    }
+
+    public int floodColor() {
+        return this.game.colors.indexOf(this.game.colorClicked);
+    }
+}
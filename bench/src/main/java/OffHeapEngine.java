@@ -0,0 +1,14 @@
+import java.util.Random;
+
+// the benchmarked operations on the headless game with its board off the heap
+public class OffHeapEngine extends CoreEngine {
+    OffHeapBoard board;     // dealt into again by every reset of the same size
+
+    public void reset(int size, int colors, long seed) {
+        if (this.board == null || this.board.size != size) {
+            this.board = OffHeapBoard.allocate(size);
+        }
+        this.game = new FloodItGame(this.board, colors, new Random(seed));
+        this.workList.clear();
+    }
+}
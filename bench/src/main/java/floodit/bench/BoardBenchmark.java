@@ -0,0 +1,72 @@
+package floodit.bench;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Passes that leave the board as it is, timed on a game a few moves in: queueing
+ * the flood animation, hit-testing clicks and checking for a win.
+ *
+ * <p>Runs the headless engine by default; {@code -p engine=legacy -p size=22,44}
+ * runs the same benchmarks on the original linked cell engine.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardBenchmark {
+    @Param({"core"})
+    String engine;
+
+    @Param({"22", "128", "512", "2048"})
+    int size;
+
+    @Param({"4", "6", "8"})
+    int colors;
+
+    FloodEngine game;
+    int[] clickX;
+    int[] clickY;
+    int click;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        this.game = FloodEngine.load(this.engine);
+        this.game.reset(this.size, this.colors, 42);
+        for (int move = 0; move < this.size / 2; move++) {
+            this.game.updateFlooded(move % this.colors);
+        }
+        Random rand = new Random(7);
+        this.clickX = new int[1024];
+        this.clickY = new int[1024];
+        for (int k = 0; k < 1024; k++) {
+            this.clickX[k] = rand.nextInt(this.size * 20 + 40);
+            this.clickY[k] = rand.nextInt(this.size * 20 + 40);
+        }
+    }
+
+    @Benchmark
+    public void updateLinks() {
+        this.game.updateLinks();
+    }
+
+    @Benchmark
+    public int updateWorkList() {
+        return this.game.updateWorkList();
+    }
+
+    @Benchmark
+    public int hitTest() {
+        int k = this.click++ & 1023;
+        return this.game.hitTest(this.clickX[k], this.clickY[k]);
+    }
+
+    @Benchmark
+    public boolean allFlooded() {
+        return this.game.allFlooded();
+    }
+}
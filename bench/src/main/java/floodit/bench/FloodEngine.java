@@ -0,0 +1,50 @@
+package floodit.bench;
+
+/**
+ * The operations of a flood it engine that the benchmarks time.
+ *
+ * <p>The game's classes live in the unnamed package, which JMH benchmarks and
+ * every other named package cannot refer to. Each engine adapter is written in
+ * the unnamed package against this interface and loaded by name with
+ * {@link #load(String)}; a fork only ever sees one implementation, so the
+ * interface calls inline.
+ */
+public interface FloodEngine {
+
+    /** Starts a new seeded game, like {@code FloodItWorld.reset(Random)}. */
+    void reset(int size, int colors, long seed);
+
+    /** Wires up cell neighbors, like {@code FloodItWorld.updateLinks()}. */
+    void updateLinks();
+
+    /** Floods the board with a palette color, like {@code FloodItWorld.updateFlooded()}. */
+    int updateFlooded(int color);
+
+    /** Queues the flood animation, like {@code FloodItWorld.updateWorkList()}; returns its length. */
+    int updateWorkList();
+
+    /** Finds the cell under a pixel, or -1; the hit-test half of {@code onMouseClicked}. */
+    int hitTest(int x, int y);
+
+    /** Plays the color under a pixel and queues the animation, like {@code onMouseClicked}. */
+    int onMouseClicked(int x, int y);
+
+    /** Is every cell flooded, like {@code FloodItWorld.allFlooded()}. */
+    boolean allFlooded();
+
+    /** The palette index the flooded region shows. */
+    int floodColor();
+
+    /** The engine adapter named {@code "core"}, {@code "offheap"}, {@code "bits"} or {@code "legacy"}. */
+    static FloodEngine load(String name) {
+        String className = name.equals("legacy") ? "LegacyEngine"
+                : name.equals("offheap") ? "OffHeapEngine"
+                : name.equals("bits") ? "BitsEngine" : "CoreEngine";
+        try {
+            return (FloodEngine) Class.forName(className).getDeclaredConstructor().newInstance();
+        }
+        catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot load the " + name + " engine", e);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package floodit.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Operations that change the board: building a freshly seeded game, single
+ * moves and clicks, and a whole game.
+ *
+ * <p>A single move takes microseconds on small boards, too little to time one
+ * invocation at a time, so {@link #updateFlooded} and {@link #onMouseClicked}
+ * are single shots of a batch of {@link #MOVES} moves of a fixed script, played
+ * on a game dealt before every batch; their scores are the time of a whole
+ * batch, so divide by {@link #MOVES} for one move. Only {@link #scriptedGame},
+ * which is long enough on the boards it is meant for, starts every invocation
+ * on a fresh game, and {@link #reset} needs no setup at all.
+ *
+ * <p>Runs the headless engine by default; {@code -p engine=legacy -p size=22,44}
+ * runs the same benchmarks on the original linked cell engine,
+ * {@code -p engine=offheap} on a board kept in direct buffers, and
+ * {@code -p engine=bits} flooding with bit planes instead of the region graph.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoveBenchmark {
+    /** Moves of the script every batch of single moves plays, from the deal. */
+    public static final int MOVES = 16;
+
+    @Param({"core"})
+    String engine;
+
+    @Param({"22", "128", "512", "2048"})
+    int size;
+
+    @Param({"4", "6", "8"})
+    int colors;
+
+    FloodEngine game;
+    int move;       // moves of the script played since the last deal
+
+    @Setup(Level.Trial)
+    public void load() {
+        this.game = FloodEngine.load(this.engine);
+        this.game.reset(this.size, this.colors, 42);
+    }
+
+    /** Deals the seeded game again before every batch of single moves. */
+    @State(Scope.Thread)
+    public static class Dealt {
+        @Setup(Level.Iteration)
+        public void deal(MoveBenchmark bench) {
+            bench.game.reset(bench.size, bench.colors, 42);
+            bench.move = 0;
+        }
+    }
+
+    /** Deals the seeded game again before every invocation, for whole games only. */
+    @State(Scope.Thread)
+    public static class Fresh {
+        @Setup(Level.Invocation)
+        public void deal(MoveBenchmark bench) {
+            bench.game.reset(bench.size, bench.colors, 42);
+        }
+    }
+
+    @Benchmark
+    public FloodEngine reset() {
+        this.game.reset(this.size, this.colors, 42);
+        return this.game;
+    }
+
+    // the next move of the script, the color after the one the flood shows
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 5, batchSize = MOVES)
+    @Measurement(iterations = 50, batchSize = MOVES)
+    public int updateFlooded(Dealt dealt) {
+        this.move++;
+        return this.game.updateFlooded((this.game.floodColor() + 1) % this.colors);
+    }
+
+    // the next click of the script, down the diagonal from the corner
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 5, batchSize = MOVES)
+    @Measurement(iterations = 50, batchSize = MOVES)
+    public int onMouseClicked(Dealt dealt) {
+        int at = (this.move++ % MOVES + 1) * 20 + 10;
+        return this.game.onMouseClicked(at, at);
+    }
+
+    // a full game cycling through the palette until the board is flooded
+    @Benchmark
+    public int scriptedGame(Fresh fresh) {
+        int moves = 0;
+        while (!this.game.allFlooded()) {
+            this.game.updateFlooded(moves % this.colors);
+            moves++;
+        }
+        return moves;
+    }
+}
@@ -0,0 +1,54 @@
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+// the bit plane flood with each step grown a vector of words at a time; only
+// built by the vector profile, and only used when the JVM was started with
+// --add-modules jdk.incubator.vector, see BitFlood.of
+
+class VectorBitFlood extends BitFlood {
+    static final VectorSpecies<Long> SPECIES = LongVector.SPECIES_PREFERRED;
+
+    // kernel constructor for the given board, whose colors never change again
+    VectorBitFlood(FloodBoard board, int numColors) {
+        super(board, numColors);
+    }
+
+    /* TMPLT
+     * Fields
+     *   VectorBitFlood.SPECIES  VectorSpecies<Long>
+     *   see BitFlood
+     * Methods:
+     *   this.grow(int, int, long[])     - void
+     */
+    // EFFECT: sets next, from the given word to the given one, to the cells of
+    // the given plane next to a cell of front, the words past the last whole
+    // vector one at a time
+    void grow(int from, int to, long[] plane) {
+        long[] f = this.front;
+        int r = this.rowBits;
+        int w = from;
+        for (; w + SPECIES.length() <= to + 1; w += SPECIES.length()) {
+            int k = this.pad + w;
+            int up = k - this.rowWords;
+            int down = k + this.rowWords;
+            LongVector mid = LongVector.fromArray(SPECIES, f, k);
+            LongVector right = mid.lanewise(VectorOperators.LSHL, 1)
+                    .or(LongVector.fromArray(SPECIES, f, k - 1).lanewise(VectorOperators.LSHR, 63))
+                    .and(LongVector.fromArray(SPECIES, this.notLeft, w));
+            LongVector left = mid.lanewise(VectorOperators.LSHR, 1)
+                    .or(LongVector.fromArray(SPECIES, f, k + 1).lanewise(VectorOperators.LSHL, 63))
+                    .and(LongVector.fromArray(SPECIES, this.notRight, w));
+            LongVector below = LongVector.fromArray(SPECIES, f, up).lanewise(VectorOperators.LSHL, r)
+                    .or(LongVector.fromArray(SPECIES, f, up - 1)
+                            .lanewise(VectorOperators.LSHR, 1).lanewise(VectorOperators.LSHR, 63 - r));
+            LongVector above = LongVector.fromArray(SPECIES, f, down).lanewise(VectorOperators.LSHR, r)
+                    .or(LongVector.fromArray(SPECIES, f, down + 1)
+                            .lanewise(VectorOperators.LSHL, 1).lanewise(VectorOperators.LSHL, 63 - r));
+            right.or(left).or(below).or(above)
+                    .and(LongVector.fromArray(SPECIES, plane, w))
+                    .intoArray(this.next, k);
+        }
+        super.grow(w, to, plane);
+    }
+}
@@ -0,0 +1,198 @@
+// floods a board 64 cells at a time: the cells dealt each color are kept as a
+// bit plane laid out like the flooded bitset, so a step of the flood is the
+// cells it took in last grown by one cell each way with shifts, masked by the
+// plane of the color played, and a move is steps until nothing more is taken
+// in; a step only looks at the words near the cells the last one took in
+//
+// the board's frontier is left alone, a game flooded with this floods with
+// nothing else
+
+class BitFlood {
+    static final String VECTOR = "VectorBitFlood"; // built by the vector profile, see pom.xml
+
+    FloodBoard board;
+    int words;          // words of the flooded bitset
+    int pad;            // zero words around front and next, so every shift stays in them
+    int rowWords;       // whole words a row of cells spans
+    int rowBits;        // cells a row spans past its whole words
+    long[][] planes;    // the cells dealt each color
+    long[] notLeft;     // the cells with a neighbor on their left, every column but the first
+    long[] notRight;    // the cells with a neighbor on their right, every column but the last
+    long[] front;       // the cells the last step took in, from pad on
+    long[] next;        // the cells the step being taken reaches, from pad on
+    int floodLo;        // first word the flooded cells could be in
+    int floodHi;        // last word they could be in, taking moves back only widens the range,
+                        // but setting the flooded bits wholesale needs widen
+
+    // kernel constructor for the given board, whose colors never change again
+    BitFlood(FloodBoard board, int numColors) {
+        this.board = board;
+        this.words = (board.cells + 63) >>> 6;
+        this.rowWords = board.size >>> 6;
+        this.rowBits = board.size & 63;
+        this.pad = this.rowWords + 2;
+        this.planes = new long[numColors][this.words];
+        this.notLeft = new long[this.words];
+        this.notRight = new long[this.words];
+        for (int i = 0; i < board.cells; i++) {
+            this.planes[board.ownColor(i)][i >>> 6] |= 1L << i;
+            int col = i % board.size;
+            if (col != 0) {
+                this.notLeft[i >>> 6] |= 1L << i;
+            }
+            if (col != board.size - 1) {
+                this.notRight[i >>> 6] |= 1L << i;
+            }
+        }
+        this.front = new long[this.words + 2 * this.pad];
+        this.next = new long[this.words + 2 * this.pad];
+        this.floodLo = 0;
+        this.floodHi = this.words - 1;
+    }
+
+    /* TMPLT
+     * Fields
+     *   BitFlood.VECTOR     "VectorBitFlood"
+     *   this.board          FloodBoard
+     *   this.words          int
+     *   this.pad            int
+     *   this.rowWords       int
+     *   this.rowBits        int
+     *   this.planes         long[][]
+     *   this.notLeft        long[]
+     *   this.notRight       long[]
+     *   this.front          long[]
+     *   this.next           long[]
+     *   this.floodLo        int
+     *   this.floodHi        int
+     * Methods:
+     *   BitFlood.of(FloodBoard, int)    - BitFlood
+     *   this.flood(int)                 - int
+     *   this.widen()                    - void
+     *   this.edgeCells(int)             - int
+     *   this.grow(int, int, long[])     - void
+     *   this.grown(int)                 - long
+     * Methods on Fields:
+     *   this.board.floodedWord(int)     - long
+     *   this.board.setFloodedWord(int, long) - void
+     */
+    // the kernel for the given board, on the Vector API when the vector profile
+    // built it and the JVM was started with --add-modules jdk.incubator.vector
+    static BitFlood of(FloodBoard board, int numColors) {
+        try {
+            return (BitFlood) Class.forName(BitFlood.VECTOR)
+                    .getDeclaredConstructor(FloodBoard.class, int.class)
+                    .newInstance(board, numColors);
+        }
+        catch (ReflectiveOperationException | LinkageError e) {
+            return new BitFlood(board, numColors);
+        }
+    }
+
+    // floods the board into every cell of the given color connected to it
+    // EFFECT: modifies the flooded region and its color, and the journal when it is set
+    // returns the number of newly flooded cells
+    int flood(int color) {
+        FloodBoard board = this.board;
+        int before = board.floodedCount;
+        board.floodColor = color;
+        long[] plane = this.planes[color];
+        // the first step grows the whole flood
+        int lo = this.words;
+        int hi = -1;
+        for (int w = this.floodLo; w <= this.floodHi; w++) {
+            long bits = board.floodedWord(w);
+            this.front[this.pad + w] = bits;
+            if (bits != 0) {
+                lo = Math.min(lo, w);
+                hi = w;
+            }
+        }
+        if (lo <= hi) {
+            this.floodLo = lo;
+            this.floodHi = hi;
+        }
+        while (lo <= hi) {
+            // a cell reaches at most a row and a word away
+            int from = Math.max(0, lo - this.rowWords - 1);
+            int to = Math.min(this.words - 1, hi + this.rowWords + 1);
+            this.grow(from, to, plane);
+            for (int w = lo; w <= hi; w++) {
+                this.front[this.pad + w] = 0;
+            }
+            lo = this.words;
+            hi = -1;
+            for (int w = from; w <= to; w++) {
+                long flooded = board.floodedWord(w);
+                long taken = this.next[this.pad + w] & ~flooded;
+                this.next[this.pad + w] = 0;
+                if (taken != 0) {
+                    board.setFloodedWord(w, flooded | taken);
+                    board.floodedCount += Long.bitCount(taken);
+                    this.front[this.pad + w] = taken;
+                    lo = Math.min(lo, w);
+                    hi = w;
+                    this.floodLo = Math.min(this.floodLo, w);
+                    this.floodHi = Math.max(this.floodHi, w);
+                    if (board.journal != null) {
+                        for (long bits = taken; bits != 0; bits &= bits - 1) {
+                            board.journal.add((w << 6) + Long.numberOfTrailingZeros(bits));
+                        }
+                    }
+                }
+            }
+        }
+        return board.floodedCount - before;
+    }
+
+    // EFFECT: lets the next move look for the flooded cells in every word, for
+    // when the flooded bits were set wholesale, such as from a snapshot
+    void widen() {
+        this.floodLo = 0;
+        this.floodHi = this.words - 1;
+    }
+
+    // the unflooded cells of the given color next to a flooded one, which a move
+    // of that color takes in at its first step; costs time proportional to the
+    // words the flooded cells could be in, and leaves front empty as flood does
+    int edgeCells(int color) {
+        FloodBoard board = this.board;
+        long[] plane = this.planes[color];
+        for (int w = this.floodLo; w <= this.floodHi; w++) {
+            this.front[this.pad + w] = board.floodedWord(w);
+        }
+        int from = Math.max(0, this.floodLo - this.rowWords - 1);
+        int to = Math.min(this.words - 1, this.floodHi + this.rowWords + 1);
+        int cells = 0;
+        for (int w = from; w <= to; w++) {
+            cells += Long.bitCount(this.grown(w) & plane[w] & ~board.floodedWord(w));
+        }
+        for (int w = this.floodLo; w <= this.floodHi; w++) {
+            this.front[this.pad + w] = 0;
+        }
+        return cells;
+    }
+
+    // EFFECT: sets next, from the given word to the given one, to the cells of
+    // the given plane next to a cell of front
+    void grow(int from, int to, long[] plane) {
+        for (int w = from; w <= to; w++) {
+            this.next[this.pad + w] = this.grown(w) & plane[w];
+        }
+    }
+
+    // the cells of the given word next to a cell of front: the ones right of,
+    // left of, below and above one, each shifted in from its neighbor words
+    long grown(int w) {
+        long[] f = this.front;
+        int k = this.pad + w;
+        int up = k - this.rowWords;
+        int down = k + this.rowWords;
+        int r = this.rowBits;
+        // shifting in 64 - r bits is two shifts, so r = 0 shifts in nothing
+        return ((f[k] << 1 | f[k - 1] >>> 63) & this.notLeft[w])
+                | ((f[k] >>> 1 | f[k + 1] << 63) & this.notRight[w])
+                | f[up] << r | f[up - 1] >>> 1 >>> (63 - r)
+                | f[down] >>> r | f[down + 1] << 1 << (63 - r);
+    }
+}
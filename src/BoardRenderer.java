@@ -0,0 +1,106 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import javalib.impworld.*;
+import java.awt.Color;
+import javalib.worldimages.*;
+
+// draws the visible cells of a board onto a scene, sharing one square image
+// per palette color and remembering what every visible cell shows, so a cell
+// is only placed again once its color actually changed; cells outside the
+// viewport are never drawn, so a huge board costs no more than the window
+
+class BoardRenderer {
+    FloodBoard board;
+    Viewport view;              // which cells are drawn, where and how big
+    RectangleImage[] squares;   // the square drawn for each palette color
+    byte[] shown;               // palette index each visible cell shows, -1 if never drawn
+    int placed;                 // images placed since the scene was last rebuilt
+
+    // start game constructor for a board shown whole, nothing is shown yet
+    BoardRenderer(FloodBoard board, ArrayList<Color> colors) {
+        this(board, colors, new Viewport(board.size, board.size * Cell.CELL_SIZE, Cell.CELL_SIZE));
+    }
+
+    // start game constructor for the cells in the given viewport, nothing is shown yet
+    BoardRenderer(FloodBoard board, ArrayList<Color> colors, Viewport view) {
+        this.board = board;
+        this.view = view;
+        this.squares = new RectangleImage[colors.size()];
+        for (int c = 0; c < colors.size(); c++) {
+            this.squares[c] = new RectangleImage(view.cellSize, view.cellSize,
+                    OutlineMode.SOLID, colors.get(c));
+        }
+        this.shown = new byte[view.visibleCells()];
+        Arrays.fill(this.shown, (byte) -1);
+        this.placed = 0;
+    }
+
+    /* TMPLT
+     * Fields
+     *   this.board       FloodBoard
+     *   this.view        Viewport
+     *   this.squares     RectangleImage[]
+     *   this.shown       byte[]
+     *   this.placed      int
+     * Methods:
+     *   this.drawCell(int, WorldScene)   - boolean
+     *   this.drawAll(WorldScene)         - void
+     *   this.place(int, WorldScene)      - void
+     *   this.needsRebuild()              - boolean
+     *   this.rebuild(WorldScene)         - void
+     * Methods on Fields:
+     *   this.board.color(int)            - int
+     *   this.view.slot(int)              - int
+     *   this.view.cellAt(int)            - int
+     */
+    // draws the given cell if it is visible and the board changed it since it was last drawn
+    // EFFECT: may place the cell's square onto the given scene
+    // returns whether anything was placed
+    boolean drawCell(int i, WorldScene scene) {
+        int slot = this.view.slot(i);
+        if (slot == -1) {
+            return false;
+        }
+        int color = this.board.color(i);
+        if (this.shown[slot] == color) {
+            return false;
+        }
+        this.shown[slot] = (byte) color;
+        this.place(slot, scene);
+        return true;
+    }
+
+    // draws every visible cell the board changed since it was last drawn
+    // EFFECT: may place squares onto the given scene
+    void drawAll(WorldScene scene) {
+        for (int slot = 0; slot < this.shown.length; slot++) {
+            this.drawCell(this.view.cellAt(slot), scene);
+        }
+    }
+
+    // EFFECT: places the square of the color the cell in the given visible slot
+    // shows onto the scene, offset to the middle of the cell
+    void place(int slot, WorldScene scene) {
+        int i = this.view.cellAt(slot);
+        scene.placeImageXY(this.squares[this.shown[slot]], this.view.screenX(i),
+                this.view.screenY(i));
+        this.placed++;
+    }
+
+    // has the scene kept so many covered up squares that it should be rebuilt?
+    boolean needsRebuild() {
+        return this.placed > 2 * this.shown.length;
+    }
+
+    // EFFECT: places every drawn cell once onto the given fresh scene, exactly
+    // as it is currently shown, so an animation in progress is not disturbed
+    void rebuild(WorldScene scene) {
+        this.placed = 0;
+        for (int slot = 0; slot < this.shown.length; slot++) {
+            if (this.shown[slot] != -1) {
+                this.place(slot, scene);
+            }
+        }
+    }
+}
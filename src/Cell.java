@@ -1,5 +1,25 @@
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.text.ParseException;
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Random;
+import javax.management.JMException;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
 
 import tester.*;
 import javalib.impworld.*;
@@ -7,7 +27,8 @@ import java.awt.Color;
 import javalib.worldimages.*;
 
 
-// represents a single square of the game area
+// represents how a single square of the game area is drawn, the state of
+// the square itself lives in the FloodBoard of the game
 
 class Cell {
     static int CELL_SIZE = 20;
@@ -15,30 +36,12 @@ class Cell {
     int x;
     int y;
     Color color;
-    boolean flooded;
-
-    // the four cells adjacent to this one
-    Cell left;
-    Cell top;
-    Cell right;
-    Cell bottom;
 
     // start game constructor
     Cell(int x, int y, Color color) {
-        this(x, y, color, false, null, null, null, null);
-    }
-
-    // convenience constructor
-    Cell(int x, int y, Color color, boolean flooded,
-         Cell left, Cell top, Cell right, Cell bottom) {
         this.x = x;
         this.y = y;
         this.color = color;
-        this.flooded = flooded;
-        this.left = left;
-        this.top = top;
-        this.right = right;
-        this.bottom = bottom;
     }
 
     /* TMPLT
@@ -47,20 +50,9 @@ class Cell {
      *   this.x             int
      *   this.y             int
      *   this.color         Color
-     *   this.flooded       boolean
-     *   this.top           boolean
-     *   this.left          boolean
-     *   this.right         boolean
-     *   this.bottom        boolean
      * Methods:
      *   this.renderCell(scene)      - void
-     *   this.updateCell(Cell x4)    - void
      *   this.contains(int, int)     - boolean
-     *   this.updateFlooded(Color)   - void
-     *   this.push(ArrayList<Cell>)  - void
-     *   this.addTo(ArrayList<Cell>) - void
-     * Methods on Fields:
-     *   this.[top, bottom, left, right]     - see above methods
      */
     // updates scene
     // EFFECT: draws this cell onto the given WorldScene
@@ -69,87 +61,40 @@ class Cell {
         scene.placeImageXY(cell, this.x, this.y);
     }
 
-    //updates the links of this cell
-    //EFFECT: updates links of this cell
-    void updateCellLinks(Cell left, Cell top, Cell right, Cell bottom) {
-        this.left = left;
-        this.top = top;
-        this.right = right;
-        this.bottom = bottom;
-    }
-
     // does this cell contain the given x and y values?
     boolean contains(int x, int y) {
         return x > this.x - (CELL_SIZE / 2) && x <= this.x + (CELL_SIZE / 2)
                 && y > this.y - (CELL_SIZE / 2) && y <= this.y + (CELL_SIZE / 2);
     }
-
-    // EFFECT: updates the flooded value of this cell if
-    // this cell's color matches the given and one of its neighbors is flooded
-    void updateFlooded(Color colorClicked) {
-        boolean neighborIsFlooded = false;
-        if (!this.flooded) {
-            if ((top != null && top.flooded) ||
-                    (bottom != null && bottom.flooded) ||
-                    (left != null && left.flooded) ||
-                    (right != null && right.flooded)) {
-                neighborIsFlooded = true;
-            }
-            if (neighborIsFlooded && this.color == colorClicked) {
-                this.flooded = true;
-            }
-        }
-    }
-
-    // adds this cell to queue, as well as it's right and bottom neighbors
-    //EFFECT: modifies the workList with this cell and its right and bottom neighbors
-    void push(ArrayList<Cell> list) {
-        boolean rightNull = (this.right == null);
-        boolean bottomNull = (this.bottom == null);
-        boolean leftNull = (this.left == null);
-        boolean topNull = (this.top == null);
-
-        this.addTo(list);
-        if (!bottomNull) {
-            this.bottom.addTo(list);
-        }
-        if (!rightNull) {
-            this.right.addTo(list);
-        }
-        if (!topNull) {
-            this.top.addTo(list);
-        }
-        if (!leftNull) {
-            this.left.addTo(list);
-        }
-
-    }
-
-    // adds this cell to workList if it is flooded
-    //EFFECT: modifies the worklist by adding this cell if it is flooded
-    void addTo(ArrayList<Cell> list) {
-        if (this.flooded && !list.contains(this)) {
-            list.add(this);
-        }
-    }
 }
 
 // flood it game
 class FloodItWorld extends World {
     static int BOARD_SIZE = 22; // size of the board
-
+    static int VIEW_CELLS = 40; // most cells shown along one side of the window
+    static Path REPLAY_DIR = null;  // directory every game is streamed to, null to keep them in memory
+    static PuzzlePool PUZZLES = null;   // solved boards to deal with their par, null for random ones
+    static GameMetrics METRICS = null;  // where the handlers record how long they took, null for nowhere
+
+    int boardSize = FloodItWorld.BOARD_SIZE; // size of the boards reset makes
+    FloodBoard storage;         // board every reset deals into, null for a new one each time
+    Viewport view;              // the cells of the board that are on screen
     int width = FloodItWorld.BOARD_SIZE * Cell.CELL_SIZE;
     int height = ((FloodItWorld.BOARD_SIZE * Cell.CELL_SIZE) + 2 * Cell.CELL_SIZE);
     WorldScene scene = new WorldScene(width, height);
 
-    ArrayList<Cell> board;      // all cells in board
-    ArrayList<Color> colors;    // all possible colors
-    ArrayList<Cell> workList; //keeps track of the cascading affect
+    FloodItGame game;           // the board, the moves made and the moves allowed
+    MoveHistory history;        // the moves of the game, to take back and play again
+    Replay replay;              // every step of a game dealt from a seed, null otherwise
+    long ticks;                 // ticks since the game was dealt
+    ArrayList<Color> colors;    // all possible colors, indexed by the board
+    BoardRenderer renderer;     // draws the cells of the board that changed
+    Hud hud;                    // draws the timer and counter when they change
+    IntQueue workList;          //keeps track of the cascading affect
+    FloodAnimator animator;     // draws the workList a wave at a time within each tick
     boolean startScreen;
     boolean initSetup;
 
-    int numAllowedClicks;
-    int numClicks;
     boolean lost;
     Color colorClicked;
     long startTime = System.currentTimeMillis();
@@ -158,46 +103,126 @@ class FloodItWorld extends World {
 
     // constructor for game
     FloodItWorld() {
+        this(FloodItWorld.BOARD_SIZE);
+    }
+
+    // constructor for a game on a board of the given size, boards too big for the
+    // window are shown through a viewport that scrolls and zooms
+    FloodItWorld(int boardSize) {
+        this.boardSize = boardSize;
+        this.width = FloodItWorld.windowWidth(boardSize);
+        this.height = this.width + 2 * Cell.CELL_SIZE;
+        this.reset();
+    }
+
+    // constructor for a game that deals every board into the given one, such
+    // as an OffHeapBoard, instead of making a new board on the heap
+    FloodItWorld(FloodBoard storage) {
+        this.storage = storage;
+        this.boardSize = storage.size;
+        this.width = FloodItWorld.windowWidth(storage.size);
+        this.height = this.width + 2 * Cell.CELL_SIZE;
         this.reset();
     }
 
+    // constructor for a game on a board kept off the heap: the game kept in its
+    // file with OffHeapBoard.keep carries on where it was left, any other board
+    // is dealt into like storage
+    FloodItWorld(OffHeapBoard saved) {
+        this.storage = saved;
+        this.boardSize = saved.size;
+        this.width = FloodItWorld.windowWidth(saved.size);
+        this.height = this.width + 2 * Cell.CELL_SIZE;
+        if (saved.hasGame()) {
+            this.resume(saved);
+        }
+        else {
+            this.reset();
+        }
+    }
+
     // Convenience constructor for tests
-    FloodItWorld(ArrayList<Cell> board, ArrayList<Color> colors,
+    FloodItWorld(FloodBoard board, ArrayList<Color> colors,
                  boolean startScreen, int numAllowedClicks, int numClicks, boolean lost, Color colorClicked,
-                 Random rand, ArrayList<Cell> workList) {
-        this.board = board;
+                 Random rand, IntQueue workList) {
+        this.game = new FloodItGame(board, colors.size(), numAllowedClicks, numClicks);
+        this.history = new MoveHistory(this.game);
+        this.view = new Viewport(board.size, width, Cell.CELL_SIZE);
         this.startScreen = startScreen;
         this.colors = colors;
+        this.renderer = new BoardRenderer(board, colors, this.view);
+        this.hud = new Hud(width, height);
         this.scene = new WorldScene(width, height);
-        this.numAllowedClicks = numAllowedClicks;
-        this.numClicks = numClicks;
         this.lost = lost;
         this.colorClicked = colorClicked;
         this.rand = rand;
         this.workList = workList;
+        this.animator = new FloodAnimator(workList);
+    }
+
+    // the width of the window for a board of the given size, never narrower than
+    // the usual board nor wider than VIEW_CELLS cells
+    static int windowWidth(int boardSize) {
+        int shown = Math.min(Math.max(boardSize, FloodItWorld.BOARD_SIZE), FloodItWorld.VIEW_CELLS);
+        return shown * Cell.CELL_SIZE;
+    }
+
+    // the six colors every board is dealt in
+    static ArrayList<Color> palette() {
+        ArrayList<Color> colors = new ArrayList<Color>();
+        colors.add(Color.BLUE);
+        colors.add(Color.RED);
+        colors.add(Color.GREEN);
+        colors.add(Color.YELLOW);
+        colors.add(Color.ORANGE);
+        colors.add(Color.MAGENTA);
+        return colors;
     }
 
     /* TMPLT
      * Fields
      *   FloodItWorld.BOARD_SIZE      22
+     *   FloodItWorld.VIEW_CELLS      40
+     *   FloodItWorld.REPLAY_DIR      Path
+     *   FloodItWorld.PUZZLES         PuzzlePool
+     *   FloodItWorld.METRICS         GameMetrics
+     *   this.boardSize               int
+     *   this.storage                 FloodBoard
+     *   this.view                    Viewport
      *   this.width                   int
      *   this.height                  int
      *   this.scene                   WorldScene
-     *   this.board                   ArrayList<Cell>
+     *   this.game                    FloodItGame
+     *   this.history                 MoveHistory
+     *   this.replay                  Replay
+     *   this.ticks                   long
      *   this.colors                  ArrayList<Color>
-     *   this.workList                ArrayList<Cell>
+     *   this.renderer                BoardRenderer
+     *   this.hud                     Hud
+     *   this.workList                IntQueue
+     *   this.animator                FloodAnimator
      *   this.startScreen             booleam
      *   this.initSetup               boolean
-     *   this.numAllowedClicks        int
-     *   this.numClicks               int
      *   this.lost                    boolean
      *   this.colorClicked            Color
      *   this.startTime               long
      *   this.rand                    Random
      * Methods:
+     *   FloodItWorld.windowWidth(int) int
+     *   FloodItWorld.palette()   ArrayList<Color>
      *   this.reset()             void
+     *   this.reset(long)         void
+     *   this.reset(long, int)    void
+     *   this.startReplay(long)   void
      *   this.reset(Random)       void
-     *   this.updateLinks()       void
+     *   this.record(int)         void
+     *   this.endReplay()         void
+     *   this.suspend(WritableByteChannel) void
+     *   this.resume(ReadableByteChannel)  void
+     *   this.resume(OffHeapBoard) void
+     *   this.carryOn(FloodItGame, ArrayList<Color>, boolean, long) void
+     *   this.keep()              void
+     *   this.cellAt(int)         Cell
      *   this.renderStartScreen() void
      *   this.setupBoard()        void
      *   this.makeScene()         WorldScene
@@ -207,142 +232,231 @@ class FloodItWorld extends World {
      *   this.updateWorkList()     void
      *   this.updateFlooded()      void
      *   this.drawFlood()          void
+     *   this.compactScene()       void
+     *   this.changeView()         void
+     *   this.scrolled(String)     boolean
+     *   this.zoomed(String)       boolean
+     *   this.stepped(String)      boolean
      *   this.onKeyEvent(String)   void
      *   this.timer()              void
      *   this.counter()            void
+     *   this.hint()               void
      *   this.allFlooded()         boolean
      *
      * Methods on fIelds:
      *   see documentation for appplicable fields
      *
      */
-    // resets the game
-    //EFFECT: modifies the game to a new, random board
+    // resets the game, to the next solved board of PUZZLES allowing its par
+    // when there is one, or else to a random board allowing the usual moves
+    //EFFECT: modifies the game to a new board
     public void reset() {
-        this.board = new ArrayList<Cell>();
-
-        this.colors = new ArrayList<Color>();
-        colors.add(Color.BLUE);
-        colors.add(Color.RED);
-        colors.add(Color.GREEN);
-        colors.add(Color.YELLOW);
-        colors.add(Color.ORANGE);
-        colors.add(Color.MAGENTA);
+        Puzzle puzzle = null;
+        if (FloodItWorld.PUZZLES != null) {
+            try {
+                // boards of the six colors reset(Random) deals
+                puzzle = FloodItWorld.PUZZLES.next(this.boardSize, 6);
+            }
+            catch (IOException e) {
+                throw new UncheckedIOException("Cannot deal a solved board", e);
+            }
+        }
+        if (puzzle == null) {
+            this.reset(new Random().nextLong());
+        }
+        else {
+            this.reset(puzzle.seed, puzzle.par);
+        }
+    }
 
-        this.workList = new ArrayList<Cell>();
+    // resets the game to the board the given seed deals and records a replay of
+    // it, streamed to a file in REPLAY_DIR when that is set
+    //EFFECT: modifies the game to a new board and starts a new replay
+    public void reset(long seed) {
+        this.reset(new Random(seed));
+        this.startReplay(seed);
+    }
 
-        //base scene
-        this.scene = new WorldScene(this.width, this.height);
+    // resets the game to the board the given seed deals allowing the given
+    // moves, such as a solved board's par, and records a replay of it that
+    // allows them too
+    //EFFECT: modifies the game to a new board and starts a new replay
+    public void reset(long seed, int allowed) {
+        this.reset(new Random(seed));
+        this.game.numAllowedClicks = allowed;
+        this.keep();
+        this.startReplay(seed);
+    }
 
-        this.startScreen = true;
-        this.numClicks = 0;
-        this.lost = false;
-        this.rand = new Random();
-
-        for (int i = 0; i < BOARD_SIZE; i++) {
-            for (int j = 0; j < BOARD_SIZE; j++) {
-                Color color = colors.get(rand.nextInt(colors.size()));
-                // offsets to middle of cell
-                Cell temp = new Cell(j * Cell.CELL_SIZE + (Cell.CELL_SIZE / 2),
-                        i * Cell.CELL_SIZE + (Cell.CELL_SIZE / 2), color, false, null, null, null, null);
-                board.add(temp);
+    // starts the replay of the game just dealt from the given seed, streamed to
+    // a file in REPLAY_DIR when that is set
+    //EFFECT: modifies the replay of this game
+    public void startReplay(long seed) {
+        if (FloodItWorld.METRICS != null) {
+            FloodItWorld.METRICS.game = "size " + this.boardSize + " seed " + seed;
+        }
+        int[] palette = new int[this.colors.size()];
+        for (int c = 0; c < palette.length; c++) {
+            palette[c] = this.colors.get(c).getRGB();
+        }
+        this.replay = new Replay(seed, this.boardSize, palette, this.game.numAllowedClicks);
+        if (FloodItWorld.REPLAY_DIR != null) {
+            Path file = FloodItWorld.REPLAY_DIR.resolve("floodit-" + seed + ".replay");
+            try {
+                this.replay.stream(FileChannel.open(file, StandardOpenOption.CREATE,
+                        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING));
+            }
+            catch (IOException e) {
+                throw new UncheckedIOException("Cannot record the replay " + file, e);
             }
         }
-
-
-        this.colorClicked = this.board.get(0).color;
-        this.numAllowedClicks = (2 * board.size() * this.colors.size()) / 150;
-        this.updateLinks();
-        this.board.get(0).flooded = true;   // always starts with first cell being flooded
-        this.updateFlooded();
-        this.workList.add(this.board.get(0));
     }
 
     // resets the game for TESTS
     //EFFECT: modifies the game to a new, random board given a seed
     public void reset(Random seed) {
-        ArrayList<Cell> newBoard = new ArrayList<Cell>();
-
-        this.colors = new ArrayList<Color>();
-        colors.add(Color.BLUE);
-        colors.add(Color.RED);
-        colors.add(Color.GREEN);
-        colors.add(Color.YELLOW);
-        colors.add(Color.ORANGE);
-        colors.add(Color.MAGENTA);
+        this.endReplay();
+        if (FloodItWorld.METRICS != null) {
+            FloodItWorld.METRICS.game = "size " + this.boardSize + " unseeded";
+        }
+        this.ticks = 0;
+        this.colors = FloodItWorld.palette();
 
-        this.workList = new ArrayList<Cell>();
+        this.workList = new IntQueue();
+        this.animator = new FloodAnimator(this.workList);
 
         //base scene
         this.scene = new WorldScene(this.width, this.height);
+        this.hud = new Hud(this.width, this.height);
 
         this.startScreen = true;
-        this.numClicks = 0;
         this.lost = false;
         this.rand = seed;
 
-        for (int i = 0; i < BOARD_SIZE; i++) {
-            for (int j = 0; j < BOARD_SIZE; j++) {
-                Color color = colors.get(rand.nextInt(colors.size()));
-                // offsets to middle of cell
-                Cell temp = new Cell(j * Cell.CELL_SIZE + (Cell.CELL_SIZE / 2),
-                        i * Cell.CELL_SIZE + (Cell.CELL_SIZE / 2), color, false, null, null, null, null);
-                newBoard.add(temp);
-            }
+        if (this.storage == null) {
+            this.game = new FloodItGame(this.boardSize, this.colors.size(), this.rand);
+        }
+        else {
+            this.game = new FloodItGame(this.storage, this.colors.size(), this.rand);
         }
+        this.history = new MoveHistory(this.game);
+        this.view = new Viewport(this.boardSize, this.width, Cell.CELL_SIZE);
+        this.renderer = new BoardRenderer(this.game.board, this.colors, this.view);
 
-        board = newBoard;
+        this.colorClicked = this.colors.get(this.game.board.color(0));
+        this.workList.add(0);
+        this.keep();
+    }
 
+    // adds a step with the given code to the replay of this game, if it has one
+    //EFFECT: modifies the replay, and its file when it is streamed
+    public void record(int code) {
+        if (this.replay == null) {
+            return;
+        }
+        try {
+            this.replay.record(this.ticks, code);
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException("Cannot record the replay", e);
+        }
+    }
 
-        this.colorClicked = this.board.get(0).color;
-        this.numAllowedClicks = (2 * board.size() * this.colors.size()) / 150;
-        this.updateLinks();
-        this.board.get(0).flooded = true;   // always starts with first cell being flooded
-        this.updateFlooded();
-        this.workList.add(this.board.get(0));
+    // finishes the replay of this game, if it has one
+    //EFFECT: closes the file the replay is streamed to and forgets the replay
+    public void endReplay() {
+        if (this.replay == null) {
+            return;
+        }
+        try {
+            this.replay.close();
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException("Cannot finish the replay", e);
+        }
+        this.replay = null;
     }
 
-    //updates the links of every cell in this board
-    // EFFECT: modifies the left, right, top, and bottom of this cell's links
-    public void updateLinks() {
-        Cell left;
-        Cell right;
-        Cell top;
-        Cell bottom;
-        for (int i = 0; i < board.size(); i++) {
-            // check bottom is not null
-            if (i + BOARD_SIZE >= board.size()) {
-                bottom = null;
-            }
-            else {
-                bottom = board.get(i + BOARD_SIZE);
-            }
-            // check top is not null
-            if (i - BOARD_SIZE < 0) {
-                top = null;
-            }
-            else {
-                top = board.get(i - BOARD_SIZE);
-            }
-            // check left is not null
-            if (i % BOARD_SIZE == 0) {
-                left = null;
-            }
-            else {
-                left = board.get(i - 1);
-            }
-            // check right is not null
-            if (i % BOARD_SIZE == BOARD_SIZE - 1) {
-                right = null;
-            }
-            else {
-                right = board.get(i + 1);
-            }
+    // writes this game to the given channel as a GameFile, the board, its
+    // palette, the moves and the time spent so far
+    public void suspend(WritableByteChannel out) throws IOException {
+        int[] palette = new int[this.colors.size()];
+        for (int c = 0; c < palette.length; c++) {
+            palette[c] = this.colors.get(c).getRGB();
+        }
+        long elapsed = this.startScreen ? 0 : System.currentTimeMillis() - this.startTime;
+        new GameFile(this.game, palette, elapsed, this.lost)
+                .write(out, ByteBuffer.allocate(GameFile.MIN_BUFFER * 64));
+    }
+
+    // carries on with the game saved on the given channel, past the start
+    // screen with the clock running from where it stopped; the moves made before
+    // it was saved cannot be taken back and it is no longer a replay of a seed
+    //EFFECT: modifies every part of this game to the one that was saved
+    public void resume(ReadableByteChannel in) throws IOException {
+        GameFile saved = GameFile.read(in, ByteBuffer.allocate(GameFile.MIN_BUFFER * 64));
+        ArrayList<Color> colors = new ArrayList<Color>();
+        for (int rgb : saved.palette) {
+            colors.add(new Color(rgb));
+        }
+        this.carryOn(saved.game, colors, saved.lost, saved.elapsedMillis);
+    }
+
+    // carries on with the game kept in the file of the given board, past the
+    // start screen with the clock starting again; like a game read from a
+    // channel, the moves made before cannot be taken back
+    //EFFECT: modifies every part of this game to the one kept on the board
+    public void resume(OffHeapBoard saved) {
+        FloodItGame game = saved.resume();
+        ArrayList<Color> colors = FloodItWorld.palette();
+        if (game.numColors > colors.size()) {
+            throw new IllegalArgumentException("Cannot show " + game.numColors + " colors, only "
+                    + colors.size());
+        }
+        this.storage = saved;
+        this.carryOn(game, colors, game.lost(), 0);
+    }
+
+    // carries on with the given game in the given colors, past the start screen
+    // after the given time already spent on it
+    //EFFECT: modifies every part of this game to the given one
+    public void carryOn(FloodItGame game, ArrayList<Color> colors, boolean lost,
+                        long elapsedMillis) {
+        this.endReplay();
+        this.colors = colors;
+        this.game = game;
+        this.history = new MoveHistory(this.game);
+        this.view = new Viewport(this.game.board.size, this.width, Cell.CELL_SIZE);
+        this.renderer = new BoardRenderer(this.game.board, this.colors, this.view);
+        this.scene = new WorldScene(this.width, this.height);
+        this.hud = new Hud(this.width, this.height);
+        this.workList = new IntQueue();
+        this.animator = new FloodAnimator(this.workList);
+        this.startScreen = false;
+        this.initSetup = true;
+        this.lost = lost;
+        this.startTime = System.currentTimeMillis() - elapsedMillis;
+        this.colorClicked = this.colors.get(this.game.board.floodColor);
+    }
 
-            board.get(i).updateCellLinks(left, top, right, bottom);
+    // writes the moves of this game into the file of its board, when the board
+    // is kept in one, so the game outlives the process once it is forced
+    //EFFECT: may modify the header of the board file
+    public void keep() {
+        if (this.storage instanceof OffHeapBoard && this.game.board == this.storage) {
+            ((OffHeapBoard) this.storage).keep(this.game);
         }
     }
 
+    // the rendering view of the cell at the given index of the board,
+    // offset to the middle of its square
+    Cell cellAt(int i) {
+        FloodBoard board = this.game.board;
+        return new Cell((i % board.size) * Cell.CELL_SIZE + (Cell.CELL_SIZE / 2),
+                (i / board.size) * Cell.CELL_SIZE + (Cell.CELL_SIZE / 2),
+                this.colors.get(board.color(i)));
+    }
+
     // initial screen
     //EFFECT: modifies the scene of this game to the start screen
     public void renderStartScreen() {
@@ -354,22 +468,23 @@ class FloodItWorld extends World {
     // initial board setup
     //EFFECT: modifies the scene of this game by drawing every cell in the board
     public void setupBoard() {
-        for (int i = 0; i < board.size(); i++) {
-            board.get(i).renderCell(scene);
-        }
+        SetupBoardEvent event = new SetupBoardEvent();
+        event.begin();
+        this.renderer.drawAll(scene);
 
         this.initSetup = false;
+        event.end();
+        if (event.shouldCommit()) {
+            event.boardSize = this.game.board.size;
+            event.cellsChanged = this.view.visibleCells();
+            event.commit();
+        }
     }
 
     // draws the scene of this game
     public WorldScene makeScene() {
         if (lost) {
-            this.scene.placeImageXY(new RectangleImage(500, 30, "solid", Color.WHITE),
-                    this.width / 2,
-                    (this.height / 2) + Cell.CELL_SIZE);
-            this.scene.placeImageXY(new TextImage("You Lose! Press r to play again", 20, Color.BLACK),
-                    this.width / 2,
-                    (this.height / 2) + Cell.CELL_SIZE);
+            this.hud.drawBanner(this.scene);
         }
         return this.scene;
     }
@@ -377,14 +492,21 @@ class FloodItWorld extends World {
     // updates gamestate
     //EFFECT: modifies the timer, counter and the cells that have to be drawn of this game
     public void update() {
+        this.compactScene();
         this.timer();
         this.counter();
         this.drawFlood();
     }
 
     // ticks through game
-    // EFFECT: Modifies the game by changing the color of the board when prompted
+    // EFFECT: Modifies the game by changing the color of the board when prompted,
+    // and counts the tick so the replay knows when every step came
     public void onTick() {
+        GameMetrics metrics = FloodItWorld.METRICS;
+        long started = System.nanoTime();
+        long allocated = metrics == null ? 0 : metrics.allocated();
+        int depth = this.workList.size();
+        this.ticks++;
         if (startScreen) {
             this.renderStartScreen();
         }
@@ -394,62 +516,142 @@ class FloodItWorld extends World {
         else {
             this.update();
         }
+        if (metrics != null) {
+            metrics.tick(started, allocated, depth);
+        }
     }
 
     // on mouse click
-    // EFFECT: Modifies the game by updating the board with the clicked Cell
+    // EFFECT: Modifies the game by updating the board with the clicked Cell,
+    // first drawing whatever the last move still had queued all at once;
+    // clicks off the board (like on the timer and counter) are not moves
     public void onMouseClicked(Posn mpos) {
-        this.numClicks++;
-        this.counter();
-        for (Cell cell : this.board) {
-            if (cell.contains(mpos.x, mpos.y)) {
-                colorClicked = cell.color;
-            }
+        int clicked = this.view.indexAt(mpos.x, mpos.y);
+        if (clicked == -1) {
+            return;
+        }
+        long started = System.nanoTime();
+        MoveEvent event = new MoveEvent();
+        event.begin();
+        this.animator.collapse(i -> this.renderer.drawCell(i, this.scene));
+        int color = this.game.board.color(clicked);
+        colorClicked = this.colors.get(color);
+        long flooding = System.nanoTime();
+        int flooded = this.history.play(color);
+        if (FloodItWorld.METRICS != null) {
+            FloodItWorld.METRICS.floods.record(System.nanoTime() - flooding);
         }
-        this.updateFlooded();
+        this.record(color);
+        this.keep();
+        this.counter();
+        this.hud.drawHint(Hud.NOTHING, null, this.scene);
         this.updateWorkList();
+        event.end();
+        if (event.shouldCommit()) {
+            event.boardSize = this.game.board.size;
+            event.color = color;
+            event.cellsChanged = flooded;
+            event.workListSize = this.workList.size();
+            event.commit();
+        }
+        if (FloodItWorld.METRICS != null) {
+            FloodItWorld.METRICS.click(started, flooded);
+        }
     }
 
     //changes the color of flooded cells to the color clicked
-    //EFFECT: modifies the workList with every cell in the column and row
+    //EFFECT: modifies the workList with every flooded cell, in waves from the first cell,
+    // or on a board bigger than the window with just the visible flooded cells, a wave a row
     public void updateWorkList() {
-        ArrayList<Cell> copy = new ArrayList<Cell>();
-        ArrayList<Cell> neighbors = new ArrayList<Cell>();
-        board.get(0).push(copy);
-        for (Cell b : board) {
-            b.push(copy);
-            for (Cell c : copy) {
-                c.push(neighbors);
+        long started = System.nanoTime();
+        WorkListEvent event = new WorkListEvent();
+        event.begin();
+        int before = this.workList.size();
+        if (this.view.showsAll()) {
+            this.animator.queueFlood(this.game.board, 0);
+        }
+        else {
+            this.animator.endWave();
+            int cols = this.view.cols();
+            for (int slot = 0; slot < this.view.visibleCells(); slot++) {
+                int i = this.view.cellAt(slot);
+                if (this.game.board.isFlooded(i)) {
+                    this.workList.add(i);
+                }
+                if (slot % cols == cols - 1) {
+                    this.animator.endWave();
+                }
             }
         }
-        for (Cell d : neighbors) {
-            workList.add(d);
+        event.end();
+        if (event.shouldCommit()) {
+            event.boardSize = this.game.board.size;
+            event.cellsChanged = this.workList.size() - before;
+            event.workListSize = this.workList.size();
+            event.commit();
+        }
+        if (FloodItWorld.METRICS != null) {
+            FloodItWorld.METRICS.workLists.record(System.nanoTime() - started);
         }
     }
 
-
-    //EFFECT: updates if the cell is flooded based on if it's color
-    // matches the given color
+    //EFFECT: floods every cell connected to the flooded region whose color
+    // matches the color clicked, and gives the whole region that color
     public void updateFlooded() {
-        for (Cell cell : board) {
-            cell.updateFlooded(colorClicked);
-            if (cell.flooded) {
-                cell.color = colorClicked;
-            }
+        long started = System.nanoTime();
+        this.game.flood(this.colors.indexOf(colorClicked));
+        if (FloodItWorld.METRICS != null) {
+            FloodItWorld.METRICS.floods.record(System.nanoTime() - started);
         }
     }
 
-    //removes the first element in the WorkList
-    //EFFECT: modifies the workList by removing the first element and drawing the updated scene
+    //removes waves of cells from the front of the WorkList, enough for the flood to be
+    // drawn in about a second of ticks but no more than fit in half a tick, and always
+    // up to the first wave that changed something
+    //EFFECT: modifies the workList by removing its first elements and drawing the updated scene
     public void drawFlood() {
-        if (workList.size() > 0) {
-            workList.remove(0).renderCell(scene);
+        DrawFloodEvent event = new DrawFloodEvent();
+        event.begin();
+        int before = this.workList.size();
+        this.animator.tick(System.nanoTime());
+        this.animator.draw(i -> this.renderer.drawCell(i, this.scene));
+        event.end();
+        if (event.shouldCommit()) {
+            event.boardSize = this.game.board.size;
+            event.cellsChanged = before - this.workList.size();
+            event.workListSize = this.workList.size();
+            event.commit();
+        }
+    }
+
+    // starts a fresh scene once the old one is mostly squares that were drawn over
+    //EFFECT: may replace the scene of this game with one showing only the visible cells
+    public void compactScene() {
+        // the timer alone adds two images a second, so it counts towards the rebuild too
+        if (this.renderer.needsRebuild() || this.hud.placed > 2 * this.renderer.shown.length) {
+            this.scene = new WorldScene(this.width, this.height);
+            this.renderer.rebuild(this.scene);
+            this.hud.invalidate();
+        }
+    }
+
+    // draws the board again after the viewport scrolled or zoomed
+    //EFFECT: replaces the scene and renderer of this game with ones for the new view,
+    // drawing every visible cell unless the start screen is up
+    public void changeView() {
+        this.scene = new WorldScene(this.width, this.height);
+        this.renderer = new BoardRenderer(this.game.board, this.colors, this.view);
+        this.hud.invalidate();
+        this.animator.clear();
+        if (!this.startScreen && !this.initSetup) {
+            this.renderer.drawAll(this.scene);
         }
     }
 
 
-    // on key click (r to reset)
-    //EFFECT: modifies the game by restarting
+    // on key click (r to reset, u to undo a move, y to redo it and h for a hint)
+    //EFFECT: modifies the game by restarting, stepping through its moves or moving the view,
+    // or the scene by showing a hint
     public void onKeyEvent(String key) {
         if (key.equals("enter") && this.startScreen) {
             this.startScreen = false;
@@ -459,97 +661,138 @@ class FloodItWorld extends World {
         else if ((key.equals("r") && !this.startScreen) || (key.equals("r") && !lost)) {
             this.reset();
         }
+        else if (this.scrolled(key) || this.zoomed(key)) {
+            this.changeView();
+        }
+        else if (!this.startScreen && this.stepped(key)) {
+            this.keep();
+            this.counter();
+            this.hud.drawHint(Hud.NOTHING, null, this.scene);
+            this.updateWorkList();
+        }
+        else if (key.equals("h") && !this.startScreen && !this.initSetup) {
+            this.hint();
+        }
         else {
             return;
         }
     }
 
-    // renders timer
-    //EFFECT: modifies the timer of the board to the current time the player has been playing
-    public void timer() {
-        String timeEllapsed;
-        TextImage timer;
-        RectangleImage blank = new RectangleImage(200, 30, "solid", Color.WHITE);
+    // scrolls the viewport a quarter of the window for an arrow key
+    //EFFECT: may modify the top left visible cell of the viewport
+    // returns whether the viewport moved
+    public boolean scrolled(String key) {
+        int step = Math.max(1, this.view.pixels / this.view.cellSize / 4);
+        if (key.equals("left")) {
+            return this.view.scroll(-step, 0);
+        }
+        else if (key.equals("right")) {
+            return this.view.scroll(step, 0);
+        }
+        else if (key.equals("up")) {
+            return this.view.scroll(0, -step);
+        }
+        else if (key.equals("down")) {
+            return this.view.scroll(0, step);
+        }
+        return false;
+    }
 
-        if (startScreen) {
-            timeEllapsed =  "";
+    // zooms the viewport in for + (or =, the same key) and out for -
+    //EFFECT: may modify the cell size and top left visible cell of the viewport
+    // returns whether the zoom changed
+    public boolean zoomed(String key) {
+        if (key.equals("+") || key.equals("=")) {
+            return this.view.zoom(true);
         }
+        else if (key.equals("-")) {
+            return this.view.zoom(false);
+        }
+        return false;
+    }
 
+    // takes the last move back for u and plays the next undone one again for y,
+    // queueing the cells that leave the flood; the rest of the redrawing is the
+    // same as after a click
+    //EFFECT: may modify the game, the workList and, when the game was lost, the scene
+    // returns whether a move was taken back or played again
+    public boolean stepped(String key) {
+        boolean changed;
+        if (key.equals("u")) {
+            this.animator.clear();
+            changed = this.history.undo(this.workList);
+        }
+        else if (key.equals("y")) {
+            changed = this.history.redo();
+        }
         else {
-            long playerTime = System.currentTimeMillis() - this.startTime;
-            long playerTimeSeconds = playerTime / 1000;
-            long playerTimeDisplay = playerTimeSeconds % 60;
-            long playerTimeMinutes = playerTimeSeconds / 60;
-
-            if (playerTimeDisplay < 10 && playerTimeMinutes < 10) {
-                timeEllapsed = "Time Elapsed " + "0" + Long.toString(playerTimeMinutes) +
-                        ":0" + Long.toString(playerTimeDisplay);
-            }
-
-            else if (playerTimeDisplay < 10 && playerTimeMinutes > 10) {
-                timeEllapsed = "Time Elapsed " + Long.toString(playerTimeMinutes) +
-                        ":0" + Long.toString(playerTimeDisplay);
-            }
-
-            else if (playerTimeDisplay > 10 && playerTimeMinutes < 10) {
-                timeEllapsed = "Time Elapsed " + "0" + Long.toString(playerTimeMinutes) +
-                        ":" + Long.toString(playerTimeDisplay);
-            }
-
-            else {
-                timeEllapsed = "Time Elapsed " + Long.toString(playerTimeMinutes) +
-                        ":" + Long.toString(playerTimeDisplay);
+            return false;
+        }
+        if (changed) {
+            this.record(key.equals("u") ? Replay.UNDO : Replay.REDO);
+            this.colorClicked = this.colors.get(this.game.board.floodColor);
+            if (this.lost) {
+                // a fresh scene without the banner, the counter says if it is still lost
+                this.lost = false;
+                this.scene = new WorldScene(this.width, this.height);
+                this.renderer.rebuild(this.scene);
+                this.hud.invalidate();
             }
         }
+        return changed;
+    }
 
-        timer = new TextImage(timeEllapsed, 15, Color.BLACK);
-        scene.placeImageXY(blank, this.width - 9 * Cell.CELL_SIZE,
-                this.height - Cell.CELL_SIZE);
-        scene.placeImageXY(timer, this.width - 9 * Cell.CELL_SIZE,
-                this.height - Cell.CELL_SIZE);
+    // renders timer
+    //EFFECT: modifies the timer of the board to the current time the player has been playing,
+    // the scene only changes when the displayed second does
+    public void timer() {
+        long seconds = Hud.NOTHING;
+        if (!startScreen) {
+            seconds = (System.currentTimeMillis() - this.startTime) / 1000;
+        }
+        this.hud.drawTimer(seconds, this.scene);
     }
 
 
     //the move counter
-    //EFFECT: modifies the counter of the board to how many moves the player has used up
+    //EFFECT: modifies the counter of the board to how many moves the player has used up,
+    // the scene only changes when the displayed message does
     public void counter() {
-        String msg;
-        TextImage counter;
-        RectangleImage blank = new RectangleImage(200, 30, "solid", Color.WHITE);
+        int moves;
         if (startScreen) {
-            msg = "";
+            moves = Hud.NOTHING;
         }
 
         else {
-            if (this.allFlooded() && numClicks <= this.numAllowedClicks) {
-                msg = "You Win!";
+            if (this.game.won()) {
+                moves = Hud.WON;
             }
 
-            else if (numClicks < this.numAllowedClicks) {
-                msg = "Moves " + numClicks + "/" + this.numAllowedClicks;
+            else if (this.game.lost()) {
+                moves = Hud.LOST;
+                this.lost = true;
             }
 
             else {
-                msg = "You Lose!";
-                this.lost = true;
+                moves = this.game.numClicks;
             }
         }
 
-        counter = new TextImage(msg, 15, Color.BLACK);
-        scene.placeImageXY(blank, this.width - 19 * Cell.CELL_SIZE,
-                this.height - Cell.CELL_SIZE);
-        scene.placeImageXY(counter, this.width - 19 * Cell.CELL_SIZE,
-                this.height - Cell.CELL_SIZE);
+        this.hud.drawCounter(moves, this.game.numAllowedClicks, this.scene);
+    }
 
+    // shows the color that floods the most cells next to the timer until the next
+    // move, or clears it when no color floods anything or the board is too big
+    // for its game to keep count
+    //EFFECT: may modify the hint on the scene
+    public void hint() {
+        int color = this.game.hint();
+        this.hud.drawHint(color, color == Hud.NOTHING ? null : this.colors.get(color), this.scene);
     }
 
-    //determines if all of the cells in this ArrayList of Cells are flooded
+    //determines if all of the cells in this board are flooded
     public boolean allFlooded() {
-        boolean start = true;
-        for (int i = 0; i < board.size(); i++) {
-            start = start && board.get(i).flooded; //how do we combine each element in the list
-        }
-        return start;
+        return this.game.board.allFlooded();
     }
 }
 
@@ -561,12 +804,12 @@ class ExamplesFlood {
     Cell c4;
     Cell c5;
 
-    ArrayList<Cell> cells;
     ArrayList<Color> colors;
-    ArrayList<Cell> cells2;
+    FloodBoard board;
+    FloodBoard board2;
 
-    ArrayList<Cell> workList;
-    ArrayList<Cell> workList2;
+    IntQueue workList;
+    IntQueue workList2;
 
 
     WorldScene scene;
@@ -585,47 +828,32 @@ class ExamplesFlood {
         c4 = new Cell(40, 40, Color.PINK);
         c5 = new Cell(15, 15, Color.CYAN);
 
-        c1.bottom = c3;
-        c1.right = c2;
-        c2.left = c1;
-        c2.bottom = c4;
-        c3.top = c1;
-        c3.right = c4;
-        c4.left = c3;
-        c4.top = c2;
-
-        c1.flooded = true;
-
         scene = new WorldScene(440, 480);
 
-        cells = new ArrayList<Cell>();
-        cells2 = new ArrayList<Cell>();
         colors = new ArrayList<Color>();
+        colors.add(Color.RED);
+        colors.add(Color.BLUE);
+        colors.add(Color.GREEN);
+        colors.add(Color.PINK);
 
-        workList =  new ArrayList<Cell>();
-        workList.add(c1);
-        workList2 =  new ArrayList<Cell>();
-
-        cells.add(c1);
-        cells.add(c2);
-        cells.add(c3);
-        cells.add(c4);
-
-        cells2.add(c5);
+        // 2x2 board laid out as  RED   BLUE
+        //                        GREEN PINK
+        board = new FloodBoard(2, new byte[] {0, 1, 2, 3});
+        board.flood(0);
+        board2 = new FloodBoard(1, new byte[] {3});
 
-        colors.add(Color.BLUE);
-        colors.add(Color.YELLOW);
-        colors.add(Color.RED);
-        colors.add(Color.BLACK);
+        workList =  new IntQueue();
+        workList.add(0);
+        workList2 =  new IntQueue();
 
         rand = new Random(0);
 
         example = new FloodItWorld();
-        example1 = new FloodItWorld(cells, colors, true, 10, 0, false, Color.RED,
+        example1 = new FloodItWorld(board, colors, true, 10, 0, false, Color.RED,
                 rand, workList);
-        example2 = new FloodItWorld(cells, colors, false, 10, 0, true, Color.BLACK,
+        example2 = new FloodItWorld(board, colors, false, 10, 0, true, Color.BLACK,
                 rand, workList);
-        example3 = new FloodItWorld(cells2,
+        example3 = new FloodItWorld(board2,
                 colors,
                 false,
                 10,
@@ -636,68 +864,75 @@ class ExamplesFlood {
                 workList2);
     }
 
-    //big bang
-    void testBigBang(Tester t) {
-        FloodItWorld w = new FloodItWorld();
-        int worldWidth = FloodItWorld.BOARD_SIZE * Cell.CELL_SIZE;
-        int worldHeight = FloodItWorld.BOARD_SIZE * Cell.CELL_SIZE + 2 * Cell.CELL_SIZE;
+    //big bang, run with -Dfloodit.metrics=true to watch the handlers over JMX and
+    // get their metrics printed every ten seconds, and with -Dfloodit.jfr=file to
+    // record the game's events with the JVM's default ones into a flight recording
+    void testBigBang(Tester t) throws JMException, IOException, ParseException {
         double tickRate = 0.05;
-        w.bigBang(worldWidth, worldHeight, tickRate);
+        if (Boolean.getBoolean("floodit.metrics")) {
+            FloodItWorld.METRICS = new GameMetrics((long) (tickRate * 1e9));
+            FloodItWorld.METRICS.register(ManagementFactory.getPlatformMBeanServer());
+            FloodItWorld.METRICS.dumpEvery(10000, System.err);
+        }
+        Recording recording = null;
+        if (System.getProperty("floodit.jfr") != null) {
+            recording = FloodEvents.enable(new Recording(Configuration.getConfiguration("default")));
+            recording.setDestination(Paths.get(System.getProperty("floodit.jfr")));
+            recording.start();
+        }
+        FloodItWorld w = new FloodItWorld();
+        w.bigBang(w.width, w.height, tickRate);
+        if (recording != null) {
+            recording.close();
+        }
     }
 
-    //tests updateLinks for board
-    void testUpdateLinks(Tester t) {
+    //tests the neighbors and positions of the cells of the board
+    void testCellAt(Tester t) {
         initCond();
-        // updateLinks called in the constructor for example
         // top left corner
-        t.checkExpect(example.board.get(0).bottom, example.board.get(22));
-        t.checkExpect(example.board.get(0).top, null);
-        t.checkExpect(example.board.get(0).left, null);
-        t.checkExpect(example.board.get(0).right, example.board.get(1));
-        t.checkExpect(example.board.get(0).x, 10);
-        t.checkExpect(example.board.get(0).y, 10);
+        t.checkExpect(example.game.board.bottom(0), 22);
+        t.checkExpect(example.game.board.top(0), -1);
+        t.checkExpect(example.game.board.left(0), -1);
+        t.checkExpect(example.game.board.right(0), 1);
+        t.checkExpect(example.cellAt(0).x, 10);
+        t.checkExpect(example.cellAt(0).y, 10);
 
         // top right corner
-        t.checkExpect(example.board.get(21).bottom, example.board.get(43));
-        t.checkExpect(example.board.get(21).top, null);
-        t.checkExpect(example.board.get(21).left, example.board.get(20));
-        t.checkExpect(example.board.get(21).right, null);
-        t.checkExpect(example.board.get(21).x, 430);
-        t.checkExpect(example.board.get(21).y, 10);
+        t.checkExpect(example.game.board.bottom(21), 43);
+        t.checkExpect(example.game.board.top(21), -1);
+        t.checkExpect(example.game.board.left(21), 20);
+        t.checkExpect(example.game.board.right(21), -1);
+        t.checkExpect(example.cellAt(21).x, 430);
+        t.checkExpect(example.cellAt(21).y, 10);
 
         // bottom left corner
-        t.checkExpect(example.board.get(462).bottom, null);
-        t.checkExpect(example.board.get(462).top, example.board.get(440));
-        t.checkExpect(example.board.get(462).left, null);
-        t.checkExpect(example.board.get(462).right, example.board.get(463));
-        t.checkExpect(example.board.get(462).x, 10);
-        t.checkExpect(example.board.get(462).y, 430);
+        t.checkExpect(example.game.board.bottom(462), -1);
+        t.checkExpect(example.game.board.top(462), 440);
+        t.checkExpect(example.game.board.left(462), -1);
+        t.checkExpect(example.game.board.right(462), 463);
+        t.checkExpect(example.cellAt(462).x, 10);
+        t.checkExpect(example.cellAt(462).y, 430);
 
         // bottom right
-        t.checkExpect(example.board.get(483).bottom, null);
-        t.checkExpect(example.board.get(483).top, example.board.get(461));
-        t.checkExpect(example.board.get(483).left, example.board.get(482));
-        t.checkExpect(example.board.get(483).right, null);
-        t.checkExpect(example.board.get(483).x, 430);
-        t.checkExpect(example.board.get(483).y, 430);
+        t.checkExpect(example.game.board.bottom(483), -1);
+        t.checkExpect(example.game.board.top(483), 461);
+        t.checkExpect(example.game.board.left(483), 482);
+        t.checkExpect(example.game.board.right(483), -1);
+        t.checkExpect(example.cellAt(483).x, 430);
+        t.checkExpect(example.cellAt(483).y, 430);
 
         // middle
-        t.checkExpect(example.board.get(121).bottom, example.board.get(143));
-        t.checkExpect(example.board.get(121).top, example.board.get(99));
-        t.checkExpect(example.board.get(121).left, example.board.get(120));
-        t.checkExpect(example.board.get(121).right, example.board.get(122));
-        t.checkExpect(example.board.get(121).x, 230);
-        t.checkExpect(example.board.get(121).y, 110);
-    }
-
-    //tests updateCellLinks() for cells
-    void testUpdateCellLinks(Tester t) {
-        initCond();
-        c5.updateCellLinks(c1, c2, c3, c4);
-        t.checkExpect(c5.left, c1);
-        t.checkExpect(c5.top, c2);
-        t.checkExpect(c5.right, c3);
-        t.checkExpect(c5.bottom, c4);
+        t.checkExpect(example.game.board.bottom(121), 143);
+        t.checkExpect(example.game.board.top(121), 99);
+        t.checkExpect(example.game.board.left(121), 120);
+        t.checkExpect(example.game.board.right(121), 122);
+        t.checkExpect(example.cellAt(121).x, 230);
+        t.checkExpect(example.cellAt(121).y, 110);
+
+        // the view takes its color from the palette
+        t.checkExpect(example1.cellAt(0), new Cell(10, 10, Color.RED));
+        t.checkExpect(example1.cellAt(3), new Cell(30, 30, Color.PINK));
     }
 
     //tests renderStartScreen
@@ -721,76 +956,41 @@ class ExamplesFlood {
         t.checkExpect(this.example3.scene, base2);
     }
 
-    //tests push
-    void testPush(Tester t) {
-        this.initCond();
-        t.checkExpect(this.example1.workList.size(), 1);
-        this.c1.push(this.example1.workList);
-        t.checkExpect(this.example1.workList.size(), 1);
-
-        this.c2.push(this.example1.workList);
-        t.checkExpect(this.example1.workList.size(), 1);
-
-        this.c3.push(this.example1.workList);
-        t.checkExpect(this.example1.workList.size(), 1);
-
-        this.c4.push(this.example1.workList);
-        t.checkExpect(this.example1.workList.size(), 1);
-
-    }
-
-    //tests addTo
-    void testAddTo(Tester t) {
-        this.initCond();
-        t.checkExpect(this.example1.workList.size(), 1);
-        this.c1.addTo(this.example1.workList);
-        t.checkExpect(this.example1.workList.size(), 1);
-
-        this.c2.addTo(this.example1.workList);
-        t.checkExpect(this.example1.workList.size(), 1);
-
-        this.c3.addTo(this.example1.workList);
-        t.checkExpect(this.example1.workList.size(), 1);
-
-        this.c4.addTo(this.example1.workList);
-        t.checkExpect(this.example1.workList.size(), 1);
-    }
-
     //tests reset
     void testReset(Tester t) {
         this.initCond();
         Random rand1 = new Random(2);
         //this is only constructed with 4 colors and 4 tiles
-        t.checkExpect(this.example1.board.size(), 4);
+        t.checkExpect(this.example1.game.board.cells, 4);
         t.checkExpect(this.example1.colors.size(), 4);
         t.checkExpect(this.example1.startScreen, true);
         t.checkExpect(this.example1.lost, false);
 
         //when it is reset it is a full board with 484 tiles and 6 colors
         this.example1.reset(rand1);
-        t.checkExpect(this.example1.board.size(), 484);
+        t.checkExpect(this.example1.game.board.cells, 484);
         t.checkExpect(this.example1.colors.size(), 6);
         t.checkExpect(this.example1.startScreen, true);
         t.checkExpect(this.example1.lost, false);
 
         // check colors different
-        t.checkExpect(example2.board.get(0).color, Color.RED);
-        t.checkExpect(example2.board.get(1).color, Color.BLUE);
-        t.checkExpect(example2.board.get(2).color, Color.GREEN);
-        t.checkExpect(example2.board.get(3).color, Color.PINK);
+        t.checkExpect(example2.cellAt(0).color, Color.RED);
+        t.checkExpect(example2.cellAt(1).color, Color.BLUE);
+        t.checkExpect(example2.cellAt(2).color, Color.GREEN);
+        t.checkExpect(example2.cellAt(3).color, Color.PINK);
         this.example2.reset(rand1);
-        t.checkExpect(example2.board.get(0).color, Color.BLUE);
-        t.checkExpect(example2.board.get(1).color, Color.YELLOW);
-        t.checkExpect(example2.board.get(2).color, Color.MAGENTA);
-        t.checkExpect(example2.board.get(3).color, Color.ORANGE);
+        t.checkExpect(example2.cellAt(0).color, Color.BLUE);
+        t.checkExpect(example2.cellAt(1).color, Color.YELLOW);
+        t.checkExpect(example2.cellAt(2).color, Color.MAGENTA);
+        t.checkExpect(example2.cellAt(3).color, Color.ORANGE);
 
 
         //this is the game board so it starts with 484 tiles and 6 possible colors
-        t.checkExpect(this.example.board.size(), 484);
+        t.checkExpect(this.example.game.board.cells, 484);
         t.checkExpect(this.example1.colors.size(), 6);
         //when it is reset it is a full board with 484 tiles and 6 colors
         this.example1.reset();
-        t.checkExpect(this.example1.board.size(), 484);
+        t.checkExpect(this.example1.game.board.cells, 484);
         t.checkExpect(this.example1.colors.size(), 6);
     }
 
@@ -800,10 +1000,10 @@ class ExamplesFlood {
         WorldScene base = new WorldScene(440, 480);
         WorldScene base1 = new WorldScene(440, 480);
 
-        base.placeImageXY(new RectangleImage(20, 20, OutlineMode.SOLID, Color.RED), 20, 20);
-        base.placeImageXY(new RectangleImage(20, 20, OutlineMode.SOLID, Color.BLUE), 40, 20);
-        base.placeImageXY(new RectangleImage(20, 20, OutlineMode.SOLID, Color.GREEN), 20, 40);
-        base.placeImageXY(new RectangleImage(20, 20, OutlineMode.SOLID, Color.PINK), 40, 40);
+        base.placeImageXY(new RectangleImage(20, 20, OutlineMode.SOLID, Color.RED), 10, 10);
+        base.placeImageXY(new RectangleImage(20, 20, OutlineMode.SOLID, Color.BLUE), 30, 10);
+        base.placeImageXY(new RectangleImage(20, 20, OutlineMode.SOLID, Color.GREEN), 10, 30);
+        base.placeImageXY(new RectangleImage(20, 20, OutlineMode.SOLID, Color.PINK), 30, 30);
 
         t.checkExpect(this.example1.scene, base1);
         this.example1.setupBoard();
@@ -836,7 +1036,7 @@ class ExamplesFlood {
         base1.placeImageXY(blank, 60, 460);
         base1.placeImageXY(timer2, 60, 460);
         base1.placeImageXY(
-                new RectangleImage(20, 20, OutlineMode.SOLID, Color.RED), 20, 20);
+                new RectangleImage(20, 20, OutlineMode.SOLID, Color.RED), 10, 10);
 
 
         t.checkExpect(this.example1.scene, base1);
@@ -857,6 +1057,13 @@ class ExamplesFlood {
         this.example3.updateWorkList();
         t.checkExpect(this.example3.workList.size(), 0);
 
+        // the whole flooded region is queued once, nearest cells first
+        this.board.flood(1);
+        this.board.flood(2);
+        this.board.flood(3);
+        this.example1.workList.clear();
+        this.example1.updateWorkList();
+        t.checkExpect(this.example1.workList.toArray(), new int[] {0, 1, 2, 3});
     }
 
     //tests drawFlood
@@ -871,6 +1078,37 @@ class ExamplesFlood {
         this.example3.drawFlood();
         t.checkExpect(this.example3.workList.size(), 0);
 
+        // cells already showing their color are skipped without using up the tick
+        WorldScene expected = new WorldScene(440, 480);
+        expected.placeImageXY(new RectangleImage(20, 20, OutlineMode.SOLID, Color.RED), 10, 10);
+        expected.placeImageXY(new RectangleImage(20, 20, OutlineMode.SOLID, Color.BLUE), 30, 10);
+        this.example1.workList.add(0);
+        this.example1.workList.add(1);
+        this.example1.workList.add(2);
+        this.example1.drawFlood();
+        t.checkExpect(this.example1.workList.size(), 1);
+        t.checkExpect(this.example1.scene, expected);
+    }
+
+    //tests compactScene
+    void testCompactScene(Tester t) {
+        this.initCond();
+        WorldScene base = new WorldScene(440, 480);
+        WorldScene expected = new WorldScene(440, 480);
+        expected.placeImageXY(new RectangleImage(20, 20, OutlineMode.SOLID, Color.BLUE), 10, 10);
+
+        this.example1.compactScene();
+        t.checkExpect(this.example1.scene, base);
+
+        // flip the corner between red and blue until the scene is mostly drawn over
+        for (int i = 0; i < 9; i++) {
+            this.example1.colorClicked = this.colors.get((i + 1) % 2);
+            this.example1.updateFlooded();
+            this.example1.workList.add(0);
+            this.example1.drawFlood();
+        }
+        this.example1.compactScene();
+        t.checkExpect(this.example1.scene, expected);
     }
 
     //tests makeScene() (makescene itself does nothing)
@@ -893,6 +1131,10 @@ class ExamplesFlood {
         t.checkExpect(example1.scene, expectedScene3);
         t.checkExpect(example2.scene, expectedScene);
         t.checkExpect(example3.scene, expectedScene2);
+
+        // the banner is only placed once however many frames are drawn
+        example2.makeScene();
+        t.checkExpect(example2.scene, expectedScene);
     }
 
     //tests renderCell()
@@ -928,52 +1170,58 @@ class ExamplesFlood {
         t.checkExpect(c1.contains(20, 30), true); // y bottom bound
     }
 
-
-    // tests updateFlooded
-    void testUpdateFlooded(Tester t) {
+    // tests that hit-testing the board agrees with contains() on every pixel
+    // around the corners of a few cells
+    void testIndexAtMatchesContains(Tester t) {
         initCond();
-        c2.updateFlooded(Color.BLACK);
-        t.checkExpect(c2.flooded, false);
-        c2.updateFlooded(Color.BLUE);
-        t.checkExpect(c2.flooded, true);
-        c3.updateFlooded(Color.DARK_GRAY);
-        t.checkExpect(c3.flooded, false);
-        c3.updateFlooded(Color.GREEN);
-        t.checkExpect(c3.flooded, true);
-        c4.updateFlooded(Color.PINK);
-        t.checkExpect(c4.flooded, true);
+        int[] cells = {0, 21, 121, 462, 483};
+        for (int i : cells) {
+            Cell view = example.cellAt(i);
+            for (int x = view.x - 11; x <= view.x + 11; x++) {
+                for (int y = view.y - 11; y <= view.y + 11; y++) {
+                    t.checkExpect(example.game.board.indexAt(x, y, Cell.CELL_SIZE) == i,
+                            view.contains(x, y));
+                }
+            }
+        }
     }
 
+
     // test flood
     void testFlood(Tester t) {
         initCond();
         example2.colorClicked = Color.RED;
         example2.updateFlooded();
-        t.checkExpect(c1.flooded, true);
-        t.checkExpect(c2.flooded, false);
-        t.checkExpect(c3.flooded, false);
-        t.checkExpect(c4.flooded, false);
+        t.checkExpect(board.isFlooded(0), true);
+        t.checkExpect(board.isFlooded(1), false);
+        t.checkExpect(board.isFlooded(2), false);
+        t.checkExpect(board.isFlooded(3), false);
 
         example2.colorClicked = Color.GREEN;
         example2.updateFlooded();
-        t.checkExpect(c1.flooded, true);
-        t.checkExpect(c2.flooded, false);
-        t.checkExpect(c3.flooded, true);
-        t.checkExpect(c4.flooded, false);
+        t.checkExpect(board.isFlooded(0), true);
+        t.checkExpect(board.isFlooded(1), false);
+        t.checkExpect(board.isFlooded(2), true);
+        t.checkExpect(board.isFlooded(3), false);
+        t.checkExpect(example2.cellAt(0).color, Color.GREEN);
 
         example2.colorClicked = Color.BLUE;
         example2.updateFlooded();
-        t.checkExpect(c1.flooded, true);
-        t.checkExpect(c2.flooded, true);
-        t.checkExpect(c3.flooded, true);
-        t.checkExpect(c4.flooded, false);
+        t.checkExpect(board.isFlooded(0), true);
+        t.checkExpect(board.isFlooded(1), true);
+        t.checkExpect(board.isFlooded(2), true);
+        t.checkExpect(board.isFlooded(3), false);
 
         example2.colorClicked = Color.PINK;
         example2.updateFlooded();
-        t.checkExpect(c1.flooded, true);
-        t.checkExpect(c2.flooded, true);
-        t.checkExpect(c3.flooded, true);
-        t.checkExpect(c4.flooded, true);
+        t.checkExpect(board.isFlooded(0), true);
+        t.checkExpect(board.isFlooded(1), true);
+        t.checkExpect(board.isFlooded(2), true);
+        t.checkExpect(board.isFlooded(3), true);
+
+        // a color outside of the palette floods nothing
+        example3.updateFlooded();
+        t.checkExpect(board2.isFlooded(0), false);
     }
 
 
@@ -990,86 +1238,324 @@ class ExamplesFlood {
     // tests onMouseClick
     void testOnMouseClick(Tester t) {
         initCond();
-        ArrayList<Cell> expected = new ArrayList<Cell>();
-        expected.add(this.c1);
 
-        example2.onMouseClicked(new Posn(20, 20)); // clicked middle of C1
+        example2.onMouseClicked(new Posn(10, 10)); // clicked middle of cell 0
         t.checkExpect(example2.colorClicked, Color.RED);
-        t.checkExpect(c1.flooded, true);
-        t.checkExpect(c1.color, Color.RED);
-        t.checkExpect(!c2.flooded && !c3.flooded && !c4.flooded, true);
+        t.checkExpect(board.isFlooded(0), true);
+        t.checkExpect(example2.cellAt(0).color, Color.RED);
+        t.checkExpect(!board.isFlooded(1) && !board.isFlooded(2) && !board.isFlooded(3), true);
 
-        example2.onMouseClicked(new Posn(30, 20)); // right edge of C1/just out of bounds C2
+        example2.onMouseClicked(new Posn(20, 10)); // right edge of 0/just out of bounds 1
         t.checkExpect(example2.colorClicked, Color.RED);
-        t.checkExpect(c1.flooded, true);
-        t.checkExpect(c1.color, Color.RED);
-        t.checkExpect(!c2.flooded && !c3.flooded && !c4.flooded, true);
+        t.checkExpect(board.isFlooded(0), true);
+        t.checkExpect(example2.cellAt(0).color, Color.RED);
+        t.checkExpect(!board.isFlooded(1) && !board.isFlooded(2) && !board.isFlooded(3), true);
 
-        example2.onMouseClicked(new Posn(50, 20)); // right edge of C2
-        expected.add(this.c2);
+        example2.onMouseClicked(new Posn(40, 10)); // right edge of 1
         t.checkExpect(example2.colorClicked, Color.BLUE);
-        t.checkExpect(c1.flooded && c2.flooded, true);
-        t.checkExpect(c1.color, Color.BLUE);
-        t.checkExpect(!c3.flooded && !c4.flooded, true);
-        t.checkExpect(c2.color, Color.BLUE);
+        t.checkExpect(board.isFlooded(0) && board.isFlooded(1), true);
+        t.checkExpect(example2.cellAt(0).color, Color.BLUE);
+        t.checkExpect(!board.isFlooded(2) && !board.isFlooded(3), true);
+        t.checkExpect(example2.cellAt(1).color, Color.BLUE);
 
-        example2.onMouseClicked(new Posn(40, 10));  // null ! just out of top range of C2
+        example2.onMouseClicked(new Posn(30, 0));  // null ! just out of top range of 1
         t.checkExpect(example2.colorClicked, Color.BLUE);
-        t.checkExpect(c1.flooded && c2.flooded, true);
-        t.checkExpect(c1.color, Color.BLUE);
-        t.checkExpect(!c3.flooded && !c4.flooded, true);
-        t.checkExpect(c2.color, Color.BLUE);
+        t.checkExpect(example2.game.numClicks, 3);
+        t.checkExpect(board.isFlooded(0) && board.isFlooded(1), true);
+        t.checkExpect(example2.cellAt(0).color, Color.BLUE);
+        t.checkExpect(!board.isFlooded(2) && !board.isFlooded(3), true);
 
-        example2.onMouseClicked(new Posn(20, 30)); // bottom of C1
+        example2.onMouseClicked(new Posn(10, 20)); // bottom of 0/just out of bounds of 2 top
         t.checkExpect(example2.colorClicked, Color.BLUE);
-        t.checkExpect(c1.flooded && c2.flooded, true);
-        t.checkExpect(c1.color, Color.BLUE);
-        t.checkExpect(!c3.flooded && !c4.flooded, true);
-        t.checkExpect(c2.color, Color.BLUE);
+        t.checkExpect(board.isFlooded(0) && board.isFlooded(1), true);
+        t.checkExpect(!board.isFlooded(2) && !board.isFlooded(3), true);
 
-        example2.onMouseClicked(new Posn(20, 30)); // just out of bounds of C3 top
-        t.checkExpect(example2.colorClicked, Color.BLUE);
-        t.checkExpect(c1.flooded && c2.flooded, true);
-        t.checkExpect(c1.color, Color.BLUE);
-        t.checkExpect(!c3.flooded && !c4.flooded, true);
-        t.checkExpect(c2.color, Color.BLUE);
-
-        example2.onMouseClicked(new Posn(20, 50)); // bottom of C3
-        expected.add(this.c3);
+        example2.onMouseClicked(new Posn(10, 40)); // bottom of 2
         t.checkExpect(example2.colorClicked, Color.GREEN);
-        t.checkExpect(c1.flooded && c2.flooded && c3.flooded, true);
-        t.checkExpect(c1.color, Color.GREEN);
-        t.checkExpect(!c4.flooded, true);
-        t.checkExpect(c2.color, Color.GREEN);
-        t.checkExpect(c3.color, Color.GREEN);
-
-        example2.onMouseClicked(new Posn(50, 40)); // right of C4
-        expected.add(this.c4);
-        t.checkExpect(example2.colorClicked, Color.PINK);
-        t.checkExpect(c1.flooded && c2.flooded && c3.flooded && c4.flooded, true);
-        t.checkExpect(c1.color, Color.PINK);
-        t.checkExpect(c2.color, Color.PINK);
-        t.checkExpect(c3.color, Color.PINK);
-        t.checkExpect(c4.color, Color.PINK);
+        t.checkExpect(board.isFlooded(0) && board.isFlooded(1) && board.isFlooded(2), true);
+        t.checkExpect(!board.isFlooded(3), true);
+        t.checkExpect(example2.cellAt(0).color, Color.GREEN);
+        t.checkExpect(example2.cellAt(1).color, Color.GREEN);
+        t.checkExpect(example2.cellAt(2).color, Color.GREEN);
 
-        example2.onMouseClicked(new Posn(40, 50)); // bottom of C4
+        example2.onMouseClicked(new Posn(40, 30)); // right of 3
         t.checkExpect(example2.colorClicked, Color.PINK);
+        t.checkExpect(example2.allFlooded(), true);
+        t.checkExpect(example2.cellAt(0).color, Color.PINK);
+        t.checkExpect(example2.cellAt(3).color, Color.PINK);
 
-        example2.onMouseClicked(new Posn(30, 40)); // left of C4, just out of bound
+        example2.onMouseClicked(new Posn(30, 40)); // bottom of 3
         t.checkExpect(example2.colorClicked, Color.PINK);
-        t.checkExpect(c1.flooded && c2.flooded && c3.flooded && c4.flooded, true);
-        t.checkExpect(c1.color, Color.PINK);
-        t.checkExpect(c2.color, Color.PINK);
-        t.checkExpect(c3.color, Color.PINK);
-        t.checkExpect(c4.color, Color.PINK);
 
-        example2.onMouseClicked(new Posn(40, 30)); // top of C4, just out of bound
+        example2.onMouseClicked(new Posn(20, 30)); // left of 3, just out of bound
         t.checkExpect(example2.colorClicked, Color.PINK);
-        t.checkExpect(c1.flooded && c2.flooded && c3.flooded && c4.flooded, true);
-        t.checkExpect(c1.color, Color.PINK);
-        t.checkExpect(c2.color, Color.PINK);
-        t.checkExpect(c3.color, Color.PINK);
-        t.checkExpect(c4.color, Color.PINK);
+        t.checkExpect(example2.allFlooded(), true);
+        t.checkExpect(example2.game.numClicks, 8);
+
+        example2.onMouseClicked(new Posn(30, 50)); // the timer and counter below the board
+        t.checkExpect(example2.game.numClicks, 8);
+        example2.onMouseClicked(new Posn(50, 30)); // right of the board
+        t.checkExpect(example2.game.numClicks, 8);
+    }
+
+    // tests that flooding the board with the last allowed move is a win
+    void testWinOnLastMove(Tester t) {
+        initCond();
+        example2.lost = false;
+        example2.game.numAllowedClicks = 3;
+        example2.onMouseClicked(new Posn(30, 10));
+        example2.onMouseClicked(new Posn(10, 30));
+        example2.onMouseClicked(new Posn(30, 30));
+        t.checkExpect(example2.game.won(), true);
+        t.checkExpect(example2.lost, false);
+        t.checkExpect(example2.hud.counterShows, Hud.WON);
+    }
+
+    // tests stepped and the u and y keys
+    void testStepped(Tester t) {
+        initCond();
+        example2.onMouseClicked(new Posn(30, 10));
+        example2.onMouseClicked(new Posn(10, 30));
+        t.checkExpect(board.isFlooded(2), true);
+        t.checkExpect(example2.lost, true);     // as it was made
+
+        example2.onKeyEvent("u");
+        t.checkExpect(board.isFlooded(2), false);
+        t.checkExpect(example2.cellAt(2).color, Color.GREEN);
+        t.checkExpect(example2.cellAt(0).color, Color.BLUE);
+        t.checkExpect(example2.colorClicked, Color.BLUE);
+        t.checkExpect(example2.game.numClicks, 1);
+        t.checkExpect(example2.lost, false);
+        // the cell that left the flood is drawn first, then the flood
+        t.checkExpect(example2.workList.toArray(), new int[] {2, 0, 1});
+
+        example2.onKeyEvent("y");
+        t.checkExpect(board.isFlooded(2), true);
+        t.checkExpect(example2.game.numClicks, 2);
+        t.checkExpect(example2.stepped("y"), false);
+        t.checkExpect(example2.stepped("x"), false);
+        t.checkExpect(example2.stepped("u"), true);
+        t.checkExpect(example2.stepped("u"), true);
+        t.checkExpect(example2.stepped("u"), false);
+        t.checkExpect(board.floodedCount, 1);
+
+        // nothing to step through on the start screen
+        example1.onKeyEvent("u");
+        t.checkExpect(example1.game.numClicks, 0);
+    }
+
+    // tests reset(long), record, endReplay and that a replay plays the game again
+    void testReplay(Tester t) throws IOException {
+        FloodItWorld w = new FloodItWorld();
+        w.reset(5L);
+        t.checkExpect(w.replay.seed, 5L);
+        t.checkExpect(w.replay.size, 22);
+        t.checkExpect(w.replay.palette[1], Color.RED.getRGB());
+        w.onKeyEvent("enter");
+        w.onTick();
+        w.onTick();
+        w.onMouseClicked(new Posn(30, 10));
+        w.onTick();
+        w.onKeyEvent("u");
+        w.onKeyEvent("u");      // nothing left to take back, not a step
+        w.onMouseClicked(new Posn(10, 30));
+        t.checkExpect(w.replay.ticks(), new long[] {2, 3, 3});
+        t.checkExpect(w.replay.codes(), new int[] {w.game.board.ownColor(1), Replay.UNDO,
+                w.game.board.floodColor});
+        t.checkExpect(w.replay.fastForward(3).game.board.flooded, w.game.board.flooded);
+
+        // tests only reset from a Random, which records nothing
+        w.reset(new Random(5));
+        t.checkExpect(w.replay, null);
+        t.checkExpect(w.ticks, 0L);
+        w.onMouseClicked(new Posn(10, 30));
+
+        Path dir = Files.createTempDirectory("replays");
+        FloodItWorld.REPLAY_DIR = dir;
+        try {
+            w.reset(9L);
+            w.onMouseClicked(new Posn(30, 10));
+            w.endReplay();
+            Path file = dir.resolve("floodit-9.replay");
+            t.checkExpect(Replay.load(file).count, 1);
+            Files.delete(file);
+        }
+        finally {
+            FloodItWorld.REPLAY_DIR = null;
+            Files.delete(dir);
+        }
+    }
+
+    // tests suspend and resume
+    void testSuspend(Tester t) throws IOException {
+        initCond();
+        example2.onMouseClicked(new Posn(30, 10));
+        ByteArrayOutputStream saved = new ByteArrayOutputStream();
+        example2.suspend(Channels.newChannel(saved));
+        t.checkExpect(saved.size(), 40 + 16 + 1 + 8);
+
+        FloodItWorld w = new FloodItWorld();
+        w.history.play(1);
+        w.resume(Channels.newChannel(
+                new ByteArrayInputStream(saved.toByteArray())));
+        t.checkExpect(w.startScreen, false);
+        t.checkExpect(w.initSetup, true);
+        t.checkExpect(w.lost, true);
+        t.checkExpect(w.replay, null);
+        t.checkExpect(w.history.canUndo(), false);
+        t.checkExpect(w.game.board.cells, 4);
+        t.checkExpect(w.game.board.flooded, board.flooded);
+        t.checkExpect(w.game.numClicks, 1);
+        t.checkExpect(w.game.numAllowedClicks, 10);
+        t.checkExpect(w.colors.get(3).getRGB(), Color.PINK.getRGB());
+        t.checkExpect(w.colorClicked, w.colors.get(1));
+        t.checkExpect(w.cellAt(1).color, new Color(Color.BLUE.getRGB()));
+    }
+
+    // tests that reset deals solved boards from PUZZLES with their par
+    void testPuzzles(Tester t) throws IOException {
+        Path file = Files.createTempFile("puzzles", ".index");
+        Files.delete(file);
+        PuzzlePool pool = new PuzzlePool(file, 1, 40, 1, 4, 0, 2000);
+        FloodItWorld.PUZZLES = pool;
+        try {
+            FloodItWorld w = new FloodItWorld(4);
+            // nothing is solved yet, so the first board is a random one
+            t.checkExpect(w.game.numAllowedClicks, FloodItGame.allowedClicks(16, 6));
+            pool.await();
+            w.reset();
+            Puzzle puzzle = pool.get(40, 4, 6);
+            t.checkExpect(w.replay.seed, 40L);
+            t.checkExpect(w.game.numAllowedClicks, puzzle.par);
+            // and the replay plays it again allowing the par
+            t.checkExpect(w.replay.allowed, puzzle.par);
+            t.checkExpect(w.replay.fastForward(0).game.numAllowedClicks, puzzle.par);
+            t.checkExpect(w.replay.summary().contains(" moves 0/" + puzzle.par + " "), true);
+            t.checkExpect(w.game.board.flooded, puzzle.game().board.flooded);
+        }
+        finally {
+            FloodItWorld.PUZZLES = null;
+            pool.await();
+            pool.close();
+            Files.delete(file);
+        }
+    }
+
+    // tests that the handlers record into METRICS while it is set
+    void testMetrics(Tester t) {
+        FloodItWorld.METRICS = new GameMetrics(1);
+        try {
+            FloodItWorld w = new FloodItWorld();
+            w.reset(3L);
+            t.checkExpect(FloodItWorld.METRICS.game, "size 22 seed 3");
+            w.onKeyEvent("enter");
+            w.onTick();
+            w.onTick();
+            int before = w.game.board.floodedCount;
+            w.onMouseClicked(new Posn(30, 10));
+            w.onTick();
+            GameMetrics metrics = FloodItWorld.METRICS;
+            t.checkExpect(metrics.ticks.count.get(), 3L);
+            t.checkExpect(metrics.clicks.count.get(), 1L);
+            // the click flooded the board, not a call to updateFlooded
+            t.checkExpect(metrics.floods.count.get(), 1L);
+            t.checkExpect(metrics.floods.max.get() > 0, true);
+            t.checkExpect(metrics.workLists.count.get(), 1L);
+            t.checkExpect(metrics.cellsFlooded.max.get(), (long) w.game.board.floodedCount - before);
+            // the last tick had the flood waiting to be drawn
+            t.checkExpect(metrics.workListDepth.max.get() >= w.game.board.floodedCount, true);
+            // a budget of a nanosecond is always blown
+            t.checkExpect(metrics.overBudget, 3L);
+            t.checkExpect(metrics.worstGame, "size 22 seed 3");
+        }
+        finally {
+            FloodItWorld.METRICS = null;
+        }
+    }
+
+    // tests that a move and drawing it are recorded as flight recorder events
+    void testFloodEvents(Tester t) throws IOException {
+        FloodItWorld w = new FloodItWorld();
+        w.reset(4L);
+        int[] flooded = new int[1];
+        List<RecordedEvent> events = ExamplesFloodEvents.record(() -> {
+            w.onKeyEvent("enter");
+            w.onTick();
+            int before = w.game.board.floodedCount;
+            w.onMouseClicked(new Posn(30, 10));
+            flooded[0] = w.game.board.floodedCount - before;
+            w.onTick();
+        }, MoveEvent.NAME, FloodStepEvent.NAME, WorkListEvent.NAME, DrawFloodEvent.NAME,
+                SetupBoardEvent.NAME);
+        ArrayList<String> names = new ArrayList<String>();
+        for (RecordedEvent event : events) {
+            names.add(event.getEventType().getName());
+            t.checkExpect(event.getInt("boardSize"), 22);
+        }
+        t.checkExpect(names.contains(SetupBoardEvent.NAME), true);
+        t.checkExpect(names.contains(FloodStepEvent.NAME), true);
+        t.checkExpect(names.contains(DrawFloodEvent.NAME), true);
+        RecordedEvent move = events.get(names.indexOf(MoveEvent.NAME));
+        t.checkExpect(move.getInt("color"), w.game.board.floodColor);
+        t.checkExpect(move.getInt("cellsChanged"), flooded[0]);
+        RecordedEvent queued = events.get(names.indexOf(WorkListEvent.NAME));
+        t.checkExpect(queued.getInt("cellsChanged"), w.game.board.floodedCount);
+        t.checkExpect(move.getInt("workListSize"), queued.getInt("workListSize"));
+        t.checkExpect(events.get(names.indexOf(SetupBoardEvent.NAME)).getInt("cellsChanged"), 484);
+    }
+
+    // tests that a flood is drawn a wave at a time, and a new move first draws
+    // whatever the last one left queued
+    void testAnimation(Tester t) {
+        FloodItWorld w = new FloodItWorld();
+        w.reset(6L);
+        w.onKeyEvent("enter");
+        w.onTick();
+        w.onMouseClicked(new Posn(30, 10));
+        t.checkExpect(w.workList.size(), w.game.board.floodedCount);
+        t.checkExpect(w.animator.marked, w.game.board.floodedCount);
+        w.onTick();
+        t.checkExpect(w.workList.size() < w.game.board.floodedCount, true);
+        // a cell of another color, so the whole flood changes
+        int other = 0;
+        while (w.game.board.color(other) == w.game.board.floodColor) {
+            other++;
+        }
+        w.onMouseClicked(new Posn(other % 22 * 20 + 10, other / 22 * 20 + 10));
+        t.checkExpect(w.workList.size(), w.game.board.floodedCount);
+        // never more ticks than waves, however fast the ticks come
+        int waves = w.animator.waiting();
+        int ticks = 0;
+        while (!w.workList.isEmpty()) {
+            w.onTick();
+            ticks++;
+        }
+        t.checkExpect(ticks > 1 && ticks <= waves, true);
+        for (int i = 0; i < w.game.board.cells; i++) {
+            t.checkExpect(w.renderer.shown[i], (byte) w.game.board.color(i));
+        }
+    }
+
+    // tests hint and the h key
+    void testHint(Tester t) {
+        FloodItWorld w = new FloodItWorld();
+        w.reset(6L);
+        // no hints on the start screen
+        w.onKeyEvent("h");
+        t.checkExpect(w.hud.hintShows, Hud.NOTHING);
+        w.onKeyEvent("enter");
+        w.onTick();
+        w.onKeyEvent("h");
+        int hint = w.game.hint();
+        t.checkExpect(hint == Hud.NOTHING, false);
+        t.checkExpect(w.hud.hintShows, hint);
+        // a move takes the hint away until it is asked for again
+        w.onMouseClicked(new Posn(30, 10));
+        t.checkExpect(w.hud.hintShows, Hud.NOTHING);
+        w.hint();
+        t.checkExpect(w.hud.hintShows, w.game.hint());
+        w.onKeyEvent("u");
+        t.checkExpect(w.hud.hintShows, Hud.NOTHING);
     }
 
     // tests onKeyEvent   NOTE: empty because will be implemented for part 2
@@ -1132,6 +1618,9 @@ class ExamplesFlood {
         this.example1.onKeyEvent("enter");
         this.example1.timer();
         t.checkExpect(this.example1.scene, base1);
+        // still the same second, nothing new is placed
+        this.example1.timer();
+        t.checkExpect(this.example1.scene, base1);
 
         this.example1.onKeyEvent("r");
         t.checkExpect(this.example1.scene, base3);
@@ -1181,13 +1670,71 @@ class ExamplesFlood {
     // tests all flooded
     void testAllFlooded(Tester t) {
         this.initCond();
+        t.checkExpect(example3.allFlooded(), false);
         t.checkExpect(example2.allFlooded(), false);
-        example2.board.get(0).flooded = true;
+        example2.game.board.flood(1);
         t.checkExpect(example2.allFlooded(), false);
-        example2.board.get(1).flooded = true;
+        example2.game.board.flood(2);
         t.checkExpect(example2.allFlooded(), false);
-        example2.board.get(2).flooded = true;
-        t.checkExpect(example2.allFlooded(), false);
-        example2.board.get(3).flooded = true;
+        example2.game.board.flood(3);
+        t.checkExpect(example2.allFlooded(), true);
+    }
+
+    // tests a board bigger than the window, shown through a viewport
+    void testHugeBoard(Tester t) {
+        FloodItWorld huge = new FloodItWorld(100);
+        t.checkExpect(huge.width, 800);
+        t.checkExpect(huge.height, 840);
+        t.checkExpect(huge.view.cols(), 40);
+        t.checkExpect(huge.view.showsAll(), false);
+        t.checkExpect(new FloodItWorld(22).view.showsAll(), true);
+        t.checkExpect(new FloodItWorld(22).width, 440);
+
+        // arrow keys scroll a quarter of the window, clicks land on the cell shown
+        huge.onKeyEvent("enter");
+        huge.onKeyEvent("right");
+        t.checkExpect(huge.view.col, 10);
+        huge.onKeyEvent("down");
+        huge.onKeyEvent("up");
+        huge.onKeyEvent("up");
+        t.checkExpect(huge.view.row, 0);
+        Color shown = huge.colors.get(huge.game.board.color(10));
+        huge.onMouseClicked(new Posn(1, 1));
+        t.checkExpect(huge.colorClicked, shown);
+        t.checkExpect(huge.game.numClicks, 1);
+
+        // only the visible flooded cells are queued
+        huge.workList.clear();
+        huge.updateWorkList();
+        int visible = 0;
+        for (int slot = 0; slot < huge.view.visibleCells(); slot++) {
+            if (huge.game.board.isFlooded(huge.view.cellAt(slot))) {
+                visible++;
+            }
+        }
+        t.checkExpect(huge.workList.size(), visible);
+
+        // zooming out draws twice as many cells along each side
+        huge.onKeyEvent("-");
+        t.checkExpect(huge.view.cellSize, 10);
+        t.checkExpect(huge.renderer.shown.length, 6400);
+        t.checkExpect(huge.workList.size(), 0);
+        huge.onKeyEvent("+");
+        huge.onKeyEvent("=");
+        t.checkExpect(huge.view.cellSize, 40);
+        t.checkExpect(huge.renderer.shown.length, 400);
+    }
+
+    // tests a game dealt into a board kept off the heap
+    void testOffHeapBoard(Tester t) {
+        OffHeapBoard storage = OffHeapBoard.allocate(30);
+        FloodItWorld offHeap = new FloodItWorld(storage);
+        t.checkExpect(offHeap.game.board == storage, true);
+        t.checkExpect(offHeap.width, 600);
+        offHeap.reset(new Random(5));
+        t.checkExpect(offHeap.game.board == storage, true);
+        t.checkExpect(offHeap.game.board.isFlooded(0), true);
+        FloodItGame heap = new FloodItGame(30, 6, new Random(5));
+        t.checkExpect(offHeap.game.board.floodedCount, heap.board.floodedCount);
     }
-}
\ No newline at end of file
+}
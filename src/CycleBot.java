@@ -0,0 +1,21 @@
+import java.util.Random;
+
+// plays the palette in order, skipping colors that would flood nothing
+
+class CycleBot implements FloodBot {
+    /* TMPLT
+     * Methods:
+     *   this.choose(FloodItGame, Random)    - int
+     * Methods on Parameters:
+     *   game.touches(int)                   - boolean
+     */
+    public int choose(FloodItGame game, Random rand) {
+        for (int k = 1; k <= game.numColors; k++) {
+            int c = (game.board.floodColor + k) % game.numColors;
+            if (game.touches(c)) {
+                return c;
+            }
+        }
+        return game.board.floodColor;
+    }
+}
@@ -0,0 +1,303 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// two players flooding one board from opposite corners, player 0 from the top
+// left and player 1 from the bottom right; every round both pick a color at
+// once and flood every neutral cell of it they reach, which both do in
+// parallel without a lock
+//
+// who owns what is kept in one AtomicLongArray of four bit planes, the cells
+// each player owns and the cells each claimed this round; a round is two
+// phases, each player's half of a phase on a thread of its own:
+//   claim   each player floods from its cells through neutral cells of its
+//           color, setting only its own claim plane and reading the owner planes
+//   settle  each player takes the cells it claimed that the other did not,
+//           setting only its own owner plane and reading the other's claims
+// so no word is ever written by two threads at once, and the join between the
+// phases publishes them; a cell both players claim in the same round stays
+// neutral, which makes the outcome of a round the same however the threads run
+
+class Duel {
+    static final int OWNER = 0;     // planes of the cells each player owns
+    static final int CLAIM = 2;     // planes of the cells each player claimed this round
+
+    FloodBoard board;       // the color every cell was dealt, its flood is not used
+    int numColors;
+    int numAllowedRounds;   // rounds before the duel ends if the board is not all owned
+    int rounds;             // rounds played so far
+    int words;              // longs in one plane
+    AtomicLongArray planes; // owner planes of players 0 and 1, then their claim planes
+    int[] color;            // color every cell of each player shows
+    int[] owned;            // cells each player owns
+    int[][] frontier;       // cells of each player that may still touch neutral ones
+    int[] frontierSize;     // used entries of each frontier
+    IntQueue[] claimed;     // cells each player claimed in the last round, in flood order
+    int contested;          // cells both players claimed in the last round
+
+    // start duel constructor, a random board with each player owning its corner
+    Duel(int size, int numColors, Random rand) {
+        this(Duel.deal(size, numColors, rand), numColors,
+                FloodItGame.allowedClicks(size * size, numColors));
+    }
+
+    // duel on the given board for the given number of rounds, each player
+    // owning its corner and everything of the corner's color joined to it
+    Duel(FloodBoard board, int numColors, int numAllowedRounds) {
+        if (board.size < 2) {
+            throw new IllegalArgumentException("Cannot duel on a board of size " + board.size);
+        }
+        this.board = board;
+        this.numColors = numColors;
+        this.numAllowedRounds = numAllowedRounds;
+        this.rounds = 0;
+        this.words = (board.cells + 63) >>> 6;
+        this.planes = new AtomicLongArray(4 * this.words);
+        this.color = new int[2];
+        this.owned = new int[2];
+        this.frontier = new int[][] {new int[16], new int[16]};
+        this.frontierSize = new int[2];
+        this.claimed = new IntQueue[] {new IntQueue(), new IntQueue()};
+        this.contested = 0;
+
+        this.take(0, 0);
+        this.take(1, board.cells - 1);
+        this.play(board.ownColor(0), board.ownColor(board.cells - 1));
+    }
+
+    /* TMPLT
+     * Fields
+     *   Duel.OWNER              0
+     *   Duel.CLAIM              2
+     *   this.board              FloodBoard
+     *   this.numColors          int
+     *   this.numAllowedRounds   int
+     *   this.rounds             int
+     *   this.words              int
+     *   this.planes             AtomicLongArray
+     *   this.color              int[]
+     *   this.owned              int[]
+     *   this.frontier           int[][]
+     *   this.frontierSize       int[]
+     *   this.claimed            IntQueue[]
+     *   this.contested          int
+     * Methods:
+     *   Duel.deal(int, int, Random)     - FloodBoard
+     *   this.round(int, int)            - void
+     *   this.play(int, int)             - void
+     *   this.claim(int, int)            - void
+     *   this.reach(int, int, int)       - boolean
+     *   this.settle(int)                - void
+     *   this.take(int, int)             - void
+     *   this.has(int, int, int)         - boolean
+     *   this.mark(int, int, int, boolean) - void
+     *   this.owner(int)                 - int
+     *   this.color(int)                 - int
+     *   this.over()                     - boolean
+     *   this.winner()                   - int
+     *   Duel.main(String[])             - void
+     * Methods on Fields:
+     *   this.board.ownColor(int)        - int
+     *   this.planes.get(int)            - long
+     */
+    // a board of the given size dealt random colors
+    static FloodBoard deal(int size, int numColors, Random rand) {
+        FloodBoard board = new FloodBoard(size);
+        board.randomize(numColors, rand);
+        return board;
+    }
+
+    // plays one round, player 0 picking the first color and player 1 the second
+    // EFFECT: modifies the cells each player owns and counts the round
+    void round(int color0, int color1) {
+        for (int color : new int[] {color0, color1}) {
+            if (color < 0 || color >= this.numColors) {
+                throw new IllegalArgumentException("Cannot play color " + color + " of "
+                        + this.numColors);
+            }
+        }
+        if (this.over()) {
+            throw new IllegalStateException("The duel is over");
+        }
+        this.play(color0, color1);
+        this.rounds++;
+    }
+
+    // floods both players with their colors at once, first claiming and then settling
+    // EFFECT: modifies the planes, colors, owned counts, frontiers and claims
+    void play(int color0, int color1) {
+        ForkJoinTask.invokeAll(ForkJoinTask.adapt(() -> this.claim(0, color0)),
+                ForkJoinTask.adapt(() -> this.claim(1, color1)));
+        ForkJoinTask.invokeAll(ForkJoinTask.adapt(() -> this.settle(0)),
+                ForkJoinTask.adapt(() -> this.settle(1)));
+        this.contested = 0;
+        IntQueue claims = this.claimed[0];
+        for (int k = 0; k < claims.size(); k++) {
+            if (this.has(CLAIM, 1, claims.get(k))) {
+                this.contested++;
+            }
+        }
+    }
+
+    // claims every neutral cell of the given color the given player reaches,
+    // breadth first from its frontier through the cells it claims
+    // EFFECT: modifies the player's claim plane, claims, color and frontier
+    void claim(int player, int color) {
+        IntQueue claims = this.claimed[player];
+        // only this player reads or writes its claims, so last round's are cleared here
+        for (int k = 0; k < claims.size(); k++) {
+            this.mark(CLAIM, player, claims.get(k), false);
+        }
+        claims.clear();
+        this.color[player] = color;
+
+        int[] cells = this.frontier[player];
+        int kept = 0;
+        for (int k = 0; k < this.frontierSize[player]; k++) {
+            int i = cells[k];
+            boolean keep = this.reach(player, this.board.left(i), color)
+                    | this.reach(player, this.board.top(i), color)
+                    | this.reach(player, this.board.right(i), color)
+                    | this.reach(player, this.board.bottom(i), color);
+            if (keep) {
+                cells[kept++] = i;
+            }
+        }
+        this.frontierSize[player] = kept;
+        for (int next = 0; next < claims.size(); next++) {
+            int i = claims.get(next);
+            this.reach(player, this.board.left(i), color);
+            this.reach(player, this.board.top(i), color);
+            this.reach(player, this.board.right(i), color);
+            this.reach(player, this.board.bottom(i), color);
+        }
+    }
+
+    // claims the given cell for the given player if it is neutral, of the given
+    // color and not claimed yet
+    // EFFECT: may modify the player's claim plane and claims
+    // returns whether the cell is still not owned by anyone, keeping its neighbor
+    // on the frontier: a claim may yet be contested
+    boolean reach(int player, int i, int color) {
+        if (i == -1 || this.has(OWNER, 0, i) || this.has(OWNER, 1, i)) {
+            return false;
+        }
+        if (this.board.ownColor(i) == color && !this.has(CLAIM, player, i)) {
+            this.mark(CLAIM, player, i, true);
+            this.claimed[player].add(i);
+        }
+        return true;
+    }
+
+    // gives the given player every cell it claimed that the other did not
+    // EFFECT: modifies the player's owner plane, owned count and frontier
+    void settle(int player) {
+        IntQueue claims = this.claimed[player];
+        for (int k = 0; k < claims.size(); k++) {
+            int i = claims.get(k);
+            if (!this.has(CLAIM, 1 - player, i)) {
+                this.take(player, i);
+            }
+        }
+    }
+
+    // EFFECT: gives the given cell to the given player and puts it on its frontier
+    void take(int player, int i) {
+        this.mark(OWNER, player, i, true);
+        this.owned[player]++;
+        if (this.frontierSize[player] == this.frontier[player].length) {
+            this.frontier[player] = Arrays.copyOf(this.frontier[player],
+                    2 * this.frontierSize[player]);
+        }
+        this.frontier[player][this.frontierSize[player]++] = i;
+    }
+
+    // is the given cell set in the given player's plane of the given kind?
+    boolean has(int kind, int player, int i) {
+        return (this.planes.get((kind + player) * this.words + (i >>> 6)) & (1L << i)) != 0;
+    }
+
+    // sets or clears the given cell in the given player's plane of the given
+    // kind; only one thread ever writes a plane during a phase, so a plain
+    // atomic get and set cannot lose another thread's bits
+    // EFFECT: modifies the plane
+    void mark(int kind, int player, int i, boolean set) {
+        int w = (kind + player) * this.words + (i >>> 6);
+        long word = this.planes.get(w);
+        this.planes.set(w, set ? word | (1L << i) : word & ~(1L << i));
+    }
+
+    // the player owning the given cell, or -1 if it is neutral
+    int owner(int i) {
+        return this.has(OWNER, 0, i) ? 0 : this.has(OWNER, 1, i) ? 1 : -1;
+    }
+
+    // the color the given cell shows: its owner's, or its own if it is neutral
+    int color(int i) {
+        int owner = this.owner(i);
+        return owner == -1 ? this.board.ownColor(i) : this.color[owner];
+    }
+
+    // is every cell owned, or every round played?
+    boolean over() {
+        return this.owned[0] + this.owned[1] == this.board.cells
+                || this.rounds >= this.numAllowedRounds;
+    }
+
+    // the player owning more cells, or -1 for a tie
+    int winner() {
+        return this.owned[0] > this.owned[1] ? 0 : this.owned[1] > this.owned[0] ? 1 : -1;
+    }
+
+    // plays a number of seeded duels between two random players at once on the
+    // given number of threads, printing how fast they went and who won
+    // arguments: duels size colors threads
+    public static void main(String[] args) throws InterruptedException, ExecutionException {
+        if (args.length != 4) {
+            System.err.println("usage: Duel duels size colors threads");
+            System.exit(2);
+        }
+        int duels = Integer.parseInt(args[0]);
+        int size = Integer.parseInt(args[1]);
+        int numColors = Integer.parseInt(args[2]);
+        ExecutorService pool = Executors.newFixedThreadPool(Integer.parseInt(args[3]));
+        long started = System.nanoTime();
+        try {
+            ArrayList<Future<Duel>> played = new ArrayList<Future<Duel>>();
+            for (int k = 0; k < duels; k++) {
+                long seed = k;
+                played.add(pool.submit(() -> {
+                    Random rand = new Random(seed);
+                    Duel duel = new Duel(size, numColors, rand);
+                    while (!duel.over()) {
+                        duel.round(rand.nextInt(numColors), rand.nextInt(numColors));
+                    }
+                    return duel;
+                }));
+            }
+            int[] wins = new int[3];
+            long rounds = 0;
+            for (Future<Duel> each : played) {
+                Duel duel = each.get();
+                wins[duel.winner() + 1]++;
+                rounds += duel.rounds;
+            }
+            long elapsed = System.nanoTime() - started;
+            System.out.printf("%d duels of %dx%d with %d colors, %d rounds%n", duels, size, size,
+                    numColors, rounds);
+            System.out.printf("player 0 won %d, player 1 won %d, %d ties%n", wins[1], wins[2],
+                    wins[0]);
+            System.out.printf("%.1f us a round, %.0f duels a second%n", elapsed / 1e3 / rounds,
+                    duels / (elapsed / 1e9));
+        }
+        finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,130 @@
+import tester.*;
+
+// examples for drawing floods a wave at a time
+class ExamplesAnimator {
+    FloodBoard board;           // 3x3 board, all flooded
+    FloodAnimator animator;     // nothing queued, nothing measured
+    IntQueue drawn;             // every cell the drawer was given
+
+    // initializes test cases
+    void initCond() {
+        board = new FloodBoard(3, new byte[9]);
+        board.flood(0);
+        board.expand(0);
+        animator = new FloodAnimator(new IntQueue());
+        drawn = new IntQueue();
+    }
+
+    // draws the given cell into drawn, it changed unless it is one of the first
+    // few cells of the board
+    boolean draw(int i, int unchanged) {
+        drawn.add(i);
+        return i >= unchanged;
+    }
+
+    // tests tick
+    void testTick(Tester t) {
+        initCond();
+        animator.tick(100);
+        t.checkExpect(animator.lastTick, 100L);
+        t.checkExpect(animator.tickNanos, FloodAnimator.TICK);
+        animator.tick(100 + FloodAnimator.TICK);
+        t.checkExpect(animator.tickNanos, FloodAnimator.TICK);
+        // ten milliseconds later moves the average an eighth of the way there
+        animator.tick(100 + FloodAnimator.TICK + 10_000_000L);
+        t.checkExpect(animator.tickNanos, 45_000_000L);
+        // a long pause counts as a sweep
+        animator.tick(animator.lastTick + 60 * FloodAnimator.SWEEP);
+        t.checkExpect(animator.tickNanos, 45_000_000L + (FloodAnimator.SWEEP - 45_000_000L) / 8);
+        // the clock never going forward is still a tick
+        animator.tickNanos = 1;
+        animator.tick(animator.lastTick);
+        t.checkExpect(animator.tickNanos, 1L);
+    }
+
+    // tests queueFlood, endWave, waiting and sync
+    void testQueue(Tester t) {
+        initCond();
+        t.checkExpect(animator.waiting(), 0);
+        animator.queueFlood(board, 0);
+        t.checkExpect(animator.cells.toArray(), new int[] {0, 1, 3, 2, 4, 6, 5, 7, 8});
+        t.checkExpect(animator.waves.toArray(), new int[] {1, 2, 3, 2, 1});
+        t.checkExpect(animator.marked, 9);
+        t.checkExpect(animator.waiting(), 5);
+
+        // cells queued by hand are waves of one until a wave is ended
+        animator.cells.add(4);
+        animator.cells.add(5);
+        t.checkExpect(animator.waiting(), 7);
+        animator.endWave();
+        t.checkExpect(animator.waiting(), 6);
+        t.checkExpect(animator.marked, 11);
+        animator.endWave();
+        t.checkExpect(animator.waiting(), 6);
+
+        // emptied by hand, the waves are forgotten
+        animator.cells.clear();
+        animator.cells.add(3);
+        t.checkExpect(animator.waiting(), 1);
+        t.checkExpect(animator.marked, 0);
+        animator.queueFlood(board, 8);
+        t.checkExpect(animator.waves.toArray(), new int[] {1, 1, 2, 3, 2, 1});
+    }
+
+    // tests draw
+    void testDraw(Tester t) {
+        initCond();
+        t.checkExpect(animator.draw(i -> this.draw(i, 0)), 0);
+
+        // a sweep of two ticks draws three waves and then the other two
+        animator.tickNanos = FloodAnimator.SWEEP / 2;
+        animator.queueFlood(board, 0);
+        t.checkExpect(animator.draw(i -> this.draw(i, 0)), 6);
+        t.checkExpect(animator.pace, 3);
+        t.checkExpect(drawn.toArray(), new int[] {0, 1, 3, 2, 4, 6});
+        t.checkExpect(animator.draw(i -> this.draw(i, 0)), 3);
+        t.checkExpect(animator.cells.size(), 0);
+        t.checkExpect(animator.pace, 0);
+
+        // at the usual tick rate it is a wave a tick, skipping waves that changed nothing
+        animator.tickNanos = FloodAnimator.TICK;
+        animator.queueFlood(board, 0);
+        drawn.clear();
+        t.checkExpect(animator.draw(i -> this.draw(i, 3)), 1);
+        t.checkExpect(drawn.toArray(), new int[] {0, 1, 3});
+        t.checkExpect(animator.waiting(), 3);
+
+        // cells queued by hand are drawn one a tick
+        animator.clear();
+        animator.cells.add(0);
+        animator.cells.add(5);
+        animator.cells.add(7);
+        drawn.clear();
+        t.checkExpect(animator.draw(i -> this.draw(i, 3)), 1);
+        t.checkExpect(drawn.toArray(), new int[] {0, 5});
+
+        // a tick without time to spare still draws a wave
+        animator.tickNanos = 1;
+        animator.queueFlood(board, 0);
+        t.checkExpect(animator.draw(i -> this.draw(i, 0)), 1);
+        t.checkExpect(animator.waiting(), 5);
+    }
+
+    // tests collapse and clear
+    void testCollapse(Tester t) {
+        initCond();
+        animator.queueFlood(board, 0);
+        animator.cells.add(4);
+        t.checkExpect(animator.collapse(i -> this.draw(i, 4)), 6);
+        t.checkExpect(drawn.size(), 10);
+        t.checkExpect(animator.cells.size(), 0);
+        t.checkExpect(animator.waves.size(), 0);
+        t.checkExpect(animator.marked, 0);
+        t.checkExpect(animator.collapse(i -> this.draw(i, 0)), 0);
+
+        animator.queueFlood(board, 0);
+        animator.clear();
+        t.checkExpect(animator.waiting(), 0);
+        t.checkExpect(drawn.size(), 10);
+    }
+}
@@ -0,0 +1,161 @@
+import java.util.Random;
+
+import tester.*;
+
+// examples for flooding with bit planes
+class ExamplesBitFlood {
+    FloodBoard board;   // 3x3 board, only the top left cell flooded
+    BitFlood bits;      // its planes
+
+    // initializes test cases
+    void initCond() {
+        // 0 1 0
+        // 1 1 2
+        // 0 2 2
+        board = new FloodBoard(3, new byte[] {0, 1, 0, 1, 1, 2, 0, 2, 2});
+        board.flood(0);
+        bits = new BitFlood(board, 3);
+    }
+
+    // tests the constructor and of
+    void testConstructor(Tester t) {
+        initCond();
+        t.checkExpect(bits.words, 1);
+        t.checkExpect(bits.rowWords, 0);
+        t.checkExpect(bits.rowBits, 3);
+        t.checkExpect(bits.pad, 2);
+        t.checkExpect(bits.planes, new long[][] {{0b001000101L}, {0b000011010L}, {0b110100000L}});
+        t.checkExpect(bits.notLeft, new long[] {0b110110110L});
+        t.checkExpect(bits.notRight, new long[] {0b011011011L});
+        t.checkExpect(bits.front.length, 5);
+        // a row of 65 cells spans a whole word and one cell more
+        BitFlood wide = new BitFlood(new FloodBoard(65), 1);
+        t.checkExpect(wide.words, 67);
+        t.checkExpect(wide.rowWords, 1);
+        t.checkExpect(wide.rowBits, 1);
+        t.checkExpect(wide.pad, 3);
+        t.checkExpect(wide.notLeft[1], ~(1L << 1));
+        // without the vector profile, or its module, it is plain longs
+        t.checkExpect(BitFlood.of(board, 3).getClass() == BitFlood.class
+                || BitFlood.of(board, 3).getClass().getName().equals(BitFlood.VECTOR), true);
+    }
+
+    // tests grown and grow
+    void testGrow(Tester t) {
+        initCond();
+        // the middle cell reaches the cells beside, above and below it
+        bits.front[bits.pad] = 1L << 4;
+        t.checkExpect(bits.grown(0), 0b010101010L);
+        // the corner cell does not wrap around to the row before
+        bits.front[bits.pad] = 1L << 3;
+        t.checkExpect(bits.grown(0), 0b001010001L);
+        bits.front[bits.pad] = 1L << 2;
+        bits.grow(0, 0, bits.planes[2]);
+        t.checkExpect(bits.next[bits.pad], 0b000100000L);
+        bits.front[bits.pad] = 0;
+        bits.next[bits.pad] = 0;
+    }
+
+    // tests flood
+    void testFlood(Tester t) {
+        initCond();
+        t.checkExpect(bits.flood(2), 0);
+        t.checkExpect(board.floodColor, 2);
+        t.checkExpect(bits.flood(1), 3);
+        t.checkExpect(board.flooded, new long[] {0b000011011L});
+        t.checkExpect(board.floodedCount, 4);
+        t.checkExpect(bits.flood(0), 2);
+        // the journal hears of every cell taken in
+        board.journal = new IntQueue();
+        t.checkExpect(bits.flood(2), 3);
+        t.checkExpect(board.journal.toArray(), new int[] {5, 7, 8});
+        t.checkExpect(board.allFlooded(), true);
+        t.checkExpect(bits.flood(1), 0);
+        // the working words are left empty for the next move
+        t.checkExpect(bits.front, new long[5]);
+        t.checkExpect(bits.next, new long[5]);
+    }
+
+    // tests widen
+    void testWiden(Tester t) {
+        FloodBoard wide = new FloodBoard(16);
+        wide.flood(0);
+        BitFlood planes = new BitFlood(wide, 1);
+        planes.floodLo = 2;
+        planes.floodHi = 2;
+        planes.widen();
+        t.checkExpect(planes.floodLo, 0);
+        t.checkExpect(planes.floodHi, 3);
+        // every word is looked at, not just the ones the last move left
+        t.checkExpect(planes.flood(0), 255);
+    }
+
+    // tests edgeCells
+    void testEdgeCells(Tester t) {
+        initCond();
+        t.checkExpect(bits.edgeCells(1), 2);
+        t.checkExpect(bits.edgeCells(0), 0);
+        bits.flood(1);
+        bits.flood(2);
+        // cells 2 and 6 each touch two flooded cells but count once
+        t.checkExpect(bits.edgeCells(0), 2);
+        t.checkExpect(bits.edgeCells(1), 0);
+        t.checkExpect(bits.front, new long[5]);
+        // the same counts the frontier gives, on a board whose rows end inside words
+        FloodItGame game = new FloodItGame(70, 5, new Random(3));
+        FloodItGame planes = new FloodItGame(70, 5, new Random(3));
+        game.regions = null;
+        planes.useBits();
+        for (int move = 0; move < 30; move++) {
+            for (int c = 0; c < 5; c++) {
+                t.checkExpect(planes.bits.edgeCells(c), game.board.edgeCells(c));
+            }
+            game.play(move % 5);
+            planes.play(move % 5);
+        }
+    }
+
+    // tests that every move floods exactly what the frontier floods, on boards
+    // whose rows end inside a word, on one and across words
+    void testSameAsFrontier(Tester t) {
+        for (int size : new int[] {1, 5, 22, 63, 64, 65, 130}) {
+            FloodItGame frontier = new FloodItGame(size, 4, new Random(size));
+            FloodItGame planes = new FloodItGame(size, 4, new Random(size));
+            frontier.regions = null;
+            planes.useBits();
+            t.checkExpect(planes.regions, null);
+            for (int move = 0; move < 4 * size && !frontier.board.allFlooded(); move++) {
+                int color = (move * 7 + 1) % 4;
+                t.checkExpect(planes.flood(color), frontier.flood(color));
+            }
+            t.checkExpect(planes.board.flooded, frontier.board.flooded);
+            t.checkExpect(planes.board.floodedCount, frontier.board.floodedCount);
+        }
+    }
+
+    // tests useBits with moves taken back and played again
+    void testUseBits(Tester t) {
+        FloodItGame game = new FloodItGame(30, 6, new Random(3));
+        FloodItGame graph = new FloodItGame(30, 6, new Random(3));
+        game.useBits();
+        t.checkExpect(game.bits.board, game.board);
+        MoveHistory history = new MoveHistory(game);
+        MoveHistory graphHistory = new MoveHistory(graph);
+        for (int move = 0; move < 20; move++) {
+            t.checkExpect(history.play(move % 6), graphHistory.play(move % 6));
+        }
+        for (int move = 0; move < 8; move++) {
+            history.undo(new IntQueue());
+            graphHistory.undo(new IntQueue());
+        }
+        history.redo();
+        graphHistory.redo();
+        t.checkExpect(history.play(4), graphHistory.play(4));
+        t.checkExpect(game.board.flooded, graph.board.flooded);
+        t.checkExpect(game.numClicks, 14);
+        // a new deal floods with its region graph again
+        game.reset(30, 6, new Random(3));
+        t.checkExpect(game.bits, null);
+        t.checkExpect(game.regions == null, false);
+    }
+}
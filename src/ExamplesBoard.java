@@ -0,0 +1,250 @@
+import java.util.Random;
+
+import tester.*;
+
+// examples for the primitive board
+class ExamplesBoard {
+    FloodBoard board;   // 3x3 board
+    FloodBoard single;  // 1x1 board
+
+    // initializes test cases
+    void initCond() {
+        // 0 1 0
+        // 1 1 2
+        // 0 2 2
+        board = new FloodBoard(3, new byte[] {0, 1, 0, 1, 1, 2, 0, 2, 2});
+        single = new FloodBoard(1);
+    }
+
+    // tests the constructors
+    void testConstructor(Tester t) {
+        initCond();
+        t.checkExpect(board.size, 3);
+        t.checkExpect(board.cells, 9);
+        t.checkExpect(board.flooded.length, 1);
+        t.checkExpect(board.floodedCount, 0);
+        t.checkExpect(new FloodBoard(8).flooded.length, 1);
+        t.checkExpect(new FloodBoard(9).flooded.length, 2);
+        t.checkExpect(single.color(0), 0);
+        t.checkConstructorException(
+                new IllegalArgumentException("Expected 4 colors but got 3"),
+                "FloodBoard", 2, new byte[3]);
+    }
+
+    // tests cellsOf
+    void testCellsOf(Tester t) {
+        t.checkExpect(FloodBoard.cellsOf(1), 1);
+        t.checkExpect(FloodBoard.cellsOf(4096), 16777216);
+        t.checkExpect(FloodBoard.cellsOf(46340), 2147395600);
+        t.checkException(new IllegalArgumentException("Cannot make a board of size 46341"),
+                new FloodBoard(1), "cellsOf", 46341);
+        t.checkException(new IllegalArgumentException("Cannot make a board of size 0"),
+                new FloodBoard(1), "cellsOf", 0);
+    }
+
+    // tests randomize
+    void testRandomize(Tester t) {
+        initCond();
+        board.flood(0);
+        board.randomize(6, new Random(2));
+        Random rand = new Random(2);
+        for (int i = 0; i < board.cells; i++) {
+            t.checkExpect(board.color(i), rand.nextInt(6));
+        }
+        t.checkExpect(board.isFlooded(0), false);
+        t.checkExpect(board.floodedCount, 0);
+    }
+
+    // tests color and setColor
+    void testColor(Tester t) {
+        initCond();
+        t.checkExpect(board.color(0), 0);
+        t.checkExpect(board.color(5), 2);
+        board.setColor(5, 4);
+        t.checkExpect(board.color(5), 4);
+    }
+
+    // tests flood, isFlooded and allFlooded
+    void testFlood(Tester t) {
+        initCond();
+        t.checkExpect(board.isFlooded(4), false);
+        board.flood(4);
+        t.checkExpect(board.isFlooded(4), true);
+        t.checkExpect(board.floodedCount, 1);
+        t.checkExpect(board.floodColor, 1);
+        t.checkExpect(board.frontierSize, 1);
+        board.flood(4);
+        t.checkExpect(board.floodedCount, 1);
+        t.checkExpect(board.frontierSize, 1);
+
+        FloodBoard big = new FloodBoard(10);
+        big.flood(99);
+        t.checkExpect(big.isFlooded(99), true);
+        t.checkExpect(big.isFlooded(35), false);
+
+        t.checkExpect(single.allFlooded(), false);
+        single.flood(0);
+        t.checkExpect(single.allFlooded(), true);
+    }
+
+    // tests floodBit
+    void testFloodBit(Tester t) {
+        initCond();
+        board.journal = new IntQueue();
+        board.floodBit(4);
+        board.floodBit(4);
+        t.checkExpect(board.isFlooded(4), true);
+        t.checkExpect(board.floodedCount, 1);
+        t.checkExpect(board.floodColor, 1);
+        t.checkExpect(board.journal.toArray(), new int[] {4});
+        // nothing goes on the frontier
+        t.checkExpect(board.frontierSize, 0);
+    }
+
+    // tests unfloodBits
+    void testUnfloodBits(Tester t) {
+        initCond();
+        board.flood(0);
+        board.expand(1);
+        board.unfloodBits(new int[] {1, 3, 4}, 3, 0);
+        t.checkExpect(board.isFlooded(1) || board.isFlooded(3) || board.isFlooded(4), false);
+        t.checkExpect(board.floodedCount, 1);
+        t.checkExpect(board.color(0), 0);
+        // the frontier is left as the flood left it
+        t.checkExpect(board.frontierSize, 3);
+    }
+
+    // tests left, top, right and bottom
+    void testNeighbors(Tester t) {
+        initCond();
+        t.checkExpect(board.left(0), -1);
+        t.checkExpect(board.top(0), -1);
+        t.checkExpect(board.right(0), 1);
+        t.checkExpect(board.bottom(0), 3);
+        t.checkExpect(board.left(4), 3);
+        t.checkExpect(board.top(4), 1);
+        t.checkExpect(board.right(4), 5);
+        t.checkExpect(board.bottom(4), 7);
+        t.checkExpect(board.right(5), -1);
+        t.checkExpect(board.bottom(8), -1);
+        t.checkExpect(single.right(0), -1);
+        t.checkExpect(single.bottom(0), -1);
+    }
+
+    // tests expand
+    void testExpand(Tester t) {
+        initCond();
+        board.flood(0);
+        t.checkExpect(board.floodColor, 0);
+        t.checkExpect(board.frontierSize, 1);
+
+        t.checkExpect(board.expand(1), 3);
+        t.checkExpect(board.isFlooded(1) && board.isFlooded(3) && board.isFlooded(4), true);
+        t.checkExpect(board.color(0), 1);
+        t.checkExpect(board.color(2), 0);
+        // cell 0 no longer touches an unflooded cell
+        t.checkExpect(board.frontierSize, 3);
+
+        // picking a color that touches nothing floods nothing
+        t.checkExpect(board.expand(3), 0);
+        t.checkExpect(board.color(4), 3);
+
+        t.checkExpect(board.expand(2), 3);
+        t.checkExpect(board.expand(0), 2);
+        t.checkExpect(board.allFlooded(), true);
+        t.checkExpect(board.frontierSize, 0);
+        t.checkExpect(board.color(8), 0);
+
+        // a single move follows the region up and left against the row order
+        // 0 1 1
+        // 2 2 1
+        // 1 1 1
+        FloodBoard spiral = new FloodBoard(3, new byte[] {0, 1, 1, 2, 2, 1, 1, 1, 1});
+        spiral.flood(0);
+        t.checkExpect(spiral.expand(1), 6);
+        t.checkExpect(spiral.isFlooded(6), true);
+        t.checkExpect(spiral.isFlooded(3), false);
+        t.checkExpect(spiral.expand(2), 2);
+        t.checkExpect(spiral.allFlooded(), true);
+    }
+
+    // tests edgeCells and firstFlooded
+    void testEdgeCells(Tester t) {
+        initCond();
+        board.flood(0);
+        t.checkExpect(board.edgeCells(1), 2);
+        t.checkExpect(board.edgeCells(2), 0);
+        t.checkExpect(board.firstFlooded(1), 0);
+        t.checkExpect(board.firstFlooded(8), -1);
+        board.expand(1);
+        t.checkExpect(board.edgeCells(0), 2);
+        t.checkExpect(board.edgeCells(2), 2);
+        board.expand(2);
+        // cells 2 and 6 each touch two flooded cells but count once
+        t.checkExpect(board.firstFlooded(2), 1);
+        t.checkExpect(board.firstFlooded(6), 3);
+        t.checkExpect(board.edgeCells(0), 2);
+        t.checkExpect(board.edgeCells(1), 0);
+    }
+
+    // tests absorb
+    void testAbsorb(Tester t) {
+        initCond();
+        board.flood(0);
+        t.checkExpect(board.absorb(-1, 1), false);
+        t.checkExpect(board.absorb(0, 1), false);
+        t.checkExpect(board.absorb(1, 2), true);
+        t.checkExpect(board.isFlooded(1), false);
+        t.checkExpect(board.absorb(1, 1), false);
+        t.checkExpect(board.isFlooded(1), true);
+        t.checkExpect(board.frontierSize, 2);
+    }
+
+    // tests both floodOrders and visit
+    void testFloodOrder(Tester t) {
+        initCond();
+        IntQueue out = new IntQueue();
+        board.floodOrder(0, out);
+        t.checkExpect(out.size(), 0);
+
+        board.flood(0);
+        board.expand(1);
+        board.expand(2);
+        out.add(42);
+        board.floodOrder(0, out);
+        // distance 0, then 1, then 2 ... from the top left corner, after what was queued
+        t.checkExpect(out.toArray(), new int[] {42, 0, 1, 3, 4, 5, 7, 8});
+        // the same cells again, counted by distance
+        IntQueue waves = new IntQueue();
+        board.floodOrder(0, out, waves);
+        t.checkExpect(out.size(), 15);
+        t.checkExpect(waves.toArray(), new int[] {1, 2, 1, 2, 1});
+
+        long[] visited = new long[1];
+        out.clear();
+        board.visit(2, visited, out);
+        t.checkExpect(out.size(), 0);
+        board.visit(4, visited, out);
+        board.visit(4, visited, out);
+        board.visit(-1, visited, out);
+        t.checkExpect(out.toArray(), new int[] {4});
+        t.checkExpect(visited[0], 16L);
+    }
+
+    // tests indexAt against the edges Cell.contains includes
+    void testIndexAt(Tester t) {
+        initCond();
+        t.checkExpect(board.indexAt(10, 10, 20), 0); // middle
+        t.checkExpect(board.indexAt(1, 1, 20), 0); // left and top bound include
+        t.checkExpect(board.indexAt(0, 10, 20), -1); // x left bound exclude
+        t.checkExpect(board.indexAt(10, 0, 20), -1); // y top bound exclude
+        t.checkExpect(board.indexAt(20, 20, 20), 0); // right and bottom bound
+        t.checkExpect(board.indexAt(21, 20, 20), 1);
+        t.checkExpect(board.indexAt(20, 21, 20), 3);
+        t.checkExpect(board.indexAt(60, 60, 20), 8); // bottom right corner
+        t.checkExpect(board.indexAt(61, 30, 20), -1); // right of the board
+        t.checkExpect(board.indexAt(30, 61, 20), -1); // below the board
+        t.checkExpect(board.indexAt(-5, -5, 20), -1);
+        t.checkExpect(board.indexAt(5, 5, 2), 8);
+    }
+}
@@ -0,0 +1,127 @@
+import java.util.Random;
+
+import tester.*;
+
+// examples for two players flooding one board
+class ExamplesDuel {
+    FloodBoard board;
+    Duel duel;          // 3x3 board, each player owning its corner, 3 rounds
+
+    // initializes test cases
+    void initCond() {
+        // 0 1 1
+        // 2 1 3
+        // 2 2 0
+        board = new FloodBoard(3, new byte[] {0, 1, 1, 2, 1, 3, 2, 2, 0});
+        duel = new Duel(board, 4, 3);
+    }
+
+    // the owner of every cell of the given duel, row by row
+    int[] owners(Duel duel) {
+        int[] owners = new int[duel.board.cells];
+        for (int i = 0; i < owners.length; i++) {
+            owners[i] = duel.owner(i);
+        }
+        return owners;
+    }
+
+    // tests the constructors
+    void testConstructor(Tester t) {
+        initCond();
+        t.checkExpect(owners(duel), new int[] {0, -1, -1, -1, -1, -1, -1, -1, 1});
+        t.checkExpect(duel.owned, new int[] {1, 1});
+        t.checkExpect(duel.color, new int[] {0, 0});
+        t.checkExpect(duel.rounds, 0);
+        t.checkExpect(duel.words, 1);
+        t.checkExpect(duel.planes.length(), 4);
+        t.checkExpect(duel.over(), false);
+        t.checkConstructorException(new IllegalArgumentException("Cannot duel on a board of size 1"),
+                "Duel", new FloodBoard(1), 2, 5);
+
+        // a corner takes its whole region to start with
+        Duel dealt = new Duel(10, 3, new Random(4));
+        t.checkExpect(dealt.numAllowedRounds, FloodItGame.allowedClicks(100, 3));
+        t.checkExpect(dealt.owner(0), 0);
+        t.checkExpect(dealt.owner(99), 1);
+        for (int i = 0; i < 100; i++) {
+            if (dealt.owner(i) == 0 && dealt.board.right(i) != -1
+                    && dealt.board.ownColor(dealt.board.right(i)) == dealt.color[0]) {
+                t.checkExpect(dealt.owner(dealt.board.right(i)) != -1, true);
+            }
+        }
+    }
+
+    // tests round, play, claim, reach, settle, color and winner
+    void testRound(Tester t) {
+        initCond();
+        duel.round(1, 2);
+        t.checkExpect(owners(duel), new int[] {0, 0, 0, 1, 0, -1, 1, 1, 1});
+        t.checkExpect(duel.owned, new int[] {4, 4});
+        t.checkExpect(duel.claimed[0].toArray(), new int[] {1, 2, 4});
+        t.checkExpect(duel.claimed[1].toArray(), new int[] {7, 6, 3});
+        t.checkExpect(duel.color(0), 1);
+        t.checkExpect(duel.color(3), 2);
+        t.checkExpect(duel.color(5), 3);
+        t.checkExpect(duel.contested, 0);
+        t.checkExpect(duel.winner(), -1);
+
+        // both reach cell 5 at once, so neither gets it
+        duel.round(3, 3);
+        t.checkExpect(duel.contested, 1);
+        t.checkExpect(duel.owner(5), -1);
+        t.checkExpect(duel.has(Duel.CLAIM, 0, 5), true);
+        t.checkExpect(duel.has(Duel.CLAIM, 1, 5), true);
+        t.checkExpect(duel.color(0), 3);
+
+        duel.round(3, 0);
+        t.checkExpect(duel.contested, 0);
+        t.checkExpect(duel.owner(5), 0);
+        t.checkExpect(duel.has(Duel.CLAIM, 1, 5), false);
+        t.checkExpect(duel.owned, new int[] {5, 4});
+        t.checkExpect(duel.over(), true);
+        t.checkExpect(duel.winner(), 0);
+        t.checkException(new IllegalStateException("The duel is over"), duel, "round", 1, 1);
+    }
+
+    // tests that round checks the colors and counts rounds
+    void testRoundErrors(Tester t) {
+        initCond();
+        t.checkException(new IllegalArgumentException("Cannot play color 4 of 4"),
+                duel, "round", 4, 0);
+        t.checkException(new IllegalArgumentException("Cannot play color -1 of 4"),
+                duel, "round", 0, -1);
+        duel.round(0, 0);
+        duel.round(0, 0);
+        duel.round(0, 0);
+        t.checkExpect(duel.rounds, 3);
+        t.checkExpect(duel.over(), true);
+        t.checkExpect(duel.winner(), -1);
+    }
+
+    // tests that whole duels come out the same every time, never give a cell
+    // to both players and keep the counts in step with the planes
+    void testWholeDuels(Tester t) {
+        for (int seed = 0; seed < 10; seed++) {
+            Duel first = new Duel(30, 5, new Random(seed));
+            Duel second = new Duel(30, 5, new Random(seed));
+            first.numAllowedRounds = 200;
+            second.numAllowedRounds = 200;
+            Random moves = new Random(seed);
+            while (!first.over()) {
+                int color0 = moves.nextInt(5);
+                int color1 = moves.nextInt(5);
+                first.round(color0, color1);
+                second.round(color0, color1);
+            }
+            t.checkExpect(owners(first), owners(second));
+            t.checkExpect(first.owned[0] + first.owned[1], 900);
+            int[] counted = new int[2];
+            for (int w = 0; w < first.words; w++) {
+                t.checkExpect(first.planes.get(w) & first.planes.get(first.words + w), 0L);
+                counted[0] += Long.bitCount(first.planes.get(w));
+                counted[1] += Long.bitCount(first.planes.get(first.words + w));
+            }
+            t.checkExpect(counted, first.owned);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import tester.*;
+
+// examples for the flight recorder events of the game
+class ExamplesFloodEvents {
+
+    // the events of the given names in a recording of running the given code
+    static List<RecordedEvent> record(Runnable run, String... names) throws IOException {
+        Path file = Files.createTempFile("floodit", ".jfr");
+        try (Recording recording = FloodEvents.enable(new Recording())) {
+            recording.start();
+            run.run();
+            recording.stop();
+            recording.dump(file);
+        }
+        try {
+            List<RecordedEvent> events = new ArrayList<RecordedEvent>();
+            for (RecordedEvent event : RecordingFile.readAllEvents(file)) {
+                for (String name : names) {
+                    if (event.getEventType().getName().equals(name)) {
+                        events.add(event);
+                    }
+                }
+            }
+            return events;
+        }
+        finally {
+            Files.delete(file);
+        }
+    }
+
+    // tests that every event is known to the recorder and off by default
+    void testDefaults(Tester t) {
+        t.checkExpect(FloodEvents.NAMES.length, 5);
+        for (Class<? extends Event> type : List.of(MoveEvent.class, FloodStepEvent.class,
+                WorkListEvent.class, DrawFloodEvent.class, SetupBoardEvent.class)) {
+            EventType eventType = EventType.getEventType(type);
+            t.checkExpect(eventType.isEnabled(), false);
+            t.checkExpect(List.of(FloodEvents.NAMES).contains(eventType.getName()), true);
+            t.checkExpect(eventType.getCategoryNames().get(0), "Flood It");
+        }
+        // off, an event is never committed
+        MoveEvent event = new MoveEvent();
+        event.begin();
+        event.end();
+        t.checkExpect(event.shouldCommit(), false);
+    }
+
+    // tests that every flood step is recorded with what it did
+    void testFloodStep(Tester t) throws IOException {
+        FloodItGame game = new FloodItGame(10, 3, new Random(2));
+        FloodItGame played = new FloodItGame(10, 3, new Random(2));
+        int[] flooded = new int[3];
+        List<RecordedEvent> events = ExamplesFloodEvents.record(() -> {
+            for (int move = 0; move < 3; move++) {
+                flooded[move] = game.play((move + 1) % 3);
+            }
+            game.flood(7);      // outside the palette, not a flood step
+        }, FloodStepEvent.NAME);
+        t.checkExpect(events.size(), 3);
+        for (int move = 0; move < 3; move++) {
+            RecordedEvent event = events.get(move);
+            t.checkExpect(event.getInt("boardSize"), 10);
+            t.checkExpect(event.getInt("color"), (move + 1) % 3);
+            t.checkExpect(event.getInt("cellsChanged"), flooded[move]);
+            t.checkExpect(event.getInt("cellsChanged"), played.play((move + 1) % 3));
+        }
+        // nothing is recorded once the recording is over
+        t.checkExpect(new FloodStepEvent().shouldCommit(), false);
+    }
+}
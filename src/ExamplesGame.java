@@ -0,0 +1,138 @@
+import java.util.Random;
+
+import tester.*;
+
+// examples for the headless game
+class ExamplesGame {
+    FloodBoard board;
+    FloodItGame game;       // 2x2 board, 3 moves allowed
+    FloodItGame seeded;     // 22x22 board from a seed
+
+    // initializes test cases
+    void initCond() {
+        // 0 1
+        // 2 3
+        board = new FloodBoard(2, new byte[] {0, 1, 2, 3});
+        board.flood(0);
+        game = new FloodItGame(board, 4, 3, 0);
+        seeded = new FloodItGame(22, 6, new Random(2));
+    }
+
+    // tests reset and the start game constructor
+    void testReset(Tester t) {
+        initCond();
+        t.checkExpect(seeded.board.cells, 484);
+        t.checkExpect(seeded.numColors, 6);
+        t.checkExpect(seeded.numAllowedClicks, 38);
+        t.checkExpect(seeded.numClicks, 0);
+        t.checkExpect(seeded.board.isFlooded(0), true);
+
+        // same seed, same board as the world draws
+        Random rand = new Random(2);
+        for (int i = 0; i < 484; i++) {
+            int color = rand.nextInt(6);
+            if (!seeded.board.isFlooded(i)) {
+                t.checkExpect(seeded.board.color(i), color);
+            }
+        }
+
+        game.play(1);
+        game.reset(3, 2, new Random(0));
+        t.checkExpect(game.board.cells, 9);
+        t.checkExpect(game.numColors, 2);
+        t.checkExpect(game.numClicks, 0);
+        t.checkExpect(game.numAllowedClicks, 0);
+    }
+
+    // tests allowedClicks
+    void testAllowedClicks(Tester t) {
+        t.checkExpect(FloodItGame.allowedClicks(484, 6), 38);
+        t.checkExpect(FloodItGame.allowedClicks(4, 4), 0);
+        t.checkExpect(FloodItGame.allowedClicks(196, 6), 15);
+    }
+
+    // tests play and flood
+    void testPlay(Tester t) {
+        initCond();
+        t.checkExpect(game.play(1), 1);
+        t.checkExpect(game.numClicks, 1);
+        t.checkExpect(game.flood(2), 1);
+        t.checkExpect(game.numClicks, 1);
+        // outside the palette
+        t.checkExpect(game.flood(7), 0);
+        t.checkExpect(game.flood(-1), 0);
+        t.checkExpect(game.board.color(0), 2);
+        t.checkExpect(game.play(3), 1);
+        t.checkExpect(game.numClicks, 2);
+    }
+
+    // tests won, lost and over
+    void testWonLost(Tester t) {
+        initCond();
+        t.checkExpect(game.won(), false);
+        t.checkExpect(game.lost(), false);
+        t.checkExpect(game.over(), false);
+        game.play(1);
+        game.play(2);
+        game.play(3);
+        // flooded on the last allowed move
+        t.checkExpect(game.won(), true);
+        t.checkExpect(game.lost(), false);
+        t.checkExpect(game.over(), true);
+
+        initCond();
+        game.play(3);
+        game.play(3);
+        game.play(3);
+        t.checkExpect(game.won(), false);
+        t.checkExpect(game.lost(), true);
+        t.checkExpect(game.over(), true);
+    }
+
+    // tests absorbs and hint
+    void testHint(Tester t) {
+        initCond();
+        t.checkExpect(game.absorbs(0), 0);
+        t.checkExpect(game.absorbs(1), 1);
+        t.checkExpect(game.absorbs(3), 0);
+        t.checkExpect(game.absorbs(4), -1);
+        // the first of the colors that tie
+        t.checkExpect(game.hint(), 1);
+        game.play(2);
+        t.checkExpect(game.absorbs(3), 1);
+        t.checkExpect(game.hint(), 1);
+        game.play(1);
+        game.play(3);
+        t.checkExpect(game.hint(), -1);
+        // the hint floods as much as any other move would
+        for (int move = 0; move < 10; move++) {
+            int hint = seeded.hint();
+            int cells = seeded.absorbs(hint);
+            for (int c = 0; c < 6; c++) {
+                t.checkExpect(cells >= seeded.absorbs(c), true);
+            }
+            t.checkExpect(seeded.play(hint), cells);
+        }
+        // nothing to keep count with on bit planes
+        seeded.useBits();
+        t.checkExpect(seeded.absorbs(0), -1);
+        t.checkExpect(seeded.hint(), -1);
+    }
+
+    // tests that boards too big for a region graph flood through the frontier
+    void testHugeBoard(Tester t) {
+        initCond();
+        t.checkExpect(seeded.regions == null, false);
+        FloodItGame huge = new FloodItGame(1100, 6, new Random(4));
+        t.checkExpect(huge.regions == null, true);
+        FloodBoard copy = new FloodBoard(1100, huge.board.colors.clone());
+        copy.flood(0);
+        copy.expand(copy.color(0));
+        for (int move = 0; move < 20; move++) {
+            int color = move % 6;
+            t.checkExpect(huge.play(color), copy.expand(color));
+        }
+        t.checkExpect(huge.board.flooded, copy.flooded);
+        t.checkExpect(huge.numClicks, 20);
+    }
+}
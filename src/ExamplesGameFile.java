@@ -0,0 +1,160 @@
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.Random;
+
+import tester.*;
+
+// examples for saving and resuming games
+class ExamplesGameFile {
+    FloodItGame game;       // 3x3 board of 4 colors, two moves in
+    GameFile saved;
+    ByteBuffer buffer;      // the smallest buffer games can be moved through
+    ByteArrayOutputStream bytes;
+    WritableByteChannel out;
+
+    // initializes test cases
+    void initCond() {
+        // 0 1 1
+        // 2 1 3
+        // 2 2 3
+        FloodBoard board = new FloodBoard(3, new byte[] {0, 1, 1, 2, 1, 3, 2, 2, 3});
+        board.flood(0);
+        game = new FloodItGame(board, 4, 5, 0);
+        game.play(1);
+        game.play(2);
+        saved = new GameFile(game, new int[] {10, 20, 30, 40}, 12345, false);
+        buffer = ByteBuffer.allocate(GameFile.MIN_BUFFER);
+        bytes = new ByteArrayOutputStream();
+        out = Channels.newChannel(bytes);
+    }
+
+    // a channel reading back what was written so far
+    ReadableByteChannel in() {
+        return Channels.newChannel(new ByteArrayInputStream(bytes.toByteArray()));
+    }
+
+    // tests the constructor and bitsPerColor
+    void testConstructor(Tester t) {
+        initCond();
+        t.checkExpect(GameFile.bitsPerColor(1), 1);
+        t.checkExpect(GameFile.bitsPerColor(2), 1);
+        t.checkExpect(GameFile.bitsPerColor(4), 2);
+        t.checkExpect(GameFile.bitsPerColor(6), 3);
+        t.checkExpect(GameFile.bitsPerColor(8), 3);
+        t.checkExpect(GameFile.bitsPerColor(9), 4);
+        t.checkExpect(GameFile.bitsPerColor(256), 8);
+        t.checkConstructorException(new IllegalArgumentException("Expected 4 colors but got 2"),
+                "GameFile", game, new int[2], 0L, false);
+    }
+
+    // tests write and bytes
+    void testWrite(Tester t) throws IOException {
+        initCond();
+        t.checkExpect(saved.bytes(), 40 + 16 + 3 + 8L);
+        saved.write(out, buffer);
+        byte[] written = bytes.toByteArray();
+        t.checkExpect(written.length, 67);
+        ByteBuffer header = ByteBuffer.wrap(written);
+        t.checkExpect(header.getInt(), GameFile.MAGIC);
+        t.checkExpect(header.getInt(), GameFile.VERSION);
+        t.checkExpect(header.getInt(), 3);
+        t.checkExpect(header.getInt(), 4);
+        t.checkExpect(header.getInt(), 2);
+        t.checkExpect(header.getInt(), 5);
+        t.checkExpect(header.getInt(), 2);
+        t.checkExpect(header.getLong(), 12345L);
+        t.checkExpect(header.getInt(), 0);
+        t.checkExpect(header.getInt(), 10);
+        // colors 0 1 1 2 | 1 3 2 2 | 3, two bits each from the low end
+        t.checkExpect(written[56], (byte) 0b10010100);
+        t.checkExpect(written[57], (byte) 0b10101101);
+        t.checkExpect(written[58], (byte) 0b00000011);
+        t.checkExpect(ByteBuffer.wrap(written, 59, 8).getLong(), 0b011011111L);
+
+        t.checkException(new IllegalArgumentException(
+                "Cannot move games through a buffer of 63 bytes, it needs at least 64"),
+                saved, "write", out, ByteBuffer.allocate(63));
+    }
+
+    // tests read, fill and that a game picks up where it was saved
+    void testRead(Tester t) throws IOException {
+        initCond();
+        saved.write(out, buffer);
+        GameFile read = GameFile.read(in(), buffer);
+        t.checkExpect(read.palette, new int[] {10, 20, 30, 40});
+        t.checkExpect(read.elapsedMillis, 12345L);
+        t.checkExpect(read.lost, false);
+        t.checkExpect(read.game.numColors, 4);
+        t.checkExpect(read.game.numAllowedClicks, 5);
+        t.checkExpect(read.game.numClicks, 2);
+        t.checkExpect(read.game.board.colors, game.board.colors);
+        t.checkExpect(read.game.board.flooded, game.board.flooded);
+        t.checkExpect(read.game.board.floodColor, 2);
+        t.checkExpect(read.game.board.floodedCount, 7);
+        t.checkExpect(read.game.play(3), 2);
+        t.checkExpect(read.game.won(), true);
+    }
+
+    // tests many games in a row through one small buffer, with and without a region graph
+    void testManyGames(Tester t) throws IOException {
+        initCond();
+        FloodItGame[] games = new FloodItGame[6];
+        for (int k = 0; k < games.length; k++) {
+            games[k] = new FloodItGame(k == 5 ? 1030 : 5 + 7 * k, 2 + k, new Random(k));
+            for (int move = 0; move < 10; move++) {
+                games[k].play(move % (2 + k));
+            }
+            new GameFile(games[k], new int[2 + k], k, k % 2 == 0).write(out, buffer);
+        }
+        ReadableByteChannel in = in();
+        for (int k = 0; k < games.length; k++) {
+            GameFile read = GameFile.read(in, buffer);
+            t.checkExpect(read.game.board.colors, games[k].board.colors);
+            t.checkExpect(read.game.board.flooded, games[k].board.flooded);
+            t.checkExpect(read.game.board.floodedCount, games[k].board.floodedCount);
+            t.checkExpect(read.elapsedMillis, (long) k);
+            t.checkExpect(read.lost, k % 2 == 0);
+            t.checkExpect(read.game.regions == null, k == 5);
+            // and the frontier floods the same
+            t.checkExpect(read.game.play(0), games[k].play(0));
+            t.checkExpect(read.game.play(1), games[k].play(1));
+        }
+        t.checkException(new IOException("Saved game ends early"), saved, "read", in, buffer);
+    }
+
+    // tests that broken saved games are not read
+    void testBroken(Tester t) throws IOException {
+        initCond();
+        saved.write(out, buffer);
+        byte[] written = bytes.toByteArray();
+
+        written[58] = (byte) 0b1100;
+        t.checkException(new IOException("Saved game ends early"), saved, "read",
+                Channels.newChannel(new ByteArrayInputStream(written, 0, 60)), buffer);
+        written[19] = 9;
+        t.checkException(new IOException("Saved game flooded with color 9 of 4"), saved, "read",
+                Channels.newChannel(new ByteArrayInputStream(written)), buffer);
+        written[19] = 2;
+        written[56] = (byte) 0xFF;  // colors 3 3 3 3 are fine with 4 colors
+        t.checkExpect(GameFile.read(Channels.newChannel(new ByteArrayInputStream(written)),
+                buffer).game.board.ownColor(0), 3);
+        FloodBoard odd = new FloodBoard(3, new byte[] {0, 1, 1, 2, 1, 2, 2, 2, 3});
+        odd.flood(0);
+        ByteArrayOutputStream oddBytes = new ByteArrayOutputStream();
+        new GameFile(new FloodItGame(odd, 3, 5, 0), new int[3], 0, false)
+                .write(Channels.newChannel(oddBytes), buffer);
+        t.checkException(new IOException("Saved game has a cell of color 3 of 3"), saved, "read",
+                Channels.newChannel(new ByteArrayInputStream(oddBytes.toByteArray())), buffer);
+        written[7] = 2;
+        t.checkException(new IOException("Unsupported saved game version 2"), saved, "read",
+                Channels.newChannel(new ByteArrayInputStream(written)), buffer);
+        written[0] = 0;
+        t.checkException(new IOException("Not a saved game"), saved, "read",
+                Channels.newChannel(new ByteArrayInputStream(written)), buffer);
+    }
+}
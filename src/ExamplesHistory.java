@@ -0,0 +1,261 @@
+import java.util.ArrayList;
+import java.util.Random;
+
+import tester.*;
+
+// examples for taking moves back and playing them again
+class ExamplesHistory {
+    FloodBoard board;
+    FloodItGame game;       // 3x3 board, only the top left cell flooded
+    MoveHistory history;
+
+    // initializes test cases
+    void initCond() {
+        // 0 1 1
+        // 2 1 3
+        // 2 2 3
+        board = new FloodBoard(3, new byte[] {0, 1, 1, 2, 1, 3, 2, 2, 3});
+        board.flood(0);
+        game = new FloodItGame(board, 4, 5, 0);
+        history = new MoveHistory(game);
+    }
+
+    // everything about the given game that a move changes
+    ArrayList<Object> state(FloodItGame game) {
+        ArrayList<Object> state = new ArrayList<Object>();
+        state.add(game.board.flooded.clone());
+        state.add(game.board.floodedCount);
+        state.add(game.board.floodColor);
+        state.add(game.numClicks);
+        if (game.regions != null) {
+            state.add(game.regions.floodedRegions.clone());
+            state.add(game.regions.bordering.clone());
+            for (int c = 0; c < game.numColors; c++) {
+                state.add(game.regions.borderCells(c));
+            }
+        }
+        return state;
+    }
+
+    // tests the constructor
+    void testConstructor(Tester t) {
+        initCond();
+        t.checkExpect(history.startColor, 0);
+        t.checkExpect(history.interval, MoveHistory.SNAPSHOT_MOVES);
+        t.checkExpect(history.snapshots.size(), 1);
+        t.checkExpect(history.snapshots.get(0), new long[] {1});
+        t.checkExpect(history.canUndo(), false);
+        t.checkExpect(history.canRedo(), false);
+        // a snapshot of a big board spans a move for every byte it takes
+        t.checkExpect(new MoveHistory(new FloodItGame(100, 6, new Random(1))).interval, 1256);
+    }
+
+    // tests play, write and decode
+    void testPlay(Tester t) {
+        initCond();
+        t.checkExpect(history.play(1), 3);
+        t.checkExpect(history.play(2), 3);
+        t.checkExpect(game.numClicks, 2);
+        t.checkExpect(history.played, 2);
+        t.checkExpect(history.recorded, 2);
+        t.checkExpect(history.moves[0], (byte) 1);
+        t.checkExpect(history.moves[1], (byte) 2);
+        // cells 1 2 4, then cells 3 6 7, as zigzag differences
+        t.checkExpect(history.deltaStart[2], 6);
+        t.checkExpect(history.deltas[0], (byte) 2);
+        t.checkExpect(history.deltas[1], (byte) 2);
+        t.checkExpect(history.deltas[2], (byte) 4);
+        t.checkExpect(history.deltas[3], (byte) 6);
+        t.checkExpect(history.deltas[4], (byte) 6);
+        t.checkExpect(history.deltas[5], (byte) 2);
+        t.checkExpect(history.decode(1), 3);
+        t.checkExpect(history.cells[0], 3);
+        t.checkExpect(history.cells[2], 7);
+        t.checkExpect(board.journal == null, true);
+        t.checkExpect(history.bytes(), 2 * 5 + 6 + 8L);
+
+        // big and backwards differences take more than one byte
+        history.deltaStart[3] = history.deltaStart[2];
+        history.write(300);
+        history.write((-300 << 1) ^ (-300 >> 31));
+        t.checkExpect(history.deltaStart[3], 10);
+        int count = history.decode(2);
+        t.checkExpect(count, 2);
+        t.checkExpect(history.cells[0], 150);
+        t.checkExpect(history.cells[1], -150);
+
+        t.checkException(new IllegalArgumentException("Cannot play color 4 of 4"),
+                history, "play", 4);
+    }
+
+    // tests undo, redo, canUndo and canRedo
+    void testUndoRedo(Tester t) {
+        initCond();
+        ArrayList<Object> start = state(game);
+        history.play(1);
+        ArrayList<Object> first = state(game);
+        history.play(3);
+
+        IntQueue changed = new IntQueue();
+        t.checkExpect(history.undo(changed), true);
+        t.checkExpect(changed.toArray(), new int[] {5, 8});
+        t.checkExpect(state(game), first);
+        t.checkExpect(board.color(5), 3);
+        t.checkExpect(history.undo(changed), true);
+        t.checkExpect(state(game), start);
+        t.checkExpect(board.color(1), 1);
+        t.checkExpect(history.undo(changed), false);
+        t.checkExpect(history.canRedo(), true);
+
+        t.checkExpect(history.redo(), true);
+        t.checkExpect(state(game), first);
+        // a new move forgets the undone one
+        history.play(2);
+        t.checkExpect(history.canRedo(), false);
+        t.checkExpect(history.redo(), false);
+        t.checkExpect(history.recorded, 2);
+        t.checkExpect(board.floodedCount, 7);
+    }
+
+    // tests that undoing and redoing whole games matches playing them
+    void testWholeGames(Tester t) {
+        Random moves = new Random(5);
+        for (int seed = 0; seed < 10; seed++) {
+            FloodItGame played = new FloodItGame(16, 6, new Random(seed));
+            MoveHistory history = new MoveHistory(played);
+            ArrayList<ArrayList<Object>> states = new ArrayList<ArrayList<Object>>();
+            states.add(state(played));
+            for (int k = 0; k < 40; k++) {
+                history.play(moves.nextInt(6));
+                states.add(state(played));
+            }
+            IntQueue changed = new IntQueue();
+            for (int k = 39; k >= 0; k--) {
+                history.undo(changed);
+                t.checkExpect(state(played), states.get(k));
+            }
+            for (int k = 1; k <= 40; k++) {
+                history.redo();
+                t.checkExpect(state(played), states.get(k));
+            }
+            // the frontier still floods correctly after being put back
+            FloodItGame fresh = new FloodItGame(16, 6, new Random(seed));
+            for (int k = 0; k < 40; k++) {
+                fresh.play(history.moves[k]);
+            }
+            t.checkExpect(played.board.flooded, fresh.board.flooded);
+        }
+    }
+
+    // tests that moves and undos on a board with a region graph leave the
+    // frontier of its board as the deal left it
+    void testGraphFrontier(Tester t) {
+        FloodItGame game = new FloodItGame(40, 4, new Random(6));
+        MoveHistory history = new MoveHistory(game);
+        int dealt = game.board.frontierSize;
+        for (int k = 0; k < 30; k++) {
+            history.play(k % 4);
+            if (k % 3 == 2) {
+                history.undo(new IntQueue());
+            }
+        }
+        t.checkExpect(game.board.floodedCount > 4 * dealt, true);
+        t.checkExpect(game.board.frontierSize, dealt);
+        t.checkExpect(game.board.frontier.length <= Math.max(64, 2 * dealt), true);
+    }
+
+    // tests undo and redo on a board flooded through the frontier alone
+    void testWithoutGraph(Tester t) {
+        FloodItGame huge = new FloodItGame(1100, 6, new Random(3));
+        MoveHistory history = new MoveHistory(huge);
+        ArrayList<Object> start = state(huge);
+        for (int k = 0; k < 12; k++) {
+            history.play(k % 6);
+        }
+        ArrayList<Object> twelve = state(huge);
+        IntQueue changed = new IntQueue();
+        for (int k = 0; k < 12; k++) {
+            history.undo(changed);
+        }
+        t.checkExpect(state(huge), start);
+        for (int k = 0; k < 12; k++) {
+            history.redo();
+        }
+        t.checkExpect(state(huge), twelve);
+        // only the cells taken back were handed out
+        t.checkExpect(changed.size(), huge.board.floodedCount - (Integer) start.get(1));
+        t.checkExpect(history.bytes() < 12 * 5 + 3 * changed.size() + 8L * 18907, true);
+    }
+
+    // tests seek, snapshot and restore
+    void testSeek(Tester t) {
+        Random moves = new Random(8);
+        FloodItGame played = new FloodItGame(20, 8, new Random(1));
+        MoveHistory history = new MoveHistory(played);
+        ArrayList<ArrayList<Object>> states = new ArrayList<ArrayList<Object>>();
+        states.add(state(played));
+        for (int k = 0; k < 200; k++) {
+            history.play(moves.nextInt(8));
+            states.add(state(played));
+        }
+        t.checkExpect(history.snapshots.size(), 4);
+        t.checkExpect(history.colorAfter(0), history.startColor);
+        t.checkExpect(history.colorAfter(200), (int) history.moves[199]);
+
+        // from the snapshot after 128 moves, then back past it one move at a time
+        history.seek(130);
+        t.checkExpect(state(played), states.get(130));
+        IntQueue changed = new IntQueue();
+        for (int k = 129; k >= 100; k--) {
+            history.undo(changed);
+            t.checkExpect(state(played), states.get(k));
+        }
+        history.seek(3);
+        t.checkExpect(state(played), states.get(3));
+        history.seek(200);
+        t.checkExpect(state(played), states.get(200));
+        history.seek(0);
+        t.checkExpect(state(played), states.get(0));
+
+        // playing from an earlier move forgets the later snapshots
+        history.seek(70);
+        history.play(0);
+        t.checkExpect(history.snapshots.size(), 2);
+        t.checkExpect(history.recorded, 71);
+        t.checkException(new IllegalArgumentException("No position after 72 moves in a log of 71"),
+                history, "seek", 72);
+    }
+
+    // tests that seeking through a snapshot on bit planes floods the right words
+    // afterwards: a long game of small moves, played again on a region graph
+    void testSeekBits(Tester t) {
+        FloodItGame reference = new FloodItGame(22, 6, new Random(0));
+        byte[] script = new byte[111];
+        for (int k = 0; k < script.length; k++) {
+            int fewest = -1;
+            for (int c = 0; c < 6; c++) {
+                int cells = reference.absorbs(c);
+                if (cells > 0 && (fewest == -1 || cells < reference.absorbs(fewest))) {
+                    fewest = c;
+                }
+            }
+            script[k] = (byte) Math.max(0, fewest);
+            reference.play(script[k]);
+        }
+        FloodItGame bits = new FloodItGame(22, 6, new Random(0));
+        bits.useBits();
+        MoveHistory history = new MoveHistory(bits);
+        for (byte color : script) {
+            history.play(color);
+        }
+        history.seek(3);
+        history.seek(111);
+        t.checkExpect(bits.board.floodedCount, reference.board.floodedCount);
+        t.checkExpect(bits.board.flooded, reference.board.flooded);
+        // and moves after the seek flood what the region graph floods
+        for (int c = 0; c < 6; c++) {
+            t.checkExpect(history.play(c), reference.play(c));
+        }
+        t.checkExpect(bits.board.flooded, reference.board.flooded);
+    }
+}
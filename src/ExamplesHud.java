@@ -0,0 +1,133 @@
+import tester.*;
+import javalib.impworld.*;
+import java.awt.Color;
+import javalib.worldimages.*;
+
+// examples for the timer, counter and loss banner
+class ExamplesHud {
+    Hud hud;
+    WorldScene scene;
+
+    WorldImage blank = new RectangleImage(200, 30, OutlineMode.SOLID, Color.WHITE);
+
+    // initializes test cases
+    void initCond() {
+        hud = new Hud(440, 480);
+        scene = new WorldScene(440, 480);
+    }
+
+    // tests the constructor
+    void testConstructor(Tester t) {
+        initCond();
+        t.checkExpect(hud.timerX, 260);
+        t.checkExpect(hud.counterX, 60);
+        t.checkExpect(hud.hintX, 400);
+        t.checkExpect(hud.hudY, 460);
+        t.checkExpect(hud.bannerX, 220);
+        t.checkExpect(hud.bannerY, 260);
+        t.checkExpect(hud.counterShows, Hud.DIRTY);
+        t.checkExpect(hud.hintShows, Hud.NOTHING);
+        t.checkExpect(hud.placed, 0);
+    }
+
+    // tests drawHint
+    void testDrawHint(Tester t) {
+        initCond();
+        // nothing is shown until a hint is asked for
+        hud.drawHint(Hud.NOTHING, null, scene);
+        t.checkExpect(scene, new WorldScene(440, 480));
+
+        WorldScene expected = new WorldScene(440, 480);
+        WorldImage hintBlank = new RectangleImage(40, 30, OutlineMode.SOLID, Color.WHITE);
+        expected.placeImageXY(hintBlank, 400, 460);
+        expected.placeImageXY(new RectangleImage(20, 20, OutlineMode.SOLID, Color.RED), 400, 460);
+        hud.drawHint(1, Color.RED, scene);
+        hud.drawHint(1, Color.RED, scene);
+        t.checkExpect(scene, expected);
+
+        expected.placeImageXY(hintBlank, 400, 460);
+        hud.drawHint(Hud.NOTHING, null, scene);
+        t.checkExpect(scene, expected);
+        t.checkExpect(hud.placed, 3);
+        // a new scene starts without the hint
+        hud.drawHint(2, Color.GREEN, scene);
+        hud.invalidate();
+        t.checkExpect(hud.hintShows, Hud.NOTHING);
+    }
+
+    // tests drawTimer
+    void testDrawTimer(Tester t) {
+        initCond();
+        WorldScene expected = new WorldScene(440, 480);
+        expected.placeImageXY(blank, 260, 460);
+        expected.placeImageXY(new TextImage("", 15, Color.BLACK), 260, 460);
+        hud.drawTimer(Hud.NOTHING, scene);
+        t.checkExpect(scene, expected);
+        hud.drawTimer(Hud.NOTHING, scene);
+        t.checkExpect(scene, expected);
+
+        expected.placeImageXY(blank, 260, 460);
+        expected.placeImageXY(new TextImage("Time Elapsed 01:05", 15, Color.BLACK), 260, 460);
+        hud.drawTimer(65, scene);
+        hud.drawTimer(65, scene);
+        t.checkExpect(scene, expected);
+        t.checkExpect(hud.placed, 4);
+    }
+
+    // tests timerText
+    void testTimerText(Tester t) {
+        initCond();
+        t.checkExpect(hud.timerText(0), "Time Elapsed 00:00");
+        t.checkExpect(hud.timerText(9), "Time Elapsed 00:09");
+        t.checkExpect(hud.timerText(10), "Time Elapsed 00:10");
+        t.checkExpect(hud.timerText(59), "Time Elapsed 00:59");
+        t.checkExpect(hud.timerText(600), "Time Elapsed 10:00");
+        t.checkExpect(hud.timerText(671), "Time Elapsed 11:11");
+        t.checkExpect(hud.timerText(6005), "Time Elapsed 100:05");
+    }
+
+    // tests drawCounter
+    void testDrawCounter(Tester t) {
+        initCond();
+        WorldScene expected = new WorldScene(440, 480);
+        expected.placeImageXY(blank, 60, 460);
+        expected.placeImageXY(new TextImage("Moves 3/10", 15, Color.BLACK), 60, 460);
+        hud.drawCounter(3, 10, scene);
+        hud.drawCounter(3, 10, scene);
+        t.checkExpect(scene, expected);
+
+        expected.placeImageXY(blank, 60, 460);
+        expected.placeImageXY(new TextImage("You Win!", 15, Color.BLACK), 60, 460);
+        hud.drawCounter(Hud.WON, 10, scene);
+        t.checkExpect(scene, expected);
+
+        expected.placeImageXY(blank, 60, 460);
+        expected.placeImageXY(new TextImage("You Lose!", 15, Color.BLACK), 60, 460);
+        hud.drawCounter(Hud.LOST, 10, scene);
+        hud.drawCounter(Hud.LOST, 10, scene);
+        t.checkExpect(scene, expected);
+        t.checkExpect(hud.placed, 6);
+    }
+
+    // tests drawBanner and invalidate
+    void testDrawBanner(Tester t) {
+        initCond();
+        WorldScene expected = new WorldScene(440, 480);
+        expected.placeImageXY(new RectangleImage(500, 30, OutlineMode.SOLID, Color.WHITE),
+                220, 260);
+        expected.placeImageXY(new TextImage("You Lose! Press r to play again", 20, Color.BLACK),
+                220, 260);
+        hud.drawBanner(scene);
+        hud.drawBanner(scene);
+        t.checkExpect(scene, expected);
+
+        hud.drawCounter(4, 10, scene);
+        hud.invalidate();
+        t.checkExpect(hud.bannerShown, false);
+        t.checkExpect(hud.counterShows, Hud.DIRTY);
+        t.checkExpect(hud.placed, 0);
+        WorldScene fresh = new WorldScene(440, 480);
+        hud.drawBanner(fresh);
+        t.checkExpect(fresh, expected);
+    }
+}
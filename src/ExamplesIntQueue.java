@@ -0,0 +1,58 @@
+import java.util.NoSuchElementException;
+
+import tester.*;
+
+// examples for the ring buffer queue
+class ExamplesIntQueue {
+    IntQueue empty;
+    IntQueue small;
+
+    // initializes test cases
+    void initCond() {
+        empty = new IntQueue();
+        small = new IntQueue(2);
+        small.add(4);
+        small.add(7);
+    }
+
+    // tests the constructors
+    void testConstructor(Tester t) {
+        initCond();
+        t.checkExpect(empty.items.length, 16);
+        t.checkExpect(new IntQueue(5).items.length, 8);
+        t.checkExpect(new IntQueue(0).items.length, 1);
+        t.checkExpect(small.items.length, 2);
+    }
+
+    // tests add and remove
+    void testAddRemove(Tester t) {
+        initCond();
+        t.checkExpect(small.remove(), 4);
+        small.add(9);
+        // 9 wrapped around to the front of the buffer
+        t.checkExpect(small.items, new int[] {9, 7});
+        small.add(1);
+        // growing unrolls the ring
+        t.checkExpect(small.items, new int[] {7, 9, 1, 0});
+        t.checkExpect(small.remove(), 7);
+        t.checkExpect(small.remove(), 9);
+        t.checkExpect(small.remove(), 1);
+        t.checkException(new NoSuchElementException("Cannot remove from an empty queue"),
+                small, "remove");
+    }
+
+    // tests get, size, isEmpty, clear and toArray
+    void testAccess(Tester t) {
+        initCond();
+        t.checkExpect(empty.isEmpty(), true);
+        t.checkExpect(small.isEmpty(), false);
+        t.checkExpect(small.size(), 2);
+        t.checkExpect(small.get(1), 7);
+        t.checkExpect(small.toArray(), new int[] {4, 7});
+        t.checkException(new IndexOutOfBoundsException("No item at 2 in a queue of 2"),
+                small, "get", 2);
+        small.clear();
+        t.checkExpect(small.size(), 0);
+        t.checkExpect(small.toArray(), new int[] {});
+    }
+}
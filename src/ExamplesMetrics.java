@@ -0,0 +1,154 @@
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import javax.management.Attribute;
+import javax.management.AttributeNotFoundException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.ReflectionException;
+
+import tester.*;
+
+// examples for the latency and work metrics of the game's handlers
+class ExamplesMetrics {
+    Histogram histogram;    // nanoseconds, empty
+    GameMetrics metrics;    // a frame budget of 1000 ns, nothing recorded
+
+    // initializes test cases
+    void initCond() {
+        histogram = new Histogram("Tick", "ns");
+        metrics = new GameMetrics(1000);
+    }
+
+    // tests bucket and highest
+    void testBuckets(Tester t) {
+        t.checkExpect(Histogram.bucket(0), 0);
+        t.checkExpect(Histogram.bucket(-5), 0);
+        t.checkExpect(Histogram.bucket(31), 31);
+        t.checkExpect(Histogram.bucket(32), 32);
+        t.checkExpect(Histogram.bucket(33), 32);
+        t.checkExpect(Histogram.bucket(34), 33);
+        t.checkExpect(Histogram.bucket(64), 48);
+        t.checkExpect(Histogram.bucket(Long.MAX_VALUE), Histogram.BUCKETS - 1);
+        t.checkExpect(Histogram.highest(31), 31L);
+        t.checkExpect(Histogram.highest(32), 33L);
+        t.checkExpect(Histogram.highest(48), 67L);
+        t.checkExpect(Histogram.highest(Histogram.BUCKETS - 1), Long.MAX_VALUE);
+        // every value is in a bucket no more than a sixteenth wider than itself
+        for (long value = 1; value < 1L << 40; value = value * 3 + 1) {
+            int bucket = Histogram.bucket(value);
+            t.checkExpect(value <= Histogram.highest(bucket), true);
+            t.checkExpect(bucket == 0 || value > Histogram.highest(bucket - 1), true);
+            t.checkExpect(Histogram.highest(bucket) - value <= value / 16, true);
+        }
+    }
+
+    // tests record, percentile, mean, reset and line
+    void testHistogram(Tester t) {
+        initCond();
+        t.checkExpect(histogram.percentile(0.5), 0L);
+        t.checkExpect(histogram.mean(), 0.0);
+        for (int value = 1; value <= 100; value++) {
+            histogram.record(value * 1000);
+        }
+        t.checkExpect(histogram.count.get(), 100L);
+        t.checkExpect(histogram.max.get(), 100000L);
+        t.checkExpect(histogram.mean(), 50500.0);
+        // within a bucket of 50000 and 99000
+        t.checkExpect(histogram.percentile(0.5), 51199L);
+        t.checkExpect(histogram.percentile(0.99), 100000L);
+        t.checkExpect(histogram.percentile(1), 100000L);
+        t.checkExpect(histogram.line(),
+                "Tick             count 100 p50 51199 p99 100000 max 100000 mean 50500.0 ns");
+        histogram.reset();
+        t.checkExpect(histogram.count.get(), 0L);
+        t.checkExpect(histogram.percentile(0.99), 0L);
+        t.checkExpect(histogram.counts.get(Histogram.bucket(50000)), 0L);
+    }
+
+    // tests tick, click, dump and reset
+    void testRecording(Tester t) {
+        initCond();
+        metrics.game = "size 22 seed 5";
+        metrics.tick(System.nanoTime() - 5000, metrics.allocated(), 12);
+        metrics.game = "size 40 seed 6";
+        metrics.tick(System.nanoTime(), metrics.allocated(), 3);
+        metrics.click(System.nanoTime(), 40);
+        t.checkExpect(metrics.ticks.count.get(), 2L);
+        t.checkExpect(metrics.ticks.max.get() >= 5000, true);
+        t.checkExpect(metrics.workListDepth.max.get(), 12L);
+        t.checkExpect(metrics.cellsFlooded.max.get(), 40L);
+        t.checkExpect(metrics.clicks.count.get(), 1L);
+        t.checkExpect(metrics.overBudget >= 1, true);
+        t.checkExpect(metrics.worstGame, "size 22 seed 5");
+        t.checkExpect(metrics.tickAllocations.count.get(), metrics.threads == null ? 0L : 2L);
+
+        String dump = metrics.dump();
+        t.checkExpect(dump.split("\n").length, 8);
+        t.checkExpect(dump.startsWith("Tick             count 2 "), true);
+        t.checkExpect(dump.contains("CellsFlooded     count 1 p50 40 p99 40 max 40 mean 40.0 cells"),
+                true);
+        t.checkExpect(dump.endsWith(" in size 22 seed 5\n"), true);
+        metrics.reset();
+        t.checkExpect(metrics.ticks.count.get(), 0L);
+        t.checkExpect(metrics.overBudget, 0L);
+        t.checkExpect(metrics.dump().endsWith("worst 0 ns in no game\n"), true);
+    }
+
+    // tests value and the JMX methods
+    void testAttributes(Tester t) throws JMException {
+        initCond();
+        metrics.click(System.nanoTime(), 7);
+        t.checkExpect(metrics.value("CellsFloodedCount"), 1L);
+        t.checkExpect(metrics.value("CellsFloodedP50"), 7L);
+        t.checkExpect(metrics.value("CellsFloodedMean"), 7.0);
+        t.checkExpect(metrics.value("FrameBudget"), 1000L);
+        t.checkExpect(metrics.value("WorstGame"), "");
+        t.checkExpect(metrics.value("CellsFloodedP75"), null);
+        t.checkExpect(metrics.value("Frames"), null);
+        t.checkExpect(metrics.getAttribute("ClickCount"), 1L);
+        t.checkException(new AttributeNotFoundException("No attribute Frames"),
+                metrics, "getAttribute", "Frames");
+        t.checkExpect(metrics.getAttributes(new String[] {"ClickCount", "Frames"}).size(), 1);
+        t.checkException(new AttributeNotFoundException(
+                "Cannot set ClickCount, every attribute is read only"),
+                metrics, "setAttribute", new Attribute("ClickCount", 5L));
+        t.checkExpect(metrics.getMBeanInfo().getAttributes().length, 7 * 5 + 4);
+        t.checkExpect(metrics.getMBeanInfo().getOperations().length, 2);
+        t.checkExpect(metrics.invoke("dump", null, null), metrics.dump());
+        t.checkExpect(metrics.invoke("reset", null, null), null);
+        t.checkExpect(metrics.clicks.count.get(), 0L);
+        t.checkException(new ReflectionException(new NoSuchMethodException("gc"), "No operation gc"),
+                metrics, "invoke", "gc", null, null);
+    }
+
+    // tests register through the platform MBean server, as jconsole would see it
+    void testRegister(Tester t) throws JMException {
+        initCond();
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = metrics.register(server);
+        try {
+            t.checkExpect(name.toString(), GameMetrics.NAME);
+            metrics.tick(System.nanoTime(), 0, 4);
+            t.checkExpect(server.getAttribute(name, "WorkListDepthMax"), 4L);
+            t.checkExpect(server.invoke(name, "dump", null, null), metrics.dump());
+        }
+        finally {
+            server.unregisterMBean(name);
+        }
+    }
+
+    // tests dumpEvery and stop
+    void testDumpEvery(Tester t) throws InterruptedException {
+        initCond();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        PrintStream out = new PrintStream(bytes, true);
+        metrics.dumpEvery(10, out);
+        Thread.sleep(100);
+        metrics.stop();
+        t.checkExpect(metrics.dumper, null);
+        t.checkExpect(bytes.toString().startsWith("Tick             count 0 "), true);
+        t.checkExpect(bytes.toString().contains("over budget 0 ticks of 1000 ns"), true);
+    }
+}
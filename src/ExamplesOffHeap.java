@@ -0,0 +1,162 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import javalib.worldimages.Posn;
+
+import tester.*;
+
+// examples for boards kept off the heap
+class ExamplesOffHeap {
+    OffHeapBoard direct;    // 2x2 board in direct buffers
+
+    // initializes test cases
+    void initCond() {
+        direct = OffHeapBoard.allocate(2);
+    }
+
+    // tests allocate and the methods that touch the buffers
+    void testDirect(Tester t) {
+        initCond();
+        t.checkExpect(direct.cells, 4);
+        t.checkExpect(direct.colors == null, true);
+        t.checkExpect(direct.color(3), 0);
+        direct.setColor(3, 5);
+        t.checkExpect(direct.ownColor(3), 5);
+        t.checkExpect(direct.isFlooded(3), false);
+        direct.markFlooded(3);
+        t.checkExpect(direct.isFlooded(3), true);
+        t.checkExpect(direct.isFlooded(2), false);
+        direct.clearFlooded();
+        t.checkExpect(direct.isFlooded(3), false);
+        direct.force();     // nothing to write without a file
+    }
+
+    // tests touchesUnflooded
+    void testTouchesUnflooded(Tester t) {
+        initCond();
+        direct.flood(0);
+        t.checkExpect(direct.touchesUnflooded(0), true);
+        direct.flood(1);
+        direct.flood(2);
+        t.checkExpect(direct.touchesUnflooded(0), false);
+        t.checkExpect(direct.touchesUnflooded(1), true);
+    }
+
+    // tests that games play the same off the heap as on it
+    void testSameGames(Tester t) {
+        for (int seed = 0; seed < 5; seed++) {
+            FloodItGame heap = new FloodItGame(30, 6, new Random(seed));
+            FloodItGame offHeap = new FloodItGame(OffHeapBoard.allocate(30), 6, new Random(seed));
+            for (int move = 0; move < 40; move++) {
+                t.checkExpect(offHeap.play(move % 6), heap.play(move % 6));
+            }
+            for (int i = 0; i < 900; i++) {
+                t.checkExpect(offHeap.board.color(i), heap.board.color(i));
+                t.checkExpect(offHeap.board.isFlooded(i), heap.board.isFlooded(i));
+            }
+        }
+        // and without a region graph
+        FloodItGame huge = new FloodItGame(OffHeapBoard.allocate(1100), 6, new Random(1));
+        t.checkExpect(huge.regions == null, true);
+        t.checkExpect(huge.play(2) >= 0, true);
+    }
+
+    // tests create, open, recover and force
+    void testFile(Tester t) throws IOException {
+        Path file = Files.createTempFile("board", ".fld");
+        try {
+            OffHeapBoard board = OffHeapBoard.create(file, 9);
+            t.checkExpect(Files.size(file), 28L + 81 + 3 + 16);
+            FloodItGame game = new FloodItGame(board, 4, new Random(3));
+            FloodItGame heap = new FloodItGame(9, 4, new Random(3));
+            for (int move = 0; move < 3; move++) {
+                game.play(move);
+                heap.play(move);
+            }
+            board.force();
+
+            // the board picks up where it was left, frontier included
+            OffHeapBoard reopened = OffHeapBoard.open(file);
+            t.checkExpect(reopened.size, 9);
+            t.checkExpect(reopened.floodColor, heap.board.floodColor);
+            t.checkExpect(reopened.floodedCount, heap.board.floodedCount);
+            for (int i = 0; i < 81; i++) {
+                t.checkExpect(reopened.color(i), heap.board.color(i));
+            }
+            // moves through the region graph leave the frontier of the board
+            // in the heap as it was dealt, so it is worked out again first
+            heap.board.refresh();
+            for (int color = 3; color >= 0; color--) {
+                t.checkExpect(reopened.expand(color), heap.board.expand(color));
+            }
+
+            t.checkExpect(reopened.hasGame(), false);
+            t.checkException(new IllegalStateException("No game is kept on this board"),
+                    reopened, "resume");
+
+            Files.write(file, new byte[] {1, 2, 3});
+            t.checkException(new IOException("Not a board file: " + file),
+                    reopened, "open", file);
+        }
+        finally {
+            Files.delete(file);
+        }
+    }
+
+    // tests keep and resume: a game played in a world on a board file carries
+    // on after the file is opened again, as if the process had restarted
+    void testResume(Tester t) throws IOException {
+        Path file = Files.createTempFile("board", ".fld");
+        try {
+            OffHeapBoard board = OffHeapBoard.create(file, 12);
+            FloodItWorld world = new FloodItWorld(board);
+            t.checkExpect(world.game.board == board, true);
+            t.checkExpect(board.hasGame(), true);
+            world.onKeyEvent("enter");
+            world.onTick();
+            for (int move = 0; move < 3; move++) {
+                int other = 0;
+                while (board.color(other) == board.floodColor) {
+                    other++;
+                }
+                world.onMouseClicked(new Posn(other % 12 * 20 + 10, other / 12 * 20 + 10));
+            }
+            world.onKeyEvent("u");
+            board.force();
+
+            OffHeapBoard reopened = OffHeapBoard.open(file);
+            FloodItGame game = reopened.resume();
+            t.checkExpect(game.board == reopened, true);
+            t.checkExpect(game.numColors, 6);
+            t.checkExpect(game.numAllowedClicks, world.game.numAllowedClicks);
+            t.checkExpect(game.numClicks, 2);
+            t.checkExpect(reopened.floodColor, board.floodColor);
+            t.checkExpect(reopened.floodedCount, board.floodedCount);
+            for (int i = 0; i < 144; i++) {
+                t.checkExpect(reopened.color(i), board.color(i));
+            }
+
+            // a world on the file picks the game up instead of dealing a new one
+            FloodItWorld resumed = new FloodItWorld(OffHeapBoard.open(file));
+            t.checkExpect(resumed.startScreen, false);
+            t.checkExpect(resumed.game.numClicks, 2);
+            t.checkExpect(resumed.game.board.floodedCount, board.floodedCount);
+            t.checkExpect(resumed.colors, FloodItWorld.palette());
+            t.checkExpect(resumed.history.canUndo(), false);
+            // both games map the same cells, so only one of them plays
+            int color = game.hint();
+            int cells = game.absorbs(color);
+            t.checkExpect(cells > 0, true);
+            t.checkExpect(resumed.game.play(color), cells);
+
+            // a board in direct buffers has no file to keep a game in
+            OffHeapBoard direct = OffHeapBoard.allocate(3);
+            direct.keep(game);
+            t.checkExpect(direct.hasGame(), false);
+        }
+        finally {
+            Files.delete(file);
+        }
+    }
+}
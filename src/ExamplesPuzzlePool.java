@@ -0,0 +1,221 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+
+import tester.*;
+
+// examples for solving boards ahead of time and dealing them
+class ExamplesPuzzlePool {
+    Path file;          // index file that does not exist yet
+    PuzzlePool pool;    // 2 threads from seed 100, 3 boards ready, 4 cached
+
+    // initializes test cases
+    void initCond() throws IOException {
+        file = Files.createTempFile("puzzles", ".index");
+        Files.delete(file);
+        pool = new PuzzlePool(file, 2, 100, 3, 4, 0, 5000);
+    }
+
+    // EFFECT: stops the pool and deletes its index file
+    void cleanUp() throws IOException {
+        pool.await();
+        pool.close();
+        Files.deleteIfExists(file);
+    }
+
+    // the seeds of every board of the given size and colors the pool has ready
+    long[] ready(int size, int numColors) {
+        long[] seeds = new long[0];
+        if (pool.ready.get(PuzzlePool.kind(size, numColors)) != null) {
+            for (long seed : pool.ready.get(PuzzlePool.kind(size, numColors))) {
+                seeds = Arrays.copyOf(seeds, seeds.length + 1);
+                seeds[seeds.length - 1] = seed;
+            }
+        }
+        Arrays.sort(seeds);
+        return seeds;
+    }
+
+    // tests the constructor and open
+    void testConstructor(Tester t) throws IOException {
+        initCond();
+        try {
+            t.checkExpect(Files.size(file), (long) PuzzlePool.HEADER_BYTES);
+            t.checkExpect(pool.records, 0);
+            t.checkExpect(pool.nextSeed, 100L);
+            t.checkConstructorException(
+                    new IllegalArgumentException("Cannot solve with 0 threads"),
+                    "PuzzlePool", file, 0, 0L, 1, 1, 0L, 0);
+            t.checkConstructorException(new IllegalArgumentException("Cannot cache 0 boards"),
+                    "PuzzlePool", file, 1, 0L, 1, 0, 0L, 0);
+        }
+        finally {
+            cleanUp();
+        }
+    }
+
+    // tests solve and the puzzles it makes
+    void testSolve(Tester t) throws IOException {
+        initCond();
+        try {
+            Puzzle puzzle = pool.solve(3, 6, 4);
+            Solution solution = new FloodSolver(new FloodItGame(6, 4, new Random(3)).board, 4)
+                    .solve();
+            t.checkExpect(puzzle.par, solution.moves.length);
+            t.checkExpect(puzzle.optimal, true);
+            t.checkExpect(puzzle.lowerBound, solution.lowerBound);
+            FloodItGame game = puzzle.game();
+            t.checkExpect(game.numAllowedClicks, puzzle.par);
+            t.checkExpect(game.board.flooded, new FloodItGame(6, 4, new Random(3)).board.flooded);
+            // par is always enough to win
+            for (byte move : solution.moves) {
+                game.play(move);
+            }
+            t.checkExpect(game.won(), true);
+
+            t.checkExpect(puzzle.equals(new Puzzle(3, 6, 4, 99, 0, false)), true);
+            t.checkExpect(puzzle.hashCode(), new Puzzle(3, 6, 4, 99, 0, false).hashCode());
+            t.checkExpect(puzzle.equals(new Puzzle(3, 6, 5, puzzle.par, 0, true)), false);
+            t.checkExpect(puzzle.equals(new Puzzle(4, 6, 4, puzzle.par, 0, true)), false);
+        }
+        finally {
+            cleanUp();
+        }
+    }
+
+    // tests next, refill, add and await
+    void testNext(Tester t) throws IOException {
+        initCond();
+        try {
+            // nothing is solved yet, asking starts solving the target
+            t.checkExpect(pool.next(6, 4), null);
+            t.checkExpect(pool.nextSeed, 103L);
+            pool.await();
+            t.checkExpect(pool.records, 3);
+            t.checkExpect(ready(6, 4), new long[] {100, 101, 102});
+            t.checkExpect(pool.pending.get(PuzzlePool.kind(6, 4)), 0);
+            t.checkExpect(Files.size(file), PuzzlePool.HEADER_BYTES + 3L * PuzzlePool.RECORD_BYTES);
+
+            Puzzle first = pool.next(6, 4);
+            t.checkExpect(first.size, 6);
+            t.checkExpect(first.par, pool.solve(first.seed, 6, 4).par);
+            t.checkExpect(pool.hits, 1L);
+            pool.await();
+            // dealing one solved another to keep three ready
+            t.checkExpect(pool.records, 4);
+            t.checkExpect(ready(6, 4).length, 3);
+            t.checkExpect(Arrays.binarySearch(ready(6, 4), first.seed) < 0, true);
+
+            // other sizes and colors are queued apart
+            t.checkExpect(ready(5, 3), new long[0]);
+            pool.refill(5, 3);
+            pool.await();
+            t.checkExpect(ready(5, 3), new long[] {104, 105, 106});
+            t.checkExpect(ready(6, 4).length, 3);
+
+            // refilling forgets the boards already added without waiting for them
+            pool.refill(7, 3);
+            t.checkExpect(pool.running.size(), 3);
+            while (!pool.running.stream().allMatch(Future::isDone)) {
+                Thread.onSpinWait();
+            }
+            pool.refill(8, 3);
+            t.checkExpect(pool.running.size(), 3);
+            pool.await();
+            t.checkExpect(pool.records, 13);
+        }
+        finally {
+            cleanUp();
+        }
+    }
+
+    // tests solved
+    void testSolved(Tester t) {
+        CompletableFuture<Object> failed = new CompletableFuture<Object>();
+        failed.completeExceptionally(new IOException("Disk full"));
+        CompletableFuture<Object> cancelled = new CompletableFuture<Object>();
+        cancelled.cancel(false);
+        t.checkExpect(PuzzlePool.solved(CompletableFuture.completedFuture(null)), true);
+        t.checkExpect(PuzzlePool.solved(new CompletableFuture<Object>()), false);
+        // failures stay until await reports them
+        t.checkExpect(PuzzlePool.solved(failed), false);
+        t.checkExpect(PuzzlePool.solved(cancelled), false);
+    }
+
+    // tests get, the cache and readRecord
+    void testGet(Tester t) throws IOException {
+        initCond();
+        try {
+            pool.target = 6;
+            pool.refill(5, 3);
+            pool.await();
+            // the cache keeps only the last 4 boards solved
+            t.checkExpect(pool.cache.size(), 4);
+            Puzzle record = pool.readRecord(0);
+            t.checkExpect(pool.get(record.seed, 5, 3), record);
+            t.checkExpect(pool.misses, 1L);
+            t.checkExpect(pool.get(record.seed, 5, 3), record);
+            t.checkExpect(pool.hits, 1L);
+            t.checkExpect(pool.cache.size(), 4);
+            t.checkExpect(pool.get(100, 5, 4), null);
+            t.checkExpect(pool.get(999, 5, 3), null);
+            t.checkException(new IOException("Puzzle index ends inside record 6"),
+                    pool, "readRecord", 6);
+        }
+        finally {
+            cleanUp();
+        }
+    }
+
+    // tests that an index file is read back when the pool is made again
+    void testReopen(Tester t) throws IOException {
+        initCond();
+        try {
+            pool.target = 40;
+            pool.refill(4, 3);
+            pool.await();
+            ArrayList<Puzzle> solved = new ArrayList<Puzzle>();
+            for (int r = 0; r < 40; r++) {
+                solved.add(pool.readRecord(r));
+            }
+            pool.close();
+            // half a record, as a crash while writing would leave
+            Files.write(file, new byte[PuzzlePool.RECORD_BYTES / 2],
+                    StandardOpenOption.APPEND);
+
+            pool = new PuzzlePool(file, 1, 100, 0, 4, 0, 5000);
+            t.checkExpect(pool.records, 40);
+            t.checkExpect(pool.slots.length, 128);
+            t.checkExpect(ready(4, 3).length, 40);
+            for (Puzzle puzzle : solved) {
+                Puzzle found = pool.get(puzzle.seed, 4, 3);
+                t.checkExpect(found.par, puzzle.par);
+                t.checkExpect(found.optimal, puzzle.optimal);
+            }
+            t.checkExpect(pool.misses, 40L);
+
+            // seeds already solved are skipped, and the torn record written over
+            pool.target = 41;
+            pool.refill(4, 3);
+            t.checkExpect(pool.nextSeed, 141L);
+            pool.await();
+            t.checkExpect(Files.size(file),
+                    PuzzlePool.HEADER_BYTES + 41L * PuzzlePool.RECORD_BYTES);
+            t.checkExpect(pool.get(140, 4, 3).seed, 140L);
+            pool.close();
+
+            Files.write(file, new byte[] {1, 2, 3});
+            t.checkConstructorException(new IOException("Not a puzzle index: " + file),
+                    "PuzzlePool", file, 1, 0L, 1, 1, 0L, 0);
+        }
+        finally {
+            cleanUp();
+        }
+    }
+}
@@ -0,0 +1,151 @@
+import java.util.Random;
+
+import tester.*;
+
+// examples for the region graph
+class ExamplesRegionGraph {
+    FloodBoard board;
+    RegionGraph graph;      // 3x3 board, only the top left cell flooded
+
+    // initializes test cases
+    void initCond() {
+        // 0 1 1
+        // 2 1 3
+        // 2 2 3
+        board = new FloodBoard(3, new byte[] {0, 1, 1, 2, 1, 3, 2, 2, 3});
+        board.flood(0);
+        graph = new RegionGraph(board, 4);
+    }
+
+    // tests label
+    void testLabel(Tester t) {
+        initCond();
+        t.checkExpect(graph.regions, 4);
+        t.checkExpect(graph.regionOf, new int[] {0, 1, 1, 2, 1, 3, 2, 2, 3});
+        t.checkExpect(graph.regionColor, new byte[] {0, 1, 2, 3});
+        t.checkExpect(graph.regionSize, new int[] {1, 3, 3, 2});
+        t.checkExpect(graph.cellStart, new int[] {0, 1, 4, 7, 9});
+        t.checkExpect(graph.cellList, new int[] {0, 1, 2, 4, 3, 6, 7, 5, 8});
+
+        // a flooded cell is never in a region with an unflooded one
+        FloodBoard same = new FloodBoard(2, new byte[] {1, 1, 1, 1});
+        same.flood(0);
+        t.checkExpect(new RegionGraph(same, 2).regionOf, new int[] {0, 1, 1, 1});
+        same.expand(1);
+        t.checkExpect(new RegionGraph(same, 2).regionOf, new int[] {0, 0, 0, 0});
+    }
+
+    // tests find and union
+    void testUnion(Tester t) {
+        initCond();
+        int[] parent = {0, 1, 2, 3};
+        graph.union(parent, 3, 2);
+        graph.union(parent, 1, 3);
+        t.checkExpect(graph.find(parent, 3), 1);
+        t.checkExpect(graph.find(parent, 2), 1);
+        t.checkExpect(graph.find(parent, 0), 0);
+        graph.union(parent, 2, 2);
+        t.checkExpect(graph.find(parent, 2), 1);
+    }
+
+    // tests link
+    void testLink(Tester t) {
+        initCond();
+        t.checkExpect(graph.edgeStart, new int[] {0, 2, 5, 8, 10});
+        t.checkExpect(graph.edges, new int[] {1, 2, 0, 3, 2, 0, 1, 3, 1, 2});
+    }
+
+    // tests findBorder, addBorder and isFlooded
+    void testBorder(Tester t) {
+        initCond();
+        t.checkExpect(graph.isFlooded(0), true);
+        t.checkExpect(graph.isFlooded(1), false);
+        t.checkExpect(graph.bordering, new long[] {0b0110});
+        t.checkExpect(graph.borderSize, new int[] {0, 1, 1, 0});
+        graph.addBorder(1);
+        graph.addBorder(0);
+        t.checkExpect(graph.borderSize, new int[] {0, 1, 1, 0});
+        t.checkExpect(graph.borderCells(1), 3);
+        t.checkExpect(graph.borderCells(2), 3);
+        t.checkExpect(graph.borderCells(3), 0);
+    }
+
+    // tests flood
+    void testFlood(Tester t) {
+        initCond();
+        t.checkExpect(graph.flood(3), 0);
+        t.checkExpect(board.floodColor, 3);
+        t.checkExpect(graph.flood(1), 3);
+        t.checkExpect(board.floodColor, 1);
+        t.checkExpect(board.floodedCount, 4);
+        t.checkExpect(board.isFlooded(4), true);
+        t.checkExpect(graph.floodedRegions, new long[] {0b0011});
+        t.checkExpect(graph.bordering, new long[] {0b1100});
+        t.checkExpect(graph.borderSize, new int[] {0, 0, 1, 1});
+        t.checkExpect(graph.borderArea, new int[] {0, 0, 3, 2});
+        t.checkExpect(graph.flood(3), 2);
+        t.checkExpect(graph.flood(2), 3);
+        t.checkExpect(board.allFlooded(), true);
+        t.checkExpect(graph.borderSize, new int[] {0, 0, 0, 0});
+        t.checkExpect(graph.borderArea, new int[] {0, 0, 0, 0});
+    }
+
+    // tests unflood and touchesFlood
+    void testUnflood(Tester t) {
+        initCond();
+        graph.flood(1);
+        graph.flood(3);
+        t.checkExpect(graph.touchesFlood(2), true);
+        graph.unflood(new int[] {5, 8}, 2, 3);
+        t.checkExpect(graph.floodedRegions, new long[] {0b0011});
+        t.checkExpect(graph.bordering, new long[] {0b1100});
+        t.checkExpect(graph.borderSize, new int[] {0, 0, 1, 1});
+        t.checkExpect(graph.border[3][0], 3);
+        graph.unflood(new int[] {1, 2, 4}, 3, 1);
+        t.checkExpect(graph.floodedRegions, new long[] {0b0001});
+        t.checkExpect(graph.bordering, new long[] {0b0110});
+        t.checkExpect(graph.borderSize, new int[] {0, 1, 1, 0});
+        t.checkExpect(graph.touchesFlood(3), false);
+        t.checkExpect(graph.borderCells(1), 3);
+        t.checkExpect(graph.borderArea, new int[] {0, 3, 3, 0});
+    }
+
+    // tests that the cells kept for each border are what its regions add up to,
+    // through moves, moves taken back and the border found again
+    void testBorderArea(Tester t) {
+        Random moves = new Random(5);
+        FloodItGame game = new FloodItGame(15, 5, new Random(8));
+        MoveHistory history = new MoveHistory(game);
+        for (int k = 0; k < 40; k++) {
+            if (k % 4 == 3) {
+                history.undo(new IntQueue());
+            }
+            else {
+                history.play(moves.nextInt(5));
+            }
+            RegionGraph graph = game.regions;
+            for (int c = 0; c < 5; c++) {
+                int cells = 0;
+                for (int b = 0; b < graph.borderSize[c]; b++) {
+                    cells += graph.regionSize[graph.border[c][b]];
+                }
+                t.checkExpect(graph.borderCells(c), cells);
+            }
+        }
+    }
+
+    // tests that merging regions floods the same cells as flooding cell by cell
+    void testFloodMatchesBoard(Tester t) {
+        Random moves = new Random(11);
+        for (int seed = 0; seed < 20; seed++) {
+            FloodItGame game = new FloodItGame(12, 5, new Random(seed));
+            FloodItGame cells = new FloodItGame(12, 5, new Random(seed));
+            for (int k = 0; k < 30; k++) {
+                int color = moves.nextInt(5);
+                t.checkExpect(game.flood(color), cells.board.expand(color));
+            }
+            t.checkExpect(game.board.flooded, cells.board.flooded);
+            t.checkExpect(game.board.floodColor, cells.board.floodColor);
+        }
+    }
+}
@@ -0,0 +1,134 @@
+import java.util.ArrayList;
+
+import tester.*;
+import javalib.impworld.*;
+import java.awt.Color;
+import javalib.worldimages.*;
+
+// examples for drawing the board
+class ExamplesRenderer {
+    FloodBoard board;
+    ArrayList<Color> colors;
+    BoardRenderer renderer;
+    WorldScene scene;
+
+    RectangleImage red = new RectangleImage(20, 20, OutlineMode.SOLID, Color.RED);
+    RectangleImage blue = new RectangleImage(20, 20, OutlineMode.SOLID, Color.BLUE);
+
+    // initializes test cases
+    void initCond() {
+        colors = new ArrayList<Color>();
+        colors.add(Color.RED);
+        colors.add(Color.BLUE);
+        // RED  BLUE
+        // BLUE BLUE
+        board = new FloodBoard(2, new byte[] {0, 1, 1, 1});
+        renderer = new BoardRenderer(board, colors);
+        scene = new WorldScene(40, 80);
+    }
+
+    // tests the constructor
+    void testConstructor(Tester t) {
+        initCond();
+        t.checkExpect(renderer.squares.length, 2);
+        t.checkExpect(renderer.squares[0], red);
+        t.checkExpect(renderer.squares[1], blue);
+        t.checkExpect(renderer.shown, new byte[] {-1, -1, -1, -1});
+        t.checkExpect(renderer.placed, 0);
+    }
+
+    // tests drawCell and place
+    void testDrawCell(Tester t) {
+        initCond();
+        WorldScene expected = new WorldScene(40, 80);
+        expected.placeImageXY(blue, 30, 10);
+
+        t.checkExpect(renderer.drawCell(1, scene), true);
+        t.checkExpect(scene, expected);
+        // nothing changed, nothing is placed
+        t.checkExpect(renderer.drawCell(1, scene), false);
+        t.checkExpect(scene, expected);
+        t.checkExpect(renderer.placed, 1);
+
+        board.flood(0);
+        board.expand(1);
+        t.checkExpect(renderer.drawCell(0, scene), true);
+        expected.placeImageXY(blue, 10, 10);
+        t.checkExpect(scene, expected);
+    }
+
+    // tests drawAll
+    void testDrawAll(Tester t) {
+        initCond();
+        WorldScene expected = new WorldScene(40, 80);
+        expected.placeImageXY(red, 10, 10);
+        expected.placeImageXY(blue, 30, 10);
+        expected.placeImageXY(blue, 10, 30);
+        expected.placeImageXY(blue, 30, 30);
+        renderer.drawAll(scene);
+        t.checkExpect(scene, expected);
+        renderer.drawAll(scene);
+        t.checkExpect(scene, expected);
+        t.checkExpect(renderer.shown, new byte[] {0, 1, 1, 1});
+    }
+
+    // tests needsRebuild and rebuild
+    void testRebuild(Tester t) {
+        initCond();
+        renderer.drawCell(0, scene);
+        renderer.drawCell(3, scene);
+        t.checkExpect(renderer.needsRebuild(), false);
+        board.flood(0);
+        // alternate the corner between blue and red
+        for (int move = 0; move < 6; move++) {
+            board.expand((move + 1) % 2);
+            renderer.drawCell(0, scene);
+        }
+        t.checkExpect(renderer.placed, 8);
+        t.checkExpect(renderer.needsRebuild(), false);
+        board.expand(1);
+        renderer.drawCell(0, scene);
+        t.checkExpect(renderer.needsRebuild(), true);
+
+        // cells that were never drawn stay off the new scene
+        WorldScene fresh = new WorldScene(40, 80);
+        WorldScene expected = new WorldScene(40, 80);
+        expected.placeImageXY(blue, 10, 10);
+        expected.placeImageXY(blue, 30, 30);
+        renderer.rebuild(fresh);
+        t.checkExpect(fresh, expected);
+        t.checkExpect(renderer.placed, 2);
+    }
+
+    // tests that only the cells in the viewport are drawn, where it shows them
+    void testViewport(Tester t) {
+        initCond();
+        // 0 1 0 1
+        // 1 0 1 0
+        // 0 1 0 1
+        // 1 0 1 0
+        FloodBoard big = new FloodBoard(4, new byte[] {0, 1, 0, 1, 1, 0, 1, 0,
+            0, 1, 0, 1, 1, 0, 1, 0});
+        Viewport view = new Viewport(4, 40, 20);
+        view.scroll(1, 2);
+        BoardRenderer part = new BoardRenderer(big, colors, view);
+        t.checkExpect(part.shown.length, 4);
+
+        WorldScene expected = new WorldScene(40, 80);
+        expected.placeImageXY(blue, 10, 10);
+        expected.placeImageXY(red, 30, 10);
+        expected.placeImageXY(red, 10, 30);
+        expected.placeImageXY(blue, 30, 30);
+        part.drawAll(scene);
+        t.checkExpect(scene, expected);
+        t.checkExpect(part.shown, new byte[] {1, 0, 0, 1});
+        // off screen
+        t.checkExpect(part.drawCell(0, scene), false);
+        t.checkExpect(part.placed, 4);
+
+        view.zoom(false);
+        BoardRenderer small = new BoardRenderer(big, colors, view);
+        t.checkExpect(small.squares[0], new RectangleImage(10, 10, OutlineMode.SOLID, Color.RED));
+        t.checkExpect(small.shown.length, 16);
+    }
+}
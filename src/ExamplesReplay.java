@@ -0,0 +1,167 @@
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+import tester.*;
+
+// examples for recording and replaying games
+class ExamplesReplay {
+    Replay replay;      // 10x10 board of 4 colors from seed 7
+
+    // initializes test cases
+    void initCond() {
+        replay = new Replay(7, 10, new int[] {0x0000FF, 0xFF0000, 0x00FF00, 0xFFFF00});
+    }
+
+    // tests the constructor
+    void testConstructor(Tester t) {
+        initCond();
+        t.checkExpect(replay.count, 0);
+        t.checkExpect(replay.codes(), new int[0]);
+        t.checkConstructorException(
+                new IllegalArgumentException("Cannot record a game of 7 colors, replays hold at most 6"),
+                "Replay", 1L, 10, new int[7]);
+        t.checkConstructorException(new IllegalArgumentException("Cannot make a board of size 0"),
+                "Replay", 1L, 0, new int[2]);
+    }
+
+    // tests record, codes, ticks and values
+    void testRecord(Tester t) throws IOException {
+        initCond();
+        replay.record(3, 1);
+        replay.record(3, 2);
+        replay.record(40, Replay.UNDO);
+        replay.record(1000, Replay.REDO);
+        t.checkExpect(replay.count, 4);
+        // a step within 15 ticks of the one before takes one byte
+        t.checkExpect(replay.length, 1 + 1 + 2 + 2);
+        t.checkExpect(replay.steps[0], (byte) (3 << 3 | 1));
+        t.checkExpect(replay.steps[1], (byte) 2);
+        t.checkExpect(replay.values(), new long[] {25, 2, 37 << 3 | 6, 960 << 3 | 7});
+        t.checkExpect(replay.codes(), new int[] {1, 2, Replay.UNDO, Replay.REDO});
+        t.checkExpect(replay.ticks(), new long[] {3, 3, 40, 1000});
+        t.checkExpect(replay.lastTick, 1000L);
+
+        t.checkException(new IllegalArgumentException("No step has the code 4"),
+                replay, "record", 1001L, 4);
+        t.checkException(new IllegalArgumentException("No step has the code 8"),
+                replay, "record", 1001L, 8);
+        t.checkException(new IllegalArgumentException("Tick 999 is before the last step, on tick 1000"),
+                replay, "record", 999L, 0);
+    }
+
+    // tests fastForward
+    void testFastForward(Tester t) throws IOException {
+        initCond();
+        replay.record(1, 1);
+        replay.record(2, 2);
+        replay.record(3, Replay.UNDO);
+        replay.record(4, 3);
+        replay.record(5, Replay.UNDO);
+        replay.record(6, Replay.REDO);
+
+        FloodItGame game = new FloodItGame(10, 4, new Random(7));
+        t.checkExpect(replay.fastForward(0).game.board.flooded, game.board.flooded);
+        game.play(1);
+        t.checkExpect(replay.fastForward(1).game.board.flooded, game.board.flooded);
+        t.checkExpect(replay.fastForward(3).game.board.flooded, game.board.flooded);
+        t.checkExpect(replay.fastForward(3).game.numClicks, 1);
+        game.play(3);
+        MoveHistory end = replay.fastForward(6);
+        t.checkExpect(end.game.board.flooded, game.board.flooded);
+        t.checkExpect(end.game.board.floodColor, 3);
+        t.checkExpect(end.game.numClicks, 2);
+        t.checkExpect(end.played, 2);
+        t.checkException(new IllegalArgumentException("No position after 7 steps in a replay of 6"),
+                replay, "fastForward", 7);
+    }
+
+    // tests stream, save, load and read
+    void testFiles(Tester t) throws IOException {
+        initCond();
+        replay.record(5, 3);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        replay.stream(Channels.newChannel(bytes));
+        t.checkExpect(bytes.size(), 28 + 16 + 1);
+        replay.record(300, 0);
+        t.checkExpect(bytes.size(), 28 + 16 + 1 + 2);
+        replay.close();
+        t.checkExpect(replay.out == null, true);
+
+        ReadableByteChannel in = Channels.newChannel(new ByteArrayInputStream(bytes.toByteArray()));
+        Replay read = Replay.read(in, "bytes");
+        t.checkExpect(read.seed, 7L);
+        t.checkExpect(read.size, 10);
+        t.checkExpect(read.palette, replay.palette);
+        t.checkExpect(read.allowed, 5);
+        t.checkExpect(read.codes(), new int[] {3, 0});
+        t.checkExpect(read.ticks(), new long[] {5, 300});
+
+        Path file = Files.createTempFile("game", ".replay");
+        try {
+            replay.save(file);
+            t.checkExpect(Files.size(file), (long) bytes.size());
+            Replay loaded = Replay.load(file);
+            t.checkExpect(loaded.summary(), replay.summary());
+            t.checkExpect(loaded.steps.length >= loaded.length, true);
+
+            byte[] cut = bytes.toByteArray();
+            cut[cut.length - 2] = (byte) 0x80;
+            Files.write(file, Arrays.copyOf(cut, cut.length - 1));
+            t.checkException(new IOException("Replay ends inside a step: " + file),
+                    replay, "load", file);
+            cut[cut.length - 2] = (byte) 5;     // color 5 of 4
+            Files.write(file, Arrays.copyOf(cut, cut.length - 1));
+            t.checkException(new IOException("Replay has a step of color 5: " + file),
+                    replay, "load", file);
+            Files.write(file, new byte[] {1, 2, 3});
+            t.checkException(new IOException("Not a replay: " + file), replay, "load", file);
+
+            // a version 1 file has no allowed moves, its game allows the usual ones
+            ByteBuffer old = ByteBuffer.allocate(24 + 16 + 1);
+            old.putInt(Replay.MAGIC).putInt(1).putLong(7).putInt(10).putInt(4);
+            for (int rgb : replay.palette) {
+                old.putInt(rgb);
+            }
+            old.put((byte) ((5 << 3) | 3));
+            Files.write(file, old.array());
+            Replay first = Replay.load(file);
+            t.checkExpect(first.allowed, 5);
+            t.checkExpect(first.codes(), new int[] {3});
+            // a header cut off before its allowed moves
+            Files.write(file, Arrays.copyOf(bytes.toByteArray(), 26));
+            t.checkException(new IOException("Replay ends inside its header: " + file),
+                    replay, "load", file);
+        }
+        finally {
+            Files.delete(file);
+        }
+    }
+
+    // tests summary
+    void testSummary(Tester t) throws IOException {
+        initCond();
+        // a game that allows other than the usual moves, like a solved board's par
+        Replay par = new Replay(7, 10, replay.palette, 12);
+        t.checkExpect(par.fastForward(0).game.numAllowedClicks, 12);
+        t.checkExpect(par.summary().contains(" moves 0/12 "), true);
+        t.checkExpect(replay.summary().startsWith("seed 7 size 10 colors 4 steps 0 ticks 0 moves 0/5 "),
+                true);
+        for (int k = 0; k < 40; k++) {
+            replay.record(k, k % 4);
+        }
+        FloodItGame game = new FloodItGame(10, 4, new Random(7));
+        for (int k = 0; k < 40; k++) {
+            game.play(k % 4);
+        }
+        t.checkExpect(replay.summary().contains(" moves 40/5 flooded 100 lost "), true);
+        t.checkExpect(game.board.allFlooded(), true);
+    }
+}
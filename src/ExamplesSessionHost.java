@@ -0,0 +1,219 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import tester.*;
+
+// examples for hosting many games without a window
+class ExamplesSessionHost {
+    SessionHost host;   // at most 3 sessions on 2 threads
+    FloodItGame game;   // the 6x6 board of 4 colors seed 7 deals
+
+    // initializes test cases
+    void initCond() {
+        host = new SessionHost(3, Executors.newFixedThreadPool(2));
+        game = new FloodItGame(6, 4, new Random(7));
+    }
+
+    // tests the constructor and handlers
+    void testConstructor(Tester t) throws IOException {
+        initCond();
+        t.checkExpect(host.sessions.size(), 0);
+        t.checkExpect(host.nextId.get(), 1L);
+        t.checkConstructorException(new IllegalArgumentException("Cannot host 0 sessions"),
+                "SessionHost", 0, host.handlers);
+        ExecutorService handlers = SessionHost.handlers(2);
+        t.checkExpect(handlers.isShutdown(), false);
+        handlers.shutdown();
+        host.close();
+    }
+
+    // tests handle, open and session
+    void testHandle(Tester t) throws IOException {
+        initCond();
+        t.checkExpect(host.handle("NEW 6 4 7"), "OK 1 6 4 " + game.numAllowedClicks);
+        // room to play on, the formula allows one move on so small a board
+        host.sessions.get(1L).game.numAllowedClicks = 10;
+        game.numAllowedClicks = 10;
+        t.checkExpect(host.handle("state 1"), "OK 0 " + game.numAllowedClicks + " "
+                + game.board.floodedCount + " 36 " + game.board.floodColor + " playing");
+        int color = (game.board.floodColor + 1) % 4;
+        game.play(color);
+        t.checkExpect(host.handle("PLAY 1 " + color), "OK 1 " + game.numAllowedClicks + " "
+                + game.board.floodedCount + " 36 " + color + " playing");
+        t.checkExpect(host.sessions.get(1L).game.board.flooded, game.board.flooded);
+        t.checkExpect(host.handle("UNDO 1").startsWith("OK 0 "), true);
+        t.checkExpect(host.handle("UNDO 1"), "ERR Nothing to undo in game 1");
+        t.checkExpect(host.handle("REDO 1").startsWith("OK 1 "), true);
+        t.checkExpect(host.handle("REDO 1"), "ERR Nothing to redo in game 1");
+
+        String board = host.handle("BOARD 1");
+        t.checkExpect(board.length(), 3 + 36);
+        t.checkExpect(board.charAt(3), Character.forDigit(color, 36));
+        t.checkExpect(board.charAt(3 + 35), Character.forDigit(game.board.color(35), 36));
+
+        t.checkExpect(host.handle("PLAY 1 4"), "ERR Cannot play color 4 of 4");
+        t.checkExpect(host.handle("PLAY 1"), "ERR Usage: PLAY id color");
+        t.checkExpect(host.handle("PLAY 2 1"), "ERR No session 2");
+        t.checkExpect(host.handle("STATE"), "ERR Usage: STATE id");
+        t.checkExpect(host.handle("NEW 6"), "ERR Usage: NEW size colors [seed]");
+        t.checkExpect(host.handle("NEW 6 37"), "ERR Cannot play 37 colors, only 1 to 36");
+        t.checkExpect(host.handle("NEW 2000 4"), "ERR Cannot host a board of size 2000");
+        t.checkExpect(host.handle("NEW 0 4"), "ERR Cannot make a board of size 0");
+        t.checkExpect(host.handle("JUMP 1"), "ERR Unknown command: JUMP");
+        t.checkExpect(host.handle("QUIT"), "BYE");
+
+        // sessions are apart, and the host only takes so many
+        t.checkExpect(host.handle("NEW 6 4 7").startsWith("OK 2 6 4 "), true);
+        t.checkExpect(host.sessions.get(2L).game.numClicks, 0);
+        t.checkExpect(host.handle("NEW 5 3").startsWith("OK 3 5 3 "), true);
+        t.checkExpect(host.handle("NEW 5 3"), "ERR Host is full, 3 sessions");
+        t.checkExpect(host.handle("END 3"), "OK");
+        t.checkExpect(host.handle("END 3"), "ERR No session 3");
+        t.checkExpect(host.handle("NEW 5 3").startsWith("OK 4 "), true);
+        host.close();
+    }
+
+    // tests that a game that is over takes no more moves
+    void testOver(Tester t) throws IOException {
+        initCond();
+        host.handle("NEW 6 4 7");
+        Session session = host.sessions.get(1L);
+        session.game.numAllowedClicks = 1;
+        t.checkExpect(host.handle("PLAY 1 " + (game.board.floodColor + 1) % 4).endsWith(" lost"),
+                true);
+        t.checkExpect(host.handle("PLAY 1 0"), "ERR Game 1 is over");
+        // taking the move back plays on
+        t.checkExpect(host.handle("UNDO 1").endsWith(" playing"), true);
+        host.close();
+    }
+
+    // tests that new sessions take solved boards from the puzzles
+    void testPuzzles(Tester t) throws IOException {
+        initCond();
+        Path file = Files.createTempFile("puzzles", ".index");
+        Files.delete(file);
+        host.puzzles = new PuzzlePool(file, 1, 50, 1, 4, 0, 5000);
+        try {
+            t.checkExpect(host.handle("NEW 5 3"),
+                    "OK 1 5 3 " + FloodItGame.allowedClicks(25, 3));
+            host.puzzles.await();
+            Puzzle puzzle = host.puzzles.get(50, 5, 3);
+            t.checkExpect(host.handle("NEW 5 3"), "OK 2 5 3 " + puzzle.par);
+            t.checkExpect(host.sessions.get(2L).seed, 50L);
+            // a given seed is dealt as it is
+            t.checkExpect(host.handle("NEW 5 3 50"), "OK 3 5 3 " + FloodItGame.allowedClicks(25, 3));
+        }
+        finally {
+            host.puzzles.await();
+            host.puzzles.close();
+            Files.delete(file);
+            host.close();
+        }
+    }
+
+    // tests expire
+    void testExpire(Tester t) throws IOException {
+        initCond();
+        host.handle("NEW 4 3 1");
+        host.handle("NEW 4 3 2");
+        host.sessions.get(1L).lastUsed = 1000;
+        host.sessions.get(2L).lastUsed = 5000;
+        t.checkExpect(host.expire(6000, 2000), 1);
+        t.checkExpect(host.sessions.containsKey(1L), false);
+        t.checkExpect(host.sessions.containsKey(2L), true);
+        t.checkExpect(host.expire(6000, 2000), 0);
+        host.close();
+    }
+
+    // tests that opens racing each other never take more sessions than the host has
+    void testOpenRace(Tester t) throws Exception {
+        initCond();
+        ExecutorService players = Executors.newFixedThreadPool(8);
+        try {
+            for (int round = 0; round < 20; round++) {
+                host.sessions.clear();
+                CountDownLatch ready = new CountDownLatch(8);
+                ArrayList<Future<String>> opens = new ArrayList<Future<String>>();
+                for (int k = 0; k < 8; k++) {
+                    opens.add(players.submit(() -> {
+                        ready.countDown();
+                        ready.await();
+                        return host.handle("NEW 4 3 1");
+                    }));
+                }
+                int opened = 0;
+                for (Future<String> open : opens) {
+                    if (open.get().startsWith("OK ")) {
+                        opened++;
+                    }
+                    else {
+                        t.checkExpect(open.get(), "ERR Host is full, 3 sessions");
+                    }
+                }
+                t.checkExpect(opened, 3);
+                t.checkExpect(host.sessions.size(), 3);
+            }
+        }
+        finally {
+            players.shutdown();
+            host.close();
+        }
+    }
+
+    // tests start, accept and converse over real connections, many players at once
+    void testSockets(Tester t) throws Exception {
+        initCond();
+        host.maxSessions = 100;
+        int port = host.start(0);
+        try {
+            ExecutorService players = Executors.newFixedThreadPool(4);
+            ArrayList<Future<String>> games = new ArrayList<Future<String>>();
+            for (int k = 0; k < 8; k++) {
+                games.add(players.submit(() -> {
+                    try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+                        PrintWriter out = new PrintWriter(socket.getOutputStream(), true);
+                        BufferedReader in = new BufferedReader(new InputStreamReader(
+                                socket.getInputStream(), StandardCharsets.US_ASCII));
+                        out.println("NEW 12 4 7");
+                        String id = in.readLine().split(" ")[1];
+                        String state = "playing";
+                        for (int move = 0; state.endsWith("playing"); move++) {
+                            out.println("PLAY " + id + " " + move % 4);
+                            state = in.readLine();
+                        }
+                        out.println("");
+                        out.println("QUIT");
+                        // the host says goodbye and hangs up
+                        return state + " " + in.readLine() + " " + in.readLine();
+                    }
+                }));
+            }
+            FloodItGame cycled = new FloodItGame(12, 4, new Random(7));
+            for (int move = 0; !cycled.over(); move++) {
+                cycled.play(move % 4);
+            }
+            Session played = new Session(0, 7, cycled);
+            for (Future<String> each : games) {
+                t.checkExpect(each.get(), "OK " + played.state() + " BYE null");
+            }
+            players.shutdown();
+            t.checkExpect(host.sessions.size(), 8);
+        }
+        finally {
+            host.close();
+        }
+    }
+}
@@ -0,0 +1,194 @@
+import java.util.Arrays;
+import java.util.Random;
+
+import tester.*;
+
+// examples for the optimal move solver
+class ExamplesSolver {
+    FloodBoard board;       // 2x2 board, only the top left cell flooded
+    FloodSolver solver;
+    FloodItGame seeded;     // 6x6 board with 4 colors from a seed
+
+    // initializes test cases
+    void initCond() {
+        // 0 1
+        // 2 3
+        board = new FloodBoard(2, new byte[] {0, 1, 2, 3});
+        board.flood(0);
+        solver = new FloodSolver(board, 4);
+        seeded = new FloodItGame(6, 4, new Random(7));
+    }
+
+    // tests findRegions
+    void testFindRegions(Tester t) {
+        initCond();
+        t.checkExpect(solver.regions, 4);
+        t.checkExpect(solver.words, 1);
+        t.checkExpect(solver.graph.regionOf, new int[] {0, 1, 2, 3});
+        t.checkExpect(solver.graph.regionColor, new byte[] {0, 1, 2, 3});
+        t.checkExpect(solver.adjacent[0], new long[] {0b0110});
+        t.checkExpect(solver.adjacent[3], new long[] {0b0110});
+        t.checkExpect(solver.colorMask[2], new long[] {0b0100});
+
+        // 0 0 1
+        // 1 0 1
+        // 1 1 0
+        FloodBoard three = new FloodBoard(3, new byte[] {0, 0, 1, 1, 0, 1, 1, 1, 0});
+        three.flood(0);
+        three.expand(0);
+        FloodSolver threeSolver = new FloodSolver(three, 2);
+        t.checkExpect(threeSolver.regions, 4);
+        t.checkExpect(threeSolver.graph.regionOf, new int[] {0, 0, 1, 2, 0, 1, 2, 2, 3});
+        t.checkExpect(threeSolver.graph.regionSize, new int[] {3, 2, 3, 1});
+    }
+
+    // tests move, touching and isSolved
+    void testMove(Tester t) {
+        initCond();
+        long[] start = solver.start();
+        t.checkExpect(start, new long[] {0b0001});
+        t.checkExpect(solver.touching(start), new long[] {0b0110});
+        t.checkExpect(solver.move(start, 1), new long[] {0b0011});
+        // a color that touches nothing floods nothing
+        t.checkExpect(solver.move(start, 3), new long[] {0b0001});
+        t.checkExpect(solver.isSolved(solver.move(start, 1)), false);
+        t.checkExpect(solver.isSolved(new long[] {0b1111}), true);
+    }
+
+    // tests estimate, colorsLeft and eccentricity
+    void testEstimate(Tester t) {
+        initCond();
+        long[] start = solver.start();
+        t.checkExpect(solver.colorsLeft(start), 3);
+        t.checkExpect(solver.eccentricity(start), 2);
+        t.checkExpect(solver.estimate(start), 3);
+        t.checkExpect(solver.colorsLeft(new long[] {0b0111}), 1);
+        t.checkExpect(solver.eccentricity(new long[] {0b0111}), 1);
+        t.checkExpect(solver.estimate(new long[] {0b1111}), 0);
+    }
+
+    // tests greedy
+    void testGreedy(Tester t) {
+        initCond();
+        t.checkExpect(solver.greedy().length, 3);
+        byte[] moves = new FloodSolver(seeded.board, 4).greedy();
+        t.checkExpect(this.floods(seeded, moves), true);
+    }
+
+    // tests solve
+    void testSolve(Tester t) {
+        initCond();
+        Solution solution = solver.solve();
+        t.checkExpect(solution.moves.length, 3);
+        t.checkExpect(solution.optimal, true);
+        t.checkExpect(solution.lowerBound, 3);
+        t.checkExpect(this.floods(new FloodItGame(board, 4, 3, 0), solution.moves), true);
+
+        // already flooded
+        FloodBoard one = new FloodBoard(1, new byte[] {2});
+        one.flood(0);
+        t.checkExpect(new FloodSolver(one, 4).solve().moves, new byte[] {});
+
+        // as short as a search through every move sequence
+        for (int seed = 0; seed < 10; seed++) {
+            FloodItGame game = new FloodItGame(6, 4, new Random(seed));
+            Solution best = new FloodSolver(game.board, 4).solve();
+            t.checkExpect(best.optimal, true);
+            t.checkExpect(best.moves.length, this.fewestMoves(game));
+            t.checkExpect(this.floods(game, best.moves), true);
+        }
+    }
+
+    // tests solve running out of its budget
+    void testBudget(Tester t) {
+        FloodItGame game = new FloodItGame(14, 6, new Random(3));
+        Solution solution = new FloodSolver(game.board, 6, 0, 10).solve();
+        t.checkExpect(solution.optimal, false);
+        t.checkExpect(solution.lowerBound <= solution.moves.length, true);
+        t.checkExpect(this.floods(game, solution.moves), true);
+    }
+
+    // tests the parallel solver against the sequential one
+    void testParallelSolve(Tester t) {
+        initCond();
+        ParallelSolver parallel = new ParallelSolver(board, 4, 2, 0, 0);
+        Solution solution = parallel.solve();
+        t.checkExpect(solution.moves.length, 3);
+        t.checkExpect(solution.optimal, true);
+        t.checkExpect(parallel.nodes.sum() > 0, true);
+
+        for (int seed = 0; seed < 10; seed++) {
+            FloodItGame game = new FloodItGame(8, 5, new Random(seed));
+            int fewest = new FloodSolver(game.board, 5).solve().moves.length;
+            for (int threads = 1; threads <= 4; threads *= 2) {
+                Solution found = new ParallelSolver(game.board, 5, threads, 0, 0).solve();
+                t.checkExpect(found.optimal, true);
+                t.checkExpect(found.moves.length, fewest);
+                t.checkExpect(this.floods(game, found.moves), true);
+            }
+            // a full table only costs speed
+            Solution small = new ParallelSolver(game.board, 5, 2, 0, 16).solve();
+            t.checkExpect(small.moves.length, fewest);
+        }
+
+        t.checkConstructorException(
+                new IllegalArgumentException("Cannot search with 0 threads"),
+                "ParallelSolver", board, 4, 0, 0L, 0);
+    }
+
+    // tests the parallel solver running out of time
+    void testParallelBudget(Tester t) {
+        FloodItGame game = new FloodItGame(14, 6, new Random(3));
+        Solution solution = new ParallelSolver(game.board, 6, 2, 1, 0).solve();
+        t.checkExpect(solution.optimal, false);
+        t.checkExpect(solution.lowerBound <= solution.moves.length, true);
+        t.checkExpect(this.floods(game, solution.moves), true);
+    }
+
+    // does playing the given moves on a copy of the given game flood its board?
+    boolean floods(FloodItGame game, byte[] moves) {
+        FloodItGame copy = this.copy(game);
+        for (byte move : moves) {
+            copy.play(move);
+        }
+        return copy.board.allFlooded();
+    }
+
+    // a copy of the given game that can be played without changing it
+    FloodItGame copy(FloodItGame game) {
+        FloodBoard board = new FloodBoard(game.board.size);
+        for (int i = 0; i < board.cells; i++) {
+            board.setColor(i, game.board.color(i));
+        }
+        board.flood(0);
+        board.expand(board.color(0));
+        return new FloodItGame(board, game.numColors, game.numAllowedClicks, 0);
+    }
+
+    // the fewest moves that flood the given game, trying every sequence of moves
+    // one length at a time
+    int fewestMoves(FloodItGame game) {
+        for (int length = 0; ; length++) {
+            if (this.floodsWithin(game, new byte[length], 0)) {
+                return length;
+            }
+        }
+    }
+
+    // does any sequence of moves filling the given ones from the given position flood the game?
+    boolean floodsWithin(FloodItGame game, byte[] moves, int k) {
+        if (k == moves.length) {
+            return this.floods(game, moves);
+        }
+        for (int c = 0; c < game.numColors; c++) {
+            if (k > 0 && moves[k - 1] == c) {
+                continue;
+            }
+            moves[k] = (byte) c;
+            if (this.floodsWithin(game, Arrays.copyOf(moves, moves.length), k + 1)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,173 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import tester.*;
+
+// examples for the bots and the tournament runner
+class ExamplesTournament {
+    FloodBoard board;
+    FloodItGame game;       // 3x3 board, only the top left cell flooded
+    Tournament tournament;  // 100 greedy games of 6x6 with 4 colors on 2 threads
+
+    // initializes test cases
+    void initCond() {
+        // 0 1 1
+        // 2 1 3
+        // 2 2 3
+        board = new FloodBoard(3, new byte[] {0, 1, 1, 2, 1, 3, 2, 2, 3});
+        board.flood(0);
+        game = new FloodItGame(board, 4, 5, 0);
+        tournament = new Tournament(new GreedyBot(), 6, 4, 1000, 100, 2);
+    }
+
+    // tests the bots
+    void testBots(Tester t) {
+        initCond();
+        game.play(1);
+        t.checkExpect(new GreedyBot().choose(game, new Random(0)), 2);
+        t.checkExpect(new CycleBot().choose(game, new Random(0)), 2);
+        game.play(2);
+        // flood is now color 2, cycling wraps around past the untouched 0 and 1
+        t.checkExpect(new CycleBot().choose(game, new Random(0)), 3);
+        for (int k = 0; k < 20; k++) {
+            t.checkExpect(new RandomBot().choose(game, new Random(k)), 3);
+        }
+        t.checkExpect(Tournament.bot("cycle") instanceof CycleBot, true);
+
+        // without a region graph every bot still picks a color that may flood
+        initCond();
+        game.useBits();
+        t.checkExpect(game.touches(0), false);
+        t.checkExpect(game.touches(3), true);
+        t.checkExpect(game.touches(4), false);
+        t.checkExpect(new GreedyBot().choose(game, new Random(0)), 1);
+        t.checkExpect(new CycleBot().choose(game, new Random(0)), 1);
+        for (int k = 0; k < 20; k++) {
+            int color = new RandomBot().choose(game, new Random(k));
+            t.checkExpect(color >= 1 && color <= 3, true);
+        }
+        // greedy counts the cells along the edge of the flood instead
+        t.checkExpect(GreedyBot.edgeCells(game, 1), 1);
+        t.checkExpect(GreedyBot.edgeCells(game, 3), 0);
+        // and plays the game out
+        FloodBot bot = new GreedyBot();
+        while (!game.board.allFlooded()) {
+            game.play(bot.choose(game, new Random(0)));
+        }
+        t.checkExpect(game.numClicks, 3);
+
+        // the same on a game flooded through the frontier
+        initCond();
+        game.regions = null;
+        t.checkExpect(new GreedyBot().choose(game, new Random(0)), 1);
+        game.play(2);
+        // cell 4 touches two flooded cells but counts once
+        t.checkExpect(GreedyBot.edgeCells(game, 1), 2);
+        t.checkExpect(GreedyBot.edgeCells(game, 3), 1);
+        t.checkExpect(new GreedyBot().choose(game, new Random(0)), 1);
+        t.checkException(new IllegalArgumentException("Unknown bot: smart"),
+                new Tournament(null, 2, 2, 0, 0, 1), "bot", "smart");
+    }
+
+    // tests playOne
+    void testPlayOne(Tester t) {
+        initCond();
+        // the same game the seeded board gives greedy play
+        Random rand = new Random(1003);
+        FloodItGame seeded = new FloodItGame(6, 4, rand);
+        GreedyBot bot = new GreedyBot();
+        while (!seeded.board.allFlooded()) {
+            seeded.play(bot.choose(seeded, rand));
+        }
+        t.checkExpect(tournament.playOne(1003), seeded.numClicks);
+        t.checkExpect(tournament.playOne(1003), tournament.playOne(1003));
+        t.checkExpect(new Tournament(new RandomBot(), 6, 4, 0, 1, 1).playOne(5) > 0, true);
+        t.checkConstructorException(
+                new IllegalArgumentException("Cannot play with 0 threads"),
+                "Tournament", new GreedyBot(), 6, 4, 0L, 1L, 0);
+    }
+
+    // tests run on a board too big for a region graph, which floods through its
+    // frontier while greedy scores colors by the edge of the flood
+    void testRunWithoutGraph(Tester t) throws IOException {
+        Tournament big = new Tournament(new GreedyBot(), 1025, 3, 0, 1, 1);
+        Random rand = new Random(0);
+        FloodItGame game = new FloodItGame(1025, 3, rand);
+        t.checkExpect(game.regions, null);
+        GreedyBot bot = new GreedyBot();
+        while (!game.board.allFlooded()) {
+            game.play(bot.choose(game, rand));
+        }
+        Path file = Files.createTempFile("tournament", ".bin");
+        try {
+            big.run(file);
+            t.checkExpect(big.histogram[game.numClicks], 1L);
+            t.checkExpect(big.percentile(1.0), game.numClicks);
+        }
+        finally {
+            Files.delete(file);
+        }
+    }
+
+    // tests run and read
+    void testRun(Tester t) throws IOException {
+        initCond();
+        Path file = Files.createTempFile("tournament", ".bin");
+        try {
+            tournament.run(file);
+            byte[] bytes = Files.readAllBytes(file);
+            t.checkExpect(bytes.length, Tournament.HEADER_BYTES + 100 * Tournament.RECORD_BYTES);
+
+            // every seed is played once and recorded with the moves it needs
+            ByteBuffer records = ByteBuffer.wrap(bytes);
+            t.checkExpect(records.getInt(), Tournament.MAGIC);
+            records.position(Tournament.HEADER_BYTES);
+            boolean[] seen = new boolean[100];
+            long total = 0;
+            for (int k = 0; k < 100; k++) {
+                long seed = records.getLong();
+                int moves = records.getShort() & 0xFFFF;
+                seen[(int) (seed - 1000)] = true;
+                t.checkExpect(moves & 0x7FFF, tournament.playOne(seed));
+                t.checkExpect((moves & Tournament.WON) != 0, (moves & 0x7FFF) <= tournament.allowed);
+                total += moves & 0x7FFF;
+            }
+            for (boolean played : seen) {
+                t.checkExpect(played, true);
+            }
+            t.checkInexact(tournament.mean(), total / 100.0, 0.0001);
+
+            Tournament read = Tournament.read(file);
+            t.checkExpect(read.histogram, tournament.histogram);
+            t.checkExpect(read.wins, tournament.wins);
+            t.checkExpect(read.games, 100L);
+            t.checkExpect(read.firstSeed, 1000L);
+            t.checkExpect(read.report(), tournament.report());
+
+            Files.write(file, new byte[] {1, 2, 3});
+            t.checkException(new java.io.IOException("Not a tournament file: " + file),
+                    new Tournament(null, 2, 2, 0, 0, 1), "read", file);
+        }
+        finally {
+            Files.delete(file);
+        }
+    }
+
+    // tests percentile, mean and deviation
+    void testStatistics(Tester t) {
+        initCond();
+        tournament.histogram[3] = 1;
+        tournament.histogram[4] = 2;
+        tournament.histogram[7] = 1;
+        t.checkExpect(tournament.percentile(0), 3);
+        t.checkExpect(tournament.percentile(0.5), 4);
+        t.checkExpect(tournament.percentile(0.75), 4);
+        t.checkExpect(tournament.percentile(0.76), 7);
+        t.checkExpect(tournament.percentile(1), 7);
+        t.checkInexact(tournament.mean(), 4.5, 0.0001);
+        t.checkInexact(tournament.deviation(), Math.sqrt(2.25), 0.0001);
+    }
+}
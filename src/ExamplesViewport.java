@@ -0,0 +1,125 @@
+import tester.*;
+
+// examples for the viewport onto a board
+class ExamplesViewport {
+    Viewport whole;     // 22x22 board shown whole in 440 pixels
+    Viewport part;      // 100x100 board in 200 pixels, 10 cells at a time
+
+    // initializes test cases
+    void initCond() {
+        whole = new Viewport(22, 440, 20);
+        part = new Viewport(100, 200, 20);
+    }
+
+    // tests the constructor
+    void testConstructor(Tester t) {
+        initCond();
+        t.checkExpect(part.col, 0);
+        t.checkExpect(part.row, 0);
+        t.checkConstructorException(
+                new IllegalArgumentException("Cannot draw cells 0 pixels wide"),
+                "Viewport", 10, 100, 0);
+        t.checkConstructorException(
+                new IllegalArgumentException("Cannot draw cells 80 pixels wide"),
+                "Viewport", 10, 100, 80);
+    }
+
+    // tests cols, rows, visibleCells and showsAll
+    void testVisible(Tester t) {
+        initCond();
+        t.checkExpect(whole.cols(), 22);
+        t.checkExpect(whole.visibleCells(), 484);
+        t.checkExpect(whole.showsAll(), true);
+        t.checkExpect(part.cols(), 10);
+        t.checkExpect(part.rows(), 10);
+        t.checkExpect(part.showsAll(), false);
+        // a small board in a big window
+        t.checkExpect(new Viewport(2, 440, 20).visibleCells(), 4);
+    }
+
+    // tests slot and cellAt
+    void testSlot(Tester t) {
+        initCond();
+        for (int i = 0; i < 484; i++) {
+            t.checkExpect(whole.slot(i), i);
+            t.checkExpect(whole.cellAt(i), i);
+        }
+        part.scroll(5, 7);
+        t.checkExpect(part.slot(705), 0);
+        t.checkExpect(part.slot(1614), 99);
+        t.checkExpect(part.slot(704), -1);
+        t.checkExpect(part.slot(615), -1);
+        t.checkExpect(part.slot(1715), -1);
+        for (int slot = 0; slot < 100; slot++) {
+            t.checkExpect(part.slot(part.cellAt(slot)), slot);
+        }
+    }
+
+    // tests screenX and screenY
+    void testScreen(Tester t) {
+        initCond();
+        t.checkExpect(whole.screenX(23), 30);
+        t.checkExpect(whole.screenY(23), 30);
+        part.scroll(5, 7);
+        t.checkExpect(part.screenX(705), 10);
+        t.checkExpect(part.screenY(705), 10);
+        t.checkExpect(part.screenX(1614), 190);
+    }
+
+    // tests indexAt against the board hit test when the board is shown whole
+    void testIndexAt(Tester t) {
+        initCond();
+        FloodBoard board = new FloodBoard(22);
+        for (int x = -5; x < 460; x += 7) {
+            for (int y = -5; y < 480; y += 11) {
+                t.checkExpect(whole.indexAt(x, y), board.indexAt(x, y, 20));
+            }
+        }
+        part.scroll(5, 7);
+        t.checkExpect(part.indexAt(1, 1), 705);
+        t.checkExpect(part.indexAt(200, 200), 1614);
+        t.checkExpect(part.indexAt(201, 10), -1);
+        t.checkExpect(part.indexAt(0, 10), -1);
+    }
+
+    // tests scroll and clamp
+    void testScroll(Tester t) {
+        initCond();
+        t.checkExpect(whole.scroll(3, 3), false);
+        t.checkExpect(part.scroll(-1, 0), false);
+        t.checkExpect(part.scroll(30, 40), true);
+        t.checkExpect(part.col, 30);
+        t.checkExpect(part.row, 40);
+        // the window stays full of cells
+        t.checkExpect(part.scroll(1000, 1000), true);
+        t.checkExpect(part.col, 90);
+        t.checkExpect(part.row, 90);
+        t.checkExpect(part.scroll(1, 1), false);
+    }
+
+    // tests zoom
+    void testZoom(Tester t) {
+        initCond();
+        part.scroll(40, 40);
+        // the middle cell stays in the middle
+        t.checkExpect(part.indexAt(101, 101), 45 * 100 + 45);
+        t.checkExpect(part.zoom(false), true);
+        t.checkExpect(part.cellSize, 10);
+        t.checkExpect(part.cols(), 20);
+        t.checkExpect(part.col, 35);
+        t.checkExpect(part.indexAt(101, 101), 45 * 100 + 45);
+        t.checkExpect(part.zoom(true), true);
+        t.checkExpect(part.zoom(true), true);
+        t.checkExpect(part.zoom(true), false);
+        t.checkExpect(part.cellSize, 40);
+        t.checkExpect(part.cols(), 5);
+
+        // zooming out to the smallest cells shows the whole board
+        for (int k = 0; k < 10; k++) {
+            part.zoom(false);
+        }
+        t.checkExpect(part.cellSize, 1);
+        t.checkExpect(part.col, 0);
+        t.checkExpect(part.showsAll(), true);
+    }
+}
@@ -0,0 +1,159 @@
+import java.util.function.IntPredicate;
+
+// draws the cells a move changed a wavefront at a time, so a flood of any size
+// spreads over about the same stretch of time: each tick draws an even share of
+// the waves that were queued, stops early once its part of the frame is used
+// up, and a new move can first snap whatever is still queued into place so the
+// backlog never outgrows one flood
+
+class FloodAnimator {
+    static final long SWEEP = 1_000_000_000L;   // nanoseconds a queued flood takes to draw
+    static final long TICK = 50_000_000L;       // nanoseconds between ticks until they are measured
+    static final int SHARE = 2;                 // a tick draws for at most 1/SHARE of a tick
+
+    IntQueue cells;     // cells waiting to be drawn, front first
+    IntQueue waves;     // number of cells in each queued wave, the cells behind them are waves of one
+    int marked;         // cells at the front of the queue that the waves cover
+    int pace;           // waves a tick draws, 0 to work it out again at the next draw
+    long tickNanos;     // time between ticks, averaged over the last few
+    long lastTick;      // when the last tick was, 0 before the first
+
+    // animator constructor for the cells of the given queue, nothing measured yet
+    FloodAnimator(IntQueue cells) {
+        this.cells = cells;
+        this.waves = new IntQueue();
+        this.marked = 0;
+        this.pace = 0;
+        this.tickNanos = FloodAnimator.TICK;
+        this.lastTick = 0;
+    }
+
+    /* TMPLT
+     * Fields
+     *   FloodAnimator.SWEEP     1000000000
+     *   FloodAnimator.TICK      50000000
+     *   FloodAnimator.SHARE     2
+     *   this.cells              IntQueue
+     *   this.waves              IntQueue
+     *   this.marked             int
+     *   this.pace               int
+     *   this.tickNanos          long
+     *   this.lastTick           long
+     * Methods:
+     *   this.tick(long)                      - void
+     *   this.waiting()                       - int
+     *   this.endWave()                       - void
+     *   this.queueFlood(FloodBoard, int)     - void
+     *   this.draw(IntPredicate)              - int
+     *   this.collapse(IntPredicate)          - int
+     *   this.clear()                         - void
+     *   this.sync()                          - void
+     * Methods on Fields:
+     *   this.cells.add(int)                  - void
+     *   this.cells.remove()                  - int
+     *   this.waves.remove()                  - int
+     */
+    // EFFECT: counts a tick at the given System.nanoTime, moving the average
+    // time between ticks an eighth of the way to the time since the last one;
+    // a pause longer than a sweep counts as a sweep
+    void tick(long now) {
+        if (this.lastTick != 0) {
+            long since = Math.min(Math.max(now - this.lastTick, 1), FloodAnimator.SWEEP);
+            this.tickNanos = Math.max(1, this.tickNanos + (since - this.tickNanos) / 8);
+        }
+        this.lastTick = now;
+    }
+
+    // the number of waves waiting to be drawn
+    int waiting() {
+        this.sync();
+        return this.waves.size() + this.cells.size() - this.marked;
+    }
+
+    // EFFECT: makes the cells queued since the last wave one wave of their own
+    void endWave() {
+        this.sync();
+        if (this.cells.size() > this.marked) {
+            this.waves.add(this.cells.size() - this.marked);
+            this.marked = this.cells.size();
+            this.pace = 0;
+        }
+    }
+
+    // EFFECT: queues every flooded cell of the given board connected to the
+    // given one, a wave for each distance from it
+    void queueFlood(FloodBoard board, int start) {
+        this.endWave();
+        board.floodOrder(start, this.cells, this.waves);
+        this.marked = this.cells.size();
+        this.pace = 0;
+    }
+
+    // draws whole waves off the front of the queue with the given drawer, which
+    // says whether it changed the cell: this tick's share of the waves, or
+    // fewer once half the tick is gone, but always one that changed something
+    // EFFECT: removes the waves drawn from the queue
+    // returns the number of cells drawn that changed
+    int draw(IntPredicate drawCell) {
+        this.sync();
+        long deadline = System.nanoTime() + this.tickNanos / FloodAnimator.SHARE;
+        if (this.pace == 0) {
+            long ticks = Math.max(1, FloodAnimator.SWEEP / this.tickNanos);
+            this.pace = (int) Math.max(1, (this.waiting() + ticks - 1) / ticks);
+        }
+        int drawn = 0;
+        int changed = 0;
+        while (!this.cells.isEmpty()
+                && (drawn == 0 || (drawn < this.pace && System.nanoTime() < deadline))) {
+            int size = 1;
+            if (this.marked > 0) {
+                size = this.waves.remove();
+                this.marked -= size;
+            }
+            int before = changed;
+            for (int k = 0; k < size; k++) {
+                if (drawCell.test(this.cells.remove())) {
+                    changed++;
+                }
+            }
+            if (changed > before) {
+                drawn++;
+            }
+        }
+        if (this.cells.isEmpty()) {
+            this.pace = 0;
+        }
+        return changed;
+    }
+
+    // draws every queued cell at once with the given drawer
+    // EFFECT: empties the queue
+    // returns the number of cells drawn that changed
+    int collapse(IntPredicate drawCell) {
+        int changed = 0;
+        while (!this.cells.isEmpty()) {
+            if (drawCell.test(this.cells.remove())) {
+                changed++;
+            }
+        }
+        this.clear();
+        return changed;
+    }
+
+    // EFFECT: empties the queue without drawing anything
+    void clear() {
+        this.cells.clear();
+        this.waves.clear();
+        this.marked = 0;
+        this.pace = 0;
+    }
+
+    // EFFECT: forgets the waves when the queue was emptied without this animator,
+    // so they never cover cells queued afterwards
+    void sync() {
+        if (this.cells.size() < this.marked) {
+            this.waves.clear();
+            this.marked = 0;
+        }
+    }
+}
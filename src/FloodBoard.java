@@ -0,0 +1,431 @@
+import java.util.Arrays;
+import java.util.Random;
+
+// represents the squares of a flood it board as flat primitive arrays:
+// one palette index per cell and one bit per cell for the flooded region
+// cells are numbered row by row, cell 0 is the top left corner
+
+class FloodBoard {
+    int size;           // number of cells along one side
+    int cells;          // total number of cells
+    byte[] colors;      // palette index of every cell
+    long[] flooded;     // bitset of the flooded cells
+    int floodedCount;   // number of set bits in flooded
+    int floodColor;     // palette index every flooded cell currently shows
+    int[] frontier;     // flooded cells that may still touch unflooded ones
+    int frontierSize;   // number of used entries in frontier
+    IntQueue journal;   // every cell flooded while it is set, null when nobody listens
+
+    // empty board constructor, every cell has palette index 0
+    FloodBoard(int size) {
+        this(size, new byte[FloodBoard.cellsOf(size)]);
+    }
+
+    // convenience constructor, takes ownership of the given palette indices
+    FloodBoard(int size, byte[] colors) {
+        this(size, colors, new long[(colors.length + 63) >>> 6]);
+        if (colors.length != size * size) {
+            throw new IllegalArgumentException("Expected " + (size * size) + " colors but got "
+                    + colors.length);
+        }
+    }
+
+    // constructor for a board that keeps its cells in the given arrays, or in
+    // storage of its own when both are null, see OffHeapBoard
+    FloodBoard(int size, byte[] colors, long[] flooded) {
+        this.size = size;
+        this.cells = size * size;
+        this.colors = colors;
+        this.flooded = flooded;
+        this.floodedCount = 0;
+        this.floodColor = 0;
+        this.frontier = new int[Math.min(this.cells, 64)];
+        this.frontierSize = 0;
+        this.journal = null;
+    }
+
+    // the number of cells of a board of the given size, which must fit in an array
+    static int cellsOf(int size) {
+        if (size < 1 || (long) size * size > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Cannot make a board of size " + size);
+        }
+        return size * size;
+    }
+
+    /* TMPLT
+     * Fields
+     *   this.size           int
+     *   this.cells          int
+     *   this.colors         byte[]
+     *   this.flooded        long[]
+     *   this.floodedCount   int
+     *   this.floodColor     int
+     *   this.frontier       int[]
+     *   this.frontierSize   int
+     *   this.journal        IntQueue
+     * Methods:
+     *   FloodBoard.cellsOf(int)       - int
+     *   this.randomize(int, Random)   - void
+     *   this.color(int)               - int
+     *   this.ownColor(int)            - int
+     *   this.setColor(int, int)       - void
+     *   this.isFlooded(int)           - boolean
+     *   this.markFlooded(int)         - void
+     *   this.clearFlooded()           - void
+     *   this.floodedWord(int)         - long
+     *   this.setFloodedWord(int, long) - void
+     *   this.floodBit(int)            - void
+     *   this.flood(int)               - void
+     *   this.unfloodBits(int[], int, int) - void
+     *   this.unflood(int[], int, int) - void
+     *   this.refresh()                - void
+     *   this.touchesUnflooded(int)    - boolean
+     *   this.edgeCells(int)           - int
+     *   this.firstFlooded(int)        - int
+     *   this.expand(int)              - int
+     *   this.absorb(int, int)         - boolean
+     *   this.floodOrder(int, IntQueue) - void
+     *   this.floodOrder(int, IntQueue, IntQueue) - void
+     *   this.visit(int, long[], IntQueue) - void
+     *   this.allFlooded()             - boolean
+     *   this.left(int)                - int
+     *   this.top(int)                 - int
+     *   this.right(int)               - int
+     *   this.bottom(int)              - int
+     *   this.indexAt(int, int, int)   - int
+     */
+    // fills the board with random colors, in the same row by row order the
+    // original linked board drew them so seeded games are unchanged
+    // EFFECT: modifies the colors of every cell and clears the flooded region
+    void randomize(int numColors, Random rand) {
+        for (int i = 0; i < this.cells; i++) {
+            this.setColor(i, rand.nextInt(numColors));
+        }
+        this.clearFlooded();
+        this.floodedCount = 0;
+        this.frontierSize = 0;
+    }
+
+    // the palette index of the given cell, flooded cells all show the flood color
+    int color(int i) {
+        if (this.isFlooded(i)) {
+            return this.floodColor;
+        }
+        return this.ownColor(i);
+    }
+
+    // the palette index the given cell was dealt, flooded or not; this and the
+    // other methods down to setFloodedWord are the only ones touching the arrays
+    int ownColor(int i) {
+        return this.colors[i];
+    }
+
+    // EFFECT: sets the palette index of the given cell
+    void setColor(int i, int color) {
+        this.colors[i] = (byte) color;
+    }
+
+    // is the given cell part of the flooded region?
+    boolean isFlooded(int i) {
+        return (this.flooded[i >>> 6] & (1L << i)) != 0;
+    }
+
+    // EFFECT: sets the flooded bit of the given cell, nothing else
+    void markFlooded(int i) {
+        this.flooded[i >>> 6] |= 1L << i;
+    }
+
+    // EFFECT: clears the flooded bit of every cell, nothing else
+    void clearFlooded() {
+        Arrays.fill(this.flooded, 0L);
+    }
+
+    // the flooded bits of the cells 64 * w up to 64 * w + 63
+    long floodedWord(int w) {
+        return this.flooded[w];
+    }
+
+    // EFFECT: sets the flooded bits of the cells 64 * w up to 64 * w + 63, nothing else
+    void setFloodedWord(int w, long bits) {
+        this.flooded[w] = bits;
+    }
+
+    // EFFECT: adds the given cell to the flooded region but not to its frontier,
+    // for floods that keep no frontier; the first flooded cell decides the
+    // color of the region
+    void floodBit(int i) {
+        if (!this.isFlooded(i)) {
+            if (this.floodedCount == 0) {
+                this.floodColor = this.ownColor(i);
+            }
+            this.markFlooded(i);
+            this.floodedCount++;
+            if (this.journal != null) {
+                this.journal.add(i);
+            }
+        }
+    }
+
+    // EFFECT: adds the given cell to the flooded region and its frontier,
+    // the first flooded cell decides the color of the region
+    void flood(int i) {
+        if (!this.isFlooded(i)) {
+            this.floodBit(i);
+            if (this.frontierSize == this.frontier.length) {
+                this.frontier = Arrays.copyOf(this.frontier,
+                        Math.min(this.cells, this.frontier.length * 2));
+            }
+            this.frontier[this.frontierSize++] = i;
+        }
+    }
+
+    // takes the given cells, everything one move flooded, back out of the flooded
+    // region, which shows the given color again, leaving the frontier alone like
+    // floodBit; costs time proportional to the cells taken back
+    // EFFECT: modifies the flooded region and its color
+    void unfloodBits(int[] cells, int count, int color) {
+        for (int k = 0; k < count; k++) {
+            int i = cells[k];
+            this.setFloodedWord(i >>> 6, this.floodedWord(i >>> 6) & ~(1L << i));
+        }
+        this.floodedCount -= count;
+        this.floodColor = color;
+    }
+
+    // takes the given cells back out of the flooded region like unfloodBits, and
+    // the cells that now touch them go back on the frontier, so this costs time
+    // proportional to the frontier and the cells taken back rather than to the board
+    // EFFECT: modifies the flooded region, its color and its frontier
+    void unflood(int[] cells, int count, int color) {
+        this.unfloodBits(cells, count, color);
+
+        // the flooded neighbors of the cells taken back, sorted and without repeats
+        int[] touching = new int[4 * count];
+        int found = 0;
+        for (int k = 0; k < count; k++) {
+            int i = cells[k];
+            int[] next = {this.left(i), this.top(i), this.right(i), this.bottom(i)};
+            for (int n : next) {
+                if (n != -1 && this.isFlooded(n)) {
+                    touching[found++] = n;
+                }
+            }
+        }
+        Arrays.sort(touching, 0, found);
+        int unique = 0;
+        for (int k = 0; k < found; k++) {
+            if (unique == 0 || touching[unique - 1] != touching[k]) {
+                touching[unique++] = touching[k];
+            }
+        }
+
+        // keep the frontier in order without the cells taken back, noting which
+        // of the touching cells it already holds
+        boolean[] present = new boolean[unique];
+        int kept = 0;
+        for (int k = 0; k < this.frontierSize; k++) {
+            int i = this.frontier[k];
+            if (this.isFlooded(i)) {
+                this.frontier[kept++] = i;
+                int at = Arrays.binarySearch(touching, 0, unique, i);
+                if (at >= 0) {
+                    present[at] = true;
+                }
+            }
+        }
+        this.frontierSize = kept;
+        for (int k = 0; k < unique; k++) {
+            if (!present[k]) {
+                if (this.frontierSize == this.frontier.length) {
+                    this.frontier = Arrays.copyOf(this.frontier,
+                            Math.min(this.cells, this.frontier.length * 2));
+                }
+                this.frontier[this.frontierSize++] = touching[k];
+            }
+        }
+    }
+
+    // counts the flooded cells again and puts every one of them that touches an
+    // unflooded cell on the frontier, after the flooded bits were set wholesale
+    // EFFECT: modifies the flooded count and frontier of this board
+    void refresh() {
+        this.floodedCount = 0;
+        this.frontierSize = 0;
+        for (int w = 0; w < (this.cells + 63) >>> 6; w++) {
+            long bits = this.floodedWord(w);
+            this.floodedCount += Long.bitCount(bits);
+            while (bits != 0) {
+                int i = (w << 6) + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+                if (this.touchesUnflooded(i)) {
+                    if (this.frontierSize == this.frontier.length) {
+                        this.frontier = Arrays.copyOf(this.frontier,
+                                Math.min(this.cells, this.frontier.length * 2));
+                    }
+                    this.frontier[this.frontierSize++] = i;
+                }
+            }
+        }
+    }
+
+    // does the given cell have a neighbor outside the flooded region?
+    boolean touchesUnflooded(int i) {
+        int[] next = {this.left(i), this.top(i), this.right(i), this.bottom(i)};
+        for (int n : next) {
+            if (n != -1 && !this.isFlooded(n)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // the unflooded cells of the given color next to the flooded region, which a
+    // move of that color takes in first; found through the frontier, so this costs
+    // time proportional to it, and each cell is counted from the first of its
+    // flooded neighbors only
+    int edgeCells(int color) {
+        int cells = 0;
+        for (int k = 0; k < this.frontierSize; k++) {
+            int i = this.frontier[k];
+            int[] next = {this.left(i), this.top(i), this.right(i), this.bottom(i)};
+            for (int n : next) {
+                if (n != -1 && !this.isFlooded(n) && this.ownColor(n) == color
+                        && this.firstFlooded(n) == i) {
+                    cells++;
+                }
+            }
+        }
+        return cells;
+    }
+
+    // the flooded neighbor of the given cell numbered lowest, or -1 for none
+    int firstFlooded(int i) {
+        int[] next = {this.top(i), this.left(i), this.right(i), this.bottom(i)};
+        for (int n : next) {
+            if (n != -1 && this.isFlooded(n)) {
+                return n;
+            }
+        }
+        return -1;
+    }
+
+    // floods the region into every cell of the given color connected to it,
+    // only looking at the frontier and the cells it absorbs so a move costs
+    // time proportional to the boundary and the newly flooded area
+    // EFFECT: modifies the flooded region, its color and its frontier
+    // returns the number of newly flooded cells
+    int expand(int color) {
+        int before = this.floodedCount;
+        this.floodColor = color;
+        // absorbed cells are appended to the frontier while it is scanned, so
+        // this is a breadth first search seeded with the old frontier; cells
+        // that still touch other colors are compacted to the front
+        int kept = 0;
+        for (int k = 0; k < this.frontierSize; k++) {
+            int i = this.frontier[k];
+            boolean keep = this.absorb(this.left(i), color)
+                    | this.absorb(this.top(i), color)
+                    | this.absorb(this.right(i), color)
+                    | this.absorb(this.bottom(i), color);
+            if (keep) {
+                this.frontier[kept++] = i;
+            }
+        }
+        this.frontierSize = kept;
+        return this.floodedCount - before;
+    }
+
+    // floods the given cell if it is on the board, unflooded and the given color
+    // EFFECT: may add the given cell to the flooded region and its frontier
+    // returns whether the cell stays unflooded, keeping its neighbor on the frontier
+    boolean absorb(int i, int color) {
+        if (i == -1 || this.isFlooded(i)) {
+            return false;
+        }
+        if (this.ownColor(i) == color) {
+            this.flood(i);
+            return false;
+        }
+        return true;
+    }
+
+    // adds every flooded cell connected to the given one to the back of the
+    // queue, in breadth first order so cells come in wavefronts from it
+    // EFFECT: modifies the given queue, which is also the search queue
+    void floodOrder(int start, IntQueue out) {
+        this.floodOrder(start, out, null);
+    }
+
+    // adds every flooded cell connected to the given one to the back of the
+    // queue like floodOrder, and the number of them at each distance from it
+    // to the back of waves, when that is not null
+    // EFFECT: modifies the given queues, the first is also the search queue
+    void floodOrder(int start, IntQueue out, IntQueue waves) {
+        long[] visited = new long[(this.cells + 63) >>> 6];
+        int next = out.size();
+        this.visit(start, visited, out);
+        while (next < out.size()) {
+            int end = out.size();
+            if (waves != null) {
+                waves.add(end - next);
+            }
+            while (next < end) {
+                int i = out.get(next++);
+                this.visit(this.left(i), visited, out);
+                this.visit(this.top(i), visited, out);
+                this.visit(this.right(i), visited, out);
+                this.visit(this.bottom(i), visited, out);
+            }
+        }
+    }
+
+    // adds the given cell to the queue if it is flooded and not yet visited
+    // EFFECT: may modify the visited bitset and the queue
+    void visit(int i, long[] visited, IntQueue out) {
+        if (i != -1 && this.isFlooded(i) && (visited[i >>> 6] & (1L << i)) == 0) {
+            visited[i >>> 6] |= 1L << i;
+            out.add(i);
+        }
+    }
+
+    // is every cell of this board flooded?
+    boolean allFlooded() {
+        return this.floodedCount == this.cells;
+    }
+
+    // the cell left of the given one, or -1 on the left edge
+    int left(int i) {
+        return i % this.size == 0 ? -1 : i - 1;
+    }
+
+    // the cell above the given one, or -1 on the top edge
+    int top(int i) {
+        return i < this.size ? -1 : i - this.size;
+    }
+
+    // the cell right of the given one, or -1 on the right edge
+    int right(int i) {
+        return i % this.size == this.size - 1 ? -1 : i + 1;
+    }
+
+    // the cell below the given one, or -1 on the bottom edge
+    int bottom(int i) {
+        return i + this.size >= this.cells ? -1 : i + this.size;
+    }
+
+    // the cell under the given pixel when every cell is drawn as a square of the
+    // given size from the origin, or -1 when the pixel is off the board; like
+    // Cell.contains, a square includes its right and bottom edges but not its
+    // left and top ones
+    int indexAt(int x, int y, int cellSize) {
+        if (x <= 0 || y <= 0) {
+            return -1;
+        }
+        int col = (x - 1) / cellSize;
+        int row = (y - 1) / cellSize;
+        if (col >= this.size || row >= this.size) {
+            return -1;
+        }
+        return row * this.size + col;
+    }
+}
@@ -0,0 +1,11 @@
+import java.util.Random;
+
+// a strategy that picks the next move of a game, used to play games without a
+// player; bots keep no state of their own so one bot can play many games at once
+
+interface FloodBot {
+    // the palette index to play next on the given unfinished game, drawing any
+    // randomness from the given generator; on a game without a region graph
+    // any color but the flood's may flood
+    int choose(FloodItGame game, Random rand);
+}
@@ -0,0 +1,140 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Recording;
+import jdk.jfr.StackTrace;
+
+// Java Flight Recorder events for the steps of a move and of drawing it, so a
+// recording shows a slow frame next to the collections and compilations that
+// ran at the same time
+//
+// every event is off unless a recording turns it on, see enable; while it is
+// off an event is begun and ended but never filled in or committed, which the
+// JIT reduces to almost nothing
+
+class FloodEvents {
+    static final String[] NAMES = {MoveEvent.NAME, FloodStepEvent.NAME, WorkListEvent.NAME,
+        DrawFloodEvent.NAME, SetupBoardEvent.NAME};
+
+    /* TMPLT
+     * Fields
+     *   FloodEvents.NAMES       String[]
+     * Methods:
+     *   FloodEvents.enable(Recording)   - Recording
+     */
+    // EFFECT: turns on every flood it event in the given recording, however short
+    // returns the given recording
+    static Recording enable(Recording recording) {
+        for (String name : NAMES) {
+            recording.enable(name).withoutThreshold();
+        }
+        return recording;
+    }
+}
+
+// a move the player made by clicking a cell
+@Name(MoveEvent.NAME)
+@Label("Move")
+@Category({"Flood It", "Game"})
+@Description("A click that played a color, from the click to the cells being queued to draw")
+@Enabled(false)
+@StackTrace(false)
+class MoveEvent extends Event {
+    static final String NAME = "floodit.Move";
+
+    @Label("Board Size")
+    int boardSize;
+
+    @Label("Color")
+    @Description("Palette index of the color played")
+    int color;
+
+    @Label("Cells Changed")
+    @Description("Cells the move flooded")
+    int cellsChanged;
+
+    @Label("Work List Size")
+    @Description("Cells waiting to be drawn after the move")
+    int workListSize;
+}
+
+// one color flooding into the flooded region
+@Name(FloodStepEvent.NAME)
+@Label("Flood Step")
+@Category({"Flood It", "Game"})
+@Description("The flood taking in every cell of a color it touches")
+@Enabled(false)
+@StackTrace(false)
+class FloodStepEvent extends Event {
+    static final String NAME = "floodit.FloodStep";
+
+    @Label("Board Size")
+    int boardSize;
+
+    @Label("Color")
+    int color;
+
+    @Label("Cells Changed")
+    int cellsChanged;
+}
+
+// queueing the flooded cells to be drawn
+@Name(WorkListEvent.NAME)
+@Label("Update Work List")
+@Category({"Flood It", "Drawing"})
+@Enabled(false)
+@StackTrace(false)
+class WorkListEvent extends Event {
+    static final String NAME = "floodit.UpdateWorkList";
+
+    @Label("Board Size")
+    int boardSize;
+
+    @Label("Cells Changed")
+    @Description("Cells added to the work list")
+    int cellsChanged;
+
+    @Label("Work List Size")
+    int workListSize;
+}
+
+// drawing the next changed cells of the work list on a tick
+@Name(DrawFloodEvent.NAME)
+@Label("Draw Flood")
+@Category({"Flood It", "Drawing"})
+@Enabled(false)
+@StackTrace(false)
+class DrawFloodEvent extends Event {
+    static final String NAME = "floodit.DrawFlood";
+
+    @Label("Board Size")
+    int boardSize;
+
+    @Label("Cells Changed")
+    @Description("Cells taken off the work list")
+    int cellsChanged;
+
+    @Label("Work List Size")
+    @Description("Cells still waiting to be drawn")
+    int workListSize;
+}
+
+// drawing the whole board when a game starts
+@Name(SetupBoardEvent.NAME)
+@Label("Setup Board")
+@Category({"Flood It", "Drawing"})
+@Enabled(false)
+@StackTrace(false)
+class SetupBoardEvent extends Event {
+    static final String NAME = "floodit.SetupBoard";
+
+    @Label("Board Size")
+    int boardSize;
+
+    @Label("Cells Changed")
+    @Description("Cells drawn")
+    int cellsChanged;
+}
@@ -0,0 +1,201 @@
+import java.util.Random;
+
+// the rules of a flood it game without any drawing: the board, how many
+// colors it uses, the moves made so far and how many are allowed
+
+class FloodItGame {
+    static final int GRAPH_CELLS = 1 << 20; // bigger boards flood through the frontier alone
+
+    FloodBoard board;       // colors and flooded region of every cell
+    RegionGraph regions;    // the same colored regions of the board, which moves flood,
+                            // null on boards over GRAPH_CELLS; the board only keeps
+                            // its frontier up to date for games flooded without one
+    BitFlood bits;          // floods the board 64 cells at a time instead, null unless asked for
+    int numColors;          // size of the palette the board indexes
+    int numAllowedClicks;   // moves the player may use to flood the board
+    int numClicks;          // moves used so far
+
+    // start game constructor, a random board flooded from its top left cell
+    FloodItGame(int size, int numColors, Random rand) {
+        this.reset(size, numColors, rand);
+    }
+
+    // start game constructor on the given board, which could be kept off the
+    // heap, filled with random colors and flooded from its top left cell
+    FloodItGame(FloodBoard board, int numColors, Random rand) {
+        this.reset(board, numColors, rand);
+    }
+
+    // constructor for a game in progress, such as one read back from a GameFile
+    // or made up in tests, uses the board as it is
+    FloodItGame(FloodBoard board, int numColors, int numAllowedClicks, int numClicks) {
+        this.board = board;
+        this.regions = FloodItGame.graphOf(board, numColors);
+        this.numColors = numColors;
+        this.numAllowedClicks = numAllowedClicks;
+        this.numClicks = numClicks;
+    }
+
+    /* TMPLT
+     * Fields
+     *   FloodItGame.GRAPH_CELLS 1 << 20
+     *   this.board              FloodBoard
+     *   this.regions            RegionGraph
+     *   this.bits               BitFlood
+     *   this.numColors          int
+     *   this.numAllowedClicks   int
+     *   this.numClicks          int
+     * Methods:
+     *   this.reset(int, int, Random)    - void
+     *   this.reset(FloodBoard, int, Random) - void
+     *   FloodItGame.allowedClicks(int, int) - int
+     *   FloodItGame.graphOf(FloodBoard, int) - RegionGraph
+     *   this.useBits()                  - void
+     *   this.play(int)                  - int
+     *   this.flood(int)                 - int
+     *   this.absorbs(int)               - int
+     *   this.touches(int)               - boolean
+     *   this.hint()                     - int
+     *   this.won()                      - boolean
+     *   this.lost()                     - boolean
+     *   this.over()                     - boolean
+     * Methods on Fields:
+     *   this.board.expand(int)          - int
+     *   this.regions.flood(int)         - int
+     *   this.bits.flood(int)            - int
+     *   this.regions.borderCells(int)   - int
+     *   this.board.allFlooded()         - boolean
+     */
+    // EFFECT: modifies this game to a new, random board of the given size and colors
+    void reset(int size, int numColors, Random rand) {
+        this.reset(new FloodBoard(size), numColors, rand);
+    }
+
+    // EFFECT: modifies this game to play on the given board, dealt new random colors
+    void reset(FloodBoard board, int numColors, Random rand) {
+        this.board = board;
+        this.board.randomize(numColors, rand);
+        this.numColors = numColors;
+        this.numAllowedClicks = FloodItGame.allowedClicks(this.board.cells, numColors);
+        this.numClicks = 0;
+        this.board.flood(0);   // always starts with first cell being flooded
+        this.board.expand(this.board.color(0));
+        this.regions = FloodItGame.graphOf(this.board, numColors);
+        this.bits = null;
+    }
+
+    // the region graph of the given board, or null if the board is too big for one:
+    // a graph needs several ints per cell, while flooding through the frontier
+    // only needs memory for the cells along the edge of the flood
+    static RegionGraph graphOf(FloodBoard board, int numColors) {
+        if (board.cells > GRAPH_CELLS) {
+            return null;
+        }
+        return new RegionGraph(board, numColors);
+    }
+
+    // floods this game with bit planes from now on instead of its region graph
+    // or frontier, see BitFlood
+    // EFFECT: replaces the region graph of this game with the bit planes of its board
+    void useBits() {
+        this.regions = null;
+        this.bits = BitFlood.of(this.board, this.numColors);
+    }
+
+    // the number of moves allowed on a board with the given cells and colors
+    static int allowedClicks(int cells, int numColors) {
+        return (2 * cells * numColors) / 150;
+    }
+
+    // plays one move of the given color
+    // EFFECT: counts the move and floods the board with the color
+    // returns the number of newly flooded cells
+    int play(int color) {
+        this.numClicks++;
+        return this.flood(color);
+    }
+
+    // floods the board with the given color without counting a move, merging
+    // whole regions into the flood, or cell by cell from the frontier of a board
+    // without a region graph, or a word at a time once it uses bit planes;
+    // colors outside the palette flood nothing
+    // EFFECT: modifies the flooded regions and the board
+    int flood(int color) {
+        if (color < 0 || color >= this.numColors) {
+            return 0;
+        }
+        FloodStepEvent event = new FloodStepEvent();
+        event.begin();
+        int flooded;
+        if (this.bits != null) {
+            flooded = this.bits.flood(color);
+        }
+        else if (this.regions != null) {
+            flooded = this.regions.flood(color);
+        }
+        else {
+            flooded = this.board.expand(color);
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.boardSize = this.board.size;
+            event.color = color;
+            event.cellsChanged = flooded;
+            event.commit();
+        }
+        return flooded;
+    }
+
+    // the number of cells a move of the given color would flood right now, or
+    // -1 when the game has no region graph to keep count with
+    int absorbs(int color) {
+        if (this.regions == null || color < 0 || color >= this.numColors) {
+            return -1;
+        }
+        return this.regions.borderCells(color);
+    }
+
+    // could a move of the given color flood anything right now? exactly when the
+    // region graph has a region of it on the border, and without a graph for
+    // any color of the palette but the one the flood shows
+    boolean touches(int color) {
+        if (color < 0 || color >= this.numColors) {
+            return false;
+        }
+        if (this.regions == null) {
+            return color != this.board.floodColor;
+        }
+        return this.regions.borderSize[color] > 0;
+    }
+
+    // the color whose move floods the most cells right now, the first of the
+    // palette on a tie, looking only at the count the region graph keeps for
+    // each color; -1 when no color floods anything or there is no region graph
+    int hint() {
+        int best = -1;
+        int bestCells = 0;
+        for (int c = 0; c < this.numColors; c++) {
+            int cells = this.absorbs(c);
+            if (cells > bestCells) {
+                best = c;
+                bestCells = cells;
+            }
+        }
+        return best;
+    }
+
+    // did the player flood the board within the allowed moves?
+    boolean won() {
+        return this.board.allFlooded() && this.numClicks <= this.numAllowedClicks;
+    }
+
+    // did the player use up every move without winning?
+    boolean lost() {
+        return !this.won() && this.numClicks >= this.numAllowedClicks;
+    }
+
+    // is the game decided either way?
+    boolean over() {
+        return this.won() || this.lost();
+    }
+}
@@ -0,0 +1,379 @@
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.PriorityQueue;
+
+// finds the fewest moves that flood a board, searching with A* over which
+// same colored regions are flooded; the region graph is built once up front
+// so a search state is a small bitset with one bit per region
+
+class FloodSolver {
+    FloodBoard board;
+    int numColors;
+    long timeBudgetMillis;  // give up after this long, 0 for no limit
+    int nodeBudget;         // give up after storing this many states, 0 for no limit
+
+    RegionGraph graph;      // the same colored regions of the board
+    int regions;            // number of regions
+    int words;              // longs in a region bitset
+    long[][] adjacent;      // bitset of the regions touching every region
+    long[][] colorMask;     // bitset of the regions of every color
+
+    long nodes;             // states stored by the last search
+
+    // solver without limits for the current position of the given board
+    FloodSolver(FloodBoard board, int numColors) {
+        this(board, numColors, 0, 0);
+    }
+
+    // solver for the current position of the given board within the given budget
+    FloodSolver(FloodBoard board, int numColors, long timeBudgetMillis, int nodeBudget) {
+        this.board = board;
+        this.numColors = numColors;
+        this.timeBudgetMillis = timeBudgetMillis;
+        this.nodeBudget = nodeBudget;
+        this.findRegions();
+    }
+
+    /* TMPLT
+     * Fields
+     *   this.board              FloodBoard
+     *   this.numColors          int
+     *   this.timeBudgetMillis   long
+     *   this.nodeBudget         int
+     *   this.graph              RegionGraph
+     *   this.regions            int
+     *   this.words              int
+     *   this.adjacent           long[][]
+     *   this.colorMask          long[][]
+     *   this.nodes              long
+     * Methods:
+     *   this.findRegions()                  - void
+     *   this.link(int, int)                 - void
+     *   this.start()                        - long[]
+     *   this.move(long[], int)              - long[]
+     *   this.touching(long[])               - long[]
+     *   this.isSolved(long[])               - boolean
+     *   this.estimate(long[])               - int
+     *   this.colorsLeft(long[])             - int
+     *   this.eccentricity(long[])           - int
+     *   this.greedy()                       - byte[]
+     *   this.solve()                        - Solution
+     */
+    // builds the regions of the board and turns their neighbor lists into bitsets,
+    // which is what the search needs to flood many regions at once
+    // EFFECT: modifies every region field of this solver
+    void findRegions() {
+        RegionGraph graph = new RegionGraph(this.board, this.numColors);
+        this.graph = graph;
+        this.regions = graph.regions;
+        this.words = (graph.regions + 63) >>> 6;
+        this.adjacent = new long[graph.regions][this.words];
+        this.colorMask = new long[this.numColors][this.words];
+        for (int r = 0; r < graph.regions; r++) {
+            this.colorMask[graph.regionColor[r]][r >>> 6] |= 1L << r;
+            for (int e = graph.edgeStart[r]; e < graph.edgeStart[r + 1]; e++) {
+                this.link(r, graph.edges[e]);
+            }
+        }
+    }
+
+    // EFFECT: records that the two given regions touch, unless they are the same
+    void link(int a, int b) {
+        if (a != b) {
+            this.adjacent[a][b >>> 6] |= 1L << b;
+            this.adjacent[b][a >>> 6] |= 1L << a;
+        }
+    }
+
+    // the flooded regions of the current position, or the region of the top
+    // left cell if the board has not been flooded yet
+    long[] start() {
+        long[] flooded = Arrays.copyOf(this.graph.floodedRegions, this.words);
+        if (this.board.floodedCount == 0) {
+            flooded[0] = 1L;
+        }
+        return flooded;
+    }
+
+    // the flooded regions after playing the given color
+    long[] move(long[] flooded, int color) {
+        long[] touching = this.touching(flooded);
+        long[] result = new long[this.words];
+        for (int w = 0; w < this.words; w++) {
+            result[w] = flooded[w] | (touching[w] & this.colorMask[color][w]);
+        }
+        return result;
+    }
+
+    // the unflooded regions that touch the given flooded ones
+    long[] touching(long[] flooded) {
+        long[] result = new long[this.words];
+        for (int w = 0; w < this.words; w++) {
+            long bits = flooded[w];
+            while (bits != 0) {
+                int r = (w << 6) + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+                long[] next = this.adjacent[r];
+                for (int v = 0; v < this.words; v++) {
+                    result[v] |= next[v];
+                }
+            }
+        }
+        for (int w = 0; w < this.words; w++) {
+            result[w] &= ~flooded[w];
+        }
+        return result;
+    }
+
+    // are all of the regions flooded?
+    boolean isSolved(long[] flooded) {
+        for (int w = 0; w < this.words; w++) {
+            long full = w == this.words - 1 && (this.regions & 63) != 0
+                    ? (1L << (this.regions & 63)) - 1 : -1L;
+            if (flooded[w] != full) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // a lower bound on the moves left: every move removes at most one color from
+    // the unflooded regions and reaches at most one region further out
+    int estimate(long[] flooded) {
+        return Math.max(this.colorsLeft(flooded), this.eccentricity(flooded));
+    }
+
+    // the number of colors among the unflooded regions
+    int colorsLeft(long[] flooded) {
+        int count = 0;
+        for (int c = 0; c < this.numColors; c++) {
+            for (int w = 0; w < this.words; w++) {
+                if ((this.colorMask[c][w] & ~flooded[w]) != 0) {
+                    count++;
+                    break;
+                }
+            }
+        }
+        return count;
+    }
+
+    // the most regions that have to be crossed from the flooded ones to reach
+    // any unflooded region
+    int eccentricity(long[] flooded) {
+        long[] seen = Arrays.copyOf(flooded, this.words);
+        long[] wave = flooded;
+        int distance = 0;
+        while (true) {
+            long[] next = this.touching(wave);
+            boolean any = false;
+            for (int w = 0; w < this.words; w++) {
+                next[w] &= ~seen[w];
+                seen[w] |= next[w];
+                any = any || next[w] != 0;
+            }
+            if (!any) {
+                return distance;
+            }
+            distance++;
+            wave = next;
+        }
+    }
+
+    // a quick solution that always plays the color flooding the most cells
+    byte[] greedy() {
+        long[] flooded = this.start();
+        byte[] moves = new byte[this.regions];
+        int count = 0;
+        while (!this.isSolved(flooded)) {
+            long[] touching = this.touching(flooded);
+            int best = -1;
+            int bestCells = 0;
+            for (int c = 0; c < this.numColors; c++) {
+                int cells = 0;
+                for (int w = 0; w < this.words; w++) {
+                    long bits = touching[w] & this.colorMask[c][w];
+                    while (bits != 0) {
+                        int r = (w << 6) + Long.numberOfTrailingZeros(bits);
+                        cells += this.graph.regionSize[r];
+                        bits &= bits - 1;
+                    }
+                }
+                if (cells > bestCells) {
+                    best = c;
+                    bestCells = cells;
+                }
+            }
+            flooded = this.move(flooded, best);
+            moves[count++] = (byte) best;
+        }
+        return Arrays.copyOf(moves, count);
+    }
+
+    // searches for the fewest moves that flood the board, starting from the greedy
+    // solution and only keeping states that can still beat the best one found;
+    // the answer is proven optimal unless the budget ran out first
+    Solution solve() {
+        long deadline = this.timeBudgetMillis > 0
+                ? System.nanoTime() + this.timeBudgetMillis * 1000000L : Long.MAX_VALUE;
+        byte[] best = this.greedy();
+        long[] start = this.start();
+        PriorityQueue<SearchNode> open = new PriorityQueue<SearchNode>();
+        HashMap<StateKey, Integer> bestDepth = new HashMap<StateKey, Integer>();
+        open.add(new SearchNode(start, null, (byte) -1, 0, this.estimate(start)));
+        bestDepth.put(new StateKey(start), 0);
+        this.nodes = 1;
+        int steps = 0;
+
+        while (!open.isEmpty()) {
+            SearchNode node = open.peek();
+            if (node.estimate >= best.length) {
+                // nothing left can beat the best solution
+                return new Solution(best, true, best.length, this.nodes);
+            }
+            if ((this.nodeBudget > 0 && this.nodes >= this.nodeBudget)
+                    || ((++steps & 1023) == 0 && System.nanoTime() > deadline)) {
+                return new Solution(best, false, node.estimate, this.nodes);
+            }
+            open.poll();
+            if (bestDepth.get(new StateKey(node.flooded)) < node.depth) {
+                continue;   // reached again more cheaply since it was queued
+            }
+            if (this.isSolved(node.flooded)) {
+                best = node.moves();
+                continue;
+            }
+            long[] touching = this.touching(node.flooded);
+            for (int c = 0; c < this.numColors; c++) {
+                boolean absorbs = false;
+                for (int w = 0; w < this.words && !absorbs; w++) {
+                    absorbs = (touching[w] & this.colorMask[c][w]) != 0;
+                }
+                if (!absorbs) {
+                    continue;
+                }
+                long[] next = this.move(node.flooded, c);
+                int depth = node.depth + 1;
+                StateKey key = new StateKey(next);
+                Integer seen = bestDepth.get(key);
+                if (seen != null && seen <= depth) {
+                    continue;
+                }
+                int estimate = depth + this.estimate(next);
+                if (estimate >= best.length) {
+                    continue;
+                }
+                bestDepth.put(key, depth);
+                open.add(new SearchNode(next, node, (byte) c, depth, estimate));
+                this.nodes++;
+            }
+        }
+        return new Solution(best, true, best.length, this.nodes);
+    }
+}
+
+// a sequence of moves that floods a board, and whether no shorter one exists
+class Solution {
+    byte[] moves;       // palette index of every move, in order
+    boolean optimal;    // is there provably no shorter solution?
+    int lowerBound;     // no solution is shorter than this
+    long nodes;         // search states it took to find
+
+    // solution constructor for the given moves, found after searching the given
+    // number of states
+    Solution(byte[] moves, boolean optimal, int lowerBound, long nodes) {
+        this.moves = moves;
+        this.optimal = optimal;
+        this.lowerBound = lowerBound;
+        this.nodes = nodes;
+    }
+
+    /* TMPLT
+     * Fields
+     *   this.moves          byte[]
+     *   this.optimal        boolean
+     *   this.lowerBound     int
+     *   this.nodes          long
+     */
+}
+
+// a position in the search: the flooded regions and the moves that led there
+class SearchNode implements Comparable<SearchNode> {
+    long[] flooded;     // bitset of the flooded regions
+    SearchNode parent;  // the node this one was reached from, null at the start
+    byte move;          // the color played to get here from the parent
+    int depth;          // moves played so far
+    int estimate;       // depth plus a lower bound on the moves left
+
+    // node constructor for the given flooded regions, reached from the given
+    // parent by the given move
+    SearchNode(long[] flooded, SearchNode parent, byte move, int depth, int estimate) {
+        this.flooded = flooded;
+        this.parent = parent;
+        this.move = move;
+        this.depth = depth;
+        this.estimate = estimate;
+    }
+
+    /* TMPLT
+     * Fields
+     *   this.flooded        long[]
+     *   this.parent         SearchNode
+     *   this.move           byte
+     *   this.depth          int
+     *   this.estimate       int
+     * Methods:
+     *   this.moves()                    - byte[]
+     *   this.compareTo(SearchNode)      - int
+     * Methods on Fields:
+     *   this.parent.moves()             - byte[]
+     */
+
+    // the moves from the start to this node
+    byte[] moves() {
+        byte[] moves = new byte[this.depth];
+        SearchNode node = this;
+        for (int k = this.depth - 1; k >= 0; k--) {
+            moves[k] = node.move;
+            node = node.parent;
+        }
+        return moves;
+    }
+
+    // lowest estimate first, deeper first among equals to reach solutions sooner
+    public int compareTo(SearchNode other) {
+        if (this.estimate != other.estimate) {
+            return Integer.compare(this.estimate, other.estimate);
+        }
+        return Integer.compare(other.depth, this.depth);
+    }
+}
+
+// a region bitset usable as a hash key
+class StateKey {
+    long[] bits;        // the bitset, never changed once it is a key
+    int hash;           // hash of the bitset, worked out once
+
+    // key constructor for the given bitset, which the key takes ownership of
+    StateKey(long[] bits) {
+        this.bits = bits;
+        this.hash = Arrays.hashCode(bits);
+    }
+
+    /* TMPLT
+     * Fields
+     *   this.bits           long[]
+     *   this.hash           int
+     * Methods:
+     *   this.equals(Object)             - boolean
+     *   this.hashCode()                 - int
+     */
+    // is the given object a key for the same bitset?
+    public boolean equals(Object other) {
+        return other instanceof StateKey && Arrays.equals(this.bits, ((StateKey) other).bits);
+    }
+
+    // the hash of the bitset, worked out by the constructor
+    public int hashCode() {
+        return this.hash;
+    }
+}
@@ -0,0 +1,297 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+
+// a suspended game: the board, its palette and the counters, written to and
+// read from a channel through one reusable buffer straight out of and into
+// the board, so saving or resuming a game makes no objects per cell; a read
+// takes exactly the bytes of one game, so any number of them can follow each
+// other in one file
+//
+// a saved game is a header, the palette, the dealt color of every cell packed
+// in as few bits as the palette needs, low bits first, then the flooded bitset:
+//   int magic, int version, int size, int numColors, int floodColor,
+//   int numAllowedClicks, int numClicks, long elapsedMillis, int flags
+//   int rgb of every color
+//   (cells * bitsPerColor + 7) / 8 bytes of colors
+//   (cells + 63) / 64 longs of flooded bits
+
+class GameFile {
+    static final int MAGIC = 0x464C5356;     // "FLSV"
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 40;
+    static final int MIN_BUFFER = 64;        // smallest buffer games can be moved through
+    static final int LOST = 1;               // flag set when the player was shown the loss
+
+    FloodItGame game;
+    int[] palette;          // rgb of every color the board indexes
+    long elapsedMillis;     // time the player had spent on the game
+    boolean lost;           // whether the player was shown the loss
+
+    // a game to save, or one that was read
+    GameFile(FloodItGame game, int[] palette, long elapsedMillis, boolean lost) {
+        if (palette.length != game.numColors) {
+            throw new IllegalArgumentException("Expected " + game.numColors + " colors but got "
+                    + palette.length);
+        }
+        this.game = game;
+        this.palette = palette;
+        this.elapsedMillis = elapsedMillis;
+        this.lost = lost;
+    }
+
+    /* TMPLT
+     * Fields
+     *   GameFile.MAGIC          int
+     *   GameFile.VERSION        int
+     *   GameFile.HEADER_BYTES   40
+     *   GameFile.MIN_BUFFER     64
+     *   GameFile.LOST           1
+     *   this.game               FloodItGame
+     *   this.palette            int[]
+     *   this.elapsedMillis      long
+     *   this.lost               boolean
+     * Methods:
+     *   GameFile.bitsPerColor(int)                          - int
+     *   this.bytes()                                        - long
+     *   this.write(WritableByteChannel, ByteBuffer)         - void
+     *   GameFile.read(ReadableByteChannel, ByteBuffer)      - GameFile
+     *   GameFile.room(WritableByteChannel, ByteBuffer, int) - void
+     *   GameFile.fill(ReadableByteChannel, ByteBuffer, long) - int
+     *   GameFile.check(ByteBuffer)                          - void
+     *   GameFile.main(String[])                             - void
+     */
+    // the bits one cell's color takes for a palette of the given size
+    static int bitsPerColor(int numColors) {
+        return Math.max(1, 32 - Integer.numberOfLeadingZeros(numColors - 1));
+    }
+
+    // the number of bytes this game takes saved
+    long bytes() {
+        long cells = this.game.board.cells;
+        return HEADER_BYTES + 4L * this.palette.length
+                + (cells * GameFile.bitsPerColor(this.palette.length) + 7) / 8
+                + 8 * ((cells + 63) / 64);
+    }
+
+    // EFFECT: writes this game to the given channel through the given buffer
+    void write(WritableByteChannel out, ByteBuffer buffer) throws IOException {
+        GameFile.check(buffer);
+        FloodItGame game = this.game;
+        FloodBoard board = game.board;
+        buffer.clear();
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(board.size).putInt(game.numColors)
+                .putInt(board.floodColor).putInt(game.numAllowedClicks).putInt(game.numClicks)
+                .putLong(this.elapsedMillis).putInt(this.lost ? LOST : 0);
+        for (int rgb : this.palette) {
+            GameFile.room(out, buffer, 4);
+            buffer.putInt(rgb);
+        }
+
+        int bits = GameFile.bitsPerColor(game.numColors);
+        long pending = 0;
+        int pendingBits = 0;
+        for (int i = 0; i < board.cells; i++) {
+            pending |= (long) board.ownColor(i) << pendingBits;
+            pendingBits += bits;
+            while (pendingBits >= 8) {
+                GameFile.room(out, buffer, 1);
+                buffer.put((byte) pending);
+                pending >>>= 8;
+                pendingBits -= 8;
+            }
+        }
+        if (pendingBits > 0) {
+            GameFile.room(out, buffer, 1);
+            buffer.put((byte) pending);
+        }
+
+        for (int w = 0; w < (board.cells + 63) >>> 6; w++) {
+            GameFile.room(out, buffer, 8);
+            buffer.putLong(board.floodedWord(w));
+        }
+        buffer.flip();
+        Replay.writeFully(out, buffer);
+    }
+
+    // the next game on the given channel, read through the given buffer
+    static GameFile read(ReadableByteChannel in, ByteBuffer buffer) throws IOException {
+        GameFile.check(buffer);
+        GameFile.fill(in, buffer, HEADER_BYTES);
+        if (buffer.getInt() != MAGIC) {
+            throw new IOException("Not a saved game");
+        }
+        int version = buffer.getInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported saved game version " + version);
+        }
+        int size = buffer.getInt();
+        int numColors = buffer.getInt();
+        int floodColor = buffer.getInt();
+        int allowed = buffer.getInt();
+        int clicks = buffer.getInt();
+        long elapsed = buffer.getLong();
+        int flags = buffer.getInt();
+        if (numColors < 1 || numColors > 256) {
+            throw new IOException("Saved game of " + numColors + " colors");
+        }
+        if (floodColor < 0 || floodColor >= numColors) {
+            throw new IOException("Saved game flooded with color " + floodColor + " of "
+                    + numColors);
+        }
+        FloodBoard board;
+        try {
+            board = new FloodBoard(size);
+        }
+        catch (IllegalArgumentException e) {
+            throw new IOException("Saved game of a board of size " + size, e);
+        }
+
+        int[] palette = new int[numColors];
+        for (int c = 0; c < numColors; c++) {
+            if (!buffer.hasRemaining()) {
+                GameFile.fill(in, buffer, 4L * (numColors - c));
+            }
+            palette[c] = buffer.getInt();
+        }
+
+        int bits = GameFile.bitsPerColor(numColors);
+        long colorBytes = ((long) board.cells * bits + 7) / 8;
+        long pending = 0;
+        int pendingBits = 0;
+        int i = 0;
+        while (colorBytes > 0) {
+            colorBytes -= GameFile.fill(in, buffer, colorBytes);
+            while (buffer.hasRemaining()) {
+                pending |= (long) (buffer.get() & 0xFF) << pendingBits;
+                pendingBits += 8;
+                while (pendingBits >= bits && i < board.cells) {
+                    int color = (int) (pending & ((1 << bits) - 1));
+                    if (color >= numColors) {
+                        throw new IOException("Saved game has a cell of color " + color + " of "
+                                + numColors);
+                    }
+                    board.setColor(i++, color);
+                    pending >>>= bits;
+                    pendingBits -= bits;
+                }
+            }
+        }
+
+        int words = (board.cells + 63) >>> 6;
+        long wordBytes = 8L * words;
+        int w = 0;
+        while (wordBytes > 0) {
+            wordBytes -= GameFile.fill(in, buffer, wordBytes);
+            while (buffer.hasRemaining()) {
+                board.setFloodedWord(w++, buffer.getLong());
+            }
+        }
+        if ((board.cells & 63) != 0) {
+            // no bits past the last cell, whatever the file says
+            long last = board.floodedWord(words - 1);
+            board.setFloodedWord(words - 1, last & ((1L << (board.cells & 63)) - 1));
+        }
+        board.floodColor = floodColor;
+        board.refresh();
+        FloodItGame game = new FloodItGame(board, numColors, allowed, clicks);
+        return new GameFile(game, palette, elapsed, (flags & LOST) != 0);
+    }
+
+    // makes room for the given number of bytes in the buffer being written,
+    // writing out what it holds when it is too full
+    // EFFECT: may write the buffer to the given channel and clear it
+    static void room(WritableByteChannel out, ByteBuffer buffer, int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            buffer.flip();
+            Replay.writeFully(out, buffer);
+            buffer.clear();
+        }
+    }
+
+    // reads as much of the given number of bytes as fits the buffer, in whole
+    // longs, and nothing past them
+    // EFFECT: replaces the contents of the buffer with the bytes read, ready to get
+    // returns the number of bytes read
+    static int fill(ReadableByteChannel in, ByteBuffer buffer, long bytes) throws IOException {
+        buffer.clear();
+        buffer.limit((int) Math.min(bytes, buffer.capacity() & ~7));
+        while (buffer.hasRemaining()) {
+            if (in.read(buffer) == -1) {
+                throw new IOException("Saved game ends early");
+            }
+        }
+        buffer.flip();
+        return buffer.remaining();
+    }
+
+    // checks the given buffer is big enough to move games through
+    // EFFECT: puts the given buffer in the byte order of saved games
+    static void check(ByteBuffer buffer) {
+        if (buffer.capacity() < MIN_BUFFER) {
+            throw new IllegalArgumentException("Cannot move games through a buffer of "
+                    + buffer.capacity() + " bytes, it needs at least " + MIN_BUFFER);
+        }
+        buffer.order(ByteOrder.BIG_ENDIAN);
+    }
+
+    // saves a number of seeded games halfway through and resumes them all,
+    // printing how long each took
+    // arguments: games size colors file
+    public static void main(String[] args) throws IOException {
+        if (args.length != 4) {
+            System.err.println("usage: GameFile games size colors file");
+            System.exit(2);
+        }
+        int games = Integer.parseInt(args[0]);
+        int size = Integer.parseInt(args[1]);
+        int numColors = Integer.parseInt(args[2]);
+        Path file = Paths.get(args[3]);
+        int[] palette = new int[numColors];
+        ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 16);
+
+        long saving = 0;
+        long bytes = 0;
+        FileChannel out = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        try {
+            for (int k = 0; k < games; k++) {
+                FloodItGame game = new FloodItGame(size, numColors, new Random(k));
+                for (int move = 0; move < game.numAllowedClicks / 2; move++) {
+                    game.play(move % numColors);
+                }
+                GameFile saved = new GameFile(game, palette, 0, false);
+                long started = System.nanoTime();
+                saved.write(out, buffer);
+                saving += System.nanoTime() - started;
+                bytes += saved.bytes();
+            }
+        }
+        finally {
+            out.close();
+        }
+
+        long started = System.nanoTime();
+        FileChannel in = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            for (int k = 0; k < games; k++) {
+                GameFile.read(in, buffer);
+            }
+        }
+        finally {
+            in.close();
+        }
+        long resuming = System.nanoTime() - started;
+        System.out.printf("%d games of %dx%d with %d colors, %d bytes each%n", games, size, size,
+                numColors, bytes / Math.max(1, games));
+        System.out.printf("saved in %.1f us and resumed in %.1f us a game%n",
+                saving / 1000.0 / games, resuming / 1000.0 / games);
+    }
+}
@@ -0,0 +1,434 @@
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.DynamicMBean;
+import javax.management.JMException;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanInfo;
+import javax.management.MBeanOperationInfo;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.ReflectionException;
+
+// how long the game's handlers take and how much work they do, kept in
+// histograms the game thread fills without locking or allocating, and read
+// from any other thread through JMX or a text dump every so often
+//
+// every histogram is an attribute group on the MBean floodit:type=GameMetrics,
+// for example TickP99 or CellsFloodedMax, and a tick over the frame budget is
+// counted along with the worst one and the game it was in
+
+class GameMetrics implements DynamicMBean {
+    static final String NAME = "floodit:type=GameMetrics";
+    static final String[] STATS = {"Count", "P50", "P99", "Max", "Mean"};
+
+    Histogram ticks;            // nanoseconds of every onTick
+    Histogram clicks;           // nanoseconds of every onMouseClicked
+    Histogram floods;           // nanoseconds of flooding the board on every move
+    Histogram workLists;        // nanoseconds of every updateWorkList
+    Histogram cellsFlooded;     // cells every move flooded
+    Histogram workListDepth;    // cells waiting to be drawn at every tick
+    Histogram tickAllocations;  // bytes every onTick allocated, empty when the JVM cannot tell
+    Histogram[] all;
+    long frameBudgetNanos;      // longest a tick may take to keep up with the frame rate
+    volatile long overBudget;   // ticks that took longer than the frame budget
+    volatile long worstTick;    // nanoseconds of the slowest tick
+    volatile String worstGame;  // the game the slowest tick was in
+    volatile String game;       // the game being played, as reset describes it
+    com.sun.management.ThreadMXBean threads;    // counts allocations, null if the JVM cannot
+    ScheduledExecutorService dumper;            // prints the dump, null until started
+
+    // metrics for a game that draws a frame every given number of nanoseconds
+    GameMetrics(long frameBudgetNanos) {
+        this.ticks = new Histogram("Tick", "ns");
+        this.clicks = new Histogram("Click", "ns");
+        this.floods = new Histogram("UpdateFlooded", "ns");
+        this.workLists = new Histogram("UpdateWorkList", "ns");
+        this.cellsFlooded = new Histogram("CellsFlooded", "cells");
+        this.workListDepth = new Histogram("WorkListDepth", "cells");
+        this.tickAllocations = new Histogram("TickAllocated", "bytes");
+        this.all = new Histogram[] {this.ticks, this.clicks, this.floods, this.workLists,
+            this.cellsFlooded, this.workListDepth, this.tickAllocations};
+        this.frameBudgetNanos = frameBudgetNanos;
+        this.overBudget = 0;
+        this.worstTick = 0;
+        this.worstGame = "";
+        this.game = "";
+        this.threads = GameMetrics.allocationCounter();
+        this.dumper = null;
+    }
+
+    /* TMPLT
+     * Fields
+     *   GameMetrics.NAME        String
+     *   GameMetrics.STATS       String[]
+     *   this.ticks              Histogram
+     *   this.clicks             Histogram
+     *   this.floods             Histogram
+     *   this.workLists          Histogram
+     *   this.cellsFlooded       Histogram
+     *   this.workListDepth      Histogram
+     *   this.tickAllocations    Histogram
+     *   this.all                Histogram[]
+     *   this.frameBudgetNanos   long
+     *   this.overBudget         long
+     *   this.worstTick          long
+     *   this.worstGame          String
+     *   this.game               String
+     *   this.threads            com.sun.management.ThreadMXBean
+     *   this.dumper             ScheduledExecutorService
+     * Methods:
+     *   GameMetrics.allocationCounter()         - com.sun.management.ThreadMXBean
+     *   this.allocated()                        - long
+     *   this.tick(long, long, int)              - void
+     *   this.click(long, int)                   - void
+     *   this.dump()                             - String
+     *   this.reset()                            - void
+     *   this.register(MBeanServer)              - ObjectName
+     *   this.dumpEvery(long, PrintStream)       - void
+     *   this.stop()                             - void
+     *   this.value(String)                      - Object
+     *   this.getAttribute(String)               - Object
+     *   this.getAttributes(String[])            - AttributeList
+     *   this.setAttribute(Attribute)            - void
+     *   this.setAttributes(AttributeList)       - AttributeList
+     *   this.invoke(String, Object[], String[]) - Object
+     *   this.getMBeanInfo()                     - MBeanInfo
+     * Methods on Fields:
+     *   this.ticks.record(long)                 - void
+     *   this.threads.getCurrentThreadAllocatedBytes() - long
+     */
+    // the JVM's counter of the bytes every thread allocated, or null if it has none
+    static com.sun.management.ThreadMXBean allocationCounter() {
+        try {
+            if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean) {
+                com.sun.management.ThreadMXBean threads =
+                        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+                if (threads.isThreadAllocatedMemorySupported()
+                        && threads.isThreadAllocatedMemoryEnabled()) {
+                    return threads;
+                }
+            }
+        }
+        catch (LinkageError e) {
+            // a JVM without the com.sun.management extensions
+        }
+        return null;
+    }
+
+    // the bytes the current thread allocated so far, or 0 if the JVM cannot tell
+    long allocated() {
+        return this.threads == null ? 0 : this.threads.getCurrentThreadAllocatedBytes();
+    }
+
+    // EFFECT: records a tick that started at the given System.nanoTime() when
+    // the thread had allocated the given bytes, with the given cells waiting to be drawn
+    void tick(long started, long allocatedBefore, int depth) {
+        long nanos = System.nanoTime() - started;
+        this.ticks.record(nanos);
+        this.workListDepth.record(depth);
+        if (this.threads != null) {
+            this.tickAllocations.record(this.allocated() - allocatedBefore);
+        }
+        if (nanos > this.frameBudgetNanos) {
+            this.overBudget++;
+        }
+        if (nanos > this.worstTick) {
+            this.worstTick = nanos;
+            this.worstGame = this.game;
+        }
+    }
+
+    // EFFECT: records a move that started at the given System.nanoTime() and
+    // flooded the given number of cells
+    void click(long started, int flooded) {
+        this.clicks.record(System.nanoTime() - started);
+        this.cellsFlooded.record(flooded);
+    }
+
+    // every histogram on a line of its own, then the ticks over the frame budget
+    String dump() {
+        StringBuilder out = new StringBuilder();
+        for (Histogram histogram : this.all) {
+            out.append(histogram.line()).append('\n');
+        }
+        out.append(String.format("over budget %d ticks of %d ns, worst %d ns in %s%n",
+                this.overBudget, this.frameBudgetNanos, this.worstTick,
+                this.worstGame.isEmpty() ? "no game" : this.worstGame));
+        return out.toString();
+    }
+
+    // EFFECT: forgets everything recorded so far
+    void reset() {
+        for (Histogram histogram : this.all) {
+            histogram.reset();
+        }
+        this.overBudget = 0;
+        this.worstTick = 0;
+        this.worstGame = "";
+    }
+
+    // EFFECT: registers these metrics with the given server under NAME
+    // returns the name they were registered under
+    ObjectName register(MBeanServer server) throws JMException {
+        ObjectName name = new ObjectName(NAME);
+        server.registerMBean(this, name);
+        return name;
+    }
+
+    // EFFECT: starts printing the dump to the given stream every given number of
+    // milliseconds on a thread of its own
+    void dumpEvery(long millis, PrintStream out) {
+        this.stop();
+        this.dumper = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "metrics-dump");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.dumper.scheduleAtFixedRate(() -> out.print(this.dump()), millis, millis,
+                TimeUnit.MILLISECONDS);
+    }
+
+    // EFFECT: stops printing the dump
+    void stop() {
+        if (this.dumper != null) {
+            this.dumper.shutdownNow();
+            this.dumper = null;
+        }
+    }
+
+    // the value of the given attribute, or null if there is none
+    Object value(String attribute) {
+        switch (attribute) {
+            case "OverBudget":
+                return this.overBudget;
+            case "FrameBudget":
+                return this.frameBudgetNanos;
+            case "WorstTick":
+                return this.worstTick;
+            case "WorstGame":
+                return this.worstGame;
+            default:
+                break;
+        }
+        for (Histogram histogram : this.all) {
+            if (attribute.startsWith(histogram.name)) {
+                switch (attribute.substring(histogram.name.length())) {
+                    case "Count":
+                        return histogram.count.get();
+                    case "P50":
+                        return histogram.percentile(0.5);
+                    case "P99":
+                        return histogram.percentile(0.99);
+                    case "Max":
+                        return histogram.max.get();
+                    case "Mean":
+                        return histogram.mean();
+                    default:
+                        break;
+                }
+            }
+        }
+        return null;
+    }
+
+    // the value of the given attribute, for JMX
+    public Object getAttribute(String attribute) throws AttributeNotFoundException {
+        Object value = this.value(attribute);
+        if (value == null) {
+            throw new AttributeNotFoundException("No attribute " + attribute);
+        }
+        return value;
+    }
+
+    // the values of the given attributes that exist, for JMX
+    public AttributeList getAttributes(String[] attributes) {
+        AttributeList values = new AttributeList();
+        for (String attribute : attributes) {
+            Object value = this.value(attribute);
+            if (value != null) {
+                values.add(new Attribute(attribute, value));
+            }
+        }
+        return values;
+    }
+
+    // every attribute is read only
+    public void setAttribute(Attribute attribute) throws AttributeNotFoundException {
+        throw new AttributeNotFoundException("Cannot set " + attribute.getName()
+                + ", every attribute is read only");
+    }
+
+    // every attribute is read only, so none of them is set
+    public AttributeList setAttributes(AttributeList attributes) {
+        return new AttributeList();
+    }
+
+    // runs the dump or reset operation, for JMX
+    public Object invoke(String operation, Object[] params, String[] signature)
+            throws ReflectionException {
+        if (operation.equals("dump")) {
+            return this.dump();
+        }
+        if (operation.equals("reset")) {
+            this.reset();
+            return null;
+        }
+        throw new ReflectionException(new NoSuchMethodException(operation),
+                "No operation " + operation);
+    }
+
+    // the attributes and operations of these metrics, for JMX
+    public MBeanInfo getMBeanInfo() {
+        ArrayList<MBeanAttributeInfo> attributes = new ArrayList<MBeanAttributeInfo>();
+        for (Histogram histogram : this.all) {
+            for (String stat : STATS) {
+                attributes.add(new MBeanAttributeInfo(histogram.name + stat,
+                        stat.equals("Mean") ? "double" : "long",
+                        stat + " of " + histogram.name + " in " + histogram.unit, true, false,
+                        false));
+            }
+        }
+        attributes.add(new MBeanAttributeInfo("OverBudget", "long",
+                "ticks over the frame budget", true, false, false));
+        attributes.add(new MBeanAttributeInfo("FrameBudget", "long",
+                "frame budget in ns", true, false, false));
+        attributes.add(new MBeanAttributeInfo("WorstTick", "long",
+                "slowest tick in ns", true, false, false));
+        attributes.add(new MBeanAttributeInfo("WorstGame", "java.lang.String",
+                "game of the slowest tick", true, false, false));
+        MBeanOperationInfo[] operations = {
+            new MBeanOperationInfo("dump", "every metric as text", null, "java.lang.String",
+                    MBeanOperationInfo.INFO),
+            new MBeanOperationInfo("reset", "forget everything recorded", null, "void",
+                    MBeanOperationInfo.ACTION)};
+        return new MBeanInfo(GameMetrics.class.getName(), "Flood it handler latencies and work",
+                attributes.toArray(new MBeanAttributeInfo[0]), null, operations, null);
+    }
+}
+
+// counts of values in buckets that grow with the values, each bucket within
+// a sixteenth of the values it holds, filled by one thread and read by any
+class Histogram {
+    static final int SUB_BITS = 4;                      // bits of a value below its top bit kept
+    static final int SUB_BUCKETS = 1 << SUB_BITS;
+    static final int EXACT = 2 * SUB_BUCKETS;           // values under this get a bucket each
+    static final int BUCKETS = EXACT + (63 - SUB_BITS - 1) * SUB_BUCKETS;
+
+    String name;
+    String unit;
+    AtomicLongArray counts;     // values in every bucket
+    AtomicLong count;           // values recorded
+    AtomicLong sum;             // total of the values recorded
+    AtomicLong max;             // biggest value recorded
+
+    Histogram(String name, String unit) {
+        this.name = name;
+        this.unit = unit;
+        this.counts = new AtomicLongArray(BUCKETS);
+        this.count = new AtomicLong();
+        this.sum = new AtomicLong();
+        this.max = new AtomicLong();
+    }
+
+    /* TMPLT
+     * Fields
+     *   Histogram.SUB_BITS      4
+     *   Histogram.SUB_BUCKETS   16
+     *   Histogram.EXACT         32
+     *   Histogram.BUCKETS       int
+     *   this.name               String
+     *   this.unit               String
+     *   this.counts             AtomicLongArray
+     *   this.count              AtomicLong
+     *   this.sum                AtomicLong
+     *   this.max                AtomicLong
+     * Methods:
+     *   Histogram.bucket(long)  - int
+     *   Histogram.highest(int)  - long
+     *   this.record(long)       - void
+     *   this.percentile(double) - long
+     *   this.mean()             - double
+     *   this.reset()            - void
+     *   this.line()             - String
+     */
+    // the bucket of the given value, negative values counting as 0
+    static int bucket(long value) {
+        if (value < EXACT) {
+            return (int) Math.max(0, value);
+        }
+        int top = 63 - Long.numberOfLeadingZeros(value);
+        int sub = (int) (value >>> (top - SUB_BITS)) & (SUB_BUCKETS - 1);
+        return EXACT + (top - SUB_BITS - 1) * SUB_BUCKETS + sub;
+    }
+
+    // the biggest value the given bucket holds
+    static long highest(int bucket) {
+        if (bucket < EXACT) {
+            return bucket;
+        }
+        int top = (bucket - EXACT) / SUB_BUCKETS + SUB_BITS + 1;
+        long sub = (bucket - EXACT) % SUB_BUCKETS;
+        long lowest = (1L << top) | (sub << (top - SUB_BITS));
+        return lowest + (1L << (top - SUB_BITS)) - 1;
+    }
+
+    // EFFECT: counts the given value; only one thread records, so every
+    // counter is read and written back without a compare and swap, and ordered
+    // writes let other threads read them without tearing
+    void record(long value) {
+        int bucket = Histogram.bucket(value);
+        this.counts.lazySet(bucket, this.counts.get(bucket) + 1);
+        this.count.lazySet(this.count.get() + 1);
+        this.sum.lazySet(this.sum.get() + value);
+        if (value > this.max.get()) {
+            this.max.lazySet(value);
+        }
+    }
+
+    // the smallest value at least the given fraction of the values are no bigger
+    // than, to within a bucket and never over the biggest value, 0 when empty
+    long percentile(double fraction) {
+        long total = this.count.get();
+        long needed = Math.max(1, (long) Math.ceil(fraction * total));
+        long seen = 0;
+        for (int bucket = 0; bucket < BUCKETS && total > 0; bucket++) {
+            seen += this.counts.get(bucket);
+            if (seen >= needed) {
+                return Math.min(Histogram.highest(bucket), this.max.get());
+            }
+        }
+        return this.max.get();
+    }
+
+    // the average value recorded, 0 when empty
+    double mean() {
+        long total = this.count.get();
+        return total == 0 ? 0 : (double) this.sum.get() / total;
+    }
+
+    // EFFECT: forgets every value recorded
+    void reset() {
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            this.counts.set(bucket, 0);
+        }
+        this.count.set(0);
+        this.sum.set(0);
+        this.max.set(0);
+    }
+
+    // the count, median, 99th percentile, biggest and average value on one line
+    String line() {
+        return String.format("%-16s count %d p50 %d p99 %d max %d mean %.1f %s", this.name,
+                this.count.get(), this.percentile(0.5), this.percentile(0.99), this.max.get(),
+                this.mean(), this.unit);
+    }
+}
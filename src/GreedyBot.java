@@ -0,0 +1,43 @@
+import java.util.Random;
+
+// plays the color that floods the most cells; without a region graph to count
+// whole regions with, it plays the color with the most cells along the edge of
+// the flood instead, which the move takes in first
+
+class GreedyBot implements FloodBot {
+    /* TMPLT
+     * Methods:
+     *   this.choose(FloodItGame, Random)    - int
+     *   GreedyBot.edgeCells(FloodItGame, int) - int
+     * Methods on Parameters:
+     *   game.hint()                         - int
+     *   game.bits.edgeCells(int)            - int
+     *   game.board.edgeCells(int)           - int
+     */
+    public int choose(FloodItGame game, Random rand) {
+        int best = game.hint();
+        if (game.regions == null) {
+            int bestCells = 0;
+            for (int c = 0; c < game.numColors; c++) {
+                int cells = GreedyBot.edgeCells(game, c);
+                if (cells > bestCells) {
+                    best = c;
+                    bestCells = cells;
+                }
+            }
+        }
+        if (best == -1) {
+            return (game.board.floodColor + 1) % game.numColors;
+        }
+        return best;
+    }
+
+    // the unflooded cells of the given color next to the flood of the given game
+    // without a region graph, counted with its bit planes or else its frontier
+    static int edgeCells(FloodItGame game, int color) {
+        if (game.bits != null) {
+            return game.bits.edgeCells(color);
+        }
+        return game.board.edgeCells(color);
+    }
+}
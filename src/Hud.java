@@ -0,0 +1,158 @@
+import javalib.impworld.*;
+import java.awt.Color;
+import javalib.worldimages.*;
+
+// the timer, move counter, hint and loss banner drawn around the board, each
+// one only placed again when what it shows changes
+
+class Hud {
+    static final int NOTHING = -1;          // shown before the game starts
+    static final int WON = -2;              // counter shows the player won
+    static final int LOST = -3;             // counter shows the player lost
+    static final int DIRTY = Integer.MIN_VALUE; // must be drawn on the next call
+
+    static final RectangleImage BLANK = new RectangleImage(200, 30, OutlineMode.SOLID, Color.WHITE);
+    static final TextImage EMPTY = new TextImage("", 15, Color.BLACK);
+    static final TextImage WIN_TEXT = new TextImage("You Win!", 15, Color.BLACK);
+    static final TextImage LOSE_TEXT = new TextImage("You Lose!", 15, Color.BLACK);
+    static final RectangleImage HINT_BLANK =
+            new RectangleImage(2 * Cell.CELL_SIZE, 30, OutlineMode.SOLID, Color.WHITE);
+    static final RectangleImage BANNER =
+            new RectangleImage(500, 30, OutlineMode.SOLID, Color.WHITE);
+    static final TextImage BANNER_TEXT =
+            new TextImage("You Lose! Press r to play again", 20, Color.BLACK);
+
+    int timerX;         // where the timer is centered
+    int counterX;       // where the counter is centered
+    int hintX;          // where the hint is centered
+    int hudY;           // height of the timer and counter
+    int bannerX;        // where the loss banner is centered
+    int bannerY;
+
+    long timerShows;    // seconds on the timer, NOTHING, or DIRTY
+    int counterShows;   // moves on the counter, NOTHING, WON, LOST, or DIRTY
+    int hintShows;      // palette index of the hinted color, or NOTHING
+    boolean bannerShown;
+    int placed;         // images placed since the scene was last rebuilt
+
+    // start game constructor for a game of the given size, nothing is shown yet
+    Hud(int width, int height) {
+        this.timerX = width - 9 * Cell.CELL_SIZE;
+        this.counterX = width - 19 * Cell.CELL_SIZE;
+        this.hintX = width - 2 * Cell.CELL_SIZE;
+        this.hudY = height - Cell.CELL_SIZE;
+        this.bannerX = width / 2;
+        this.bannerY = (height / 2) + Cell.CELL_SIZE;
+        this.invalidate();
+    }
+
+    /* TMPLT
+     * Fields
+     *   this.timerX         int
+     *   this.counterX       int
+     *   this.hintX          int
+     *   this.hudY           int
+     *   this.bannerX        int
+     *   this.bannerY        int
+     *   this.timerShows     long
+     *   this.counterShows   int
+     *   this.hintShows      int
+     *   this.bannerShown    boolean
+     *   this.placed         int
+     * Methods:
+     *   this.drawTimer(long, WorldScene)          - void
+     *   this.timerText(long)                      - String
+     *   this.drawCounter(int, int, WorldScene)    - void
+     *   this.drawHint(int, Color, WorldScene)     - void
+     *   this.drawBanner(WorldScene)               - void
+     *   this.place(WorldImage, int, int, WorldScene) - void
+     *   this.invalidate()                         - void
+     */
+    // draws the timer if the given number of elapsed seconds is not what it shows
+    // EFFECT: may place the timer onto the given scene
+    void drawTimer(long seconds, WorldScene scene) {
+        if (seconds == this.timerShows) {
+            return;
+        }
+        this.timerShows = seconds;
+        WorldImage timer = EMPTY;
+        if (seconds != NOTHING) {
+            timer = new TextImage(this.timerText(seconds), 15, Color.BLACK);
+        }
+        this.place(BLANK, this.timerX, this.hudY, scene);
+        this.place(timer, this.timerX, this.hudY, scene);
+    }
+
+    // the text of the timer after the given number of seconds, as mm:ss
+    String timerText(long seconds) {
+        long minutes = seconds / 60;
+        long rest = seconds % 60;
+        return "Time Elapsed " + (minutes < 10 ? "0" : "") + minutes
+                + ":" + (rest < 10 ? "0" : "") + rest;
+    }
+
+    // draws the counter if the given moves, or NOTHING, WON or LOST, is not what it shows
+    // EFFECT: may place the counter onto the given scene
+    void drawCounter(int moves, int allowed, WorldScene scene) {
+        if (moves == this.counterShows) {
+            return;
+        }
+        this.counterShows = moves;
+        WorldImage counter;
+        if (moves == NOTHING) {
+            counter = EMPTY;
+        }
+        else if (moves == WON) {
+            counter = WIN_TEXT;
+        }
+        else if (moves == LOST) {
+            counter = LOSE_TEXT;
+        }
+        else {
+            counter = new TextImage("Moves " + moves + "/" + allowed, 15, Color.BLACK);
+        }
+        this.place(BLANK, this.counterX, this.hudY, scene);
+        this.place(counter, this.counterX, this.hudY, scene);
+    }
+
+    // draws the hint if the given palette index, or NOTHING, is not what it shows:
+    // a square of the given color, which is the one the index names
+    // EFFECT: may place the hint, or the blank over it, onto the given scene
+    void drawHint(int color, Color shown, WorldScene scene) {
+        if (color == this.hintShows) {
+            return;
+        }
+        this.hintShows = color;
+        this.place(HINT_BLANK, this.hintX, this.hudY, scene);
+        if (color != NOTHING) {
+            this.place(new RectangleImage(Cell.CELL_SIZE, Cell.CELL_SIZE, OutlineMode.SOLID, shown),
+                    this.hintX, this.hudY, scene);
+        }
+    }
+
+    // draws the loss banner over the board unless it is already shown
+    // EFFECT: may place the banner onto the given scene
+    void drawBanner(WorldScene scene) {
+        if (!this.bannerShown) {
+            this.bannerShown = true;
+            this.place(BANNER, this.bannerX, this.bannerY, scene);
+            this.place(BANNER_TEXT, this.bannerX, this.bannerY, scene);
+        }
+    }
+
+    // EFFECT: places the given image onto the given scene and counts it
+    void place(WorldImage image, int x, int y, WorldScene scene) {
+        scene.placeImageXY(image, x, y);
+        this.placed++;
+    }
+
+    // EFFECT: forgets what is shown, so everything is drawn again onto a new scene;
+    // the hint is only asked for, so the new scene goes without one
+    void invalidate() {
+        this.timerShows = DIRTY;
+        this.counterShows = DIRTY;
+        this.hintShows = NOTHING;
+        this.bannerShown = false;
+        this.placed = 0;
+    }
+}
@@ -0,0 +1,100 @@
+import java.util.NoSuchElementException;
+
+// a first in first out queue of ints stored in a growable ring buffer,
+// so queueing board cells never boxes them
+
+class IntQueue {
+    int[] items;    // ring buffer, its length is always a power of two
+    int head;       // position of the first item in items
+    int size;       // number of items in the queue
+
+    // empty queue constructor
+    IntQueue() {
+        this(16);
+    }
+
+    // empty queue constructor with room for at least the given number of items
+    IntQueue(int capacity) {
+        int length = 1;
+        while (length < capacity) {
+            length <<= 1;
+        }
+        this.items = new int[length];
+        this.head = 0;
+        this.size = 0;
+    }
+
+    /* TMPLT
+     * Fields
+     *   this.items     int[]
+     *   this.head      int
+     *   this.size      int
+     * Methods:
+     *   this.add(int)      - void
+     *   this.remove()      - int
+     *   this.get(int)      - int
+     *   this.size()        - int
+     *   this.isEmpty()     - boolean
+     *   this.clear()       - void
+     *   this.toArray()     - int[]
+     */
+    // EFFECT: adds the given item to the back of this queue
+    void add(int item) {
+        if (this.size == this.items.length) {
+            // unroll the ring into a buffer twice as big
+            int[] bigger = new int[this.items.length * 2];
+            int firstPart = this.items.length - this.head;
+            System.arraycopy(this.items, this.head, bigger, 0, firstPart);
+            System.arraycopy(this.items, 0, bigger, firstPart, this.head);
+            this.items = bigger;
+            this.head = 0;
+        }
+        this.items[(this.head + this.size) & (this.items.length - 1)] = item;
+        this.size++;
+    }
+
+    // removes the item at the front of this queue
+    // EFFECT: modifies this queue by removing its first item
+    int remove() {
+        if (this.size == 0) {
+            throw new NoSuchElementException("Cannot remove from an empty queue");
+        }
+        int item = this.items[this.head];
+        this.head = (this.head + 1) & (this.items.length - 1);
+        this.size--;
+        return item;
+    }
+
+    // the item the given number of places behind the front of this queue
+    int get(int k) {
+        if (k < 0 || k >= this.size) {
+            throw new IndexOutOfBoundsException("No item at " + k + " in a queue of " + this.size);
+        }
+        return this.items[(this.head + k) & (this.items.length - 1)];
+    }
+
+    // the number of items in this queue
+    int size() {
+        return this.size;
+    }
+
+    // does this queue have no items?
+    boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    // EFFECT: removes every item from this queue
+    void clear() {
+        this.head = 0;
+        this.size = 0;
+    }
+
+    // the items of this queue from front to back
+    int[] toArray() {
+        int[] result = new int[this.size];
+        for (int k = 0; k < this.size; k++) {
+            result[k] = this.get(k);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,290 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+
+// the moves of a game, so they can be taken back and played again: a log of
+// one palette index per move, the cells every move flooded written as the
+// differences between them in as few bytes as they need, and every so often
+// a snapshot of the flooded bitset; taking a move back only touches the cells
+// it flooded, and going far back or ahead starts from the nearest snapshot
+// instead of replaying the game from its seed
+//
+// the cells of a move are stored one after another, each as the zigzag
+// encoded difference to the one before in 7 bit groups, low group first
+
+class MoveHistory {
+    static final int SNAPSHOT_MOVES = 64;   // fewest moves between two snapshots
+
+    FloodItGame game;
+    int startColor;         // flood color before the first move
+    int startClicks;        // moves the game had used before the first move
+    int interval;           // moves between two snapshots
+    byte[] moves;           // palette index of every move, including undone ones
+    int played;             // moves currently on the board
+    int recorded;           // moves in the log, the ones after played can be redone
+    byte[] deltas;          // the cells every move flooded
+    int[] deltaStart;       // cells of move k are deltas[deltaStart[k]] up to deltaStart[k + 1]
+    ArrayList<long[]> snapshots;    // flooded bitset after every interval moves, from move 0
+    int[] cells;            // the cells of the move being taken back
+    IntQueue journal;       // the cells of the move being played
+
+    // history of the given game from the position it is in now
+    MoveHistory(FloodItGame game) {
+        this.game = game;
+        this.startColor = game.board.floodColor;
+        this.startClicks = game.numClicks;
+        int words = (game.board.cells + 63) >>> 6;
+        // a snapshot costs at most a byte per move it spans
+        this.interval = Math.max(SNAPSHOT_MOVES, 8 * words);
+        this.moves = new byte[16];
+        this.played = 0;
+        this.recorded = 0;
+        this.deltas = new byte[64];
+        this.deltaStart = new int[17];
+        this.snapshots = new ArrayList<long[]>();
+        this.snapshots.add(this.snapshot());
+        this.cells = new int[16];
+        this.journal = new IntQueue();
+    }
+
+    /* TMPLT
+     * Fields
+     *   MoveHistory.SNAPSHOT_MOVES  64
+     *   this.game               FloodItGame
+     *   this.startColor         int
+     *   this.startClicks        int
+     *   this.interval           int
+     *   this.moves              byte[]
+     *   this.played             int
+     *   this.recorded           int
+     *   this.deltas             byte[]
+     *   this.deltaStart         int[]
+     *   this.snapshots          ArrayList<long[]>
+     *   this.cells              int[]
+     *   this.journal            IntQueue
+     * Methods:
+     *   this.play(int)                  - int
+     *   this.canUndo()                  - boolean
+     *   this.canRedo()                  - boolean
+     *   this.undo(IntQueue)             - boolean
+     *   this.redo()                     - boolean
+     *   this.seek(int)                  - void
+     *   this.colorAfter(int)            - int
+     *   this.decode(int)                - int
+     *   this.write(int)                 - void
+     *   this.snapshot()                 - long[]
+     *   this.restore(int)               - void
+     *   this.bytes()                    - long
+     * Methods on Fields:
+     *   this.game.play(int)             - int
+     *   this.game.board.unfloodBits(int[], int, int) - void
+     *   this.game.board.unflood(int[], int, int) - void
+     *   this.game.regions.unflood(int[], int, int) - void
+     *   this.game.bits.widen()          - void
+     */
+    // plays one move of the given color, forgetting the moves that were undone
+    // EFFECT: modifies the game and adds the move to the log
+    // returns the number of newly flooded cells
+    int play(int color) {
+        if (color < 0 || color >= this.game.numColors) {
+            throw new IllegalArgumentException("Cannot play color " + color + " of "
+                    + this.game.numColors);
+        }
+        int move = this.played;
+        this.recorded = move;
+        while (this.snapshots.size() > 1 + move / this.interval) {
+            this.snapshots.remove(this.snapshots.size() - 1);
+        }
+
+        FloodBoard board = this.game.board;
+        this.journal.clear();
+        board.journal = this.journal;
+        int flooded;
+        try {
+            flooded = this.game.play(color);
+        }
+        finally {
+            board.journal = null;
+        }
+
+        if (move == this.moves.length) {
+            this.moves = Arrays.copyOf(this.moves, move * 2);
+            this.deltaStart = Arrays.copyOf(this.deltaStart, move * 2 + 1);
+        }
+        this.moves[move] = (byte) color;
+        this.deltaStart[move + 1] = this.deltaStart[move];
+        int previous = 0;
+        for (int k = 0; k < this.journal.size(); k++) {
+            int i = this.journal.get(k);
+            int difference = i - previous;
+            this.write((difference << 1) ^ (difference >> 31));
+            previous = i;
+        }
+        this.played = move + 1;
+        this.recorded = move + 1;
+        if (this.played % this.interval == 0) {
+            this.snapshots.add(this.snapshot());
+        }
+        return flooded;
+    }
+
+    // is there a move to take back?
+    boolean canUndo() {
+        return this.played > 0;
+    }
+
+    // is there an undone move to play again?
+    boolean canRedo() {
+        return this.played < this.recorded;
+    }
+
+    // takes the last move back, adding the cells that leave the flood to the given
+    // queue; only a game flooded through the frontier of its board puts the
+    // frontier back, so with a region graph or bit planes this costs time
+    // proportional to the cells of the move and its neighbor regions
+    // EFFECT: modifies the game, which shows the colors it had before the move
+    // returns whether there was a move to take back
+    boolean undo(IntQueue changed) {
+        if (!this.canUndo()) {
+            return false;
+        }
+        int move = this.played - 1;
+        int count = this.decode(move);
+        if (this.game.regions == null && this.game.bits == null) {
+            this.game.board.unflood(this.cells, count, this.colorAfter(move));
+        }
+        else {
+            this.game.board.unfloodBits(this.cells, count, this.colorAfter(move));
+        }
+        if (this.game.regions != null) {
+            this.game.regions.unflood(this.cells, count, this.moves[move]);
+        }
+        this.game.numClicks--;
+        this.played = move;
+        for (int k = 0; k < count; k++) {
+            changed.add(this.cells[k]);
+        }
+        return true;
+    }
+
+    // plays the next undone move again, which floods the same cells as before
+    // EFFECT: modifies the game
+    // returns whether there was a move to play again
+    boolean redo() {
+        if (!this.canRedo()) {
+            return false;
+        }
+        this.game.play(this.moves[this.played]);
+        this.played++;
+        return true;
+    }
+
+    // goes back or ahead to the position after the given number of moves, from the
+    // snapshot before it when that is nearer than the position the game is in
+    // EFFECT: modifies the game
+    void seek(int move) {
+        if (move < 0 || move > this.recorded) {
+            throw new IllegalArgumentException("No position after " + move + " moves in a log of "
+                    + this.recorded);
+        }
+        int snapshot = move / this.interval;
+        if (move - snapshot * this.interval < Math.abs(move - this.played)) {
+            this.restore(snapshot);
+        }
+        IntQueue ignored = new IntQueue();
+        while (this.played > move) {
+            this.undo(ignored);
+            ignored.clear();
+        }
+        while (this.played < move) {
+            this.redo();
+        }
+    }
+
+    // the color the flood shows after the given number of moves
+    int colorAfter(int move) {
+        if (move == 0) {
+            return this.startColor;
+        }
+        return this.moves[move - 1];
+    }
+
+    // reads the cells the given move flooded into cells
+    // EFFECT: may replace cells with a bigger array
+    // returns how many there are
+    int decode(int move) {
+        int count = 0;
+        int previous = 0;
+        int at = this.deltaStart[move];
+        while (at < this.deltaStart[move + 1]) {
+            int zigzag = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = this.deltas[at++];
+                zigzag |= (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            previous += (zigzag >>> 1) ^ -(zigzag & 1);
+            if (count == this.cells.length) {
+                this.cells = Arrays.copyOf(this.cells, count * 2);
+            }
+            this.cells[count++] = previous;
+        }
+        return count;
+    }
+
+    // EFFECT: appends the given number to the cells of the move being recorded
+    // in 7 bit groups, the top bit of a byte set when another group follows
+    void write(int value) {
+        int end = this.deltaStart[this.played + 1];
+        if (end + 5 > this.deltas.length) {
+            this.deltas = Arrays.copyOf(this.deltas, Math.max(end + 5, this.deltas.length * 2));
+        }
+        while ((value & ~0x7F) != 0) {
+            this.deltas[end++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        this.deltas[end++] = (byte) value;
+        this.deltaStart[this.played + 1] = end;
+    }
+
+    // a copy of the flooded bitset of the board
+    long[] snapshot() {
+        FloodBoard board = this.game.board;
+        long[] bits = new long[(board.cells + 63) >>> 6];
+        for (int w = 0; w < bits.length; w++) {
+            bits[w] = board.floodedWord(w);
+        }
+        return bits;
+    }
+
+    // puts the game in the position of the given snapshot
+    // EFFECT: modifies the board, its region graph or bit planes and the moves used
+    void restore(int snapshot) {
+        FloodBoard board = this.game.board;
+        long[] bits = this.snapshots.get(snapshot);
+        for (int w = 0; w < bits.length; w++) {
+            board.setFloodedWord(w, bits[w]);
+        }
+        this.played = snapshot * this.interval;
+        board.floodColor = this.colorAfter(this.played);
+        board.refresh();
+        if (this.game.regions != null) {
+            this.game.regions.findBorder();
+        }
+        if (this.game.bits != null) {
+            this.game.bits.widen();
+        }
+        this.game.numClicks = this.startClicks + this.played;
+    }
+
+    // the bytes this history keeps, not counting what its arrays have room for:
+    // five a move for its color and where its cells start, the cells and the snapshots
+    long bytes() {
+        long bytes = 5L * this.recorded + this.deltaStart[this.recorded];
+        for (long[] bits : this.snapshots) {
+            bytes += 8L * bits.length;
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,230 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// a flood it board whose cells live outside the java heap: one byte per cell
+// for the colors and a bit plane for the flooded region, either in direct
+// buffers or mapped from a file, so a huge board costs the garbage collector
+// nothing and a mapped one, with the game kept on it, outlives the process
+//
+// opening a file maps it without reading the colors, but the flooded cells are
+// counted and the frontier found again, a pass over the bit plane and the edge
+// of the flood; resuming its game on a board of up to GRAPH_CELLS cells also
+// builds the region graph, a pass over every cell
+//
+// a board file is a header followed by the colors, then the bit plane at the
+// next multiple of 8 bytes as little endian longs:
+//   int magic, int version, int size, int floodColor,
+//   int numColors, int numAllowedClicks, int numClicks
+// where numColors is 0 until a game is kept on the board
+
+class OffHeapBoard extends FloodBoard {
+    static final int MAGIC = 0x464C4442;     // "FLDB"
+    static final int VERSION = 2;
+    static final int HEADER_BYTES = 28;
+
+    ByteBuffer header;      // the header of the file, null for a board in direct buffers
+    ByteBuffer cellColors;  // palette index of every cell
+    LongBuffer floodedBits; // bitset of the flooded cells
+    MappedByteBuffer[] mappings;    // what is mapped from the file, null for direct buffers
+
+    // constructor for a board in the given buffers, taking ownership of them
+    OffHeapBoard(int size, ByteBuffer header, ByteBuffer cellColors, LongBuffer floodedBits) {
+        super(size, null, null);
+        this.header = header;
+        this.cellColors = cellColors;
+        this.floodedBits = floodedBits;
+        this.mappings = null;
+    }
+
+    /* TMPLT
+     * Fields
+     *   OffHeapBoard.MAGIC          int
+     *   OffHeapBoard.VERSION        int
+     *   OffHeapBoard.HEADER_BYTES   int
+     *   this.header                 ByteBuffer
+     *   this.cellColors             ByteBuffer
+     *   this.floodedBits            LongBuffer
+     *   this.mappings               MappedByteBuffer[]
+     *   ... and every field of FloodBoard
+     * Methods:
+     *   OffHeapBoard.allocate(int)          - OffHeapBoard
+     *   OffHeapBoard.create(Path, int)      - OffHeapBoard
+     *   OffHeapBoard.open(Path)             - OffHeapBoard
+     *   OffHeapBoard.map(FileChannel, int, FileChannel.MapMode) - OffHeapBoard
+     *   this.ownColor(int)                  - int
+     *   this.setColor(int, int)             - void
+     *   this.isFlooded(int)                 - boolean
+     *   this.markFlooded(int)               - void
+     *   this.clearFlooded()                 - void
+     *   this.floodedWord(int)               - long
+     *   this.setFloodedWord(int, long)      - void
+     *   this.recover()                      - void
+     *   this.keep(FloodItGame)              - void
+     *   this.hasGame()                      - boolean
+     *   this.resume()                       - FloodItGame
+     *   this.force()                        - void
+     *   ... and every other method of FloodBoard
+     */
+    // an empty board of the given size in direct buffers, every cell has palette index 0
+    static OffHeapBoard allocate(int size) {
+        int cells = FloodBoard.cellsOf(size);
+        ByteBuffer bits = ByteBuffer.allocateDirect(((cells + 63) >>> 6) * 8)
+                .order(ByteOrder.nativeOrder());
+        return new OffHeapBoard(size, null, ByteBuffer.allocateDirect(cells), bits.asLongBuffer());
+    }
+
+    // an empty board of the given size mapped from the given file, which is
+    // replaced if it exists
+    static OffHeapBoard create(Path file, int size) throws IOException {
+        FloodBoard.cellsOf(size);
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        try {
+            OffHeapBoard board = OffHeapBoard.map(channel, size, FileChannel.MapMode.READ_WRITE);
+            board.header.putInt(0, MAGIC).putInt(4, VERSION).putInt(8, size).putInt(12, 0)
+                    .putInt(16, 0).putInt(20, 0).putInt(24, 0);
+            return board;
+        }
+        finally {
+            channel.close();    // the mappings stay valid without it
+        }
+    }
+
+    // the board saved in the given file, exactly as it was last left; costs a
+    // pass over its flooded bit plane, see recover
+    static OffHeapBoard open(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            while (header.hasRemaining() && channel.read(header) != -1) {
+                // keep reading until the header is complete
+            }
+            header.flip();
+            if (header.remaining() < HEADER_BYTES || header.getInt(0) != MAGIC) {
+                throw new IOException("Not a board file: " + file);
+            }
+            if (header.getInt(4) != VERSION) {
+                throw new IOException("Unsupported board file version " + header.getInt(4));
+            }
+            OffHeapBoard board = OffHeapBoard.map(channel, header.getInt(8),
+                    FileChannel.MapMode.READ_WRITE);
+            board.recover();
+            return board;
+        }
+        finally {
+            channel.close();
+        }
+    }
+
+    // a board of the given size mapped from the given channel, growing the file to fit
+    static OffHeapBoard map(FileChannel channel, int size, FileChannel.MapMode mode)
+            throws IOException {
+        int cells = FloodBoard.cellsOf(size);
+        long bitsAt = (HEADER_BYTES + (long) cells + 7) & ~7L;
+        long bitsLength = ((cells + 63L) >>> 6) * 8;
+        if (channel.size() < bitsAt + bitsLength) {
+            channel.write(ByteBuffer.allocate(1), bitsAt + bitsLength - 1);
+        }
+        // colors and bits are mapped apart so neither mapping passes 2GB
+        MappedByteBuffer front = channel.map(mode, 0, HEADER_BYTES + (long) cells);
+        MappedByteBuffer bits = channel.map(mode, bitsAt, bitsLength);
+        bits.order(ByteOrder.LITTLE_ENDIAN);    // the same file on every machine
+        OffHeapBoard board = new OffHeapBoard(size, front.slice(0, HEADER_BYTES),
+                front.slice(HEADER_BYTES, cells), bits.asLongBuffer());
+        board.mappings = new MappedByteBuffer[] {front, bits};
+        return board;
+    }
+
+    // the palette index the given cell was dealt, read from the color buffer
+    int ownColor(int i) {
+        return this.cellColors.get(i);
+    }
+
+    // EFFECT: sets the palette index of the given cell in the color buffer
+    void setColor(int i, int color) {
+        this.cellColors.put(i, (byte) color);
+    }
+
+    // is the given cell part of the flooded region, read from the bit plane?
+    boolean isFlooded(int i) {
+        return (this.floodedBits.get(i >>> 6) & (1L << i)) != 0;
+    }
+
+    // EFFECT: sets the flooded bit of the given cell in the bit plane, nothing else
+    void markFlooded(int i) {
+        int word = i >>> 6;
+        this.floodedBits.put(word, this.floodedBits.get(word) | (1L << i));
+    }
+
+    // EFFECT: clears every word of the bit plane, nothing else
+    void clearFlooded() {
+        for (int w = 0; w < this.floodedBits.capacity(); w++) {
+            this.floodedBits.put(w, 0L);
+        }
+    }
+
+    // the flooded bits of the cells 64 * w up to 64 * w + 63, read from the bit plane
+    long floodedWord(int w) {
+        return this.floodedBits.get(w);
+    }
+
+    // EFFECT: sets the flooded bits of the cells 64 * w up to 64 * w + 63 in
+    // the bit plane, nothing else
+    void setFloodedWord(int w, long bits) {
+        this.floodedBits.put(w, bits);
+    }
+
+    // picks up a board where its file left it: counts the flooded cells and puts
+    // every one of them that touches an unflooded cell back on the frontier
+    // EFFECT: modifies the flood color, flooded count and frontier of this board
+    void recover() {
+        this.floodColor = this.header.getInt(12);
+        this.refresh();
+    }
+
+    // EFFECT: writes the flood color, palette size and moves of the given game,
+    // which plays on this board, into the header of its file, if it has one;
+    // the cells are already there, force puts it all on disk
+    void keep(FloodItGame game) {
+        if (this.header == null) {
+            return;
+        }
+        this.header.putInt(12, this.floodColor).putInt(16, game.numColors)
+                .putInt(20, game.numAllowedClicks).putInt(24, game.numClicks);
+    }
+
+    // has a game been kept in the file of this board?
+    boolean hasGame() {
+        return this.header != null && this.header.getInt(16) > 0;
+    }
+
+    // the game last kept in the file of this board, playing on from where it was
+    // left; builds its region graph like any game in progress
+    FloodItGame resume() {
+        if (!this.hasGame()) {
+            throw new IllegalStateException("No game is kept on this board");
+        }
+        return new FloodItGame(this, this.header.getInt(16), this.header.getInt(20),
+                this.header.getInt(24));
+    }
+
+    // writes everything about this board to its file, if it has one
+    // EFFECT: modifies the header of the file and flushes the mappings to disk
+    void force() {
+        if (this.mappings == null) {
+            return;
+        }
+        this.header.putInt(12, this.floodColor);
+        for (MappedByteBuffer mapping : this.mappings) {
+            mapping.force();
+        }
+    }
+}
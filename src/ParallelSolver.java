@@ -0,0 +1,255 @@
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+// finds the fewest moves that flood a board on every core at once: a depth
+// first branch and bound search that splits the game tree by moves on a
+// fork join pool, with one transposition table and one best solution shared
+// by every thread so any of them can prune for the others
+
+class ParallelSolver {
+    FloodSolver rules;      // the regions of the board and how moves flood them
+    int parallelism;        // threads to search with
+    long timeBudgetMillis;  // give up after this long, 0 for no limit
+    int tableBudget;        // most states remembered, 0 for no limit
+    int splitDepth;         // always split the tree this many moves deep
+
+    ConcurrentHashMap<StateKey, Integer> table;    // fewest moves each state was reached in
+    AtomicInteger bound;    // length of the best solution found
+    byte[] best;            // the best solution found, guarded by this solver
+    LongAdder nodes;        // states searched
+    volatile boolean outOfBudget;
+    long deadline;          // System.nanoTime() to give up at
+    long elapsedNanos;      // time the last search took
+
+    // solver without limits for the current position of the given board on every core
+    ParallelSolver(FloodBoard board, int numColors) {
+        this(board, numColors, Runtime.getRuntime().availableProcessors(), 0, 0);
+    }
+
+    // solver for the current position of the given board within the given budget
+    ParallelSolver(FloodBoard board, int numColors, int parallelism,
+            long timeBudgetMillis, int tableBudget) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Cannot search with " + parallelism + " threads");
+        }
+        this.rules = new FloodSolver(board, numColors);
+        this.parallelism = parallelism;
+        this.timeBudgetMillis = timeBudgetMillis;
+        this.tableBudget = tableBudget;
+        this.splitDepth = 2;
+    }
+
+    /* TMPLT
+     * Fields
+     *   this.rules              FloodSolver
+     *   this.parallelism        int
+     *   this.timeBudgetMillis   long
+     *   this.tableBudget        int
+     *   this.splitDepth         int
+     *   this.table              ConcurrentHashMap<StateKey, Integer>
+     *   this.bound              AtomicInteger
+     *   this.best               byte[]
+     *   this.nodes              LongAdder
+     *   this.outOfBudget        boolean
+     *   this.deadline           long
+     *   this.elapsedNanos       long
+     * Methods:
+     *   this.solve()                            - Solution
+     *   this.search(long[], byte[])             - void
+     *   this.extend(byte[], int)                - byte[]
+     *   this.firstVisit(long[], int)            - boolean
+     *   this.record(byte[])                     - void
+     *   this.nodesPerSecond()                   - long
+     *   ParallelSolver.main(String[])           - void
+     * Methods on Fields:
+     *   this.rules.move(long[], int)            - long[]
+     *   this.rules.estimate(long[])             - int
+     *   this.rules.greedy()                     - byte[]
+     */
+    // searches for the fewest moves that flood the board, starting from the greedy
+    // solution; the answer is proven optimal unless the time ran out first
+    Solution solve() {
+        long started = System.nanoTime();
+        this.deadline = this.timeBudgetMillis > 0
+                ? started + this.timeBudgetMillis * 1000000L : Long.MAX_VALUE;
+        this.table = new ConcurrentHashMap<StateKey, Integer>();
+        this.best = this.rules.greedy();
+        this.bound = new AtomicInteger(this.best.length);
+        this.nodes = new LongAdder();
+        this.outOfBudget = false;
+
+        ForkJoinPool pool = new ForkJoinPool(this.parallelism);
+        try {
+            pool.invoke(new SearchTask(this, this.rules.start(), new byte[0]));
+        }
+        finally {
+            pool.shutdown();
+        }
+        this.elapsedNanos = System.nanoTime() - started;
+
+        synchronized (this) {
+            int lowerBound = this.outOfBudget
+                    ? Math.min(this.best.length, this.rules.estimate(this.rules.start()))
+                    : this.best.length;
+            return new Solution(this.best, !this.outOfBudget, lowerBound, this.nodes.sum());
+        }
+    }
+
+    // searches every move sequence from the given flooded regions, reached by
+    // the given moves, that can still beat the best solution; the first few moves
+    // and any move while other threads are idle are searched as separate tasks
+    // EFFECT: may record a better solution
+    void search(long[] flooded, byte[] moves) {
+        this.nodes.increment();
+        if (this.outOfBudget || System.nanoTime() > this.deadline) {
+            this.outOfBudget = true;
+            return;
+        }
+        int depth = moves.length;
+        if (this.rules.isSolved(flooded)) {
+            this.record(moves);
+            return;
+        }
+        if (!this.firstVisit(flooded, depth)) {
+            return;
+        }
+
+        // try the most promising moves first so good solutions tighten the bound early
+        long[][] next = new long[this.rules.numColors][];
+        int[] order = new int[this.rules.numColors];
+        int count = 0;
+        long[] touching = this.rules.touching(flooded);
+        for (int c = 0; c < this.rules.numColors; c++) {
+            boolean absorbs = false;
+            for (int w = 0; w < this.rules.words && !absorbs; w++) {
+                absorbs = (touching[w] & this.rules.colorMask[c][w]) != 0;
+            }
+            if (!absorbs) {
+                continue;
+            }
+            long[] after = this.rules.move(flooded, c);
+            int estimate = depth + 1 + this.rules.estimate(after);
+            if (estimate < this.bound.get()) {
+                next[c] = after;
+                order[count++] = (estimate << 8) | c;
+            }
+        }
+        Arrays.sort(order, 0, count);
+
+        boolean split = depth < this.splitDepth
+                || (this.parallelism > 1 && ForkJoinTask.getSurplusQueuedTaskCount() <= 0);
+        if (split && count > 1) {
+            SearchTask[] tasks = new SearchTask[count];
+            for (int k = 0; k < count; k++) {
+                int c = order[k] & 0xFF;
+                tasks[k] = new SearchTask(this, next[c], this.extend(moves, c));
+            }
+            ForkJoinTask.invokeAll(tasks);
+        }
+        else {
+            for (int k = 0; k < count; k++) {
+                int c = order[k] & 0xFF;
+                if ((order[k] >>> 8) < this.bound.get()) {
+                    this.search(next[c], this.extend(moves, c));
+                }
+            }
+        }
+    }
+
+    // the given moves followed by the given color
+    byte[] extend(byte[] moves, int color) {
+        byte[] result = Arrays.copyOf(moves, moves.length + 1);
+        result[moves.length] = (byte) color;
+        return result;
+    }
+
+    // is this the first time any thread reached the given regions in so few moves?
+    // EFFECT: remembers the given number of moves for the regions, while the table has room
+    boolean firstVisit(long[] flooded, int depth) {
+        StateKey key = new StateKey(flooded);
+        while (true) {
+            Integer seen = this.table.get(key);
+            if (seen == null) {
+                if (this.tableBudget > 0 && this.table.size() >= this.tableBudget) {
+                    return true;    // table is full, search without remembering
+                }
+                if (this.table.putIfAbsent(key, depth) == null) {
+                    return true;
+                }
+            }
+            else if (seen <= depth) {
+                return false;
+            }
+            else if (this.table.replace(key, seen, depth)) {
+                return true;
+            }
+        }
+    }
+
+    // EFFECT: keeps the given solution if it is shorter than the best one
+    synchronized void record(byte[] moves) {
+        if (moves.length < this.best.length) {
+            this.best = moves;
+            this.bound.set(moves.length);
+        }
+    }
+
+    // the states the last search went through each second
+    long nodesPerSecond() {
+        return this.nodes.sum() * 1000000000L / Math.max(1, this.elapsedNanos);
+    }
+
+    // solves one seeded board with 1, 2, 4 ... threads up to every core and prints
+    // how fast each search went and its speedup over one thread
+    // arguments: size colors seed, defaulting to 14 6 1
+    public static void main(String[] args) {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 14;
+        int colors = args.length > 1 ? Integer.parseInt(args[1]) : 6;
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 1;
+        FloodItGame game = new FloodItGame(size, colors, new Random(seed));
+        int cores = Runtime.getRuntime().availableProcessors();
+        long single = 0;
+        for (int threads = 1; ; threads = Math.min(cores, threads * 2)) {
+            ParallelSolver solver = new ParallelSolver(game.board, colors, threads, 0, 0);
+            Solution solution = solver.solve();
+            if (threads == 1) {
+                single = solver.elapsedNanos;
+            }
+            System.out.printf("%2d threads: %d moves%s in %d ms, %d nodes/s, speedup %.2f%n",
+                    threads, solution.moves.length, solution.optimal ? " (optimal)" : "",
+                    solver.elapsedNanos / 1000000, solver.nodesPerSecond(),
+                    (double) single / solver.elapsedNanos);
+            if (threads == cores) {
+                break;
+            }
+        }
+    }
+}
+
+// one branch of a parallel search, from the given flooded regions on
+class SearchTask extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+
+    ParallelSolver solver;
+    long[] flooded;
+    byte[] moves;       // the moves that reached these regions
+
+    // task constructor for the branch from the given flooded regions, reached by
+    // the given moves
+    SearchTask(ParallelSolver solver, long[] flooded, byte[] moves) {
+        this.solver = solver;
+        this.flooded = flooded;
+        this.moves = moves;
+    }
+
+    // EFFECT: searches this branch, possibly recording a better solution
+    protected void compute() {
+        this.solver.search(this.flooded, this.moves);
+    }
+}
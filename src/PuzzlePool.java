@@ -0,0 +1,483 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// seeded boards solved ahead of time on a pool of workers, so a new game can
+// start at once with a number of allowed moves fair to that very board instead
+// of one formula for every board of its size
+//
+// every solved board is kept in an index file, which only grows, and found
+// again through a table of 12 bytes a board; the boards used lately are kept
+// whole in a cache, and the boards not dealt yet are queued by size and colors
+//
+// the index file is a header followed by one record per board in the order
+// they were solved:
+//   int magic, int version
+//   long seed, short size, byte numColors, byte flags, short par, short lowerBound
+
+class PuzzlePool {
+    static final int MAGIC = 0x464C505A;     // "FLPZ"
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 8;
+    static final int RECORD_BYTES = 16;
+    static final int OPTIMAL = 1;            // flag set when par is provably the fewest moves
+
+    FileChannel channel;    // the index file
+    int records;            // boards in the index file
+    long[] hashes;          // hash of the board in every slot of the table
+    int[] slots;            // record of the board in every slot plus one, 0 for none
+    LinkedHashMap<Puzzle, Puzzle> cache;    // the boards used lately, least recently first
+    int cacheSize;          // most boards kept in the cache
+    HashMap<Long, ArrayDeque<Long>> ready;  // seeds not dealt yet by size and colors
+    HashMap<Long, Integer> pending;         // boards being solved by size and colors
+    ArrayList<Future<?>> running;           // boards being solved, or failed and not awaited
+    ExecutorService workers;
+    long nextSeed;          // seed of the next board to solve
+    int target;             // boards of each size and colors to keep ready
+    long timeBudgetMillis;  // time the solver gets for one board, 0 for no limit
+    int nodeBudget;         // search states the solver gets for one board, 0 for no limit
+    long hits;              // boards found in the cache
+    long misses;            // boards read from the index file
+
+    // pool keeping its boards in the given index file, made if it does not exist,
+    // solving boards from the given seed on the given number of threads
+    PuzzlePool(Path file, int threads, long firstSeed, int target, int cacheSize,
+               long timeBudgetMillis, int nodeBudget) throws IOException {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Cannot solve with " + threads + " threads");
+        }
+        if (cacheSize < 1) {
+            throw new IllegalArgumentException("Cannot cache " + cacheSize + " boards");
+        }
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        this.hashes = new long[64];
+        this.slots = new int[64];
+        this.cacheSize = cacheSize;
+        this.cache = new LinkedHashMap<Puzzle, Puzzle>(16, 0.75f, true) {
+            protected boolean removeEldestEntry(Map.Entry<Puzzle, Puzzle> eldest) {
+                return this.size() > PuzzlePool.this.cacheSize;
+            }
+        };
+        this.ready = new HashMap<Long, ArrayDeque<Long>>();
+        this.pending = new HashMap<Long, Integer>();
+        this.running = new ArrayList<Future<?>>();
+        this.nextSeed = firstSeed;
+        this.target = target;
+        this.timeBudgetMillis = timeBudgetMillis;
+        this.nodeBudget = nodeBudget;
+        try {
+            this.open(file);
+        }
+        catch (IOException e) {
+            this.channel.close();
+            throw e;
+        }
+        this.workers = Executors.newFixedThreadPool(threads);
+    }
+
+    /* TMPLT
+     * Fields
+     *   PuzzlePool.MAGIC        int
+     *   PuzzlePool.VERSION      int
+     *   PuzzlePool.HEADER_BYTES 8
+     *   PuzzlePool.RECORD_BYTES 16
+     *   PuzzlePool.OPTIMAL      1
+     *   this.channel            FileChannel
+     *   this.records            int
+     *   this.hashes             long[]
+     *   this.slots              int[]
+     *   this.cache              LinkedHashMap<Puzzle, Puzzle>
+     *   this.cacheSize          int
+     *   this.ready              HashMap<Long, ArrayDeque<Long>>
+     *   this.pending            HashMap<Long, Integer>
+     *   this.running            ArrayList<Future<?>>
+     *   this.workers            ExecutorService
+     *   this.nextSeed           long
+     *   this.target             int
+     *   this.timeBudgetMillis   long
+     *   this.nodeBudget         int
+     *   this.hits               long
+     *   this.misses             long
+     * Methods:
+     *   this.open(Path)                     - void
+     *   this.next(int, int)                 - Puzzle
+     *   this.get(long, int, int)            - Puzzle
+     *   this.refill(int, int)               - void
+     *   this.solve(long, int, int)          - Puzzle
+     *   this.add(Puzzle)                    - void
+     *   this.insert(long, int)              - void
+     *   this.readRecord(int)                - Puzzle
+     *   this.await()                        - void
+     *   this.close()                        - void
+     *   PuzzlePool.hash(long, int, int)     - long
+     *   PuzzlePool.kind(int, int)           - long
+     *   PuzzlePool.solved(Future<?>)        - boolean
+     *   PuzzlePool.main(String[])           - void
+     * Methods on Fields:
+     *   this.cache.get(Puzzle)              - Puzzle
+     */
+    // reads the boards already in the index file, writing a header if it is new;
+    // a record cut short by a crash is written over by the next board
+    // EFFECT: fills the table and queues every board as ready
+    void open(Path file) throws IOException {
+        long length = this.channel.size();
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        if (length == 0) {
+            header.putInt(MAGIC).putInt(VERSION).flip();
+            while (header.hasRemaining()) {
+                this.channel.write(header, header.position());
+            }
+            return;
+        }
+        while (header.hasRemaining() && this.channel.read(header, header.position()) != -1) {
+            // keep reading until the header is complete
+        }
+        header.flip();
+        if (header.remaining() < HEADER_BYTES || header.getInt() != MAGIC) {
+            throw new IOException("Not a puzzle index: " + file);
+        }
+        int version = header.getInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported puzzle index version " + version);
+        }
+        long count = (length - HEADER_BYTES) / RECORD_BYTES;
+        if (count > Integer.MAX_VALUE / 4) {
+            throw new IOException("Puzzle index of " + count + " boards: " + file);
+        }
+        ByteBuffer records = ByteBuffer.allocate(256 * RECORD_BYTES);
+        long position = HEADER_BYTES;
+        while (this.records < count) {
+            records.clear();
+            records.limit((int) Math.min(records.capacity(), (count - this.records) * RECORD_BYTES));
+            while (records.hasRemaining()) {
+                if (this.channel.read(records, position + records.position()) == -1) {
+                    throw new IOException("Puzzle index ends early: " + file);
+                }
+            }
+            position += records.position();
+            records.flip();
+            while (records.hasRemaining()) {
+                long seed = records.getLong();
+                int size = records.getShort() & 0xFFFF;
+                int numColors = records.get() & 0xFF;
+                records.position(records.position() + 5);
+                this.insert(PuzzlePool.hash(seed, size, numColors), this.records++);
+                this.ready.computeIfAbsent(PuzzlePool.kind(size, numColors),
+                        k -> new ArrayDeque<Long>()).add(seed);
+            }
+        }
+    }
+
+    // the next board of the given size and colors not dealt yet, or null if
+    // none is solved yet; either way more are solved in the background
+    // EFFECT: takes the board out of the ready queue and may start solving more
+    synchronized Puzzle next(int size, int numColors) throws IOException {
+        ArrayDeque<Long> seeds = this.ready.get(PuzzlePool.kind(size, numColors));
+        Puzzle puzzle = null;
+        while (puzzle == null && seeds != null && !seeds.isEmpty()) {
+            puzzle = this.get(seeds.poll(), size, numColors);
+        }
+        this.refill(size, numColors);
+        return puzzle;
+    }
+
+    // the solved board the given seed deals at the given size and colors, from
+    // the cache or else the index file, or null if it was never solved
+    // EFFECT: moves the board to the back of the cache, which may forget the oldest
+    synchronized Puzzle get(long seed, int size, int numColors) throws IOException {
+        Puzzle probe = new Puzzle(seed, size, numColors, 0, 0, false);
+        Puzzle puzzle = this.cache.get(probe);
+        if (puzzle != null) {
+            this.hits++;
+            return puzzle;
+        }
+        long hash = PuzzlePool.hash(seed, size, numColors);
+        int mask = this.slots.length - 1;
+        for (int s = (int) hash & mask; this.slots[s] != 0; s = (s + 1) & mask) {
+            if (this.hashes[s] == hash) {
+                puzzle = this.readRecord(this.slots[s] - 1);
+                if (puzzle.equals(probe)) {
+                    this.misses++;
+                    this.cache.put(puzzle, puzzle);
+                    return puzzle;
+                }
+            }
+        }
+        return null;
+    }
+
+    // EFFECT: starts solving boards of the given size and colors in the background
+    // until the ready ones and the ones being solved make the target, skipping
+    // seeds whose boards are already solved, and forgets the boards already added
+    synchronized void refill(int size, int numColors) throws IOException {
+        this.running.removeIf(PuzzlePool::solved);
+        Long kind = PuzzlePool.kind(size, numColors);
+        ArrayDeque<Long> seeds = this.ready.get(kind);
+        int waiting = (seeds == null ? 0 : seeds.size()) + this.pending.getOrDefault(kind, 0);
+        for (; waiting < this.target; waiting++) {
+            while (this.get(this.nextSeed, size, numColors) != null) {
+                this.nextSeed++;
+            }
+            long seed = this.nextSeed++;
+            this.pending.merge(kind, 1, Integer::sum);
+            this.running.add(this.workers.submit(() -> {
+                this.add(this.solve(seed, size, numColors));
+                return null;
+            }));
+        }
+    }
+
+    // did the given board finish solving and get added? a board that failed is
+    // kept running so await still reports it
+    static boolean solved(Future<?> board) {
+        if (!board.isDone()) {
+            return false;
+        }
+        try {
+            board.get();
+            return true;
+        }
+        catch (InterruptedException | ExecutionException | CancellationException e) {
+            return false;
+        }
+    }
+
+    // the board the given seed deals, solved as far as the budgets allow
+    Puzzle solve(long seed, int size, int numColors) {
+        FloodItGame game = new FloodItGame(size, numColors, new Random(seed));
+        Solution solution = new FloodSolver(game.board, numColors, this.timeBudgetMillis,
+                this.nodeBudget).solve();
+        return new Puzzle(seed, size, numColors, solution.moves.length, solution.lowerBound,
+                solution.optimal);
+    }
+
+    // EFFECT: writes the given board to the end of the index file and adds it
+    // to the table, the cache and the ready queue
+    synchronized void add(Puzzle puzzle) throws IOException {
+        Long kind = PuzzlePool.kind(puzzle.size, puzzle.numColors);
+        this.pending.merge(kind, -1, Integer::sum);
+        ByteBuffer record = ByteBuffer.allocate(RECORD_BYTES);
+        record.putLong(puzzle.seed).putShort((short) puzzle.size).put((byte) puzzle.numColors)
+                .put((byte) (puzzle.optimal ? OPTIMAL : 0)).putShort((short) puzzle.par)
+                .putShort((short) puzzle.lowerBound).flip();
+        long position = HEADER_BYTES + (long) this.records * RECORD_BYTES;
+        while (record.hasRemaining()) {
+            this.channel.write(record, position + record.position());
+        }
+        this.insert(PuzzlePool.hash(puzzle.seed, puzzle.size, puzzle.numColors), this.records++);
+        this.cache.put(puzzle, puzzle);
+        this.ready.computeIfAbsent(kind, k -> new ArrayDeque<Long>()).add(puzzle.seed);
+    }
+
+    // EFFECT: adds the given record under the given hash to the table, doubling
+    // the table when it gets half full
+    void insert(long hash, int record) {
+        if (2 * (this.records + 1) > this.slots.length) {
+            long[] hashes = this.hashes;
+            int[] slots = this.slots;
+            this.hashes = new long[slots.length * 2];
+            this.slots = new int[slots.length * 2];
+            for (int s = 0; s < slots.length; s++) {
+                if (slots[s] != 0) {
+                    this.place(hashes[s], slots[s]);
+                }
+            }
+        }
+        this.place(hash, record + 1);
+    }
+
+    // EFFECT: puts the given slot value under the given hash in the first free
+    // slot from where the hash points
+    void place(long hash, int value) {
+        int mask = this.slots.length - 1;
+        int s = (int) hash & mask;
+        while (this.slots[s] != 0) {
+            s = (s + 1) & mask;
+        }
+        this.hashes[s] = hash;
+        this.slots[s] = value;
+    }
+
+    // the board in the given record of the index file
+    Puzzle readRecord(int record) throws IOException {
+        ByteBuffer bytes = ByteBuffer.allocate(RECORD_BYTES);
+        long position = HEADER_BYTES + (long) record * RECORD_BYTES;
+        while (bytes.hasRemaining()) {
+            if (this.channel.read(bytes, position + bytes.position()) == -1) {
+                throw new IOException("Puzzle index ends inside record " + record);
+            }
+        }
+        bytes.flip();
+        long seed = bytes.getLong();
+        int size = bytes.getShort() & 0xFFFF;
+        int numColors = bytes.get() & 0xFF;
+        int flags = bytes.get();
+        int par = bytes.getShort() & 0xFFFF;
+        int lowerBound = bytes.getShort() & 0xFFFF;
+        return new Puzzle(seed, size, numColors, par, lowerBound, (flags & OPTIMAL) != 0);
+    }
+
+    // EFFECT: waits for every board being solved to be added
+    void await() throws IOException {
+        while (true) {
+            ArrayList<Future<?>> solving;
+            synchronized (this) {
+                if (this.running.isEmpty()) {
+                    return;
+                }
+                solving = new ArrayList<Future<?>>(this.running);
+                this.running.clear();
+            }
+            try {
+                for (Future<?> board : solving) {
+                    board.get();
+                }
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while solving boards", e);
+            }
+            catch (ExecutionException e) {
+                if (e.getCause() instanceof IOException) {
+                    throw (IOException) e.getCause();
+                }
+                throw new IllegalStateException("A board failed", e.getCause());
+            }
+        }
+    }
+
+    // EFFECT: stops solving boards and closes the index file
+    void close() throws IOException {
+        this.workers.shutdownNow();
+        synchronized (this) {
+            this.channel.close();
+        }
+    }
+
+    // a well mixed hash of the given seed, size and colors
+    static long hash(long seed, int size, int numColors) {
+        long h = seed * 0x9E3779B97F4A7C15L + PuzzlePool.kind(size, numColors);
+        h = (h ^ (h >>> 31)) * 0xBF58476D1CE4E5B9L;
+        return h ^ (h >>> 29);
+    }
+
+    // the key of the queue of boards of the given size and colors
+    static long kind(int size, int numColors) {
+        return (long) size << 8 | numColors;
+    }
+
+    // solves a number of boards into an index file, then deals them all,
+    // printing how long each took and how their par compares with the formula
+    // arguments: file size colors boards threads millis
+    public static void main(String[] args) throws IOException {
+        if (args.length != 6) {
+            System.err.println("usage: PuzzlePool file size colors boards threads millis");
+            System.exit(2);
+        }
+        Path file = Paths.get(args[0]);
+        int size = Integer.parseInt(args[1]);
+        int numColors = Integer.parseInt(args[2]);
+        int boards = Integer.parseInt(args[3]);
+        int threads = Integer.parseInt(args[4]);
+        long millis = Long.parseLong(args[5]);
+
+        long started = System.nanoTime();
+        PuzzlePool pool = new PuzzlePool(file, threads, 0, boards, boards, millis, 0);
+        try {
+            pool.refill(size, numColors);
+            pool.await();
+            long solving = System.nanoTime() - started;
+
+            started = System.nanoTime();
+            int optimal = 0;
+            long par = 0;
+            for (int k = 0; k < boards; k++) {
+                Puzzle puzzle = pool.next(size, numColors);
+                optimal += puzzle.optimal ? 1 : 0;
+                par += puzzle.par;
+            }
+            long dealing = System.nanoTime() - started;
+            System.out.printf("%d boards of %dx%d with %d colors in %d records, %d optimal%n",
+                    boards, size, size, numColors, pool.records, optimal);
+            System.out.printf("par %.2f against %d allowed by the formula%n",
+                    (double) par / boards, FloodItGame.allowedClicks(size * size, numColors));
+            System.out.printf("solved in %.1f ms and dealt in %.1f us a board%n",
+                    solving / 1e6 / boards, dealing / 1e3 / boards);
+        }
+        finally {
+            pool.close();
+        }
+    }
+}
+
+// a board some seed deals, with the fewest moves known to flood it
+class Puzzle {
+    long seed;          // seed of the Random the board is dealt from
+    int size;           // cells along one side of the board
+    int numColors;
+    int par;            // fewest moves known to flood the board
+    int lowerBound;     // no solution is shorter than this
+    boolean optimal;    // is par provably the fewest moves?
+
+    // puzzle constructor for the board the given seed deals, of the given size and
+    // colors, with the given best known solution length and bound
+    Puzzle(long seed, int size, int numColors, int par, int lowerBound, boolean optimal) {
+        this.seed = seed;
+        this.size = size;
+        this.numColors = numColors;
+        this.par = par;
+        this.lowerBound = lowerBound;
+        this.optimal = optimal;
+    }
+
+    /* TMPLT
+     * Fields
+     *   this.seed               long
+     *   this.size               int
+     *   this.numColors          int
+     *   this.par                int
+     *   this.lowerBound         int
+     *   this.optimal            boolean
+     * Methods:
+     *   this.game()             - FloodItGame
+     *   this.equals(Object)     - boolean
+     *   this.hashCode()         - int
+     */
+    // a new game on this board allowing the moves of its best known solution,
+    // which are always enough to win
+    FloodItGame game() {
+        FloodItGame game = new FloodItGame(this.size, this.numColors, new Random(this.seed));
+        game.numAllowedClicks = this.par;
+        return game;
+    }
+
+    // is the given object a puzzle of the same board? its par does not matter
+    public boolean equals(Object other) {
+        if (!(other instanceof Puzzle)) {
+            return false;
+        }
+        Puzzle that = (Puzzle) other;
+        return this.seed == that.seed && this.size == that.size
+                && this.numColors == that.numColors;
+    }
+
+    // a hash of the board of this puzzle
+    public int hashCode() {
+        return Long.hashCode(PuzzlePool.hash(this.seed, this.size, this.numColors));
+    }
+}
@@ -0,0 +1,27 @@
+import java.util.Random;
+
+// plays any color touching the flooded region, all equally likely
+
+class RandomBot implements FloodBot {
+    /* TMPLT
+     * Methods:
+     *   this.choose(FloodItGame, Random)    - int
+     * Methods on Parameters:
+     *   game.touches(int)                   - boolean
+     */
+    public int choose(FloodItGame game, Random rand) {
+        int colors = 0;
+        for (int c = 0; c < game.numColors; c++) {
+            if (game.touches(c)) {
+                colors++;
+            }
+        }
+        int pick = rand.nextInt(Math.max(1, colors));
+        for (int c = 0; c < game.numColors; c++) {
+            if (game.touches(c) && pick-- == 0) {
+                return c;
+            }
+        }
+        return 0;
+    }
+}
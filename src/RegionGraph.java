@@ -0,0 +1,316 @@
+import java.util.Arrays;
+
+// a flood it board compressed into its same colored regions: every region is
+// one node, linked to the regions it touches, and the flooded region grows by
+// whole nodes, so a move costs time proportional to the regions it touches
+// instead of the cells along the edge of the flood
+
+class RegionGraph {
+    FloodBoard board;       // the cells, kept in step with the flooded regions
+    int regions;            // number of regions, the one holding cell 0 is region 0
+    int[] regionOf;         // region of every cell
+    byte[] regionColor;     // palette index of every region
+    int[] regionSize;       // cells in every region
+    int[] cellStart;        // cells of region r are cellList[cellStart[r]] up to cellStart[r + 1]
+    int[] cellList;
+    int[] edgeStart;        // neighbors of region r are edges[edgeStart[r]] up to edgeStart[r + 1]
+    int[] edges;
+
+    long[] floodedRegions;  // bitset of the regions in the flood
+    long[] bordering;       // bitset of the unflooded regions touching the flood
+    int[][] border;         // bordering regions of every color
+    int[] borderSize;       // number of used entries in each border list
+    int[] borderArea;       // cells in the bordering regions of each color, what a move of it floods
+
+    // graph of the given board as it is now, flooded cells included
+    RegionGraph(FloodBoard board, int numColors) {
+        this.board = board;
+        this.label();
+        this.link();
+        this.border = new int[numColors][4];
+        this.borderSize = new int[numColors];
+        this.borderArea = new int[numColors];
+        this.findBorder();
+    }
+
+    /* TMPLT
+     * Fields
+     *   this.board              FloodBoard
+     *   this.regions            int
+     *   this.regionOf           int[]
+     *   this.regionColor        byte[]
+     *   this.regionSize         int[]
+     *   this.cellStart          int[]
+     *   this.cellList           int[]
+     *   this.edgeStart          int[]
+     *   this.edges              int[]
+     *   this.floodedRegions     long[]
+     *   this.bordering          long[]
+     *   this.border             int[][]
+     *   this.borderSize         int[]
+     *   this.borderArea         int[]
+     * Methods:
+     *   this.label()                        - void
+     *   this.find(int[], int)               - int
+     *   this.union(int[], int, int)         - void
+     *   this.sameRegion(int, int)           - boolean
+     *   this.link()                         - void
+     *   this.findBorder()                   - void
+     *   this.addBorder(int)                 - void
+     *   this.isFlooded(int)                 - boolean
+     *   this.flood(int)                     - int
+     *   this.unflood(int[], int, int)       - void
+     *   this.touchesFlood(int)              - boolean
+     *   this.borderCells(int)               - int
+     * Methods on Fields:
+     *   this.board.floodBit(int)            - void
+     */
+    // finds the regions with union find over neighboring cells of the same color,
+    // then numbers them in the order their first cell appears and lists their cells
+    // EFFECT: modifies regions, regionOf, regionColor, regionSize, cellStart and cellList
+    void label() {
+        FloodBoard board = this.board;
+        int[] parent = new int[board.cells];
+        for (int i = 0; i < board.cells; i++) {
+            parent[i] = i;
+        }
+        for (int i = 0; i < board.cells; i++) {
+            int right = board.right(i);
+            int bottom = board.bottom(i);
+            if (right != -1 && this.sameRegion(i, right)) {
+                this.union(parent, i, right);
+            }
+            if (bottom != -1 && this.sameRegion(i, bottom)) {
+                this.union(parent, i, bottom);
+            }
+        }
+
+        // every root is the smallest cell of its region, so it is labeled first
+        this.regionOf = new int[board.cells];
+        int count = 0;
+        for (int i = 0; i < board.cells; i++) {
+            int root = this.find(parent, i);
+            this.regionOf[i] = root == i ? count++ : this.regionOf[root];
+        }
+        this.regions = count;
+        this.regionColor = new byte[count];
+        this.regionSize = new int[count];
+        for (int i = 0; i < board.cells; i++) {
+            this.regionColor[this.regionOf[i]] = (byte) board.color(i);
+            this.regionSize[this.regionOf[i]]++;
+        }
+        this.cellStart = new int[count + 1];
+        for (int r = 0; r < count; r++) {
+            this.cellStart[r + 1] = this.cellStart[r] + this.regionSize[r];
+        }
+        this.cellList = new int[board.cells];
+        int[] next = Arrays.copyOf(this.cellStart, count);
+        for (int i = 0; i < board.cells; i++) {
+            this.cellList[next[this.regionOf[i]]++] = i;
+        }
+    }
+
+    // the root of the set holding the given cell, halving the path to it
+    // EFFECT: may shorten paths in the given parents
+    int find(int[] parent, int i) {
+        while (parent[i] != i) {
+            parent[i] = parent[parent[i]];
+            i = parent[i];
+        }
+        return i;
+    }
+
+    // EFFECT: joins the sets holding the given cells under the smaller root
+    void union(int[] parent, int a, int b) {
+        int rootA = this.find(parent, a);
+        int rootB = this.find(parent, b);
+        if (rootA < rootB) {
+            parent[rootB] = rootA;
+        }
+        else if (rootB < rootA) {
+            parent[rootA] = rootB;
+        }
+    }
+
+    // are the given neighboring cells in the same region? flooded cells are
+    // only ever in a region with other flooded cells
+    boolean sameRegion(int a, int b) {
+        return this.board.isFlooded(a) == this.board.isFlooded(b)
+                && this.board.color(a) == this.board.color(b);
+    }
+
+    // lists the neighbors of every region once each
+    // EFFECT: modifies edgeStart and edges
+    void link() {
+        FloodBoard board = this.board;
+        // every pair of touching cells in different regions is a candidate edge,
+        // kept in both directions and deduplicated with a stamp per region
+        int[] degree = new int[this.regions + 1];
+        int[] stamp = new int[this.regions];
+        Arrays.fill(stamp, -1);
+        int[] pending = new int[4];
+        int[][] lists = new int[this.regions][];
+        for (int r = 0; r < this.regions; r++) {
+            int count = 0;
+            for (int k = this.cellStart[r]; k < this.cellStart[r + 1]; k++) {
+                int i = this.cellList[k];
+                int[] next = {board.left(i), board.top(i), board.right(i), board.bottom(i)};
+                for (int n : next) {
+                    if (n == -1) {
+                        continue;
+                    }
+                    int other = this.regionOf[n];
+                    if (other != r && stamp[other] != r) {
+                        stamp[other] = r;
+                        if (count == pending.length) {
+                            pending = Arrays.copyOf(pending, count * 2);
+                        }
+                        pending[count++] = other;
+                    }
+                }
+            }
+            lists[r] = Arrays.copyOf(pending, count);
+            degree[r + 1] = degree[r] + count;
+        }
+        this.edgeStart = degree;
+        this.edges = new int[degree[this.regions]];
+        for (int r = 0; r < this.regions; r++) {
+            System.arraycopy(lists[r], 0, this.edges, degree[r], lists[r].length);
+        }
+    }
+
+    // finds which regions the board has flooded and which unflooded ones touch them
+    // EFFECT: modifies floodedRegions, bordering, the border lists and their areas
+    void findBorder() {
+        int words = (this.regions + 63) >>> 6;
+        this.floodedRegions = new long[words];
+        this.bordering = new long[words];
+        Arrays.fill(this.borderSize, 0);
+        Arrays.fill(this.borderArea, 0);
+        for (int r = 0; r < this.regions; r++) {
+            if (this.board.isFlooded(this.cellList[this.cellStart[r]])) {
+                this.floodedRegions[r >>> 6] |= 1L << r;
+            }
+        }
+        for (int r = 0; r < this.regions; r++) {
+            if (this.isFlooded(r)) {
+                for (int k = this.edgeStart[r]; k < this.edgeStart[r + 1]; k++) {
+                    this.addBorder(this.edges[k]);
+                }
+            }
+        }
+    }
+
+    // EFFECT: adds the given region to the border of its color, unless it is
+    // flooded or already there
+    void addBorder(int r) {
+        long bit = 1L << r;
+        if (this.isFlooded(r) || (this.bordering[r >>> 6] & bit) != 0) {
+            return;
+        }
+        this.bordering[r >>> 6] |= bit;
+        int color = this.regionColor[r];
+        if (this.borderSize[color] == this.border[color].length) {
+            this.border[color] = Arrays.copyOf(this.border[color], this.borderSize[color] * 2);
+        }
+        this.border[color][this.borderSize[color]++] = r;
+        this.borderArea[color] += this.regionSize[r];
+    }
+
+    // is the given region part of the flood?
+    boolean isFlooded(int r) {
+        return (this.floodedRegions[r >>> 6] & (1L << r)) != 0;
+    }
+
+    // merges every region of the given color touching the flood into it and
+    // floods their cells on the board, leaving its frontier alone: the border
+    // lists are all this floods from
+    // EFFECT: modifies the flooded regions, the border and the board
+    // returns the number of newly flooded cells
+    int flood(int color) {
+        FloodBoard board = this.board;
+        board.floodColor = color;
+        int[] absorbed = this.border[color];
+        int count = this.borderSize[color];
+        // regions of one color never touch each other, so nothing is added to
+        // this border list while it is being emptied
+        this.borderSize[color] = 0;
+        this.borderArea[color] = 0;
+        int cells = 0;
+        for (int k = 0; k < count; k++) {
+            int r = absorbed[k];
+            this.floodedRegions[r >>> 6] |= 1L << r;
+            this.bordering[r >>> 6] &= ~(1L << r);
+            for (int c = this.cellStart[r]; c < this.cellStart[r + 1]; c++) {
+                board.floodBit(this.cellList[c]);
+            }
+            cells += this.regionSize[r];
+        }
+        for (int k = 0; k < count; k++) {
+            int r = absorbed[k];
+            for (int e = this.edgeStart[r]; e < this.edgeStart[r + 1]; e++) {
+                this.addBorder(this.edges[e]);
+            }
+        }
+        return cells;
+    }
+
+    // takes the regions holding the given cells, everything the last move of the
+    // given color flooded in the order it flooded them, back out of the flood:
+    // they are the whole border of that color again, and the regions next to them
+    // that no longer touch the flood leave the border, so only the neighbors of
+    // the move and the border lists they are on are looked at
+    // EFFECT: modifies the flooded regions and the border, but not the board
+    void unflood(int[] cells, int count, int color) {
+        for (int k = 0; k < count; k++) {
+            int r = this.regionOf[cells[k]];
+            this.floodedRegions[r >>> 6] &= ~(1L << r);
+        }
+        boolean[] shrunk = new boolean[this.border.length];
+        for (int k = 0; k < count; k++) {
+            int r = this.regionOf[cells[k]];
+            if (k > 0 && r == this.regionOf[cells[k - 1]]) {
+                continue;
+            }
+            for (int e = this.edgeStart[r]; e < this.edgeStart[r + 1]; e++) {
+                int n = this.edges[e];
+                if ((this.bordering[n >>> 6] & (1L << n)) != 0 && !this.touchesFlood(n)) {
+                    this.bordering[n >>> 6] &= ~(1L << n);
+                    shrunk[this.regionColor[n]] = true;
+                    this.borderArea[this.regionColor[n]] -= this.regionSize[n];
+                }
+            }
+        }
+        for (int c = 0; c < this.border.length; c++) {
+            if (shrunk[c]) {
+                int kept = 0;
+                for (int k = 0; k < this.borderSize[c]; k++) {
+                    int r = this.border[c][k];
+                    if ((this.bordering[r >>> 6] & (1L << r)) != 0) {
+                        this.border[c][kept++] = r;
+                    }
+                }
+                this.borderSize[c] = kept;
+            }
+        }
+        for (int k = 0; k < count; k++) {
+            this.addBorder(this.regionOf[cells[k]]);
+        }
+    }
+
+    // does the given region touch a flooded one?
+    boolean touchesFlood(int r) {
+        for (int e = this.edgeStart[r]; e < this.edgeStart[r + 1]; e++) {
+            if (this.isFlooded(this.edges[e])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // the number of cells a move of the given color would flood, kept up to
+    // date by every move so asking costs nothing
+    int borderCells(int color) {
+        return this.borderArea[color];
+    }
+}
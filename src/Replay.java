@@ -0,0 +1,363 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Random;
+
+// everything a player did in one game, enough to play it again without
+// drawing anything: the seed the board was dealt from, its size, palette and
+// the moves it allows, then one step per click or key, each a 3 bit code and the tick it came on;
+// any position of the game is reconstructed by fast forwarding from the seed
+//
+// a replay file is a header followed by the steps until the end of the file:
+//   int magic, int version, long seed, int size, int numColors, int allowed,
+//   int rgb of every color
+//   the tick since the step before shifted left 3 bits, or'ed with the code,
+//   in 7 bit groups low group first with the top bit of a byte set when another follows
+// codes up to 5 are the color played, UNDO and REDO are the u and y keys;
+// version 1 files have no allowed, their games allow the usual moves
+
+class Replay {
+    static final int MAGIC = 0x464C5250;     // "FLRP"
+    static final int VERSION = 2;
+    static final int UNDO = 6;
+    static final int REDO = 7;
+    static final int MAX_COLORS = 6;         // colors that fit in a code next to UNDO and REDO
+
+    long seed;          // seed of the Random the board was dealt from
+    int size;           // cells along one side of the board
+    int[] palette;      // rgb of every color the board indexes
+    int allowed;        // moves the game allows, which a solved board sets to its par
+    byte[] steps;       // the encoded steps
+    int length;         // bytes of steps in use
+    int count;          // number of steps
+    long lastTick;      // tick of the last step
+    WritableByteChannel out;    // where every step is written as it is recorded, or null
+
+    // replay of a game dealt from the given seed allowing the usual moves, that
+    // has no steps yet
+    Replay(long seed, int size, int[] palette) {
+        this(seed, size, palette, FloodItGame.allowedClicks(FloodBoard.cellsOf(size), palette.length));
+    }
+
+    // replay of a game dealt from the given seed allowing the given moves, that
+    // has no steps yet
+    Replay(long seed, int size, int[] palette, int allowed) {
+        if (palette.length > MAX_COLORS) {
+            throw new IllegalArgumentException("Cannot record a game of " + palette.length
+                    + " colors, replays hold at most " + MAX_COLORS);
+        }
+        FloodBoard.cellsOf(size);
+        this.seed = seed;
+        this.size = size;
+        this.palette = palette;
+        this.allowed = allowed;
+        this.steps = new byte[64];
+        this.length = 0;
+        this.count = 0;
+        this.lastTick = 0;
+        this.out = null;
+    }
+
+    /* TMPLT
+     * Fields
+     *   Replay.MAGIC            int
+     *   Replay.VERSION          int
+     *   Replay.UNDO             6
+     *   Replay.REDO             7
+     *   Replay.MAX_COLORS       6
+     *   this.seed               long
+     *   this.size               int
+     *   this.palette            int[]
+     *   this.allowed            int
+     *   this.steps              byte[]
+     *   this.length             int
+     *   this.count              int
+     *   this.lastTick           long
+     *   this.out                WritableByteChannel
+     * Methods:
+     *   this.record(long, int)                  - void
+     *   this.stream(WritableByteChannel)        - void
+     *   this.header()                           - ByteBuffer
+     *   this.save(Path)                         - void
+     *   this.close()                            - void
+     *   this.codes()                            - int[]
+     *   this.ticks()                            - long[]
+     *   this.values()                           - long[]
+     *   this.fastForward(int)                   - MoveHistory
+     *   this.summary()                          - String
+     *   Replay.writeFully(WritableByteChannel, ByteBuffer) - void
+     *   Replay.load(Path)                       - Replay
+     *   Replay.read(ReadableByteChannel, String) - Replay
+     *   Replay.main(String[])                   - void
+     */
+    // adds a step with the given code on the given tick, writing it out if this
+    // replay is being streamed
+    // EFFECT: modifies the steps of this replay
+    void record(long tick, int code) throws IOException {
+        if (code < 0 || code > REDO || (code >= this.palette.length && code < UNDO)) {
+            throw new IllegalArgumentException("No step has the code " + code);
+        }
+        if (tick < this.lastTick) {
+            throw new IllegalArgumentException("Tick " + tick + " is before the last step, on tick "
+                    + this.lastTick);
+        }
+        long value = ((tick - this.lastTick) << 3) | code;
+        if (this.length + 10 > this.steps.length) {
+            this.steps = Arrays.copyOf(this.steps, this.steps.length * 2);
+        }
+        int start = this.length;
+        while ((value & ~0x7FL) != 0) {
+            this.steps[this.length++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        this.steps[this.length++] = (byte) value;
+        this.count++;
+        this.lastTick = tick;
+        if (this.out != null) {
+            Replay.writeFully(this.out, ByteBuffer.wrap(this.steps, start, this.length - start));
+        }
+    }
+
+    // writes the header and the steps so far to the given channel, and every
+    // later step as it is recorded, so a game is kept even if it never ends well
+    // EFFECT: modifies the channel this replay writes to
+    void stream(WritableByteChannel out) throws IOException {
+        Replay.writeFully(out, this.header());
+        Replay.writeFully(out, ByteBuffer.wrap(this.steps, 0, this.length));
+        this.out = out;
+    }
+
+    // the header of a replay file for this replay
+    ByteBuffer header() {
+        ByteBuffer header = ByteBuffer.allocate(28 + 4 * this.palette.length);
+        header.putInt(MAGIC).putInt(VERSION).putLong(this.seed).putInt(this.size)
+                .putInt(this.palette.length).putInt(this.allowed);
+        for (int rgb : this.palette) {
+            header.putInt(rgb);
+        }
+        header.flip();
+        return header;
+    }
+
+    // EFFECT: replaces the given file with this replay
+    void save(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        try {
+            Replay.writeFully(channel, this.header());
+            Replay.writeFully(channel, ByteBuffer.wrap(this.steps, 0, this.length));
+        }
+        finally {
+            channel.close();
+        }
+    }
+
+    // EFFECT: closes the channel this replay is streamed to, if there is one
+    void close() throws IOException {
+        if (this.out != null) {
+            this.out.close();
+            this.out = null;
+        }
+    }
+
+    // the code of every step, in order
+    int[] codes() {
+        long[] values = this.values();
+        int[] codes = new int[values.length];
+        for (int k = 0; k < values.length; k++) {
+            codes[k] = (int) (values[k] & 7);
+        }
+        return codes;
+    }
+
+    // the tick of every step, in order
+    long[] ticks() {
+        long[] values = this.values();
+        long[] ticks = new long[values.length];
+        long tick = 0;
+        for (int k = 0; k < values.length; k++) {
+            tick += values[k] >>> 3;
+            ticks[k] = tick;
+        }
+        return ticks;
+    }
+
+    // every step as it was encoded, tick since the step before and code together
+    long[] values() {
+        long[] values = new long[this.count];
+        int at = 0;
+        for (int k = 0; k < this.count; k++) {
+            long value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = this.steps[at++];
+                value |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            values[k] = value;
+        }
+        return values;
+    }
+
+    // the game after the given number of steps, played without drawing anything
+    // from the board the seed deals, allowing the moves it did, with its history
+    // so the undo and redo steps take back and play again exactly what they did
+    MoveHistory fastForward(int steps) {
+        if (steps < 0 || steps > this.count) {
+            throw new IllegalArgumentException("No position after " + steps + " steps in a replay of "
+                    + this.count);
+        }
+        FloodItGame game = new FloodItGame(this.size, this.palette.length, new Random(this.seed));
+        game.numAllowedClicks = this.allowed;
+        MoveHistory history = new MoveHistory(game);
+        IntQueue ignored = new IntQueue();
+        int[] codes = this.codes();
+        for (int k = 0; k < steps; k++) {
+            if (codes[k] == UNDO) {
+                history.undo(ignored);
+                ignored.clear();
+            }
+            else if (codes[k] == REDO) {
+                history.redo();
+            }
+            else {
+                history.play(codes[k]);
+            }
+        }
+        return history;
+    }
+
+    // what this replay ends with, so runs of the same replays on two versions
+    // of the game can be compared line by line
+    String summary() {
+        MoveHistory history = this.fastForward(this.count);
+        FloodItGame game = history.game;
+        long hash = 1;
+        for (int w = 0; w < (game.board.cells + 63) >>> 6; w++) {
+            hash = 31 * hash + game.board.floodedWord(w);
+        }
+        return String.format("seed %d size %d colors %d steps %d ticks %d moves %d/%d "
+                + "flooded %d %s %016x", this.seed, this.size, this.palette.length, this.count,
+                this.lastTick, game.numClicks, game.numAllowedClicks, game.board.floodedCount,
+                game.won() ? "won" : game.lost() ? "lost" : "unfinished", hash);
+    }
+
+    // EFFECT: writes everything left in the given buffer to the given channel
+    static void writeFully(WritableByteChannel out, ByteBuffer bytes) throws IOException {
+        while (bytes.hasRemaining()) {
+            out.write(bytes);
+        }
+    }
+
+    // the replay saved in the given file
+    static Replay load(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            return Replay.read(channel, file.toString());
+        }
+        finally {
+            channel.close();
+        }
+    }
+
+    // the replay read from the given channel up to its end, named in errors as given
+    static Replay read(ReadableByteChannel in, String name) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(24);
+        while (header.hasRemaining() && in.read(header) != -1) {
+            // keep reading until the header is complete
+        }
+        header.flip();
+        if (header.remaining() < 24 || header.getInt() != MAGIC) {
+            throw new IOException("Not a replay: " + name);
+        }
+        int version = header.getInt();
+        if (version != VERSION && version != 1) {
+            throw new IOException("Unsupported replay version " + version);
+        }
+        long seed = header.getLong();
+        int size = header.getInt();
+        int numColors = header.getInt();
+        if (numColors < 1 || numColors > MAX_COLORS) {
+            throw new IOException("Replay of " + numColors + " colors: " + name);
+        }
+        int allowed = -1;
+        if (version != 1) {
+            ByteBuffer moves = ByteBuffer.allocate(4);
+            while (moves.hasRemaining() && in.read(moves) != -1) {
+                // keep reading until the allowed moves are complete
+            }
+            if (moves.hasRemaining()) {
+                throw new IOException("Replay ends inside its header: " + name);
+            }
+            allowed = moves.getInt(0);
+        }
+        ByteBuffer colors = ByteBuffer.allocate(4 * numColors);
+        while (colors.hasRemaining() && in.read(colors) != -1) {
+            // keep reading until the palette is complete
+        }
+        if (colors.hasRemaining()) {
+            throw new IOException("Replay ends inside its palette: " + name);
+        }
+        colors.flip();
+        int[] palette = new int[numColors];
+        for (int c = 0; c < numColors; c++) {
+            palette[c] = colors.getInt();
+        }
+
+        Replay replay;
+        try {
+            replay = allowed == -1 ? new Replay(seed, size, palette)
+                    : new Replay(seed, size, palette, allowed);
+        }
+        catch (IllegalArgumentException e) {
+            throw new IOException("Replay of a board of size " + size + ": " + name, e);
+        }
+        ByteBuffer chunk = ByteBuffer.allocate(4096);
+        long value = 0;
+        int shift = 0;
+        while (in.read(chunk) != -1) {
+            chunk.flip();
+            while (chunk.hasRemaining()) {
+                byte b = chunk.get();
+                value |= (long) (b & 0x7F) << shift;
+                shift += 7;
+                if (b < 0 && shift > 63) {
+                    throw new IOException("Replay has a step longer than a long: " + name);
+                }
+                if (b >= 0) {
+                    int code = (int) (value & 7);
+                    if (code >= numColors && code < UNDO) {
+                        throw new IOException("Replay has a step of color " + code + ": " + name);
+                    }
+                    replay.record(replay.lastTick + (value >>> 3), code);
+                    value = 0;
+                    shift = 0;
+                }
+            }
+            chunk.clear();
+        }
+        if (shift != 0) {
+            throw new IOException("Replay ends inside a step: " + name);
+        }
+        return replay;
+    }
+
+    // prints the summary of every given replay, one line each
+    // arguments: the replay files
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("usage: Replay file...");
+            System.exit(2);
+        }
+        for (String name : args) {
+            System.out.println(name + " " + Replay.load(Paths.get(name)).summary());
+        }
+    }
+}
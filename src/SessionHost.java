@@ -0,0 +1,384 @@
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// many games at once without any window, each a session with its own board,
+// moves and history found by its id, so one JVM can serve every player; a
+// session is only ever locked by the command working on it, so players never
+// wait on each other
+//
+// clients talk to the host over a local socket one line at a time, and every
+// command gets one line back, OK and the answer or ERR and why:
+//   NEW size colors [seed]   OK id size colors allowed
+//   PLAY id color            OK state
+//   UNDO id, REDO id         OK state
+//   STATE id                 OK state
+//   BOARD id                 OK the color of every cell row by row, a base 36 digit each
+//   END id                   OK
+//   QUIT                     BYE, and the host hangs up
+// where a state is: moves allowed floodedCount cells floodColor won|lost|playing
+
+class SessionHost {
+    static final int MAX_COLORS = 36;       // colors a board can be sent with, a digit each
+
+    ConcurrentHashMap<Long, Session> sessions;
+    AtomicLong nextId;      // id of the next session
+    int maxSessions;        // most sessions open at once
+    PuzzlePool puzzles;     // solved boards to deal with their par, or null for random ones
+    ExecutorService handlers;   // runs every connection
+    ServerSocket server;    // where connections come in, null until started
+    Thread acceptor;        // hands every connection to the handlers
+
+    // host of at most the given number of sessions, running connections on the
+    // given handlers
+    SessionHost(int maxSessions, ExecutorService handlers) {
+        if (maxSessions < 1) {
+            throw new IllegalArgumentException("Cannot host " + maxSessions + " sessions");
+        }
+        this.sessions = new ConcurrentHashMap<Long, Session>();
+        this.nextId = new AtomicLong(1);
+        this.maxSessions = maxSessions;
+        this.puzzles = null;
+        this.handlers = handlers;
+        this.server = null;
+        this.acceptor = null;
+    }
+
+    /* TMPLT
+     * Fields
+     *   SessionHost.MAX_COLORS  36
+     *   this.sessions           ConcurrentHashMap<Long, Session>
+     *   this.nextId             AtomicLong
+     *   this.maxSessions        int
+     *   this.puzzles            PuzzlePool
+     *   this.handlers           ExecutorService
+     *   this.server             ServerSocket
+     *   this.acceptor           Thread
+     * Methods:
+     *   SessionHost.handlers(int)       - ExecutorService
+     *   this.handle(String)             - String
+     *   this.open(String[])             - String
+     *   this.session(String[])          - Session
+     *   this.expire(long, long)         - int
+     *   this.start(int)                 - int
+     *   this.accept()                   - void
+     *   this.converse(Socket)           - void
+     *   this.close()                    - void
+     *   SessionHost.main(String[])      - void
+     * Methods on Fields:
+     *   this.sessions.get(Long)         - Session
+     *   this.puzzles.next(int, int)     - Puzzle
+     */
+    // handlers that run every connection on a virtual thread of its own when the
+    // JVM has them, or else on a pool of the given number of threads, which is
+    // then the most connections served at once
+    static ExecutorService handlers(int threads) {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor")
+                    .invoke(null);
+        }
+        catch (ReflectiveOperationException e) {
+            return Executors.newFixedThreadPool(threads);
+        }
+    }
+
+    // the reply to the given command line
+    // EFFECT: may open, change or end a session
+    String handle(String line) {
+        String[] words = line.trim().split("\\s+");
+        try {
+            switch (words[0].toUpperCase()) {
+                case "NEW":
+                    return this.open(words);
+                case "PLAY":
+                    if (words.length != 3) {
+                        throw new IllegalArgumentException("Usage: PLAY id color");
+                    }
+                    return "OK " + this.session(words).play(Integer.parseInt(words[2]));
+                case "UNDO":
+                    return "OK " + this.session(words).undo();
+                case "REDO":
+                    return "OK " + this.session(words).redo();
+                case "STATE":
+                    return "OK " + this.session(words).state();
+                case "BOARD":
+                    return "OK " + this.session(words).board();
+                case "END":
+                    this.sessions.remove(this.session(words).id);
+                    return "OK";
+                case "QUIT":
+                    return "BYE";
+                default:
+                    return "ERR Unknown command: " + words[0];
+            }
+        }
+        catch (IllegalArgumentException | IllegalStateException e) {
+            return "ERR " + e.getMessage();
+        }
+        catch (IOException e) {
+            return "ERR Cannot deal a solved board: " + e.getMessage();
+        }
+    }
+
+    // the reply to a NEW command with the given words, a solved board from the
+    // puzzles when there is one, or else the board of the given seed or a random one
+    // EFFECT: opens a session
+    String open(String[] words) throws IOException {
+        if (words.length != 3 && words.length != 4) {
+            throw new IllegalArgumentException("Usage: NEW size colors [seed]");
+        }
+        int size = Integer.parseInt(words[1]);
+        int numColors = Integer.parseInt(words[2]);
+        if (numColors < 1 || numColors > MAX_COLORS) {
+            throw new IllegalArgumentException("Cannot play " + numColors + " colors, only 1 to "
+                    + MAX_COLORS);
+        }
+        if ((long) size * size > FloodItGame.GRAPH_CELLS) {
+            throw new IllegalArgumentException("Cannot host a board of size " + size);
+        }
+        if (this.sessions.size() >= this.maxSessions) {
+            throw new IllegalStateException("Host is full, " + this.maxSessions + " sessions");
+        }
+
+        Puzzle puzzle = null;
+        if (words.length == 3 && this.puzzles != null) {
+            puzzle = this.puzzles.next(size, numColors);
+        }
+        long seed = words.length == 4 ? Long.parseLong(words[3])
+                : puzzle != null ? puzzle.seed : new Random().nextLong();
+        FloodItGame game = new FloodItGame(size, numColors, new Random(seed));
+        if (puzzle != null) {
+            game.numAllowedClicks = puzzle.par;
+        }
+        Session session = new Session(this.nextId.getAndIncrement(), seed, game);
+        // the check above only spares dealing on a full host; opens racing past it
+        // are settled here, where checking and adding are one step
+        synchronized (this.sessions) {
+            if (this.sessions.size() >= this.maxSessions) {
+                throw new IllegalStateException("Host is full, " + this.maxSessions + " sessions");
+            }
+            this.sessions.put(session.id, session);
+        }
+        return "OK " + session.id + " " + size + " " + numColors + " " + game.numAllowedClicks;
+    }
+
+    // the session whose id is the second of the given words
+    Session session(String[] words) {
+        if (words.length < 2) {
+            throw new IllegalArgumentException("Usage: " + words[0].toUpperCase() + " id");
+        }
+        Session session = this.sessions.get(Long.parseLong(words[1]));
+        if (session == null) {
+            throw new IllegalArgumentException("No session " + words[1]);
+        }
+        return session;
+    }
+
+    // EFFECT: ends every session not used for the given time before the given one
+    // returns the number of sessions ended
+    int expire(long nowMillis, long idleMillis) {
+        int ended = 0;
+        for (Session session : this.sessions.values()) {
+            if (nowMillis - session.lastUsed > idleMillis
+                    && this.sessions.remove(session.id, session)) {
+                ended++;
+            }
+        }
+        return ended;
+    }
+
+    // starts taking connections on the given port of the loopback address, any
+    // free port for 0
+    // EFFECT: opens the server socket and starts the acceptor
+    // returns the port connections are taken on
+    int start(int port) throws IOException {
+        this.server = new ServerSocket(port, 128, InetAddress.getLoopbackAddress());
+        this.acceptor = new Thread(this::accept, "session-acceptor");
+        this.acceptor.setDaemon(true);
+        this.acceptor.start();
+        return this.server.getLocalPort();
+    }
+
+    // EFFECT: hands every connection to the handlers until the server socket closes
+    void accept() {
+        while (!this.server.isClosed()) {
+            try {
+                Socket socket = this.server.accept();
+                this.handlers.submit(() -> this.converse(socket));
+            }
+            catch (IOException e) {
+                // closed while waiting, or a connection that failed to come in
+            }
+        }
+    }
+
+    // EFFECT: answers every command on the given connection until the client
+    // quits or hangs up, then closes it
+    void converse(Socket socket) {
+        try (Socket connection = socket) {
+            BufferedReader in = new BufferedReader(new InputStreamReader(
+                    connection.getInputStream(), StandardCharsets.US_ASCII));
+            Writer out = new BufferedWriter(new OutputStreamWriter(
+                    connection.getOutputStream(), StandardCharsets.US_ASCII));
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                String reply = this.handle(line);
+                out.write(reply);
+                out.write('\n');
+                out.flush();
+                if (reply.equals("BYE")) {
+                    return;
+                }
+            }
+        }
+        catch (SocketException e) {
+            // the client went away
+        }
+        catch (IOException e) {
+            System.err.println("Connection failed: " + e.getMessage());
+        }
+    }
+
+    // EFFECT: stops taking connections and stops the handlers
+    void close() throws IOException {
+        if (this.server != null) {
+            this.server.close();
+        }
+        this.handlers.shutdownNow();
+    }
+
+    // hosts sessions on a local port until killed, ending sessions left idle
+    // arguments: port threads maxSessions idleMinutes
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length != 4) {
+            System.err.println("usage: SessionHost port threads maxSessions idleMinutes");
+            System.exit(2);
+        }
+        SessionHost host = new SessionHost(Integer.parseInt(args[2]),
+                SessionHost.handlers(Integer.parseInt(args[1])));
+        long idleMillis = TimeUnit.MINUTES.toMillis(Long.parseLong(args[3]));
+        int port = host.start(Integer.parseInt(args[0]));
+        System.out.println("hosting sessions on port " + port);
+        while (true) {
+            Thread.sleep(Math.max(1000, idleMillis / 4));
+            int ended = host.expire(System.currentTimeMillis(), idleMillis);
+            if (ended > 0) {
+                System.out.println("ended " + ended + " idle sessions, " + host.sessions.size()
+                        + " open");
+            }
+        }
+    }
+}
+
+// one player's game on a SessionHost, changed by one command at a time
+class Session {
+    long id;
+    long seed;              // seed of the Random the board was dealt from
+    FloodItGame game;
+    MoveHistory history;    // the moves of the game, to take back and play again
+    IntQueue undone;        // cells the last undo took back, kept to reuse
+    volatile long lastUsed; // System.currentTimeMillis() of the last command
+
+    // session constructor for the given game, dealt from the given seed, under the
+    // given id
+    Session(long id, long seed, FloodItGame game) {
+        this.id = id;
+        this.seed = seed;
+        this.game = game;
+        this.history = new MoveHistory(game);
+        this.undone = new IntQueue();
+        this.lastUsed = System.currentTimeMillis();
+    }
+
+    /* TMPLT
+     * Fields
+     *   this.id                 long
+     *   this.seed               long
+     *   this.game               FloodItGame
+     *   this.history            MoveHistory
+     *   this.undone             IntQueue
+     *   this.lastUsed           long
+     * Methods:
+     *   this.play(int)          - String
+     *   this.undo()             - String
+     *   this.redo()             - String
+     *   this.state()            - String
+     *   this.board()            - String
+     * Methods on Fields:
+     *   this.history.play(int)  - int
+     *   this.history.undo(IntQueue) - boolean
+     *   this.history.redo()     - boolean
+     */
+    // plays the given color
+    // EFFECT: modifies the game and its history
+    // returns the state after the move
+    synchronized String play(int color) {
+        this.lastUsed = System.currentTimeMillis();
+        if (this.game.over()) {
+            throw new IllegalStateException("Game " + this.id + " is over");
+        }
+        this.history.play(color);
+        return this.state();
+    }
+
+    // takes back the last move
+    // EFFECT: modifies the game and its history
+    // returns the state after taking it back
+    synchronized String undo() {
+        this.lastUsed = System.currentTimeMillis();
+        this.undone.clear();
+        if (!this.history.undo(this.undone)) {
+            throw new IllegalStateException("Nothing to undo in game " + this.id);
+        }
+        return this.state();
+    }
+
+    // plays the last move taken back again
+    // EFFECT: modifies the game and its history
+    // returns the state after playing it
+    synchronized String redo() {
+        this.lastUsed = System.currentTimeMillis();
+        if (!this.history.redo()) {
+            throw new IllegalStateException("Nothing to redo in game " + this.id);
+        }
+        return this.state();
+    }
+
+    // the moves used and allowed, the flooded cells out of all of them, the
+    // flood's color and whether the game is won, lost or still being played
+    synchronized String state() {
+        this.lastUsed = System.currentTimeMillis();
+        FloodItGame game = this.game;
+        return game.numClicks + " " + game.numAllowedClicks + " " + game.board.floodedCount + " "
+                + game.board.cells + " " + game.board.floodColor + " "
+                + (game.won() ? "won" : game.lost() ? "lost" : "playing");
+    }
+
+    // the color every cell shows, row by row, a base 36 digit each
+    synchronized String board() {
+        this.lastUsed = System.currentTimeMillis();
+        FloodBoard board = this.game.board;
+        char[] digits = new char[board.cells];
+        for (int i = 0; i < board.cells; i++) {
+            digits[i] = Character.forDigit(board.color(i), SessionHost.MAX_COLORS);
+        }
+        return new String(digits);
+    }
+}
@@ -0,0 +1,313 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+// plays a bot through a range of seeded games on every core, streaming one
+// small record per game to a file and keeping a histogram of the moves each
+// game needed, so the allowed number of moves can be set from real games
+//
+// the file is a header followed by one record per game in the order they finished:
+//   int magic, int version, int size, int numColors, int allowed, long firstSeed, long games
+//   long seed, short moves needed with the top bit set if they were within the allowed moves
+
+class Tournament {
+    static final int MAGIC = 0x464C5452;     // "FLTR"
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 36;
+    static final int RECORD_BYTES = 10;
+    static final int BATCH = 256;            // games a worker plays before writing them
+    static final int WON = 0x8000;           // bit of a record's moves set for a win
+
+    FloodBot bot;
+    int size;           // cells along one side of every board
+    int numColors;
+    int allowed;        // moves allowed on every board
+    long firstSeed;     // games are played with the seeds firstSeed to firstSeed + games - 1
+    long games;
+    int threads;
+
+    long[] histogram;   // number of games that needed each number of moves
+    long wins;          // games flooded within the allowed moves
+
+    // tournament of the given bot over the given number of seeded games of
+    // the given size, played on the given number of threads
+    Tournament(FloodBot bot, int size, int numColors, long firstSeed, long games, int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Cannot play with " + threads + " threads");
+        }
+        this.bot = bot;
+        this.size = size;
+        this.numColors = numColors;
+        this.allowed = FloodItGame.allowedClicks(size * size, numColors);
+        this.firstSeed = firstSeed;
+        this.games = games;
+        this.threads = threads;
+        this.histogram = new long[size * size + 1];
+        this.wins = 0;
+    }
+
+    /* TMPLT
+     * Fields
+     *   this.bot            FloodBot
+     *   this.size           int
+     *   this.numColors      int
+     *   this.allowed        int
+     *   this.firstSeed      long
+     *   this.games          long
+     *   this.threads        int
+     *   this.histogram      long[]
+     *   this.wins           long
+     * Methods:
+     *   this.playOne(long)                              - int
+     *   this.run(Path)                                  - void
+     *   this.playBatches(FileChannel, AtomicLong)       - long[]
+     *   this.record(int, long[])                        - void
+     *   this.percentile(double)                         - int
+     *   this.mean()                                     - double
+     *   this.deviation()                                - double
+     *   this.report()                                   - String
+     *   Tournament.read(Path)                           - Tournament
+     *   Tournament.bot(String)                          - FloodBot
+     *   Tournament.main(String[])                       - void
+     * Methods on Fields:
+     *   this.bot.choose(FloodItGame, Random)            - int
+     */
+    // the number of moves the bot needs to flood the board of the given seed,
+    // which is the same board reset(Random) draws from that seed
+    int playOne(long seed) {
+        Random rand = new Random(seed);
+        FloodItGame game = new FloodItGame(this.size, this.numColors, rand);
+        int cells = game.board.cells;
+        while (!game.board.allFlooded() && game.numClicks < cells) {
+            game.play(this.bot.choose(game, rand));
+        }
+        return game.numClicks;
+    }
+
+    // plays every game, writing their records to the given file
+    // EFFECT: replaces the given file and adds every game to the histogram and wins
+    void run(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        ExecutorService pool = Executors.newFixedThreadPool(this.threads);
+        try {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            header.putInt(MAGIC).putInt(VERSION).putInt(this.size).putInt(this.numColors)
+                    .putInt(this.allowed).putLong(this.firstSeed).putLong(this.games).flip();
+            while (header.hasRemaining()) {
+                channel.write(header);
+            }
+
+            AtomicLong next = new AtomicLong(0);
+            ArrayList<Future<long[]>> workers = new ArrayList<Future<long[]>>();
+            for (int k = 0; k < this.threads; k++) {
+                workers.add(pool.submit(() -> this.playBatches(channel, next)));
+            }
+            for (Future<long[]> worker : workers) {
+                long[] counts = worker.get();
+                for (int moves = 0; moves < counts.length; moves++) {
+                    this.record(moves, counts);
+                }
+            }
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while playing games", e);
+        }
+        catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IllegalStateException("A game failed", e.getCause());
+        }
+        finally {
+            pool.shutdownNow();
+            channel.close();
+        }
+    }
+
+    // keeps claiming batches of games until none are left, writing each batch
+    // to the given channel as soon as it is played
+    // returns how many of its games needed each number of moves
+    long[] playBatches(FileChannel channel, AtomicLong next) throws IOException {
+        long[] counts = new long[this.histogram.length];
+        ByteBuffer records = ByteBuffer.allocate(BATCH * RECORD_BYTES);
+        while (true) {
+            long start = next.getAndAdd(BATCH);
+            if (start >= this.games) {
+                return counts;
+            }
+            long end = Math.min(this.games, start + BATCH);
+            records.clear();
+            for (long k = start; k < end; k++) {
+                long seed = this.firstSeed + k;
+                int moves = this.playOne(seed);
+                counts[moves]++;
+                int won = moves <= this.allowed ? WON : 0;
+                records.putLong(seed).putShort((short) (Math.min(moves, WON - 1) | won));
+            }
+            records.flip();
+            synchronized (channel) {
+                while (records.hasRemaining()) {
+                    channel.write(records);
+                }
+            }
+        }
+    }
+
+    // EFFECT: adds the games that needed the given number of moves to the histogram and wins
+    synchronized void record(int moves, long[] counts) {
+        this.histogram[moves] += counts[moves];
+        if (moves <= this.allowed) {
+            this.wins += counts[moves];
+        }
+    }
+
+    // the fewest moves that flood at least the given fraction of the games played
+    int percentile(double fraction) {
+        long total = 0;
+        for (long count : this.histogram) {
+            total += count;
+        }
+        long needed = (long) Math.ceil(fraction * total);
+        long seen = 0;
+        for (int moves = 0; moves < this.histogram.length; moves++) {
+            seen += this.histogram[moves];
+            if (seen >= needed && seen > 0) {
+                return moves;
+            }
+        }
+        return 0;
+    }
+
+    // the average number of moves the games needed
+    double mean() {
+        long total = 0;
+        double sum = 0;
+        for (int moves = 0; moves < this.histogram.length; moves++) {
+            total += this.histogram[moves];
+            sum += (double) moves * this.histogram[moves];
+        }
+        return total == 0 ? 0 : sum / total;
+    }
+
+    // the standard deviation of the moves the games needed
+    double deviation() {
+        double mean = this.mean();
+        long total = 0;
+        double sum = 0;
+        for (int moves = 0; moves < this.histogram.length; moves++) {
+            total += this.histogram[moves];
+            sum += (moves - mean) * (moves - mean) * this.histogram[moves];
+        }
+        return total == 0 ? 0 : Math.sqrt(sum / total);
+    }
+
+    // a summary of the moves the games needed and the allowed moves that would
+    // let a given share of them be won
+    String report() {
+        return String.format("%d games of %dx%d with %d colors, %d moves allowed%n"
+                + "won %.1f%%, moves needed mean %.2f sd %.2f min %d max %d%n"
+                + "percentiles  5%% %d  25%% %d  50%% %d  75%% %d  95%% %d  99%% %d%n",
+                this.games, this.size, this.size, this.numColors, this.allowed,
+                this.games == 0 ? 0.0 : 100.0 * this.wins / this.games,
+                this.mean(), this.deviation(), this.percentile(0), this.percentile(1),
+                this.percentile(0.05), this.percentile(0.25), this.percentile(0.5),
+                this.percentile(0.75), this.percentile(0.95), this.percentile(0.99));
+    }
+
+    // the results of a tournament read back from the given file, without its bot
+    static Tournament read(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            while (header.hasRemaining() && channel.read(header) != -1) {
+                // keep reading until the header is complete
+            }
+            header.flip();
+            if (header.remaining() < HEADER_BYTES || header.getInt() != MAGIC) {
+                throw new IOException("Not a tournament file: " + file);
+            }
+            int version = header.getInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported tournament file version " + version);
+            }
+            int size = header.getInt();
+            int numColors = header.getInt();
+            int allowed = header.getInt();
+            Tournament results = new Tournament(null, size, numColors, header.getLong(),
+                    header.getLong(), 1);
+            results.allowed = allowed;  // as it was when the games were played
+
+            ByteBuffer records = ByteBuffer.allocate(BATCH * RECORD_BYTES);
+            long[] counts = new long[results.histogram.length];
+            boolean ended = false;
+            while (!ended) {
+                ended = channel.read(records) == -1;
+                records.flip();
+                while (records.remaining() >= RECORD_BYTES) {
+                    records.getLong();
+                    counts[records.getShort() & (WON - 1)]++;
+                }
+                if (ended && records.hasRemaining()) {
+                    throw new IOException("Tournament file ends inside a record: " + file);
+                }
+                records.compact();
+            }
+            for (int moves = 0; moves < counts.length; moves++) {
+                results.record(moves, counts);
+            }
+            return results;
+        }
+        finally {
+            channel.close();
+        }
+    }
+
+    // the bot with the given name
+    static FloodBot bot(String name) {
+        if (name.equals("greedy")) {
+            return new GreedyBot();
+        }
+        else if (name.equals("random")) {
+            return new RandomBot();
+        }
+        else if (name.equals("cycle")) {
+            return new CycleBot();
+        }
+        throw new IllegalArgumentException("Unknown bot: " + name);
+    }
+
+    // plays a tournament and prints its report, or prints the report of a finished one
+    // arguments: bot games size colors firstSeed file [threads], or: report file
+    public static void main(String[] args) throws IOException {
+        if (args.length == 2 && args[0].equals("report")) {
+            System.out.print(Tournament.read(Paths.get(args[1])).report());
+            return;
+        }
+        if (args.length < 6) {
+            System.err.println("usage: Tournament bot games size colors firstSeed file [threads]");
+            System.err.println("       Tournament report file");
+            System.exit(2);
+        }
+        int threads = args.length > 6 ? Integer.parseInt(args[6])
+                : Runtime.getRuntime().availableProcessors();
+        Tournament tournament = new Tournament(Tournament.bot(args[0]), Integer.parseInt(args[2]),
+                Integer.parseInt(args[3]), Long.parseLong(args[4]), Long.parseLong(args[1]), threads);
+        long started = System.nanoTime();
+        tournament.run(Paths.get(args[5]));
+        System.out.print(tournament.report());
+        System.out.printf("played in %d ms on %d threads%n",
+                (System.nanoTime() - started) / 1000000, threads);
+    }
+}
@@ -0,0 +1,150 @@
+// the part of a board that fits on screen: a square window of pixels showing
+// the cells from a top left cell on, each drawn as a square of the current
+// zoom; boards no bigger than the window are shown whole, exactly as before
+
+class Viewport {
+    static final int MIN_CELL_SIZE = 1;     // pixels per cell when zoomed all the way out
+    static final int MAX_CELL_SIZE = 40;    // pixels per cell when zoomed all the way in
+
+    int boardSize;      // number of cells along one side of the board
+    int pixels;         // width and height of the window
+    int cellSize;       // pixels along one side of a cell
+    int col;            // column of the top left visible cell
+    int row;            // row of the top left visible cell
+
+    // viewport constructor, showing the top left corner of the board
+    Viewport(int boardSize, int pixels, int cellSize) {
+        if (cellSize < MIN_CELL_SIZE || cellSize > MAX_CELL_SIZE) {
+            throw new IllegalArgumentException("Cannot draw cells " + cellSize + " pixels wide");
+        }
+        this.boardSize = boardSize;
+        this.pixels = pixels;
+        this.cellSize = cellSize;
+        this.col = 0;
+        this.row = 0;
+    }
+
+    /* TMPLT
+     * Fields
+     *   Viewport.MIN_CELL_SIZE  1
+     *   Viewport.MAX_CELL_SIZE  40
+     *   this.boardSize          int
+     *   this.pixels             int
+     *   this.cellSize           int
+     *   this.col                int
+     *   this.row                int
+     * Methods:
+     *   this.cols()                 - int
+     *   this.rows()                 - int
+     *   this.visibleCells()         - int
+     *   this.showsAll()             - boolean
+     *   this.slot(int)              - int
+     *   this.cellAt(int)            - int
+     *   this.screenX(int)           - int
+     *   this.screenY(int)           - int
+     *   this.indexAt(int, int)      - int
+     *   this.scroll(int, int)       - boolean
+     *   this.zoom(boolean)          - boolean
+     *   this.clamp()                - void
+     */
+    // the number of columns of cells in the window
+    int cols() {
+        return Math.min(this.boardSize - this.col, this.pixels / this.cellSize);
+    }
+
+    // the number of rows of cells in the window
+    int rows() {
+        return Math.min(this.boardSize - this.row, this.pixels / this.cellSize);
+    }
+
+    // the number of cells in the window
+    int visibleCells() {
+        return this.cols() * this.rows();
+    }
+
+    // is every cell of the board in the window?
+    boolean showsAll() {
+        return this.visibleCells() == this.boardSize * this.boardSize;
+    }
+
+    // the position of the given cell among the visible ones, row by row, or -1
+    // when it is outside the window
+    int slot(int i) {
+        int c = i % this.boardSize - this.col;
+        int r = i / this.boardSize - this.row;
+        int cols = this.cols();
+        if (c < 0 || r < 0 || c >= cols || r >= this.rows()) {
+            return -1;
+        }
+        return r * cols + c;
+    }
+
+    // the cell at the given position among the visible ones
+    int cellAt(int slot) {
+        int cols = this.cols();
+        return (this.row + slot / cols) * this.boardSize + this.col + slot % cols;
+    }
+
+    // the x coordinate of the middle of the given visible cell
+    int screenX(int i) {
+        return (i % this.boardSize - this.col) * this.cellSize + (this.cellSize / 2);
+    }
+
+    // the y coordinate of the middle of the given visible cell
+    int screenY(int i) {
+        return (i / this.boardSize - this.row) * this.cellSize + (this.cellSize / 2);
+    }
+
+    // the cell under the given pixel, or -1 when the pixel shows no cell; like
+    // FloodBoard.indexAt, a square includes its right and bottom edges
+    int indexAt(int x, int y) {
+        if (x <= 0 || y <= 0) {
+            return -1;
+        }
+        int c = (x - 1) / this.cellSize;
+        int r = (y - 1) / this.cellSize;
+        if (c >= this.cols() || r >= this.rows()) {
+            return -1;
+        }
+        return (this.row + r) * this.boardSize + this.col + c;
+    }
+
+    // moves the window by the given number of cells, stopping at the edges of the board
+    // EFFECT: modifies the top left visible cell
+    // returns whether the window moved
+    boolean scroll(int cols, int rows) {
+        int oldCol = this.col;
+        int oldRow = this.row;
+        this.col += cols;
+        this.row += rows;
+        this.clamp();
+        return this.col != oldCol || this.row != oldRow;
+    }
+
+    // doubles the size of the cells when zooming in or halves it when zooming
+    // out, keeping the cell in the middle of the window where it is
+    // EFFECT: modifies the cell size and the top left visible cell
+    // returns whether the zoom changed
+    boolean zoom(boolean in) {
+        int size = in ? Math.min(MAX_CELL_SIZE, this.cellSize * 2)
+                : Math.max(MIN_CELL_SIZE, this.cellSize / 2);
+        if (size == this.cellSize) {
+            return false;
+        }
+        int middle = this.pixels / 2;
+        int middleCol = this.col + middle / this.cellSize;
+        int middleRow = this.row + middle / this.cellSize;
+        this.cellSize = size;
+        this.col = middleCol - middle / size;
+        this.row = middleRow - middle / size;
+        this.clamp();
+        return true;
+    }
+
+    // EFFECT: moves the window back onto the board, filling it with cells where it can
+    void clamp() {
+        int span = this.pixels / this.cellSize;
+        this.col = Math.max(0, Math.min(this.col, this.boardSize - span));
+        this.row = Math.max(0, Math.min(this.row, this.boardSize - span));
+    }
+}